@@ -0,0 +1,12 @@
+# Release logging rules
+# Strip verbose/debug Logger calls (including argument construction at call sites).
+# Logger.DEBUG_LOGS already compiles the bodies out; these rules also remove
+# the string concatenation and boxing done by callers before the call.
+
+-assumenosideeffects class com.victory.poolassistant.core.Logger {
+    public static void v(...);
+    public static void d(...);
+    public static void memory(...);
+    public static void perf(...);
+    public static void network(...);
+}
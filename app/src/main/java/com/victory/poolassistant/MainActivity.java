@@ -95,6 +95,9 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
         
+        // Cold-start report: catat frame pertama
+        app.getStartup().trackFirstFrame(getWindow().getDecorView());
+        
         Logger.d(TAG, "Components initialized");
     }
     
@@ -192,8 +195,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
      * ADDED: Check if overlay service is currently running
      */
     private void checkOverlayServiceStatus() {
-        FloatingOverlayService service = FloatingOverlayService.getInstance();
-        isOverlayServiceRunning = (service != null && service.isOverlayVisible());
+        isOverlayServiceRunning = FloatingOverlayService.isOverlayRunning();
         Logger.d(TAG, "Overlay service status: " + isOverlayServiceRunning);
     }
     
@@ -251,8 +253,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         
         try {
             // Create intent for overlay service
-            Intent serviceIntent = new Intent(this, FloatingOverlayService.class);
-            serviceIntent.setAction(FloatingOverlayService.ACTION_START_OVERLAY);
+            Intent serviceIntent = FloatingOverlayService.createIntent(this, FloatingOverlayService.ACTION_START_OVERLAY);
             
             // Start foreground service
             startForegroundService(serviceIntent);
@@ -292,16 +293,9 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         animateFab(true);
         
         try {
-            // Stop service via intent
-            Intent serviceIntent = new Intent(this, FloatingOverlayService.class);
-            serviceIntent.setAction(FloatingOverlayService.ACTION_STOP_OVERLAY);
-            startService(serviceIntent);
-            
-            // Also try direct service shutdown
-            FloatingOverlayService service = FloatingOverlayService.getInstance();
-            if (service != null) {
-                service.stopSelf();
-            }
+            // Stop service di kedua mode (works across the ":overlay" process boundary);
+            // onDestroy melepas overlay
+            FloatingOverlayService.stopOverlayServices(this);
             
             // Check status after delay
             uiHandler.postDelayed(() -> {
@@ -418,12 +412,8 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
             if (isError && !permissionsGranted) {
                 snackbar.setAction("Grant Permission", v -> requestOverlayPermission());
             } else if (isOverlayServiceRunning) {
-                snackbar.setAction("Hide", v -> {
-                    FloatingOverlayService service = FloatingOverlayService.getInstance();
-                    if (service != null) {
-                        service.hideOverlay();
-                    }
-                });
+                snackbar.setAction("Hide", v -> startService(
+                    FloatingOverlayService.createIntent(this, FloatingOverlayService.ACTION_STOP_OVERLAY)));
             }
         }
         
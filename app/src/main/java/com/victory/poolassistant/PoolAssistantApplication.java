@@ -3,13 +3,23 @@ package com.victory.poolassistant;
 import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 import androidx.appcompat.app.AppCompatDelegate;
 import com.victory.poolassistant.core.AppConfig;
 import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.core.ProcessSync;
+import com.victory.poolassistant.core.StartupOrchestrator;
+import com.victory.poolassistant.core.Tracer;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+import com.victory.poolassistant.utils.GameDetector;
 import com.victory.poolassistant.utils.ThemeManager;
 import com.victory.poolassistant.utils.RootManager;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Pool Assistant Application Class
@@ -18,76 +28,94 @@ import com.victory.poolassistant.utils.RootManager;
 public class PoolAssistantApplication extends Application {
     
     private static final String TAG = "PoolAssistantApp";
+    private static final String OVERLAY_PROCESS_SUFFIX = ":overlay";
     private static PoolAssistantApplication instance;
     private static Handler mainHandler;
+    private static boolean overlayProcess;
     
-    // App managers
+    // App managers (dibuat lazy / di background oleh startup stages)
     private ThemeManager themeManager;
-    private RootManager rootManager;
-    private SharedPreferences preferences;
+    private volatile RootManager rootManager;
+    private StartupOrchestrator startup;
     
     @Override
     public void onCreate() {
         super.onCreate();
         
-        // Set instance
-        instance = this;
-        mainHandler = new Handler(Looper.getMainLooper());
-        
-        // Initialize core components
-        initializeCore();
-        
-        // Initialize managers
-        initializeManagers();
-        
-        // Setup theme
-        setupTheme();
-        
-        // Initialize app config
-        AppConfig.initialize(this);
-        
-        Logger.i(TAG, "Pool Assistant Application initialized");
-        Logger.i(TAG, "Version: " + BuildConfig.VERSION_NAME + " (" + BuildConfig.VERSION_CODE + ")");
-        Logger.i(TAG, "Build Type: " + BuildConfig.BUILD_TYPE_NAME);
-        Logger.i(TAG, "Root Features: " + BuildConfig.ROOT_FEATURES);
-        Logger.i(TAG, "Obfuscated: " + BuildConfig.OBFUSCATED);
+        Tracer.begin("Application.onCreate");
+        try {
+            // Set instance
+            instance = this;
+            mainHandler = new Handler(Looper.getMainLooper());
+            overlayProcess = currentProcessName().endsWith(OVERLAY_PROCESS_SUFFIX);
+            
+            if (overlayProcess) {
+                // Minimal init path: hanya yang dibutuhkan overlay service
+                startup = new StartupOrchestrator()
+                    .add("logger", StartupOrchestrator.STAGE_CRITICAL, this::initializeLogger)
+                    .add("appConfig", StartupOrchestrator.STAGE_CRITICAL, () -> AppConfig.initialize(this), "logger")
+                    .add("processSync", StartupOrchestrator.STAGE_CRITICAL, () -> ProcessSync.initialize(this), "appConfig")
+                    .add("gameProfiles", StartupOrchestrator.STAGE_CRITICAL,
+                        () -> GameProfileRepository.getInstance().initialize(), "appConfig")
+                    .add("gameDetector", StartupOrchestrator.STAGE_CRITICAL, () -> GameDetector.initialize(this), "processSync");
+                startup.start();
+                return;
+            }
+            
+            startup = new StartupOrchestrator()
+                // Critical path: semua yang dibutuhkan untuk frame pertama
+                .add("logger", StartupOrchestrator.STAGE_CRITICAL, this::initializeLogger)
+                .add("appConfig", StartupOrchestrator.STAGE_CRITICAL, () -> AppConfig.initialize(this), "logger")
+                .add("theme", StartupOrchestrator.STAGE_CRITICAL, this::setupTheme, "appConfig")
+                // Deferred: tidak dibutuhkan untuk menggambar home screen
+                .add("rootManager", StartupOrchestrator.STAGE_BACKGROUND, this::initializeRootManager, "logger")
+                .add("gameProfiles", StartupOrchestrator.STAGE_BACKGROUND,
+                    () -> GameProfileRepository.getInstance().initialize(), "appConfig")
+                .add("buildInfo", StartupOrchestrator.STAGE_IDLE, this::logBuildInfo, "logger")
+                .add("processSync", StartupOrchestrator.STAGE_IDLE, () -> ProcessSync.initialize(this), "appConfig")
+                .add("gameDetector", StartupOrchestrator.STAGE_IDLE, () -> GameDetector.initialize(this), "processSync");
+            startup.start();
+        } finally {
+            Tracer.end();
+        }
     }
     
     /**
-     * Initialize core components
+     * Initialize logger
      */
-    private void initializeCore() {
-        // Initialize preferences
-        preferences = getSharedPreferences(AppConfig.PREF_NAME, Context.MODE_PRIVATE);
-        
-        // Initialize logger
-        Logger.initialize(BuildConfig.DEBUG_MODE);
-        
+    private void initializeLogger() {
+        // Setiap process punya log directory sendiri (satu writer per file)
+        Logger.initialize(BuildConfig.DEBUG_MODE, new File(getFilesDir(), overlayProcess ? "logs_overlay" : "logs"));
         Logger.d(TAG, "Core components initialized");
     }
     
     /**
-     * Initialize app managers
+     * Initialize root manager (only for pro version, background stage)
      */
-    private void initializeManagers() {
-        // Initialize theme manager
-        themeManager = new ThemeManager(this);
-        
-        // Initialize root manager (only for pro version)
+    private void initializeRootManager() {
         if (BuildConfig.ROOT_FEATURES) {
             rootManager = new RootManager();
             Logger.d(TAG, "Root manager initialized");
         }
-        
-        Logger.d(TAG, "App managers initialized");
+    }
+    
+    /**
+     * Log build info (idle stage)
+     */
+    private void logBuildInfo() {
+        Logger.i(TAG, "Pool Assistant Application initialized");
+        Logger.i(TAG, "Version: " + BuildConfig.VERSION_NAME + " (" + BuildConfig.VERSION_CODE + ")");
+        Logger.i(TAG, "Build Type: " + BuildConfig.BUILD_TYPE_NAME);
+        Logger.i(TAG, "Root Features: " + BuildConfig.ROOT_FEATURES);
+        Logger.i(TAG, "Obfuscated: " + BuildConfig.OBFUSCATED);
     }
     
     /**
      * Setup app theme based on user preferences
      */
     private void setupTheme() {
-        // Get theme preference
-        String themePref = preferences.getString(AppConfig.PREF_THEME, AppConfig.THEME_SYSTEM);
+        // Get theme preference (dari settings snapshot, tanpa SharedPreferences read)
+        String themePref = AppConfig.getCurrentTheme();
         
         // Apply theme
         switch (themePref) {
@@ -106,6 +134,31 @@ public class PoolAssistantApplication extends Application {
         Logger.d(TAG, "Theme applied: " + themePref);
     }
     
+    /**
+     * Get current process name
+     */
+    private String currentProcessName() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            return Application.getProcessName();
+        }
+        try (InputStream in = new FileInputStream("/proc/self/cmdline")) {
+            byte[] buffer = new byte[256];
+            int length = in.read(buffer);
+            int end = 0;
+            while (end < length && buffer[end] != 0) end++;
+            return new String(buffer, 0, end);
+        } catch (IOException e) {
+            return getPackageName();
+        }
+    }
+    
+    /**
+     * Check if this is the lean ":overlay" process
+     */
+    public static boolean isOverlayProcess() {
+        return overlayProcess;
+    }
+    
     /**
      * Get application instance
      */
@@ -132,24 +185,34 @@ public class PoolAssistantApplication extends Application {
     }
     
     /**
-     * Get theme manager
+     * Get theme manager (dibuat saat pertama dipakai)
      */
     public ThemeManager getThemeManager() {
+        if (themeManager == null) {
+            themeManager = new ThemeManager(this);
+        }
         return themeManager;
     }
     
     /**
-     * Get root manager (pro version only)
+     * Get root manager (pro version only). Null sampai background stage selesai
      */
     public RootManager getRootManager() {
         return rootManager;
     }
     
+    /**
+     * Get startup orchestrator (cold-start report)
+     */
+    public StartupOrchestrator getStartup() {
+        return startup;
+    }
+    
     /**
      * Get app preferences
      */
     public SharedPreferences getPreferences() {
-        return preferences;
+        return getSharedPreferences(AppConfig.PREF_NAME, Context.MODE_PRIVATE);
     }
     
     /**
@@ -187,6 +250,7 @@ public class PoolAssistantApplication extends Application {
     public void onLowMemory() {
         super.onLowMemory();
         Logger.w(TAG, "Low memory warning received");
+        AppConfig.flushSettings();
         // Cleanup non-essential resources
         System.gc();
     }
@@ -196,6 +260,9 @@ public class PoolAssistantApplication extends Application {
         super.onTrimMemory(level);
         Logger.d(TAG, "Memory trim requested, level: " + level);
         
+        // Jangan biarkan settings pending hilang kalau process di-kill
+        AppConfig.flushSettings();
+        
         switch (level) {
             case TRIM_MEMORY_RUNNING_MODERATE:
             case TRIM_MEMORY_RUNNING_LOW:
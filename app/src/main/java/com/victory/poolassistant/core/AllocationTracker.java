@@ -0,0 +1,145 @@
+package com.victory.poolassistant.core;
+
+import android.os.Debug;
+
+import com.victory.poolassistant.BuildConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-frame allocation counter (debug builds only)
+ * Mengukur jumlah object yang dialokasikan thread selama satu frame.
+ * Target steady-state adalah 0 alokasi per frame.
+ */
+public final class AllocationTracker {
+    
+    private static final String TAG = "AllocationTracker";
+    
+    // Compile-time constant, seluruh tracking hilang di release build
+    public static final boolean ENABLED = BuildConfig.DEBUG_MODE;
+    
+    // Log ringkasan setiap N frame
+    private static final int REPORT_INTERVAL_FRAMES = 600;
+    
+    private static final List<Probe> probes = new ArrayList<>();
+    private static boolean counting = false;
+    
+    private AllocationTracker() {
+    }
+    
+    /**
+     * Allocation probe untuk satu draw loop. Setiap probe hanya boleh dipakai
+     * dari satu thread karena memakai thread allocation counter
+     */
+    public static final class Probe {
+        private final String name;
+        private int startCount;
+        
+        private volatile long frames;
+        private volatile long totalAllocations;
+        private volatile long framesWithAllocations;
+        private volatile int lastAllocations;
+        private volatile int maxAllocations;
+        
+        private Probe(String name) {
+            this.name = name;
+        }
+        
+        /**
+         * Mark frame start
+         */
+        public void beginFrame() {
+            if (!ENABLED) return;
+            startCount = threadAllocCount();
+        }
+        
+        /**
+         * Mark frame end dan catat alokasi sejak beginFrame
+         */
+        public void endFrame() {
+            if (!ENABLED) return;
+            
+            int allocations = threadAllocCount() - startCount;
+            frames++;
+            lastAllocations = allocations;
+            totalAllocations += allocations;
+            if (allocations > 0) {
+                framesWithAllocations++;
+            }
+            if (allocations > maxAllocations) {
+                maxAllocations = allocations;
+            }
+            
+            if (frames % REPORT_INTERVAL_FRAMES == 0) {
+                report();
+            }
+        }
+        
+        private void report() {
+            if (framesWithAllocations > 0) {
+                Logger.w(TAG, describe());
+            } else {
+                Logger.d(TAG, describe());
+            }
+        }
+        
+        /**
+         * Get probe summary
+         */
+        public String describe() {
+            long frameCount = frames;
+            float average = frameCount > 0 ? (float) totalAllocations / frameCount : 0f;
+            return String.format(
+                "%s - Frames: %d, Allocating frames: %d, Avg: %.2f, Max: %d, Last: %d",
+                name, frameCount, framesWithAllocations, average, maxAllocations, lastAllocations
+            );
+        }
+    }
+    
+    /**
+     * Register probe baru. Mengembalikan probe no-op di release build
+     */
+    public static synchronized Probe register(String name) {
+        Probe probe = new Probe(name);
+        if (ENABLED) {
+            if (!counting) {
+                startAllocCounting();
+                counting = true;
+            }
+            probes.add(probe);
+        }
+        return probe;
+    }
+    
+    // Debug alloc counting deprecated tanpa pengganti per-thread di public API
+    // (getRuntimeStat hanya process-wide). Hanya dipanggil jika ENABLED (debug
+    // build), jadi suppression dibatasi ke dua wrapper ini
+    @SuppressWarnings("deprecation")
+    private static void startAllocCounting() {
+        Debug.startAllocCounting();
+    }
+    
+    @SuppressWarnings("deprecation")
+    private static int threadAllocCount() {
+        return Debug.getThreadAllocCount();
+    }
+    
+    /**
+     * Get report semua probe untuk stats screen
+     */
+    public static synchronized String getReport() {
+        if (!ENABLED) {
+            return "Allocation tracking disabled (release build)";
+        }
+        if (probes.isEmpty()) {
+            return "No frames recorded";
+        }
+        
+        StringBuilder report = new StringBuilder();
+        for (Probe probe : probes) {
+            report.append(probe.describe()).append("\n");
+        }
+        return report.toString().trim();
+    }
+}
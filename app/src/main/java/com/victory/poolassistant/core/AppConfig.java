@@ -3,6 +3,23 @@ package com.victory.poolassistant.core;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import com.victory.poolassistant.BuildConfig;
+import com.victory.poolassistant.data.model.SettingsSnapshot;
+import com.victory.poolassistant.data.repository.SettingsCodec;
+import com.victory.poolassistant.data.repository.SettingsRepository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * App Configuration Constants and Settings
  */
@@ -18,7 +35,7 @@ public class AppConfig {
     public static final String VERSION_NAME = "2.0.0";  
     public static final int VERSION_CODE = 20000;
     
-    // Preferences
+    // Preferences (tulis hanya lewat SettingsRepository, lihat single-writer rule di sana)
     public static final String PREF_NAME = "pool_assistant_prefs";
     
     // Theme Constants
@@ -32,6 +49,7 @@ public class AppConfig {
     public static final String PREF_LAST_VERSION = "last_version";
     public static final String PREF_OVERLAY_ENABLED = "overlay_enabled";
     public static final String PREF_ROOT_MODE = "root_mode";
+    public static final String PREF_OVERLAY_PROCESS = "overlay_separate_process";
     
     // Overlay Settings
     public static final String PREF_OVERLAY_OPACITY = "overlay_opacity";
@@ -69,6 +87,8 @@ public class AppConfig {
     public static final int DEFAULT_OVERLAY_OPACITY = 80;
     public static final int DEFAULT_TRAJECTORY_COLOR = 0xFF00FF00; // Green
     public static final int DEFAULT_LINE_THICKNESS = 3;
+    public static final int MIN_LINE_THICKNESS = 1;
+    public static final int MAX_LINE_THICKNESS = 20;
     public static final int DEFAULT_ANIMATION_SPEED = 50;
     public static final int DEFAULT_FRAME_RATE = 60;
     public static final int DEFAULT_DETECTION_SENSITIVITY = 75;
@@ -97,8 +117,43 @@ public class AppConfig {
     // App State
     private static Context context;
     private static SharedPreferences preferences;
+    private static SettingsRepository repository;
     private static boolean initialized = false;
     
+    // Settings snapshot (immutable, di-publish atomically)
+    private static volatile SettingsSnapshot settings = SettingsSnapshot.DEFAULTS;
+    private static final Object settingsLock = new Object();
+    private static final CopyOnWriteArrayList<SettingsListener> settingsListeners =
+        new CopyOnWriteArrayList<>();
+    private static final CopyOnWriteArrayList<ResetListener> resetListeners =
+        new CopyOnWriteArrayList<>();
+    private static final CopyOnWriteArrayList<StoredKeysListener> storedKeysListeners =
+        new CopyOnWriteArrayList<>();
+    
+    /**
+     * Settings change listener. Dipanggil di thread yang melakukan perubahan
+     */
+    public interface SettingsListener {
+        void onSettingsChanged(SettingsSnapshot oldSettings, SettingsSnapshot newSettings);
+    }
+    
+    /**
+     * Reset listener. Dipanggil setelah key di luar snapshot (mis. override
+     * profile) diganti sekaligus: reset ke default atau import backup.
+     * Listener load ulang state-nya dari preference
+     */
+    public interface ResetListener {
+        void onSettingsReset();
+    }
+    
+    /**
+     * Listener untuk key di luar snapshot yang diterapkan dari peer process
+     * (lihat applyRemoteSettings). Hanya key yang ada di batch yang dilaporkan
+     */
+    public interface StoredKeysListener {
+        void onStoredKeysChanged(Set<String> keys);
+    }
+    
     /**
      * Initialize app config
      */
@@ -107,6 +162,7 @@ public class AppConfig {
         
         context = appContext.getApplicationContext();
         preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        repository = new SettingsRepository(preferences);
         initialized = true;
         
         // Check if this is first launch
@@ -116,67 +172,72 @@ public class AppConfig {
         
         // Update last version
         updateLastVersion();
+        
+        // Load snapshot sekali; setelah ini typed getters tidak membaca SharedPreferences
+        publishSettings(SettingsSnapshot.fromPreferences(preferences));
     }
     
     /**
      * Check if this is the first app launch
      */
     public static boolean isFirstLaunch() {
-        return preferences.getBoolean(PREF_FIRST_LAUNCH, true);
+        return repository.getBoolean(PREF_FIRST_LAUNCH, true);
     }
     
     /**
-     * Setup default preferences on first launch
+     * Setup default preferences on first launch (satu batch di repository)
      */
     private static void setupDefaultPreferences() {
-        SharedPreferences.Editor editor = preferences.edit();
+        repository.putAll(defaultPreferences());
+    }
+    
+    /**
+     * Default preference values (first launch dan reset)
+     */
+    private static Map<String, Object> defaultPreferences() {
+        Map<String, Object> values = new HashMap<>();
         
         // Theme
-        editor.putString(PREF_THEME, THEME_SYSTEM);
+        values.put(PREF_THEME, THEME_SYSTEM);
         
         // Overlay settings
-        editor.putInt(PREF_OVERLAY_OPACITY, DEFAULT_OVERLAY_OPACITY);
-        editor.putInt(PREF_TRAJECTORY_COLOR, DEFAULT_TRAJECTORY_COLOR);
-        editor.putInt(PREF_LINE_THICKNESS, DEFAULT_LINE_THICKNESS);
-        editor.putInt(PREF_ANIMATION_SPEED, DEFAULT_ANIMATION_SPEED);
-        editor.putBoolean(PREF_AUTO_HIDE, true);
+        values.put(PREF_OVERLAY_OPACITY, DEFAULT_OVERLAY_OPACITY);
+        values.put(PREF_TRAJECTORY_COLOR, DEFAULT_TRAJECTORY_COLOR);
+        values.put(PREF_LINE_THICKNESS, DEFAULT_LINE_THICKNESS);
+        values.put(PREF_ANIMATION_SPEED, DEFAULT_ANIMATION_SPEED);
+        values.put(PREF_AUTO_HIDE, true);
         
         // Detection settings
-        editor.putString(PREF_DETECTION_METHOD, DETECTION_HYBRID);
-        editor.putInt(PREF_DETECTION_SENSITIVITY, DEFAULT_DETECTION_SENSITIVITY);
-        editor.putBoolean(PREF_AUTO_START, false);
+        values.put(PREF_DETECTION_METHOD, DETECTION_HYBRID);
+        values.put(PREF_DETECTION_SENSITIVITY, DEFAULT_DETECTION_SENSITIVITY);
+        values.put(PREF_AUTO_START, false);
         
         // Performance settings
-        editor.putInt(PREF_FRAME_RATE, DEFAULT_FRAME_RATE);
-        editor.putBoolean(PREF_BATTERY_OPTIMIZATION, true);
-        editor.putBoolean(PREF_HARDWARE_ACCELERATION, true);
+        values.put(PREF_FRAME_RATE, DEFAULT_FRAME_RATE);
+        values.put(PREF_BATTERY_OPTIMIZATION, true);
+        values.put(PREF_HARDWARE_ACCELERATION, true);
         
         // Floating icon settings
-        editor.putBoolean(PREF_FLOATING_ICON_ENABLED, true);
-        editor.putInt(PREF_ICON_SIZE, DEFAULT_ICON_SIZE);
-        editor.putInt(PREF_ICON_TRANSPARENCY, DEFAULT_ICON_TRANSPARENCY);
+        values.put(PREF_FLOATING_ICON_ENABLED, true);
+        values.put(PREF_ICON_SIZE, DEFAULT_ICON_SIZE);
+        values.put(PREF_ICON_TRANSPARENCY, DEFAULT_ICON_TRANSPARENCY);
         
         // App state
-        editor.putBoolean(PREF_FIRST_LAUNCH, false);
-        editor.putBoolean(PREF_OVERLAY_ENABLED, false);
-        editor.putBoolean(PREF_ROOT_MODE, false);
+        values.put(PREF_FIRST_LAUNCH, false);
+        values.put(PREF_OVERLAY_ENABLED, false);
+        values.put(PREF_ROOT_MODE, false);
         
-        editor.apply();
+        return values;
     }
     
     /**
      * Update last version preference
+     * Version dari BuildConfig (tanpa PackageManager IPC), ditulis hanya jika berubah
      */
     private static void updateLastVersion() {
-        try {
-            String currentVersion = context.getPackageManager()
-                .getPackageInfo(context.getPackageName(), 0).versionName;
-            
-            preferences.edit()
-                .putString(PREF_LAST_VERSION, currentVersion)
-                .apply();
-        } catch (Exception e) {
-            // Silent fail
+        String currentVersion = BuildConfig.VERSION_NAME;
+        if (!currentVersion.equals(repository.getString(PREF_LAST_VERSION, null))) {
+            repository.putString(PREF_LAST_VERSION, currentVersion);
         }
     }
     
@@ -184,49 +245,293 @@ public class AppConfig {
      * Get string preference
      */
     public static String getString(String key, String defaultValue) {
-        return preferences.getString(key, defaultValue);
+        return repository.getString(key, defaultValue);
     }
     
     /**
      * Get int preference
      */
     public static int getInt(String key, int defaultValue) {
-        return preferences.getInt(key, defaultValue);
+        return repository.getInt(key, defaultValue);
     }
     
     /**
      * Get boolean preference
      */
     public static boolean getBoolean(String key, boolean defaultValue) {
-        return preferences.getBoolean(key, defaultValue);
+        return repository.getBoolean(key, defaultValue);
+    }
+    
+    /**
+     * Get float preference
+     */
+    public static float getFloat(String key, float defaultValue) {
+        return repository.getFloat(key, defaultValue);
     }
     
     /**
-     * Set string preference
+     * Set string preference (write-behind, lihat SettingsRepository)
      */
     public static void setString(String key, String value) {
-        preferences.edit().putString(key, value).apply();
+        repository.putString(key, value);
+        applyToSettings(key, value);
     }
     
     /**
-     * Set int preference
+     * Set int preference (write-behind)
      */
     public static void setInt(String key, int value) {
-        preferences.edit().putInt(key, value).apply();
+        repository.putInt(key, value);
+        applyToSettings(key, value);
     }
     
     /**
-     * Set boolean preference
+     * Set boolean preference (write-behind)
      */
     public static void setBoolean(String key, boolean value) {
-        preferences.edit().putBoolean(key, value).apply();
+        repository.putBoolean(key, value);
+        applyToSettings(key, value);
+    }
+    
+    /**
+     * Set float preference (write-behind)
+     */
+    public static void setFloat(String key, float value) {
+        repository.putFloat(key, value);
+        applyToSettings(key, value);
+    }
+    
+    /**
+     * Commit pending settings sekarang (trim memory, service stop).
+     * Future selesai setelah batch tertulis ke disk
+     */
+    public static CompletableFuture<Void> flushSettings() {
+        if (repository == null) return CompletableFuture.completedFuture(null);
+        return repository.flush();
+    }
+    
+    /**
+     * Get settings persistence info
+     */
+    public static String getSettingsInfo() {
+        return repository != null ? repository.getInfo() : "Not initialized";
+    }
+    
+    // =============================================================================
+    // SETTINGS SNAPSHOT
+    // =============================================================================
+    
+    /**
+     * Get current settings snapshot (lock-free, aman dari thread mana pun)
+     */
+    public static SettingsSnapshot getSettings() {
+        return settings;
+    }
+    
+    /**
+     * Replace settings snapshot, persist field yang berubah dan notify listeners
+     */
+    public static void updateSettings(SettingsSnapshot updated) {
+        SettingsSnapshot previous;
+        synchronized (settingsLock) {
+            previous = settings;
+            if (previous == updated) return;
+            persistChanges(previous, updated);
+            settings = updated;
+        }
+        notifySettingsChanged(previous, updated);
+    }
+    
+    public static void addSettingsListener(SettingsListener listener) {
+        if (listener != null && !settingsListeners.contains(listener)) {
+            settingsListeners.add(listener);
+        }
+    }
+    
+    public static void removeSettingsListener(SettingsListener listener) {
+        settingsListeners.remove(listener);
+    }
+    
+    public static void addResetListener(ResetListener listener) {
+        if (listener != null && !resetListeners.contains(listener)) {
+            resetListeners.add(listener);
+        }
+    }
+    
+    public static void removeResetListener(ResetListener listener) {
+        resetListeners.remove(listener);
+    }
+    
+    public static void addStoredKeysListener(StoredKeysListener listener) {
+        if (listener != null && !storedKeysListeners.contains(listener)) {
+            storedKeysListeners.add(listener);
+        }
+    }
+    
+    public static void removeStoredKeysListener(StoredKeysListener listener) {
+        storedKeysListeners.remove(listener);
+    }
+    
+    /**
+     * Apply perubahan settings dari process lain (lihat ProcessSync).
+     * Values berisi semua key yang ditulis peer, bukan hanya field snapshot.
+     * Snapshot di-update dan listener dipanggil; values juga di-queue ke
+     * repository (tanpa diteruskan balik) supaya cache SharedPreferences
+     * process ini tidak menimpa nilai baru dengan nilai lama saat batch
+     * berikutnya ditulis
+     */
+    public static void applyRemoteSettings(Map<String, Object> values) {
+        if (repository == null || values.isEmpty()) return;
+        SettingsSnapshot previous;
+        SettingsSnapshot updated;
+        Set<String> storedKeys = null;
+        synchronized (settingsLock) {
+            previous = settings;
+            SettingsSnapshot.Builder builder = previous.toBuilder();
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                if (!builder.apply(entry.getKey(), entry.getValue())) {
+                    if (storedKeys == null) storedKeys = new HashSet<>();
+                    storedKeys.add(entry.getKey());
+                }
+            }
+            updated = builder.build();
+            repository.applyRemote(values);
+            settings = updated;
+        }
+        notifySettingsChanged(previous, updated);
+        if (storedKeys != null) {
+            // Mis. key "profile.<pkg>.*" yang diedit di peer process
+            notifyStoredKeysChanged(storedKeys);
+        }
+    }
+    
+    /**
+     * Apply reset dari process lain: clear + values di-queue sebagai satu batch
+     * (tanpa diteruskan balik), sehingga cache SharedPreferences process ini
+     * tidak menulis ulang nilai lama di atas reset
+     */
+    public static void applyRemoteReset(Map<String, Object> values) {
+        if (repository == null) return;
+        SettingsSnapshot previous;
+        SettingsSnapshot updated = snapshotOf(values);
+        synchronized (settingsLock) {
+            repository.applyRemoteReplace(values);
+            previous = settings;
+            settings = updated;
+        }
+        notifySettingsChanged(previous, updated);
+        notifySettingsReset();
+    }
+    
+    /**
+     * Listener untuk setiap key yang ditulis di process ini (lihat SettingsRepository)
+     */
+    public static void addWriteListener(SettingsRepository.WriteListener listener) {
+        if (repository != null) {
+            repository.addWriteListener(listener);
+        }
+    }
+    
+    public static void removeWriteListener(SettingsRepository.WriteListener listener) {
+        if (repository != null) {
+            repository.removeWriteListener(listener);
+        }
+    }
+    
+    /**
+     * Copy seluruh settings process ini: snapshot plus semua key yang tersimpan
+     * (termasuk key di luar snapshot dan mutasi write-behind yang masih pending)
+     */
+    public static void copyAllSettings(Map<String, Object> out) {
+        settings.writeTo(out);
+        if (repository != null) {
+            repository.copyAll(out);
+        }
+    }
+    
+    /**
+     * Update satu key di snapshot (no-op jika key bukan bagian snapshot)
+     */
+    private static void applyToSettings(String key, Object value) {
+        SettingsSnapshot previous;
+        SettingsSnapshot updated;
+        synchronized (settingsLock) {
+            previous = settings;
+            SettingsSnapshot.Builder builder = previous.toBuilder();
+            if (!builder.apply(key, value)) return;
+            updated = builder.build();
+            settings = updated;
+        }
+        notifySettingsChanged(previous, updated);
+    }
+    
+    private static void publishSettings(SettingsSnapshot updated) {
+        SettingsSnapshot previous;
+        synchronized (settingsLock) {
+            previous = settings;
+            settings = updated;
+        }
+        notifySettingsChanged(previous, updated);
+    }
+    
+    private static void notifySettingsChanged(SettingsSnapshot previous, SettingsSnapshot updated) {
+        for (SettingsListener listener : settingsListeners) {
+            try {
+                listener.onSettingsChanged(previous, updated);
+            } catch (Exception e) {
+                Logger.e("AppConfig", "Settings listener failed", e);
+            }
+        }
+    }
+    
+    private static void notifySettingsReset() {
+        for (ResetListener listener : resetListeners) {
+            try {
+                listener.onSettingsReset();
+            } catch (Exception e) {
+                Logger.e("AppConfig", "Reset listener failed", e);
+            }
+        }
+    }
+    
+    private static void notifyStoredKeysChanged(Set<String> keys) {
+        for (StoredKeysListener listener : storedKeysListeners) {
+            try {
+                listener.onStoredKeysChanged(keys);
+            } catch (Exception e) {
+                Logger.e("AppConfig", "Stored keys listener failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Snapshot dari default values (key lain memakai default Builder)
+     */
+    private static SettingsSnapshot snapshotOf(Map<String, Object> values) {
+        SettingsSnapshot.Builder builder = new SettingsSnapshot.Builder();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            builder.apply(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Queue hanya field yang berbeda (ditulis dalam satu batch)
+     */
+    private static void persistChanges(SettingsSnapshot a, SettingsSnapshot b) {
+        if (repository == null) return;
+        Map<String, Object> changed = new HashMap<>();
+        b.diff(a, changed);
+        if (!changed.isEmpty()) {
+            repository.putAll(changed);
+        }
     }
     
     /**
      * Get current theme
      */
     public static String getCurrentTheme() {
-        return getString(PREF_THEME, THEME_SYSTEM);
+        return settings.getTheme();
     }
     
     /**
@@ -247,53 +552,117 @@ public class AppConfig {
      * Get overlay opacity (0-100)
      */
     public static int getOverlayOpacity() {
-        return getInt(PREF_OVERLAY_OPACITY, DEFAULT_OVERLAY_OPACITY);
+        return settings.getOverlayOpacity();
     }
     
     /**
      * Get trajectory color
      */
     public static int getTrajectoryColor() {
-        return getInt(PREF_TRAJECTORY_COLOR, DEFAULT_TRAJECTORY_COLOR);
+        return settings.getTrajectoryColor();
     }
     
     /**
      * Get detection method
      */
     public static String getDetectionMethod() {
-        return getString(PREF_DETECTION_METHOD, DETECTION_HYBRID);
+        return settings.getDetectionMethod();
+    }
+    
+    /**
+     * Check if overlay service harus berjalan di process ":overlay"
+     */
+    public static boolean isOverlayProcessEnabled() {
+        return getBoolean(PREF_OVERLAY_PROCESS, false);
     }
     
     /**
      * Check if floating icon is enabled
      */
     public static boolean isFloatingIconEnabled() {
-        return getBoolean(PREF_FLOATING_ICON_ENABLED, true);
+        return settings.isFloatingIconEnabled();
     }
     
     /**
      * Reset all preferences to defaults
+     * Clear + defaults ditulis sebagai satu batch lewat repository (writer thread),
+     * jadi tidak ada batch lama yang bisa tertulis sesudah reset. Reset juga
+     * diteruskan ke peer process lewat WriteListener (ProcessSync)
      */
     public static void resetToDefaults() {
-        preferences.edit().clear().apply();
-        setupDefaultPreferences();
+        Map<String, Object> defaults = defaultPreferences();
+        SettingsSnapshot previous;
+        SettingsSnapshot updated = snapshotOf(defaults);
+        synchronized (settingsLock) {
+            repository.replaceAll(defaults);
+            previous = settings;
+            settings = updated;
+        }
+        notifySettingsChanged(previous, updated);
+        notifySettingsReset();
+        repository.flush();
     }
     
     /**
-     * Export preferences (for backup)
+     * Export preferences (for backup) sebagai JSON string
      */
     public static String exportPreferences() {
-        // Implementation would serialize all preferences to JSON
-        // For now, return empty string
-        return "{}";
+        StringWriter out = new StringWriter();
+        try {
+            exportPreferences(out);
+        } catch (IOException e) {
+            Logger.e("AppConfig", "Settings export failed", e);
+            return "{}";
+        }
+        return out.toString();
+    }
+    
+    /**
+     * Stream export ke writer (file backup)
+     */
+    public static void exportPreferences(Writer out) throws IOException {
+        SettingsCodec.write(out, repository);
     }
     
     /**
      * Import preferences (from backup)
      */
     public static boolean importPreferences(String data) {
-        // Implementation would deserialize JSON and restore preferences
-        // For now, return false
-        return false;
+        if (data == null) return false;
+        return importPreferences(new StringReader(data));
+    }
+    
+    /**
+     * Stream import dari reader. All-or-nothing: jika satu value invalid, tidak ada yang ditulis
+     */
+    public static boolean importPreferences(Reader in) {
+        SettingsCodec.ImportResult result = SettingsCodec.read(in);
+        if (!result.isValid()) {
+            Logger.w("AppConfig", "Settings import rejected: " + result.getErrors());
+            return false;
+        }
+        
+        Map<String, Object> values = result.getValues();
+        SettingsSnapshot previous;
+        SettingsSnapshot updated;
+        synchronized (settingsLock) {
+            // Satu batch di repository -> satu commit
+            repository.putAll(values);
+            previous = settings;
+            SettingsSnapshot.Builder builder = previous.toBuilder();
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                builder.apply(entry.getKey(), entry.getValue());
+            }
+            updated = builder.build();
+            settings = updated;
+        }
+        notifySettingsChanged(previous, updated);
+        // Override profile ikut di-import
+        notifySettingsReset();
+        repository.flush();
+        
+        Logger.i("AppConfig", "Settings imported: " + values.size() + " keys (schema v" +
+            result.getSourceVersion() + ", " + result.getIgnoredKeys() + " ignored)");
+        return true;
     }
 }
\ No newline at end of file
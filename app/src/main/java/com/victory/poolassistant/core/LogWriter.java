@@ -0,0 +1,397 @@
+package com.victory.poolassistant.core;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background file log writer
+ * Caller hanya memasukkan record ke bounded lock-free ring buffer; satu writer
+ * thread men-drain record secara batch lewat satu FileChannel, lalu rotate
+ * file berdasarkan ukuran/umur, compress file lama (gzip) dan membatasi total disk.
+ */
+final class LogWriter implements Runnable {
+    
+    private static final String TAG = "PoolAssistant-LogWriter";
+    
+    // Ring buffer (power of two)
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_BATCH = 256;
+    
+    // Flush / rotation policy
+    private static final long FLUSH_INTERVAL_NANOS = 250_000_000L;
+    private static final long MAX_FILE_BYTES = 1024 * 1024;
+    private static final long MAX_FILE_AGE_MS = 24L * 60 * 60 * 1000;
+    private static final long MAX_TOTAL_BYTES = 5 * 1024 * 1024;
+    private static final String ACTIVE_SUFFIX = ".log";
+    private static final String ROTATED_SUFFIX = ".log.gz";
+    // Sidecar berisi waktu active file dibuka (epoch millis)
+    private static final String OPENED_SUFFIX = ".log.opened";
+    
+    /**
+     * Preallocated slot, di-reuse untuk setiap record
+     */
+    private static final class Record {
+        long timestamp;
+        int level;
+        String tag;
+        String message;
+    }
+    
+    private final File logDir;
+    private final String baseName;
+    private final Record[] slots = new Record[CAPACITY];
+    private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalDropped = new AtomicLong();
+    private long head = 0;
+    
+    private volatile boolean running = true;
+    private volatile boolean clearRequested = false;
+    private final Thread thread;
+    
+    // Writer-thread only state
+    private final SimpleDateFormat timestampFormat =
+        new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+    private final SimpleDateFormat rotationFormat =
+        new SimpleDateFormat("yyyyMMdd_HHmmss_SSS", Locale.US);
+    private final Date date = new Date();
+    private final StringBuilder lineBuilder = new StringBuilder(4096);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer byteBuffer = ByteBuffer.allocate(16 * 1024);
+    private FileChannel channel;
+    private File activeFile;
+    private File openedFile;
+    private long activeOpenedAt;
+    
+    LogWriter(File logDir, String fileName) {
+        this.logDir = logDir;
+        this.baseName = fileName.endsWith(ACTIVE_SUFFIX)
+            ? fileName.substring(0, fileName.length() - ACTIVE_SUFFIX.length())
+            : fileName;
+        
+        for (int i = 0; i < CAPACITY; i++) {
+            slots[i] = new Record();
+            sequences.set(i, i);
+        }
+        
+        thread = new Thread(this, "LogWriter");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+    
+    /**
+     * Enqueue record tanpa blocking. Return false (dan hitung drop) jika buffer penuh
+     */
+    boolean enqueue(int level, String tag, String message) {
+        long pos = tail.get();
+        int index;
+        while (true) {
+            index = (int) (pos & MASK);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                totalDropped.incrementAndGet();
+                return false;
+            }
+            pos = tail.get();
+        }
+        
+        Record record = slots[index];
+        record.timestamp = System.currentTimeMillis();
+        record.level = level;
+        record.tag = tag;
+        record.message = message;
+        sequences.lazySet(index, pos + 1);
+        
+        // Bangunkan writer lebih awal kalau buffer mulai penuh
+        if ((pos & (CAPACITY / 2 - 1)) == 0) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+    
+    /**
+     * Hapus semua log file (dijalankan di writer thread)
+     */
+    void requestClear() {
+        clearRequested = true;
+        LockSupport.unpark(thread);
+    }
+    
+    /**
+     * Stop writer setelah flush record yang tersisa
+     */
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+    
+    long getDroppedCount() {
+        return totalDropped.get();
+    }
+    
+    File getLogDir() {
+        return logDir;
+    }
+    
+    @Override
+    public void run() {
+        if (!logDir.exists() && !logDir.mkdirs()) {
+            Log.w(TAG, "Cannot create log directory " + logDir);
+        }
+        
+        while (running) {
+            try {
+                if (clearRequested) {
+                    clearRequested = false;
+                    deleteAllLogs();
+                }
+                int written = drainBatch();
+                if (written == 0) {
+                    LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+                }
+            } catch (Exception e) {
+                // Jangan log lewat Logger untuk menghindari rekursi
+                Log.w(TAG, "Log writer error: " + e.getMessage());
+                closeChannel();
+                LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+            }
+        }
+        
+        try {
+            while (drainBatch() > 0) {
+                // Flush sisa record sebelum berhenti
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Final log flush failed: " + e.getMessage());
+        }
+        closeChannel();
+    }
+    
+    /**
+     * Drain sampai MAX_BATCH record dan tulis sebagai satu write
+     */
+    private int drainBatch() throws IOException {
+        lineBuilder.setLength(0);
+        int count = 0;
+        
+        while (count < MAX_BATCH) {
+            int index = (int) (head & MASK);
+            if (sequences.get(index) != head + 1) break;
+            
+            Record record = slots[index];
+            appendLine(record);
+            record.tag = null;
+            record.message = null;
+            sequences.lazySet(index, head + CAPACITY);
+            head++;
+            count++;
+        }
+        
+        long droppedNow = dropped.getAndSet(0);
+        if (droppedNow > 0) {
+            lineBuilder.append("--- ").append(droppedNow).append(" log records dropped (buffer full) ---\n");
+        }
+        
+        if (lineBuilder.length() > 0) {
+            writeBatch();
+        }
+        return count;
+    }
+    
+    private void appendLine(Record record) {
+        date.setTime(record.timestamp);
+        lineBuilder.append(timestampFormat.format(date))
+            .append(' ')
+            .append(levelString(record.level))
+            .append(" PoolAssistant-")
+            .append(record.tag)
+            .append(": ")
+            .append(record.message)
+            .append('\n');
+    }
+    
+    private void writeBatch() throws IOException {
+        ensureChannel();
+        
+        int maxBytes = (int) (lineBuilder.length() * encoder.maxBytesPerChar()) + 16;
+        if (byteBuffer.capacity() < maxBytes) {
+            byteBuffer = ByteBuffer.allocate(maxBytes);
+        }
+        byteBuffer.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(lineBuilder), byteBuffer, true);
+        encoder.flush(byteBuffer);
+        byteBuffer.flip();
+        
+        while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+        }
+        
+        if (channel.size() >= MAX_FILE_BYTES
+                || System.currentTimeMillis() - activeOpenedAt >= MAX_FILE_AGE_MS) {
+            rotate();
+        }
+    }
+    
+    private void ensureChannel() throws IOException {
+        if (channel != null && channel.isOpen()) return;
+        
+        activeFile = new File(logDir, baseName + ACTIVE_SUFFIX);
+        openedFile = new File(logDir, baseName + OPENED_SUFFIX);
+        // Umur file dihitung dari waktu dibuka (sidecar), bukan last modified yang
+        // maju di setiap write, supaya rotasi umur tetap jalan setelah restart
+        activeOpenedAt = activeFile.exists() ? readOpenedAt() : 0;
+        if (activeOpenedAt <= 0) {
+            // File baru, atau file lama tanpa sidecar (last modified = batas bawah terbaik)
+            activeOpenedAt = activeFile.exists() ? activeFile.lastModified() : System.currentTimeMillis();
+            writeOpenedAt(activeOpenedAt);
+        }
+        channel = new FileOutputStream(activeFile, true).getChannel();
+    }
+    
+    private long readOpenedAt() {
+        byte[] buffer = new byte[32];
+        try (InputStream in = new FileInputStream(openedFile)) {
+            int length = in.read(buffer);
+            if (length <= 0) return 0;
+            return Long.parseLong(new String(buffer, 0, length, StandardCharsets.US_ASCII).trim());
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    private void writeOpenedAt(long openedAt) {
+        try (OutputStream out = new FileOutputStream(openedFile)) {
+            out.write(Long.toString(openedAt).getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write log open time: " + e.getMessage());
+        }
+    }
+    
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        channel = null;
+    }
+    
+    /**
+     * Rotate active file: rename, gzip, lalu enforce disk cap
+     */
+    private void rotate() {
+        closeChannel();
+        
+        date.setTime(System.currentTimeMillis());
+        String stamp = baseName + "_" + rotationFormat.format(date);
+        // Dua rotate di millisecond yang sama tidak boleh menimpa archive sebelumnya
+        String name = stamp;
+        for (int sequence = 1; new File(logDir, name + ACTIVE_SUFFIX).exists()
+            || new File(logDir, name + ROTATED_SUFFIX).exists(); sequence++) {
+            name = stamp + "-" + sequence;
+        }
+        File pending = new File(logDir, name + ACTIVE_SUFFIX);
+        if (!activeFile.renameTo(pending)) {
+            Log.w(TAG, "Failed to rotate log file");
+            return;
+        }
+        
+        File compressed = new File(logDir, name + ROTATED_SUFFIX);
+        if (compress(pending, compressed)) {
+            pending.delete();
+        }
+        
+        enforceDiskCap();
+    }
+    
+    private boolean compress(File source, File target) {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new FileInputStream(source);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(target))) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to compress " + source.getName() + ": " + e.getMessage());
+            target.delete();
+            return false;
+        }
+    }
+    
+    /**
+     * Hapus rotated file paling lama sampai total ukuran di bawah MAX_TOTAL_BYTES
+     */
+    private void enforceDiskCap() {
+        File[] files = logDir.listFiles();
+        if (files == null) return;
+        
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(b.lastModified(), a.lastModified());
+            }
+        });
+        
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+            if (total > MAX_TOTAL_BYTES && !file.equals(activeFile) && !file.equals(openedFile)) {
+                total -= file.length();
+                file.delete();
+            }
+        }
+    }
+    
+    private void deleteAllLogs() {
+        closeChannel();
+        File[] files = logDir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            file.delete();
+        }
+    }
+    
+    private static String levelString(int level) {
+        switch (level) {
+            case Log.VERBOSE: return "V";
+            case Log.DEBUG: return "D";
+            case Log.INFO: return "I";
+            case Log.WARN: return "W";
+            case Log.ERROR: return "E";
+            default: return "?";
+        }
+    }
+}
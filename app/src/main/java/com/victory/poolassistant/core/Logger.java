@@ -1,12 +1,9 @@
 package com.victory.poolassistant.core;
 
 import android.util.Log;
+import com.victory.poolassistant.BuildConfig;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import java.util.function.Supplier;
 
 /**
  * Professional Logging System
@@ -15,11 +12,26 @@ import java.util.Locale;
 public class Logger {
     
     private static final String TAG_PREFIX = "PoolAssistant";
-    private static boolean debugMode = false;
-    private static boolean fileLoggingEnabled = false;
-    private static File logFile;
-    private static final SimpleDateFormat dateFormat = 
-        new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.getDefault());
+    
+    // Compile-time switch: false di release build sehingga javac/R8 membuang
+    // seluruh body verbose/debug logging (lihat proguard-logging.pro)
+    public static final boolean DEBUG_LOGS = BuildConfig.DEBUG_MODE;
+    
+    // Placeholder untuk parameterized logging
+    private static final String PLACEHOLDER = "{}";
+    
+    // Reusable builder per thread untuk formatting parameterized messages
+    private static final ThreadLocal<StringBuilder> formatBuilder = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(128);
+        }
+    };
+    
+    private static volatile boolean debugMode = false;
+    
+    // Background file writer (null = file logging disabled)
+    private static volatile LogWriter logWriter;
     
     // Log levels
     public static final int VERBOSE = Log.VERBOSE;
@@ -29,58 +41,206 @@ public class Logger {
     public static final int ERROR = Log.ERROR;
     
     /**
-     * Initialize logger
+     * Initialize logger tanpa file logging
      */
     public static void initialize(boolean debug) {
+        initialize(debug, null);
+    }
+    
+    /**
+     * Initialize logger. File logging aktif di debug mode jika logDir tersedia
+     */
+    public static synchronized void initialize(boolean debug, File logDir) {
         debugMode = debug;
         
-        if (debug) {
-            enableFileLogging();
+        if (debug && logDir != null && logWriter == null) {
+            enableFileLogging(logDir);
         }
         
         i("Logger", "Logger initialized - Debug: " + debug);
     }
     
     /**
-     * Enable file logging
+     * Enable file logging (writer thread dibuat sekali)
      */
-    private static void enableFileLogging() {
+    private static void enableFileLogging(File logDir) {
         try {
-            File logDir = new File("/data/data/com.victory.poolassistant/logs");
-            if (!logDir.exists()) {
-                logDir.mkdirs();
-            }
-            
-            String fileName = "pool_assistant_" + 
-                new SimpleDateFormat("yyyy_MM_dd", Locale.getDefault()).format(new Date()) + 
-                ".log";
-            
-            logFile = new File(logDir, fileName);
-            fileLoggingEnabled = true;
-            
+            logWriter = new LogWriter(logDir, Constants.LOG_FILE_NAME);
         } catch (Exception e) {
             Log.w(TAG_PREFIX, "Failed to enable file logging: " + e.getMessage());
         }
     }
     
+    /**
+     * Stop file logging setelah record pending ditulis
+     */
+    public static synchronized void shutdown() {
+        if (logWriter != null) {
+            logWriter.shutdown();
+            logWriter = null;
+        }
+    }
+    
+    /**
+     * Check if level is enabled. Pakai sebagai guard sebelum membangun message mahal
+     */
+    public static boolean isLoggable(int level) {
+        if (level >= INFO) return true;
+        return DEBUG_LOGS && debugMode;
+    }
+    
     /**
      * Verbose log
      */
     public static void v(String tag, String message) {
-        if (debugMode) {
-            Log.v(formatTag(tag), message);
-            writeToFile(VERBOSE, tag, message);
-        }
+        if (!isLoggable(VERBOSE)) return;
+        Log.v(formatTag(tag), message);
+        writeToFile(VERBOSE, tag, message);
+    }
+    
+    /**
+     * Verbose log, message dibuat hanya jika level aktif
+     */
+    public static void v(String tag, Supplier<String> message) {
+        if (!isLoggable(VERBOSE)) return;
+        v(tag, message.get());
+    }
+    
+    /**
+     * Verbose log dengan "{}" placeholder
+     */
+    public static void v(String tag, String format, Object arg) {
+        if (!isLoggable(VERBOSE)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg);
+        v(tag, endFormat(sb, format, next));
+    }
+    
+    public static void v(String tag, String format, Object arg1, Object arg2) {
+        if (!isLoggable(VERBOSE)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg1);
+        next = appendUntilPlaceholder(sb, format, next);
+        sb.append(arg2);
+        v(tag, endFormat(sb, format, next));
+    }
+    
+    /**
+     * Verbose log dengan primitive args (tanpa boxing di call site)
+     */
+    public static void v(String tag, String format, long arg) {
+        if (!isLoggable(VERBOSE)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg);
+        v(tag, endFormat(sb, format, next));
+    }
+    
+    public static void v(String tag, String format, long arg1, long arg2) {
+        if (!isLoggable(VERBOSE)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg1);
+        next = appendUntilPlaceholder(sb, format, next);
+        sb.append(arg2);
+        v(tag, endFormat(sb, format, next));
+    }
+    
+    public static void v(String tag, String format, double arg) {
+        if (!isLoggable(VERBOSE)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg);
+        v(tag, endFormat(sb, format, next));
+    }
+    
+    public static void v(String tag, String format, double arg1, double arg2) {
+        if (!isLoggable(VERBOSE)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg1);
+        next = appendUntilPlaceholder(sb, format, next);
+        sb.append(arg2);
+        v(tag, endFormat(sb, format, next));
     }
     
     /**
      * Debug log
      */
     public static void d(String tag, String message) {
-        if (debugMode) {
-            Log.d(formatTag(tag), message);
-            writeToFile(DEBUG, tag, message);
-        }
+        if (!isLoggable(DEBUG)) return;
+        Log.d(formatTag(tag), message);
+        writeToFile(DEBUG, tag, message);
+    }
+    
+    /**
+     * Debug log, message dibuat hanya jika level aktif
+     */
+    public static void d(String tag, Supplier<String> message) {
+        if (!isLoggable(DEBUG)) return;
+        d(tag, message.get());
+    }
+    
+    /**
+     * Debug log dengan "{}" placeholder
+     */
+    public static void d(String tag, String format, Object arg) {
+        if (!isLoggable(DEBUG)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg);
+        d(tag, endFormat(sb, format, next));
+    }
+    
+    public static void d(String tag, String format, Object arg1, Object arg2) {
+        if (!isLoggable(DEBUG)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg1);
+        next = appendUntilPlaceholder(sb, format, next);
+        sb.append(arg2);
+        d(tag, endFormat(sb, format, next));
+    }
+    
+    /**
+     * Debug log dengan primitive args (tanpa boxing di call site)
+     */
+    public static void d(String tag, String format, long arg) {
+        if (!isLoggable(DEBUG)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg);
+        d(tag, endFormat(sb, format, next));
+    }
+    
+    public static void d(String tag, String format, long arg1, long arg2) {
+        if (!isLoggable(DEBUG)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg1);
+        next = appendUntilPlaceholder(sb, format, next);
+        sb.append(arg2);
+        d(tag, endFormat(sb, format, next));
+    }
+    
+    public static void d(String tag, String format, double arg) {
+        if (!isLoggable(DEBUG)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg);
+        d(tag, endFormat(sb, format, next));
+    }
+    
+    public static void d(String tag, String format, double arg1, double arg2) {
+        if (!isLoggable(DEBUG)) return;
+        StringBuilder sb = beginFormat();
+        int next = appendUntilPlaceholder(sb, format, 0);
+        sb.append(arg1);
+        next = appendUntilPlaceholder(sb, format, next);
+        sb.append(arg2);
+        d(tag, endFormat(sb, format, next));
     }
     
     /**
@@ -172,44 +332,56 @@ public class Logger {
     }
     
     /**
-     * Format tag with prefix
+     * Get cleared thread-local builder
      */
-    private static String formatTag(String tag) {
-        return TAG_PREFIX + "-" + tag;
+    private static StringBuilder beginFormat() {
+        StringBuilder sb = formatBuilder.get();
+        sb.setLength(0);
+        return sb;
     }
     
     /**
-     * Write log to file
+     * Append format text sampai placeholder berikutnya.
+     * Return index setelah placeholder, atau -1 jika tidak ada placeholder lagi
      */
-    private static void writeToFile(int level, String tag, String message) {
-        if (!fileLoggingEnabled || logFile == null) return;
-        
-        try {
-            String timestamp = dateFormat.format(new Date());
-            String levelStr = getLevelString(level);
-            String logLine = timestamp + " " + levelStr + " " + formatTag(tag) + ": " + message + "\n";
-            
-            FileWriter writer = new FileWriter(logFile, true);
-            writer.write(logLine);
-            writer.close();
-            
-        } catch (IOException e) {
-            // Silent fail to avoid infinite recursion
+    private static int appendUntilPlaceholder(StringBuilder sb, String format, int from) {
+        if (from < 0) {
+            sb.append(' ');
+            return -1;
+        }
+        int index = format.indexOf(PLACEHOLDER, from);
+        if (index < 0) {
+            sb.append(format, from, format.length()).append(' ');
+            return -1;
         }
+        sb.append(format, from, index);
+        return index + PLACEHOLDER.length();
     }
     
     /**
-     * Get level string
+     * Append sisa format text dan build message
      */
-    private static String getLevelString(int level) {
-        switch (level) {
-            case VERBOSE: return "V";
-            case DEBUG: return "D";
-            case INFO: return "I";
-            case WARN: return "W";
-            case ERROR: return "E";
-            default: return "?";
+    private static String endFormat(StringBuilder sb, String format, int from) {
+        if (from >= 0) {
+            sb.append(format, from, format.length());
         }
+        return sb.toString();
+    }
+    
+    /**
+     * Format tag with prefix
+     */
+    private static String formatTag(String tag) {
+        return TAG_PREFIX + "-" + tag;
+    }
+    
+    /**
+     * Queue log ke file writer. Tidak pernah blocking; record di-drop jika buffer penuh
+     */
+    private static void writeToFile(int level, String tag, String message) {
+        LogWriter writer = logWriter;
+        if (writer == null) return;
+        writer.enqueue(level, tag, message);
     }
     
     /**
@@ -223,31 +395,24 @@ public class Logger {
     }
     
     /**
-     * Clear log files
+     * Clear log files (dijalankan async di writer thread)
      */
     public static void clearLogs() {
-        try {
-            File logDir = new File("/data/data/com.victory.poolassistant/logs");
-            if (logDir.exists()) {
-                File[] files = logDir.listFiles();
-                if (files != null) {
-                    for (File file : files) {
-                        file.delete();
-                    }
-                }
-            }
-            i("Logger", "Log files cleared");
-        } catch (Exception e) {
-            e("Logger", "Failed to clear logs", e);
-        }
+        LogWriter writer = logWriter;
+        if (writer == null) return;
+        writer.requestClear();
+        i("Logger", "Log files cleared");
     }
     
     /**
      * Get log files info
      */
     public static String getLogInfo() {
+        LogWriter writer = logWriter;
+        if (writer == null) return "File logging disabled";
+        
         try {
-            File logDir = new File("/data/data/com.victory.poolassistant/logs");
+            File logDir = writer.getLogDir();
             if (!logDir.exists()) return "No log directory";
             
             File[] files = logDir.listFiles();
@@ -256,10 +421,14 @@ public class Logger {
             StringBuilder info = new StringBuilder();
             info.append("Log files (").append(files.length).append("):\n");
             
+            long total = 0;
             for (File file : files) {
+                total += file.length();
                 info.append("- ").append(file.getName())
                     .append(" (").append(formatBytes(file.length())).append(")\n");
             }
+            info.append("Total: ").append(formatBytes(total))
+                .append(", Dropped: ").append(writer.getDroppedCount()).append("\n");
             
             return info.toString();
             
@@ -0,0 +1,351 @@
+package com.victory.poolassistant.core;
+
+import android.app.ActivityManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import androidx.core.content.ContextCompat;
+
+import com.victory.poolassistant.data.model.GameState;
+import com.victory.poolassistant.data.repository.SettingsRepository;
+import com.victory.poolassistant.utils.GameDetector;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cross-process sync antara main UI process dan ":overlay" process
+ * Channel ringan berbasis broadcast (package-only, not exported):
+ * - setiap key yang ditulis ke SettingsRepository (di-coalesce), bukan hanya
+ *   field snapshot, supaya commit() process lain tidak me-revert key tersebut;
+ *   reset dikirim dengan flag supaya peer juga clear sebelum menulis values
+ * - full settings ke peer yang baru hidup (balasan HELLO, atau overlay state
+ *   alive false -> true), karena peer membaca dari disk sebelum write-behind
+ *   process ini tertulis dan tidak menerima write selama dianggap mati
+ * - visibility overlay, supaya UI tahu status overlay di process lain
+ * - foreground game state dari GameDetector (accessibility hanya di main process)
+ * Override per-game profile ("profile.<pkg>.*") ikut batch settings; peer
+ * load ulang profile yang key-nya berubah (GameProfileRepository).
+ *
+ * Broadcast settings hanya dikirim jika ada peer process yang hidup. Peer yang
+ * di-kill (low memory killer) tidak sempat mengirim alive=false, jadi status
+ * peer dicek terhadap process yang masih berjalan sebelum dilaporkan.
+ */
+public final class ProcessSync implements SettingsRepository.WriteListener {
+    
+    private static final String TAG = "ProcessSync";
+    
+    private static final String ACTION_HELLO = "com.victory.poolassistant.sync.HELLO";
+    private static final String ACTION_SETTINGS = "com.victory.poolassistant.sync.SETTINGS";
+    private static final String ACTION_OVERLAY_STATE = "com.victory.poolassistant.sync.OVERLAY_STATE";
+    private static final String ACTION_GAME_STATE = "com.victory.poolassistant.sync.GAME_STATE";
+    
+    private static final String EXTRA_SENDER_PID = "sender_pid";
+    private static final String EXTRA_REPLY = "reply";
+    private static final String EXTRA_VALUES = "values";
+    private static final String EXTRA_RESET = "reset";
+    private static final String EXTRA_VISIBLE = "visible";
+    private static final String EXTRA_ALIVE = "alive";
+    private static final String EXTRA_FOREGROUND = "foreground";
+    
+    // Coalesce slider drag menjadi satu broadcast per window
+    private static final long SETTINGS_BATCH_MS = 50;
+    
+    private static ProcessSync instance;
+    
+    private final Context context;
+    private final int myPid = Process.myPid();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    // Main thread only
+    private final HashMap<String, Object> pendingSettings = new HashMap<>();
+    private boolean pendingReset = false;
+    private boolean applyingRemote = false;
+    private final Runnable settingsSender = this::sendPendingSettings;
+    
+    // Status peer process
+    private volatile boolean peerAlive = false;
+    private volatile int peerPid = 0;
+    private volatile boolean remoteOverlayVisible = false;
+    
+    private ProcessSync(Context context) {
+        this.context = context.getApplicationContext();
+    }
+    
+    /**
+     * Initialize sync channel untuk process ini (idempotent)
+     */
+    public static synchronized ProcessSync initialize(Context context) {
+        if (instance == null) {
+            instance = new ProcessSync(context);
+            instance.register();
+        }
+        return instance;
+    }
+    
+    /**
+     * Get instance (null jika belum di-initialize)
+     */
+    public static ProcessSync peekInstance() {
+        return instance;
+    }
+    
+    private void register() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(ACTION_HELLO);
+        filter.addAction(ACTION_SETTINGS);
+        filter.addAction(ACTION_OVERLAY_STATE);
+        filter.addAction(ACTION_GAME_STATE);
+        ContextCompat.registerReceiver(context, receiver, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+        
+        AppConfig.addWriteListener(this);
+        announce();
+        Logger.d(TAG, "Process sync registered, pid {}", myPid);
+    }
+    
+    /**
+     * Umumkan process ini; peer yang hidup membalas dengan full settings.
+     * Dipanggil juga saat overlay service dibuat ulang di process yang masih hidup,
+     * karena peer berhenti meneruskan write sejak service lama mengirim alive=false
+     */
+    public void announce() {
+        Intent hello = newIntent(ACTION_HELLO);
+        hello.putExtra(EXTRA_REPLY, false);
+        context.sendBroadcast(hello);
+    }
+    
+    private Intent newIntent(String action) {
+        Intent intent = new Intent(action);
+        intent.setPackage(context.getPackageName());
+        intent.putExtra(EXTRA_SENDER_PID, myPid);
+        return intent;
+    }
+    
+    // =============================================================================
+    // SETTINGS
+    // =============================================================================
+    
+    @Override
+    public void onSettingsWritten(Map<String, ?> values) {
+        if (applyingRemote || !peerAlive) return;
+        
+        // Listener bisa dipanggil dari thread mana pun; coalesce di main thread
+        Map<String, ?> copy = new HashMap<>(values);
+        mainHandler.post(() -> {
+            pendingSettings.putAll(copy);
+            mainHandler.removeCallbacks(settingsSender);
+            mainHandler.postDelayed(settingsSender, SETTINGS_BATCH_MS);
+        });
+    }
+    
+    @Override
+    public void onSettingsReset(Map<String, ?> values) {
+        if (applyingRemote || !peerAlive) return;
+        
+        Map<String, ?> copy = new HashMap<>(values);
+        mainHandler.post(() -> {
+            // Reset menggantikan mutasi yang belum terkirim; write sesudahnya ikut batch ini
+            pendingSettings.clear();
+            pendingSettings.putAll(copy);
+            pendingReset = true;
+            mainHandler.removeCallbacks(settingsSender);
+            mainHandler.postDelayed(settingsSender, SETTINGS_BATCH_MS);
+        });
+    }
+    
+    /**
+     * Kirim seluruh settings process ini ke peer yang baru hidup (main thread)
+     * sebagai reset, supaya peer mengganti seluruh map-nya. Mutasi write-behind di
+     * sini bisa belum tertulis (sampai MAX_DELAY_MS), dan process peer yang tidak
+     * pernah mati masih memegang cache SharedPreferences lama (termasuk key profile)
+     */
+    private void sendFullSettings() {
+        pendingSettings.clear();
+        AppConfig.copyAllSettings(pendingSettings);
+        pendingReset = true;
+        mainHandler.removeCallbacks(settingsSender);
+        sendPendingSettings();
+    }
+    
+    private void sendPendingSettings() {
+        if (pendingSettings.isEmpty()) return;
+        
+        Bundle values = new Bundle();
+        for (Map.Entry<String, Object> entry : pendingSettings.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Integer) {
+                values.putInt(entry.getKey(), (Integer) value);
+            } else if (value instanceof Boolean) {
+                values.putBoolean(entry.getKey(), (Boolean) value);
+            } else if (value instanceof Long) {
+                values.putLong(entry.getKey(), (Long) value);
+            } else if (value instanceof Float) {
+                values.putFloat(entry.getKey(), (Float) value);
+            } else if (value instanceof String) {
+                values.putString(entry.getKey(), (String) value);
+            }
+        }
+        pendingSettings.clear();
+        
+        Intent intent = newIntent(ACTION_SETTINGS);
+        intent.putExtra(EXTRA_VALUES, values);
+        intent.putExtra(EXTRA_RESET, pendingReset);
+        pendingReset = false;
+        context.sendBroadcast(intent);
+    }
+    
+    private void applyRemoteSettings(Bundle values, boolean reset) {
+        if (values == null || (values.isEmpty() && !reset)) return;
+        
+        Map<String, Object> map = new HashMap<>();
+        for (String key : values.keySet()) {
+            map.put(key, values.get(key));
+        }
+        
+        applyingRemote = true;
+        try {
+            if (reset) {
+                AppConfig.applyRemoteReset(map);
+            } else {
+                AppConfig.applyRemoteSettings(map);
+            }
+        } finally {
+            applyingRemote = false;
+        }
+        Logger.d(TAG, reset ? "Applied settings reset ({} keys) from peer process"
+            : "Applied {} settings from peer process", map.size());
+    }
+    
+    // =============================================================================
+    // OVERLAY STATE
+    // =============================================================================
+    
+    /**
+     * Publish visibility overlay dari process yang menjalankan service
+     */
+    public void publishOverlayState(boolean visible, boolean alive) {
+        Intent intent = newIntent(ACTION_OVERLAY_STATE);
+        intent.putExtra(EXTRA_VISIBLE, visible);
+        intent.putExtra(EXTRA_ALIVE, alive);
+        context.sendBroadcast(intent);
+    }
+    
+    // =============================================================================
+    // GAME STATE
+    // =============================================================================
+    
+    /**
+     * Publish foreground package ke peer process (hanya jika peer hidup)
+     */
+    public void publishGameState(String foregroundPackage) {
+        if (!peerAlive || foregroundPackage == null) return;
+        Intent intent = newIntent(ACTION_GAME_STATE);
+        intent.putExtra(EXTRA_FOREGROUND, foregroundPackage);
+        context.sendBroadcast(intent);
+    }
+    
+    /**
+     * Kirim game state yang sudah diketahui ke peer yang baru hidup
+     */
+    private void sendKnownGameState() {
+        GameDetector detector = GameDetector.peekInstance();
+        if (detector == null) return;
+        GameState state = detector.getState();
+        if (state.getSource() != GameState.SOURCE_NONE && state.getSource() != GameState.SOURCE_REMOTE) {
+            publishGameState(state.getForegroundPackage());
+        }
+    }
+    
+    // =============================================================================
+    // STATUS
+    // =============================================================================
+    
+    /**
+     * Overlay visibility yang dilaporkan process lain
+     */
+    public boolean isRemoteOverlayVisible() {
+        return isPeerAlive() && remoteOverlayVisible;
+    }
+    
+    /**
+     * Peer dilaporkan hidup dan process-nya masih berjalan
+     */
+    public boolean isPeerAlive() {
+        if (!peerAlive) return false;
+        int pid = peerPid;
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        List<ActivityManager.RunningAppProcessInfo> processes =
+            activityManager != null ? activityManager.getRunningAppProcesses() : null;
+        if (processes != null) {
+            for (ActivityManager.RunningAppProcessInfo process : processes) {
+                if (process.pid == pid) return true;
+            }
+        }
+        Logger.i(TAG, "Peer process " + pid + " is gone");
+        peerAlive = false;
+        remoteOverlayVisible = false;
+        return false;
+    }
+    
+    /**
+     * Peer yang baru hidup (atau hidup lagi): kirim state yang mungkin terlewat
+     */
+    private void resyncPeer() {
+        sendFullSettings();
+        sendKnownGameState();
+    }
+    
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context ctx, Intent intent) {
+            int senderPid = intent.getIntExtra(EXTRA_SENDER_PID, myPid);
+            if (senderPid == myPid) return;
+            String action = intent.getAction();
+            if (action == null) return;
+            peerPid = senderPid;
+            
+            switch (action) {
+                case ACTION_HELLO:
+                    peerAlive = true;
+                    if (!intent.getBooleanExtra(EXTRA_REPLY, true)) {
+                        Intent reply = newIntent(ACTION_HELLO);
+                        reply.putExtra(EXTRA_REPLY, true);
+                        context.sendBroadcast(reply);
+                        // Process yang sudah berjalan adalah sumber settings terbaru
+                        resyncPeer();
+                    } else {
+                        sendKnownGameState();
+                    }
+                    break;
+                case ACTION_SETTINGS:
+                    peerAlive = true;
+                    applyRemoteSettings(intent.getBundleExtra(EXTRA_VALUES),
+                        intent.getBooleanExtra(EXTRA_RESET, false));
+                    break;
+                case ACTION_OVERLAY_STATE:
+                    boolean wasAlive = peerAlive;
+                    peerAlive = intent.getBooleanExtra(EXTRA_ALIVE, true);
+                    remoteOverlayVisible = intent.getBooleanExtra(EXTRA_VISIBLE, false);
+                    if (peerAlive && !wasAlive) {
+                        // Service start lagi di process yang tidak pernah mati: sama seperti HELLO
+                        resyncPeer();
+                    }
+                    break;
+                case ACTION_GAME_STATE:
+                    peerAlive = true;
+                    GameDetector detector = GameDetector.peekInstance();
+                    if (detector != null) {
+                        detector.applyRemoteState(intent.getStringExtra(EXTRA_FOREGROUND));
+                    }
+                    break;
+            }
+        }
+    };
+}
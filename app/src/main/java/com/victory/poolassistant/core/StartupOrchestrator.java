@@ -0,0 +1,266 @@
+package com.victory.poolassistant.core;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Process;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Startup orchestrator
+ * Initializer dideklarasikan dengan nama, stage dan dependencies, lalu
+ * dijalankan dalam urutan topological:
+ *
+ * - CRITICAL   : main thread, di Application.onCreate (sebelum frame pertama)
+ * - IDLE       : main thread, satu step per idle slot setelah frame pertama
+ * - BACKGROUND : satu worker thread, paralel dengan UI
+ *
+ * Setiap step di-time dan di-trace; hasilnya tersedia sebagai cold-start report.
+ */
+public final class StartupOrchestrator {
+    
+    private static final String TAG = "Startup";
+    
+    public static final int STAGE_CRITICAL = 0;
+    public static final int STAGE_IDLE = 1;
+    public static final int STAGE_BACKGROUND = 2;
+    
+    private static final String[] STAGE_NAMES = {"critical", "idle", "background"};
+    
+    /**
+     * Satu initializer
+     */
+    private static final class Step {
+        final String name;
+        final int stage;
+        final Runnable task;
+        final String[] dependsOn;
+        
+        volatile long startOffsetMs = -1;
+        volatile long durationNanos = -1;
+        volatile boolean failed = false;
+        volatile boolean skipped = false;
+        
+        Step(String name, int stage, Runnable task, String[] dependsOn) {
+            this.name = name;
+            this.stage = stage;
+            this.task = task;
+            this.dependsOn = dependsOn;
+        }
+        
+        boolean isDone() {
+            return durationNanos >= 0 && !failed && !skipped;
+        }
+    }
+    
+    private final Map<String, Step> steps = new HashMap<>();
+    private final List<Step> declared = new ArrayList<>();
+    private boolean started = false;
+    
+    // Timeline (uptime millis)
+    private final long processStartMs = Process.getStartUptimeMillis();
+    private volatile long onCreateStartMs = -1;
+    private volatile long criticalEndMs = -1;
+    private volatile long firstFrameMs = -1;
+    private volatile long idleEndMs = -1;
+    private volatile long backgroundEndMs = -1;
+    
+    /**
+     * Declare initializer. Dependency harus berada di stage yang sudah selesai
+     * atau stage yang sama (BACKGROUND boleh bergantung ke CRITICAL/BACKGROUND,
+     * IDLE ke CRITICAL/IDLE)
+     */
+    public StartupOrchestrator add(String name, int stage, Runnable task, String... dependsOn) {
+        if (started) {
+            throw new IllegalStateException("Startup already started");
+        }
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup step: " + name);
+        }
+        Step step = new Step(name, stage, task, dependsOn);
+        steps.put(name, step);
+        declared.add(step);
+        return this;
+    }
+    
+    /**
+     * Jalankan CRITICAL stage sekarang (harus di main thread), lalu jadwalkan
+     * IDLE dan BACKGROUND stage
+     */
+    public void start() {
+        if (started) return;
+        started = true;
+        onCreateStartMs = SystemClock.uptimeMillis();
+        
+        List<Step> ordered = sortSteps();
+        List<Step> critical = new ArrayList<>();
+        List<Step> idle = new ArrayList<>();
+        List<Step> background = new ArrayList<>();
+        for (Step step : ordered) {
+            if (step.stage == STAGE_CRITICAL) critical.add(step);
+            else if (step.stage == STAGE_IDLE) idle.add(step);
+            else background.add(step);
+        }
+        
+        Tracer.begin("Startup.critical");
+        try {
+            for (Step step : critical) {
+                runStep(step);
+            }
+        } finally {
+            Tracer.end();
+        }
+        criticalEndMs = SystemClock.uptimeMillis();
+        
+        if (!background.isEmpty()) {
+            Thread worker = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                for (Step step : background) {
+                    runStep(step);
+                }
+                backgroundEndMs = SystemClock.uptimeMillis();
+                Logger.d(TAG, "Background stage done in {} ms", backgroundEndMs - criticalEndMs);
+            }, "StartupWorker");
+            worker.start();
+        } else {
+            backgroundEndMs = criticalEndMs;
+        }
+        
+        if (!idle.isEmpty()) {
+            Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                int next = 0;
+                
+                @Override
+                public boolean queueIdle() {
+                    // Satu step per idle slot supaya input tetap responsif
+                    runStep(idle.get(next++));
+                    if (next < idle.size()) return true;
+                    idleEndMs = SystemClock.uptimeMillis();
+                    return false;
+                }
+            });
+        } else {
+            idleEndMs = criticalEndMs;
+        }
+        
+        Logger.i(TAG, "Critical stage done in " + (criticalEndMs - onCreateStartMs) + " ms");
+    }
+    
+    /**
+     * Topological sort + validasi stage dependencies
+     */
+    private List<Step> sortSteps() {
+        Map<String, Integer> state = new HashMap<>();
+        List<Step> ordered = new ArrayList<>(declared.size());
+        for (Step step : declared) {
+            visit(step, state, ordered);
+        }
+        return ordered;
+    }
+    
+    private void visit(Step step, Map<String, Integer> state, List<Step> ordered) {
+        Integer mark = state.get(step.name);
+        if (mark != null) {
+            if (mark == 1) {
+                throw new IllegalStateException("Startup dependency cycle at " + step.name);
+            }
+            return;
+        }
+        state.put(step.name, 1);
+        for (String dependency : step.dependsOn) {
+            Step dep = steps.get(dependency);
+            if (dep == null) {
+                throw new IllegalStateException(step.name + " depends on unknown step " + dependency);
+            }
+            if (dep.stage != STAGE_CRITICAL && dep.stage != step.stage) {
+                throw new IllegalStateException(step.name + " (" + STAGE_NAMES[step.stage] +
+                    ") cannot depend on " + dependency + " (" + STAGE_NAMES[dep.stage] + ")");
+            }
+            visit(dep, state, ordered);
+        }
+        state.put(step.name, 2);
+        ordered.add(step);
+    }
+    
+    private void runStep(Step step) {
+        for (String dependency : step.dependsOn) {
+            if (!steps.get(dependency).isDone()) {
+                step.skipped = true;
+                Logger.w(TAG, "Skipping " + step.name + ": dependency " + dependency + " did not complete");
+                return;
+            }
+        }
+        
+        step.startOffsetMs = SystemClock.uptimeMillis() - processStartMs;
+        long start = System.nanoTime();
+        Tracer.begin("Startup." + step.name);
+        try {
+            step.task.run();
+        } catch (Exception e) {
+            step.failed = true;
+            Logger.e(TAG, "Startup step failed: " + step.name, e);
+        } finally {
+            Tracer.end();
+            step.durationNanos = System.nanoTime() - start;
+        }
+    }
+    
+    /**
+     * Catat frame pertama window (dipanggil dari activity pertama)
+     */
+    public void trackFirstFrame(final View decorView) {
+        if (firstFrameMs >= 0) return;
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Post dijalankan setelah draw pada traversal yang sama
+                decorView.post(() -> {
+                    if (firstFrameMs < 0) {
+                        firstFrameMs = SystemClock.uptimeMillis();
+                        Logger.i(TAG, "First frame " + (firstFrameMs - processStartMs) + " ms after process start");
+                    }
+                });
+                return true;
+            }
+        });
+    }
+    
+    /**
+     * Cold-start report untuk stats screen
+     */
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Process start -> onCreate: ").append(formatOffset(onCreateStartMs)).append('\n');
+        sb.append("Critical stage done: ").append(formatOffset(criticalEndMs)).append('\n');
+        sb.append("First frame: ").append(formatOffset(firstFrameMs)).append('\n');
+        sb.append("Idle stage done: ").append(formatOffset(idleEndMs)).append('\n');
+        sb.append("Background stage done: ").append(formatOffset(backgroundEndMs));
+        
+        for (Step step : declared) {
+            sb.append('\n').append("  ").append(step.name)
+                .append(" [").append(STAGE_NAMES[step.stage]).append("] ");
+            if (step.skipped) {
+                sb.append("skipped");
+            } else if (step.durationNanos < 0) {
+                sb.append("pending");
+            } else {
+                sb.append(String.format(Locale.US, "%.2f ms @ +%d ms",
+                    step.durationNanos / 1_000_000.0, step.startOffsetMs));
+                if (step.failed) sb.append(" FAILED");
+            }
+        }
+        return sb.toString();
+    }
+    
+    private String formatOffset(long uptimeMs) {
+        return uptimeMs < 0 ? "pending" : "+" + (uptimeMs - processStartMs) + " ms";
+    }
+}
@@ -0,0 +1,258 @@
+package com.victory.poolassistant.core;
+
+import android.os.Process;
+import android.os.Trace;
+import android.util.JsonWriter;
+import android.util.SparseArray;
+
+import com.victory.poolassistant.BuildConfig;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Lightweight span tracer
+ * Span bersarang diukur dengan System.nanoTime, di-mirror ke android.os.Trace
+ * (terlihat di systrace/Perfetto) dan disimpan di ring buffer primitive.
+ * Buffer bisa di-dump ke Chrome/Perfetto JSON trace tanpa Android Studio.
+ *
+ * Pemakaian: Tracer.begin("name"); try { ... } finally { Tracer.end(); }
+ */
+public final class Tracer {
+    
+    private static final String TAG = "Tracer";
+    
+    // Jumlah span terakhir yang disimpan (power of two)
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+    
+    // Maksimum nesting per thread
+    private static final int MAX_DEPTH = 32;
+    
+    // android.os.Trace membatasi section name 127 karakter
+    private static final int MAX_SECTION_NAME = 127;
+    
+    private static volatile boolean enabled = BuildConfig.DEBUG_MODE;
+    
+    // Ring buffer (dilindungi lock)
+    private static final Object lock = new Object();
+    private static final String[] names = new String[CAPACITY];
+    private static final long[] startNanos = new long[CAPACITY];
+    private static final long[] durationNanos = new long[CAPACITY];
+    private static final int[] threadIds = new int[CAPACITY];
+    private static final int[] depths = new int[CAPACITY];
+    private static long recorded = 0;
+    private static final SparseArray<String> threadNames = new SparseArray<>();
+    
+    /**
+     * Stack span yang sedang terbuka di satu thread
+     */
+    private static final class SpanStack {
+        final String[] names = new String[MAX_DEPTH];
+        final long[] starts = new long[MAX_DEPTH];
+        final int tid = Process.myTid();
+        int depth = 0;
+        
+        SpanStack() {
+            synchronized (lock) {
+                threadNames.put(tid, Thread.currentThread().getName());
+            }
+        }
+    }
+    
+    private static final ThreadLocal<SpanStack> stacks = new ThreadLocal<SpanStack>() {
+        @Override
+        protected SpanStack initialValue() {
+            return new SpanStack();
+        }
+    };
+    
+    private Tracer() {
+    }
+    
+    /**
+     * Enable/disable tracing saat runtime
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+    
+    public static boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Open span di thread saat ini. Harus dipasangkan dengan end() di thread yang sama
+     */
+    public static void begin(String name) {
+        if (!enabled) return;
+        
+        SpanStack stack = stacks.get();
+        if (stack.depth < MAX_DEPTH) {
+            stack.names[stack.depth] = name;
+            stack.starts[stack.depth] = System.nanoTime();
+            Trace.beginSection(name.length() > MAX_SECTION_NAME ? name.substring(0, MAX_SECTION_NAME) : name);
+        }
+        // Span di atas MAX_DEPTH hanya dihitung supaya end() tetap seimbang
+        stack.depth++;
+    }
+    
+    /**
+     * Close span terakhir di thread saat ini
+     */
+    public static void end() {
+        if (!enabled) return;
+        
+        SpanStack stack = stacks.get();
+        if (stack.depth == 0) return;
+        
+        stack.depth--;
+        if (stack.depth >= MAX_DEPTH) return;
+        
+        long end = System.nanoTime();
+        Trace.endSection();
+        record(stack.names[stack.depth], stack.starts[stack.depth], end - stack.starts[stack.depth],
+            stack.tid, stack.depth);
+        stack.names[stack.depth] = null;
+    }
+    
+    private static void record(String name, long start, long duration, int tid, int depth) {
+        synchronized (lock) {
+            int index = (int) (recorded & MASK);
+            names[index] = name;
+            startNanos[index] = start;
+            durationNanos[index] = duration;
+            threadIds[index] = tid;
+            depths[index] = depth;
+            recorded++;
+        }
+    }
+    
+    /**
+     * Get jumlah span yang tersimpan di buffer
+     */
+    public static int getSpanCount() {
+        synchronized (lock) {
+            return (int) Math.min(recorded, CAPACITY);
+        }
+    }
+    
+    /**
+     * Clear buffer
+     */
+    public static void clear() {
+        synchronized (lock) {
+            recorded = 0;
+            for (int i = 0; i < CAPACITY; i++) {
+                names[i] = null;
+            }
+        }
+    }
+    
+    /**
+     * Dump buffer ke Chrome JSON trace (bisa dibuka di ui.perfetto.dev atau chrome://tracing).
+     * Lakukan di background thread. Return file trace
+     */
+    public static File dump(File traceDir) throws IOException {
+        // Snapshot di bawah lock, tulis file tanpa lock
+        int count;
+        String[] snapNames;
+        long[] snapStarts;
+        long[] snapDurations;
+        int[] snapThreads;
+        int[] snapDepths;
+        SparseArray<String> snapThreadNames;
+        
+        synchronized (lock) {
+            count = (int) Math.min(recorded, CAPACITY);
+            int first = (int) ((recorded - count) & MASK);
+            snapNames = new String[count];
+            snapStarts = new long[count];
+            snapDurations = new long[count];
+            snapThreads = new int[count];
+            snapDepths = new int[count];
+            for (int i = 0; i < count; i++) {
+                int index = (first + i) & MASK;
+                snapNames[i] = names[index];
+                snapStarts[i] = startNanos[index];
+                snapDurations[i] = durationNanos[index];
+                snapThreads[i] = threadIds[index];
+                snapDepths[i] = depths[index];
+            }
+            snapThreadNames = threadNames.clone();
+        }
+        
+        if (!traceDir.exists() && !traceDir.mkdirs()) {
+            throw new IOException("Cannot create trace directory " + traceDir);
+        }
+        
+        String stamp = "trace_" +
+            new SimpleDateFormat("yyyyMMdd_HHmmss_SSS", Locale.US).format(new Date());
+        // Dump di millisecond yang sama (atau dari thread lain) tidak boleh menimpa dump sebelumnya;
+        // createNewFile() atomic, jadi nama di-claim sebelum ditulis
+        File traceFile = new File(traceDir, stamp + ".json");
+        for (int sequence = 1; !traceFile.createNewFile(); sequence++) {
+            traceFile = new File(traceDir, stamp + "-" + sequence + ".json");
+        }
+        int pid = Process.myPid();
+        
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(traceFile), StandardCharsets.UTF_8)))) {
+            writer.beginObject();
+            writer.name("displayTimeUnit").value("ns");
+            writer.name("traceEvents").beginArray();
+            
+            // Thread name metadata
+            for (int i = 0; i < snapThreadNames.size(); i++) {
+                writer.beginObject();
+                writer.name("name").value("thread_name");
+                writer.name("ph").value("M");
+                writer.name("pid").value(pid);
+                writer.name("tid").value(snapThreadNames.keyAt(i));
+                writer.name("args").beginObject()
+                    .name("name").value(snapThreadNames.valueAt(i))
+                    .endObject();
+                writer.endObject();
+            }
+            
+            // Complete events, timestamp dalam microseconds
+            for (int i = 0; i < count; i++) {
+                writer.beginObject();
+                writer.name("name").value(snapNames[i]);
+                writer.name("ph").value("X");
+                writer.name("ts").value(snapStarts[i] / 1000.0);
+                writer.name("dur").value(snapDurations[i] / 1000.0);
+                writer.name("pid").value(pid);
+                writer.name("tid").value(snapThreads[i]);
+                writer.name("args").beginObject()
+                    .name("depth").value(snapDepths[i])
+                    .endObject();
+                writer.endObject();
+            }
+            
+            writer.endArray();
+            writer.endObject();
+        }
+        
+        Logger.i(TAG, "Trace dumped: " + traceFile.getAbsolutePath() + " (" + count + " spans)");
+        return traceFile;
+    }
+    
+    /**
+     * Get tracer info untuk stats screen
+     */
+    public static String getInfo() {
+        if (!enabled) return "Tracing disabled";
+        synchronized (lock) {
+            return "Spans buffered: " + Math.min(recorded, CAPACITY) + " / " + CAPACITY +
+                " (total recorded: " + recorded + ")";
+        }
+    }
+}
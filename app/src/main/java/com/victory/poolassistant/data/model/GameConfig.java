@@ -0,0 +1,244 @@
+package com.victory.poolassistant.data.model;
+
+import com.victory.poolassistant.core.AppConfig;
+
+/**
+ * Immutable per-game profile
+ * Menyimpan style overlay, frame rate dan geometry meja untuk satu game package.
+ * Geometry disimpan sebagai fraksi layar dan di-resolve ke pixel sekali saat
+ * ukuran layar berubah (withScreenSize), bukan saat game di-switch.
+ */
+public final class GameConfig {
+    
+    /**
+     * Package name untuk profile default (tidak ada game aktif)
+     */
+    public static final String DEFAULT_PACKAGE = "default";
+    
+    // Default table bounds (fraksi layar landscape)
+    public static final float DEFAULT_TABLE_LEFT = 0.10f;
+    public static final float DEFAULT_TABLE_TOP = 0.18f;
+    public static final float DEFAULT_TABLE_RIGHT = 0.90f;
+    public static final float DEFAULT_TABLE_BOTTOM = 0.86f;
+    
+    private final String packageName;
+    private final String displayName;
+    
+    // Style
+    private final int overlayOpacity;
+    private final int lineThickness;
+    private final int trajectoryColor;
+    private final int frameRate;
+    
+    // Table geometry (fraksi 0..1)
+    private final float tableLeft;
+    private final float tableTop;
+    private final float tableRight;
+    private final float tableBottom;
+    
+    // Precomputed table geometry (px) untuk screen size terakhir
+    private final int screenWidth;
+    private final int screenHeight;
+    private final float tableLeftPx;
+    private final float tableTopPx;
+    private final float tableRightPx;
+    private final float tableBottomPx;
+    
+    private GameConfig(Builder builder) {
+        this.packageName = builder.packageName;
+        this.displayName = builder.displayName;
+        this.overlayOpacity = builder.overlayOpacity;
+        this.lineThickness = builder.lineThickness;
+        this.trajectoryColor = builder.trajectoryColor;
+        this.frameRate = builder.frameRate;
+        this.tableLeft = builder.tableLeft;
+        this.tableTop = builder.tableTop;
+        this.tableRight = builder.tableRight;
+        this.tableBottom = builder.tableBottom;
+        this.screenWidth = builder.screenWidth;
+        this.screenHeight = builder.screenHeight;
+        this.tableLeftPx = tableLeft * screenWidth;
+        this.tableTopPx = tableTop * screenHeight;
+        this.tableRightPx = tableRight * screenWidth;
+        this.tableBottomPx = tableBottom * screenHeight;
+    }
+    
+    /**
+     * Profile baru dengan style dari global settings snapshot
+     */
+    public static Builder fromSettings(String packageName, String displayName, SettingsSnapshot settings) {
+        return new Builder(packageName, displayName)
+            .setOverlayOpacity(settings.getOverlayOpacity())
+            .setLineThickness(settings.getLineThickness())
+            .setTrajectoryColor(settings.getTrajectoryColor())
+            .setFrameRate(settings.getFrameRate());
+    }
+    
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+    
+    /**
+     * Return profile dengan geometry px untuk screen size ini (this jika sama)
+     */
+    public GameConfig withScreenSize(int width, int height) {
+        if (width == screenWidth && height == screenHeight) return this;
+        return toBuilder().setScreenSize(width, height).build();
+    }
+    
+    public boolean isDefault() {
+        return DEFAULT_PACKAGE.equals(packageName);
+    }
+    
+    public String getPackageName() {
+        return packageName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public int getOverlayOpacity() {
+        return overlayOpacity;
+    }
+    
+    /**
+     * Line thickness dalam px
+     */
+    public int getLineThickness() {
+        return lineThickness;
+    }
+    
+    public int getTrajectoryColor() {
+        return trajectoryColor;
+    }
+    
+    public int getFrameRate() {
+        return frameRate;
+    }
+    
+    public float getTableLeft() {
+        return tableLeft;
+    }
+    
+    public float getTableTop() {
+        return tableTop;
+    }
+    
+    public float getTableRight() {
+        return tableRight;
+    }
+    
+    public float getTableBottom() {
+        return tableBottom;
+    }
+    
+    public float getTableLeftPx() {
+        return tableLeftPx;
+    }
+    
+    public float getTableTopPx() {
+        return tableTopPx;
+    }
+    
+    public float getTableRightPx() {
+        return tableRightPx;
+    }
+    
+    public float getTableBottomPx() {
+        return tableBottomPx;
+    }
+    
+    @Override
+    public String toString() {
+        return "GameConfig{" + packageName +
+            ", opacity=" + overlayOpacity +
+            ", thickness=" + lineThickness +
+            ", color=#" + Integer.toHexString(trajectoryColor) +
+            ", fps=" + frameRate +
+            ", table=[" + tableLeft + "," + tableTop + "," + tableRight + "," + tableBottom + "]}";
+    }
+    
+    /**
+     * Builder untuk GameConfig
+     */
+    public static final class Builder {
+        private final String packageName;
+        private String displayName;
+        private int overlayOpacity = AppConfig.DEFAULT_OVERLAY_OPACITY;
+        private int lineThickness = AppConfig.DEFAULT_LINE_THICKNESS;
+        private int trajectoryColor = AppConfig.DEFAULT_TRAJECTORY_COLOR;
+        private int frameRate = AppConfig.DEFAULT_FRAME_RATE;
+        private float tableLeft = DEFAULT_TABLE_LEFT;
+        private float tableTop = DEFAULT_TABLE_TOP;
+        private float tableRight = DEFAULT_TABLE_RIGHT;
+        private float tableBottom = DEFAULT_TABLE_BOTTOM;
+        private int screenWidth = 0;
+        private int screenHeight = 0;
+        
+        public Builder(String packageName, String displayName) {
+            this.packageName = packageName;
+            this.displayName = displayName;
+        }
+        
+        private Builder(GameConfig source) {
+            packageName = source.packageName;
+            displayName = source.displayName;
+            overlayOpacity = source.overlayOpacity;
+            lineThickness = source.lineThickness;
+            trajectoryColor = source.trajectoryColor;
+            frameRate = source.frameRate;
+            tableLeft = source.tableLeft;
+            tableTop = source.tableTop;
+            tableRight = source.tableRight;
+            tableBottom = source.tableBottom;
+            screenWidth = source.screenWidth;
+            screenHeight = source.screenHeight;
+        }
+        
+        public Builder setOverlayOpacity(int opacity) {
+            this.overlayOpacity = Math.max(0, Math.min(100, opacity));
+            return this;
+        }
+        
+        public Builder setLineThickness(int thickness) {
+            this.lineThickness = Math.max(AppConfig.MIN_LINE_THICKNESS,
+                Math.min(AppConfig.MAX_LINE_THICKNESS, thickness));
+            return this;
+        }
+        
+        public Builder setTrajectoryColor(int color) {
+            this.trajectoryColor = color;
+            return this;
+        }
+        
+        public Builder setFrameRate(int frameRate) {
+            this.frameRate = Math.max(1, Math.min(240, frameRate));
+            return this;
+        }
+        
+        /**
+         * Table bounds sebagai fraksi layar (0..1, left < right, top < bottom)
+         */
+        public Builder setTableBounds(float left, float top, float right, float bottom) {
+            if (left < 0f || top < 0f || right > 1f || bottom > 1f || left >= right || top >= bottom) {
+                throw new IllegalArgumentException("Invalid table bounds");
+            }
+            this.tableLeft = left;
+            this.tableTop = top;
+            this.tableRight = right;
+            this.tableBottom = bottom;
+            return this;
+        }
+        
+        public Builder setScreenSize(int width, int height) {
+            this.screenWidth = width;
+            this.screenHeight = height;
+            return this;
+        }
+        
+        public GameConfig build() {
+            return new GameConfig(this);
+        }
+    }
+}
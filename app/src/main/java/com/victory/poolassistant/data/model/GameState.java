@@ -0,0 +1,70 @@
+package com.victory.poolassistant.data.model;
+
+/**
+ * Immutable foreground game state
+ * Di-publish oleh GameDetector; satu instance dipakai bersama oleh semua subscriber
+ * (HomeFragment, overlay service, stats).
+ */
+public final class GameState {
+    
+    // Sumber event yang menghasilkan state ini
+    public static final int SOURCE_NONE = 0;
+    public static final int SOURCE_ACCESSIBILITY = 1;
+    public static final int SOURCE_USAGE_STATS = 2;
+    public static final int SOURCE_REMOTE = 3;
+    
+    private static final String[] SOURCE_NAMES = {"none", "accessibility", "usage stats", "peer process"};
+    
+    public static final GameState NONE = new GameState(null, null, SOURCE_NONE, 0);
+    
+    private final String foregroundPackage;
+    private final String gamePackage;
+    private final int source;
+    private final long changedAt;
+    
+    public GameState(String foregroundPackage, String gamePackage, int source, long changedAt) {
+        this.foregroundPackage = foregroundPackage;
+        this.gamePackage = gamePackage;
+        this.source = source;
+        this.changedAt = changedAt;
+    }
+    
+    /**
+     * Package aplikasi di foreground (null jika belum diketahui)
+     */
+    public String getForegroundPackage() {
+        return foregroundPackage;
+    }
+    
+    /**
+     * Package supported game di foreground, null jika tidak ada game aktif
+     */
+    public String getGamePackage() {
+        return gamePackage;
+    }
+    
+    public boolean isGameForeground() {
+        return gamePackage != null;
+    }
+    
+    public int getSource() {
+        return source;
+    }
+    
+    public String getSourceName() {
+        return SOURCE_NAMES[source];
+    }
+    
+    /**
+     * Waktu perubahan (System.currentTimeMillis)
+     */
+    public long getChangedAt() {
+        return changedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "GameState{game=" + gamePackage + ", foreground=" + foregroundPackage +
+            ", source=" + getSourceName() + "}";
+    }
+}
@@ -0,0 +1,61 @@
+package com.victory.poolassistant.data.model;
+
+/**
+ * Overlay feature state model
+ * Source of truth untuk toggle overlay, sehingga nilai fitur tersedia walaupun
+ * panel FULL/SETTINGS belum pernah dibuat. Opacity/ketebalan garis ada di
+ * SettingsSnapshot (AppConfig.getSettings()).
+ */
+public class OverlaySettings {
+    
+    // Defaults (sama dengan default widget overlay)
+    public static final boolean DEFAULT_BASIC_AIM = true;
+    public static final boolean DEFAULT_ROOT_AIM = false;
+    public static final boolean DEFAULT_PREDICTION = true;
+    public static final boolean DEFAULT_DARK_THEME = false;
+    
+    private boolean basicAimEnabled = DEFAULT_BASIC_AIM;
+    private boolean rootAimEnabled = DEFAULT_ROOT_AIM;
+    private boolean predictionEnabled = DEFAULT_PREDICTION;
+    private boolean darkTheme = DEFAULT_DARK_THEME;
+    
+    public boolean isBasicAimEnabled() {
+        return basicAimEnabled;
+    }
+    
+    public void setBasicAimEnabled(boolean enabled) {
+        this.basicAimEnabled = enabled;
+    }
+    
+    public boolean isRootAimEnabled() {
+        return rootAimEnabled;
+    }
+    
+    public void setRootAimEnabled(boolean enabled) {
+        this.rootAimEnabled = enabled;
+    }
+    
+    public boolean isPredictionEnabled() {
+        return predictionEnabled;
+    }
+    
+    public void setPredictionEnabled(boolean enabled) {
+        this.predictionEnabled = enabled;
+    }
+    
+    public boolean isDarkTheme() {
+        return darkTheme;
+    }
+    
+    public void setDarkTheme(boolean darkTheme) {
+        this.darkTheme = darkTheme;
+    }
+    
+    @Override
+    public String toString() {
+        return "OverlaySettings{aim=" + basicAimEnabled +
+            ", rootAim=" + rootAimEnabled +
+            ", prediction=" + predictionEnabled +
+            ", dark=" + darkTheme + "}";
+    }
+}
@@ -0,0 +1,382 @@
+package com.victory.poolassistant.data.model;
+
+import android.content.SharedPreferences;
+
+import com.victory.poolassistant.core.AppConfig;
+
+import java.util.Map;
+
+/**
+ * Immutable settings snapshot
+ * Di-publish lewat volatile reference di AppConfig; render/simulation thread
+ * cukup membaca AppConfig.getSettings() tanpa lock, widget atau SharedPreferences.
+ * Perubahan dibuat lewat toBuilder().
+ */
+public final class SettingsSnapshot {
+    
+    public static final SettingsSnapshot DEFAULTS = new Builder().build();
+    
+    // Overlay
+    private final int overlayOpacity;
+    private final int lineThickness;
+    private final int trajectoryColor;
+    private final int animationSpeed;
+    private final boolean autoHide;
+    
+    // Performance
+    private final int frameRate;
+    private final boolean batteryOptimization;
+    
+    // Detection
+    private final String detectionMethod;
+    private final int detectionSensitivity;
+    private final boolean autoStart;
+    
+    // Floating icon
+    private final boolean floatingIconEnabled;
+    private final int iconSize;
+    private final int iconTransparency;
+    private final int iconPositionX;
+    private final int iconPositionY;
+    
+    // Appearance
+    private final String theme;
+    
+    private SettingsSnapshot(Builder builder) {
+        this.overlayOpacity = builder.overlayOpacity;
+        this.lineThickness = builder.lineThickness;
+        this.trajectoryColor = builder.trajectoryColor;
+        this.animationSpeed = builder.animationSpeed;
+        this.autoHide = builder.autoHide;
+        this.frameRate = builder.frameRate;
+        this.batteryOptimization = builder.batteryOptimization;
+        this.detectionMethod = builder.detectionMethod;
+        this.detectionSensitivity = builder.detectionSensitivity;
+        this.autoStart = builder.autoStart;
+        this.floatingIconEnabled = builder.floatingIconEnabled;
+        this.iconSize = builder.iconSize;
+        this.iconTransparency = builder.iconTransparency;
+        this.iconPositionX = builder.iconPositionX;
+        this.iconPositionY = builder.iconPositionY;
+        this.theme = builder.theme;
+    }
+    
+    /**
+     * Load snapshot dari SharedPreferences (sekali saat init / reset)
+     */
+    public static SettingsSnapshot fromPreferences(SharedPreferences prefs) {
+        return new Builder()
+            .setOverlayOpacity(prefs.getInt(AppConfig.PREF_OVERLAY_OPACITY, AppConfig.DEFAULT_OVERLAY_OPACITY))
+            .setLineThickness(prefs.getInt(AppConfig.PREF_LINE_THICKNESS, AppConfig.DEFAULT_LINE_THICKNESS))
+            .setTrajectoryColor(prefs.getInt(AppConfig.PREF_TRAJECTORY_COLOR, AppConfig.DEFAULT_TRAJECTORY_COLOR))
+            .setAnimationSpeed(prefs.getInt(AppConfig.PREF_ANIMATION_SPEED, AppConfig.DEFAULT_ANIMATION_SPEED))
+            .setAutoHide(prefs.getBoolean(AppConfig.PREF_AUTO_HIDE, true))
+            .setFrameRate(prefs.getInt(AppConfig.PREF_FRAME_RATE, AppConfig.DEFAULT_FRAME_RATE))
+            .setBatteryOptimization(prefs.getBoolean(AppConfig.PREF_BATTERY_OPTIMIZATION, true))
+            .setDetectionMethod(prefs.getString(AppConfig.PREF_DETECTION_METHOD, AppConfig.DETECTION_HYBRID))
+            .setDetectionSensitivity(prefs.getInt(AppConfig.PREF_DETECTION_SENSITIVITY, AppConfig.DEFAULT_DETECTION_SENSITIVITY))
+            .setAutoStart(prefs.getBoolean(AppConfig.PREF_AUTO_START, false))
+            .setFloatingIconEnabled(prefs.getBoolean(AppConfig.PREF_FLOATING_ICON_ENABLED, true))
+            .setIconSize(prefs.getInt(AppConfig.PREF_ICON_SIZE, AppConfig.DEFAULT_ICON_SIZE))
+            .setIconTransparency(prefs.getInt(AppConfig.PREF_ICON_TRANSPARENCY, AppConfig.DEFAULT_ICON_TRANSPARENCY))
+            .setIconPosition(prefs.getInt(AppConfig.PREF_ICON_POSITION_X, -1), prefs.getInt(AppConfig.PREF_ICON_POSITION_Y, -1))
+            .setTheme(prefs.getString(AppConfig.PREF_THEME, AppConfig.THEME_SYSTEM))
+            .build();
+    }
+    
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+    
+    /**
+     * Tulis key -> value untuk setiap field yang berbeda dari snapshot lain.
+     * Key dan value kompatibel dengan Builder.apply()
+     */
+    public void diff(SettingsSnapshot other, Map<String, Object> out) {
+        if (overlayOpacity != other.overlayOpacity) out.put(AppConfig.PREF_OVERLAY_OPACITY, overlayOpacity);
+        if (lineThickness != other.lineThickness) out.put(AppConfig.PREF_LINE_THICKNESS, lineThickness);
+        if (trajectoryColor != other.trajectoryColor) out.put(AppConfig.PREF_TRAJECTORY_COLOR, trajectoryColor);
+        if (animationSpeed != other.animationSpeed) out.put(AppConfig.PREF_ANIMATION_SPEED, animationSpeed);
+        if (autoHide != other.autoHide) out.put(AppConfig.PREF_AUTO_HIDE, autoHide);
+        if (frameRate != other.frameRate) out.put(AppConfig.PREF_FRAME_RATE, frameRate);
+        if (batteryOptimization != other.batteryOptimization) out.put(AppConfig.PREF_BATTERY_OPTIMIZATION, batteryOptimization);
+        if (!detectionMethod.equals(other.detectionMethod)) out.put(AppConfig.PREF_DETECTION_METHOD, detectionMethod);
+        if (detectionSensitivity != other.detectionSensitivity) out.put(AppConfig.PREF_DETECTION_SENSITIVITY, detectionSensitivity);
+        if (autoStart != other.autoStart) out.put(AppConfig.PREF_AUTO_START, autoStart);
+        if (floatingIconEnabled != other.floatingIconEnabled) out.put(AppConfig.PREF_FLOATING_ICON_ENABLED, floatingIconEnabled);
+        if (iconSize != other.iconSize) out.put(AppConfig.PREF_ICON_SIZE, iconSize);
+        if (iconTransparency != other.iconTransparency) out.put(AppConfig.PREF_ICON_TRANSPARENCY, iconTransparency);
+        if (iconPositionX != other.iconPositionX) out.put(AppConfig.PREF_ICON_POSITION_X, iconPositionX);
+        if (iconPositionY != other.iconPositionY) out.put(AppConfig.PREF_ICON_POSITION_Y, iconPositionY);
+        if (!theme.equals(other.theme)) out.put(AppConfig.PREF_THEME, theme);
+    }
+    
+    /**
+     * Tulis key -> value untuk semua field (full sync ke process lain)
+     */
+    public void writeTo(Map<String, Object> out) {
+        out.put(AppConfig.PREF_OVERLAY_OPACITY, overlayOpacity);
+        out.put(AppConfig.PREF_LINE_THICKNESS, lineThickness);
+        out.put(AppConfig.PREF_TRAJECTORY_COLOR, trajectoryColor);
+        out.put(AppConfig.PREF_ANIMATION_SPEED, animationSpeed);
+        out.put(AppConfig.PREF_AUTO_HIDE, autoHide);
+        out.put(AppConfig.PREF_FRAME_RATE, frameRate);
+        out.put(AppConfig.PREF_BATTERY_OPTIMIZATION, batteryOptimization);
+        out.put(AppConfig.PREF_DETECTION_METHOD, detectionMethod);
+        out.put(AppConfig.PREF_DETECTION_SENSITIVITY, detectionSensitivity);
+        out.put(AppConfig.PREF_AUTO_START, autoStart);
+        out.put(AppConfig.PREF_FLOATING_ICON_ENABLED, floatingIconEnabled);
+        out.put(AppConfig.PREF_ICON_SIZE, iconSize);
+        out.put(AppConfig.PREF_ICON_TRANSPARENCY, iconTransparency);
+        out.put(AppConfig.PREF_ICON_POSITION_X, iconPositionX);
+        out.put(AppConfig.PREF_ICON_POSITION_Y, iconPositionY);
+        out.put(AppConfig.PREF_THEME, theme);
+    }
+    
+    // =============================================================================
+    // GETTERS
+    // =============================================================================
+    
+    /**
+     * Overlay opacity (0-100)
+     */
+    public int getOverlayOpacity() {
+        return overlayOpacity;
+    }
+    
+    /**
+     * Trajectory line thickness dalam px (MIN_LINE_THICKNESS..MAX_LINE_THICKNESS)
+     */
+    public int getLineThickness() {
+        return lineThickness;
+    }
+    
+    public int getTrajectoryColor() {
+        return trajectoryColor;
+    }
+    
+    public int getAnimationSpeed() {
+        return animationSpeed;
+    }
+    
+    public boolean isAutoHide() {
+        return autoHide;
+    }
+    
+    /**
+     * Target frame rate (fps)
+     */
+    public int getFrameRate() {
+        return frameRate;
+    }
+    
+    public boolean isBatteryOptimization() {
+        return batteryOptimization;
+    }
+    
+    public String getDetectionMethod() {
+        return detectionMethod;
+    }
+    
+    public int getDetectionSensitivity() {
+        return detectionSensitivity;
+    }
+    
+    public boolean isAutoStart() {
+        return autoStart;
+    }
+    
+    public boolean isFloatingIconEnabled() {
+        return floatingIconEnabled;
+    }
+    
+    public int getIconSize() {
+        return iconSize;
+    }
+    
+    public int getIconTransparency() {
+        return iconTransparency;
+    }
+    
+    /**
+     * Saved icon X position (-1 = belum ada)
+     */
+    public int getIconPositionX() {
+        return iconPositionX;
+    }
+    
+    /**
+     * Saved icon Y position (-1 = belum ada)
+     */
+    public int getIconPositionY() {
+        return iconPositionY;
+    }
+    
+    public String getTheme() {
+        return theme;
+    }
+    
+    @Override
+    public String toString() {
+        return "SettingsSnapshot{opacity=" + overlayOpacity +
+            ", thickness=" + lineThickness +
+            ", color=#" + Integer.toHexString(trajectoryColor) +
+            ", frameRate=" + frameRate +
+            ", detection=" + detectionMethod +
+            ", icon=" + floatingIconEnabled + "/" + iconSize +
+            ", theme=" + theme + "}";
+    }
+    
+    /**
+     * Builder untuk snapshot baru. Nilai di-clamp ke range yang valid
+     */
+    public static final class Builder {
+        private int overlayOpacity = AppConfig.DEFAULT_OVERLAY_OPACITY;
+        private int lineThickness = AppConfig.DEFAULT_LINE_THICKNESS;
+        private int trajectoryColor = AppConfig.DEFAULT_TRAJECTORY_COLOR;
+        private int animationSpeed = AppConfig.DEFAULT_ANIMATION_SPEED;
+        private boolean autoHide = true;
+        private int frameRate = AppConfig.DEFAULT_FRAME_RATE;
+        private boolean batteryOptimization = true;
+        private String detectionMethod = AppConfig.DETECTION_HYBRID;
+        private int detectionSensitivity = AppConfig.DEFAULT_DETECTION_SENSITIVITY;
+        private boolean autoStart = false;
+        private boolean floatingIconEnabled = true;
+        private int iconSize = AppConfig.DEFAULT_ICON_SIZE;
+        private int iconTransparency = AppConfig.DEFAULT_ICON_TRANSPARENCY;
+        private int iconPositionX = -1;
+        private int iconPositionY = -1;
+        private String theme = AppConfig.THEME_SYSTEM;
+        
+        public Builder() {
+        }
+        
+        private Builder(SettingsSnapshot source) {
+            overlayOpacity = source.overlayOpacity;
+            lineThickness = source.lineThickness;
+            trajectoryColor = source.trajectoryColor;
+            animationSpeed = source.animationSpeed;
+            autoHide = source.autoHide;
+            frameRate = source.frameRate;
+            batteryOptimization = source.batteryOptimization;
+            detectionMethod = source.detectionMethod;
+            detectionSensitivity = source.detectionSensitivity;
+            autoStart = source.autoStart;
+            floatingIconEnabled = source.floatingIconEnabled;
+            iconSize = source.iconSize;
+            iconTransparency = source.iconTransparency;
+            iconPositionX = source.iconPositionX;
+            iconPositionY = source.iconPositionY;
+            theme = source.theme;
+        }
+        
+        public Builder setOverlayOpacity(int opacity) {
+            this.overlayOpacity = clamp(opacity, 0, 100);
+            return this;
+        }
+        
+        public Builder setLineThickness(int thickness) {
+            this.lineThickness = clamp(thickness, AppConfig.MIN_LINE_THICKNESS, AppConfig.MAX_LINE_THICKNESS);
+            return this;
+        }
+        
+        public Builder setTrajectoryColor(int color) {
+            this.trajectoryColor = color;
+            return this;
+        }
+        
+        public Builder setAnimationSpeed(int speed) {
+            this.animationSpeed = clamp(speed, 0, 100);
+            return this;
+        }
+        
+        public Builder setAutoHide(boolean autoHide) {
+            this.autoHide = autoHide;
+            return this;
+        }
+        
+        public Builder setFrameRate(int frameRate) {
+            this.frameRate = clamp(frameRate, 1, 240);
+            return this;
+        }
+        
+        public Builder setBatteryOptimization(boolean enabled) {
+            this.batteryOptimization = enabled;
+            return this;
+        }
+        
+        public Builder setDetectionMethod(String method) {
+            this.detectionMethod = method != null ? method : AppConfig.DETECTION_HYBRID;
+            return this;
+        }
+        
+        public Builder setDetectionSensitivity(int sensitivity) {
+            this.detectionSensitivity = clamp(sensitivity, 0, 100);
+            return this;
+        }
+        
+        public Builder setAutoStart(boolean autoStart) {
+            this.autoStart = autoStart;
+            return this;
+        }
+        
+        public Builder setFloatingIconEnabled(boolean enabled) {
+            this.floatingIconEnabled = enabled;
+            return this;
+        }
+        
+        public Builder setIconSize(int size) {
+            this.iconSize = Math.max(1, size);
+            return this;
+        }
+        
+        public Builder setIconTransparency(int transparency) {
+            this.iconTransparency = clamp(transparency, 0, 100);
+            return this;
+        }
+        
+        public Builder setIconPosition(int x, int y) {
+            this.iconPositionX = x;
+            this.iconPositionY = y;
+            return this;
+        }
+        
+        public Builder setTheme(String theme) {
+            this.theme = theme != null ? theme : AppConfig.THEME_SYSTEM;
+            return this;
+        }
+        
+        /**
+         * Apply preference key generik. Return false jika key bukan bagian snapshot
+         */
+        public boolean apply(String key, Object value) {
+            switch (key) {
+                case AppConfig.PREF_OVERLAY_OPACITY: setOverlayOpacity((Integer) value); return true;
+                case AppConfig.PREF_LINE_THICKNESS: setLineThickness((Integer) value); return true;
+                case AppConfig.PREF_TRAJECTORY_COLOR: setTrajectoryColor((Integer) value); return true;
+                case AppConfig.PREF_ANIMATION_SPEED: setAnimationSpeed((Integer) value); return true;
+                case AppConfig.PREF_AUTO_HIDE: setAutoHide((Boolean) value); return true;
+                case AppConfig.PREF_FRAME_RATE: setFrameRate((Integer) value); return true;
+                case AppConfig.PREF_BATTERY_OPTIMIZATION: setBatteryOptimization((Boolean) value); return true;
+                case AppConfig.PREF_DETECTION_METHOD: setDetectionMethod((String) value); return true;
+                case AppConfig.PREF_DETECTION_SENSITIVITY: setDetectionSensitivity((Integer) value); return true;
+                case AppConfig.PREF_AUTO_START: setAutoStart((Boolean) value); return true;
+                case AppConfig.PREF_FLOATING_ICON_ENABLED: setFloatingIconEnabled((Boolean) value); return true;
+                case AppConfig.PREF_ICON_SIZE: setIconSize((Integer) value); return true;
+                case AppConfig.PREF_ICON_TRANSPARENCY: setIconTransparency((Integer) value); return true;
+                case AppConfig.PREF_ICON_POSITION_X: iconPositionX = (Integer) value; return true;
+                case AppConfig.PREF_ICON_POSITION_Y: iconPositionY = (Integer) value; return true;
+                case AppConfig.PREF_THEME: setTheme((String) value); return true;
+                default: return false;
+            }
+        }
+        
+        public SettingsSnapshot build() {
+            return new SettingsSnapshot(this);
+        }
+        
+        private static int clamp(int value, int min, int max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.victory.poolassistant.data.repository;
+
+import com.victory.poolassistant.core.AppConfig;
+import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.data.model.GameConfig;
+import com.victory.poolassistant.data.model.SettingsSnapshot;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Per-game profile repository
+ * Semua profile (SUPPORTED_GAMES + default) di-load sekali ke memory sebagai
+ * GameConfig immutable dengan geometry yang sudah di-resolve ke px.
+ * Switch game hanya pointer swap ke profile aktif: tidak ada preference read
+ * atau perhitungan layout di jalur switch.
+ *
+ * Profile yang belum pernah diubah user mengikuti global settings; begitu
+ * style diubah saat game aktif, profile itu disimpan sendiri (key "profile.<pkg>.*",
+ * termasuk table bounds; ikut export/import lewat SettingsCodec).
+ * Edit hanya menulis key yang berubah. Key tersebut sampai ke peer process lewat
+ * batch settings ProcessSync (di-coalesce); di sana hanya profile yang key-nya
+ * ada di batch yang di-load ulang (onStoredKeysChanged).
+ * Reset / import mengganti override sekaligus, jadi semua profile di-load ulang dari key.
+ */
+public final class GameProfileRepository implements AppConfig.SettingsListener, AppConfig.ResetListener,
+    AppConfig.StoredKeysListener {
+    
+    private static final String TAG = "GameProfileRepository";
+    
+    // Key "profile.<pkg>.*" (juga dipakai schema SettingsCodec)
+    static final String KEY_PREFIX = "profile.";
+    static final String KEY_CUSTOM = ".custom";
+    static final String KEY_OPACITY = ".opacity";
+    static final String KEY_THICKNESS = ".thickness";
+    static final String KEY_COLOR = ".color";
+    static final String KEY_FRAME_RATE = ".frame_rate";
+    static final String KEY_TABLE_LEFT = ".table_left";
+    static final String KEY_TABLE_TOP = ".table_top";
+    static final String KEY_TABLE_RIGHT = ".table_right";
+    static final String KEY_TABLE_BOTTOM = ".table_bottom";
+    
+    private static final GameProfileRepository instance = new GameProfileRepository();
+    
+    /**
+     * Listener untuk perubahan profile aktif
+     */
+    public interface ProfileListener {
+        void onProfileChanged(GameConfig oldProfile, GameConfig newProfile);
+    }
+    
+    // Dilindungi lock
+    private final Object lock = new Object();
+    private final HashMap<String, GameConfig> profiles = new HashMap<>();
+    private final HashSet<String> customPackages = new HashSet<>();
+    private int screenWidth = 0;
+    private int screenHeight = 0;
+    private boolean loaded = false;
+    
+    // Package yang terakhir di-activate (bisa datang sebelum profiles selesai di-load)
+    private String requestedPackage;
+    
+    // Dibaca render thread setiap frame
+    private volatile GameConfig active;
+    
+    private final CopyOnWriteArrayList<ProfileListener> listeners = new CopyOnWriteArrayList<>();
+    
+    // Stats
+    private volatile int switches = 0;
+    private volatile long lastSwitchNanos = 0;
+    
+    private GameProfileRepository() {
+        active = GameConfig.fromSettings(GameConfig.DEFAULT_PACKAGE, "Default", SettingsSnapshot.DEFAULTS).build();
+        profiles.put(GameConfig.DEFAULT_PACKAGE, active);
+    }
+    
+    public static GameProfileRepository getInstance() {
+        return instance;
+    }
+    
+    static String profileKey(String packageName, String field) {
+        return KEY_PREFIX + packageName + field;
+    }
+    
+    /**
+     * Load semua profile ke memory (startup, setelah AppConfig.initialize). Idempotent
+     */
+    public void initialize() {
+        GameConfig previous;
+        GameConfig current;
+        synchronized (lock) {
+            if (loaded) return;
+            SettingsSnapshot settings = AppConfig.getSettings();
+            
+            profiles.put(GameConfig.DEFAULT_PACKAGE, resolve(
+                GameConfig.fromSettings(GameConfig.DEFAULT_PACKAGE, "Default", settings)));
+            for (String packageName : AppConfig.SUPPORTED_GAMES) {
+                profiles.put(packageName, loadProfile(packageName, settings));
+            }
+            loaded = true;
+            
+            previous = active;
+            current = profileFor(requestedPackage);
+            active = current;
+        }
+        AppConfig.addSettingsListener(this);
+        AppConfig.addResetListener(this);
+        AppConfig.addStoredKeysListener(this);
+        Logger.d(TAG, "Loaded {} game profiles ({} custom)", profiles.size(), customPackages.size());
+        notifyProfileChanged(previous, current);
+    }
+    
+    /**
+     * Build profile satu game dari stored overrides (atau global settings)
+     */
+    private GameConfig loadProfile(String packageName, SettingsSnapshot settings) {
+        GameConfig.Builder builder = GameConfig.fromSettings(packageName, getDisplayName(packageName), settings);
+        if (AppConfig.getBoolean(profileKey(packageName, KEY_CUSTOM), false)) {
+            customPackages.add(packageName);
+            builder.setOverlayOpacity(AppConfig.getInt(profileKey(packageName, KEY_OPACITY), settings.getOverlayOpacity()))
+                .setLineThickness(AppConfig.getInt(profileKey(packageName, KEY_THICKNESS), settings.getLineThickness()))
+                .setTrajectoryColor(AppConfig.getInt(profileKey(packageName, KEY_COLOR), settings.getTrajectoryColor()))
+                .setFrameRate(AppConfig.getInt(profileKey(packageName, KEY_FRAME_RATE), settings.getFrameRate()));
+            try {
+                builder.setTableBounds(
+                    AppConfig.getFloat(profileKey(packageName, KEY_TABLE_LEFT), GameConfig.DEFAULT_TABLE_LEFT),
+                    AppConfig.getFloat(profileKey(packageName, KEY_TABLE_TOP), GameConfig.DEFAULT_TABLE_TOP),
+                    AppConfig.getFloat(profileKey(packageName, KEY_TABLE_RIGHT), GameConfig.DEFAULT_TABLE_RIGHT),
+                    AppConfig.getFloat(profileKey(packageName, KEY_TABLE_BOTTOM), GameConfig.DEFAULT_TABLE_BOTTOM));
+            } catch (IllegalArgumentException e) {
+                Logger.w(TAG, "Invalid table bounds for " + packageName + ", using defaults");
+            }
+        }
+        return resolve(builder);
+    }
+    
+    private GameConfig resolve(GameConfig.Builder builder) {
+        return builder.setScreenSize(screenWidth, screenHeight).build();
+    }
+    
+    private GameConfig profileFor(String packageName) {
+        GameConfig profile = packageName != null ? profiles.get(packageName) : null;
+        return profile != null ? profile : profiles.get(GameConfig.DEFAULT_PACKAGE);
+    }
+    
+    // =============================================================================
+    // SWITCHING
+    // =============================================================================
+    
+    /**
+     * Aktifkan profile untuk game package (null / unsupported = default). O(1)
+     */
+    public void activate(String packageName) {
+        long start = System.nanoTime();
+        GameConfig previous;
+        GameConfig current;
+        synchronized (lock) {
+            requestedPackage = packageName;
+            previous = active;
+            current = profileFor(packageName);
+            if (previous == current) return;
+            active = current;
+        }
+        lastSwitchNanos = System.nanoTime() - start;
+        switches++;
+        Logger.d(TAG, "Active profile: {}", current.getPackageName());
+        notifyProfileChanged(previous, current);
+    }
+    
+    /**
+     * Profile aktif (lock-free, aman dari render thread)
+     */
+    public GameConfig getActive() {
+        return active;
+    }
+    
+    /**
+     * Profile untuk package tertentu (default jika tidak ada)
+     */
+    public GameConfig getProfile(String packageName) {
+        synchronized (lock) {
+            return profileFor(packageName);
+        }
+    }
+    
+    public boolean isSupported(String packageName) {
+        synchronized (lock) {
+            return packageName != null && !GameConfig.DEFAULT_PACKAGE.equals(packageName)
+                && profiles.containsKey(packageName);
+        }
+    }
+    
+    public void addListener(ProfileListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+    
+    public void removeListener(ProfileListener listener) {
+        listeners.remove(listener);
+    }
+    
+    // =============================================================================
+    // EDITING
+    // =============================================================================
+    
+    /**
+     * Set opacity untuk profile aktif (default profile = global setting)
+     */
+    public void setOverlayOpacity(int opacity) {
+        GameConfig current = active;
+        if (current.isDefault()) {
+            AppConfig.setInt(AppConfig.PREF_OVERLAY_OPACITY, opacity);
+        } else {
+            updateProfile(current.toBuilder().setOverlayOpacity(opacity).build());
+        }
+    }
+    
+    /**
+     * Set line thickness (px) untuk profile aktif (default profile = global setting)
+     */
+    public void setLineThickness(int thickness) {
+        GameConfig current = active;
+        if (current.isDefault()) {
+            AppConfig.setInt(AppConfig.PREF_LINE_THICKNESS, thickness);
+        } else {
+            updateProfile(current.toBuilder().setLineThickness(thickness).build());
+        }
+    }
+    
+    /**
+     * Replace profile game (bukan default), tandai sebagai custom dan persist overrides
+     */
+    public void updateProfile(GameConfig profile) {
+        String packageName = profile.getPackageName();
+        if (profile.isDefault()) {
+            throw new IllegalArgumentException("Default profile follows global settings");
+        }
+        
+        GameConfig stored;
+        boolean wasCustom;
+        GameConfig previous = null;
+        GameConfig current;
+        synchronized (lock) {
+            stored = profiles.get(packageName);
+            wasCustom = customPackages.contains(packageName);
+            current = profile.withScreenSize(screenWidth, screenHeight);
+            profiles.put(packageName, current);
+            customPackages.add(packageName);
+            if (packageName.equals(active.getPackageName())) {
+                previous = active;
+                active = current;
+            }
+        }
+        
+        persistChanges(packageName, wasCustom ? stored : null, current);
+        
+        if (previous != null) {
+            notifyProfileChanged(previous, current);
+        }
+    }
+    
+    /**
+     * Tulis hanya key yang berubah (slider tick = satu key). Profile yang baru
+     * menjadi custom (stored null) menulis semua key, karena key yang belum ada
+     * akan mengikuti global settings saat load
+     */
+    private static void persistChanges(String packageName, GameConfig stored, GameConfig current) {
+        if (stored == null) {
+            AppConfig.setBoolean(profileKey(packageName, KEY_CUSTOM), true);
+        }
+        if (stored == null || stored.getOverlayOpacity() != current.getOverlayOpacity()) {
+            AppConfig.setInt(profileKey(packageName, KEY_OPACITY), current.getOverlayOpacity());
+        }
+        if (stored == null || stored.getLineThickness() != current.getLineThickness()) {
+            AppConfig.setInt(profileKey(packageName, KEY_THICKNESS), current.getLineThickness());
+        }
+        if (stored == null || stored.getTrajectoryColor() != current.getTrajectoryColor()) {
+            AppConfig.setInt(profileKey(packageName, KEY_COLOR), current.getTrajectoryColor());
+        }
+        if (stored == null || stored.getFrameRate() != current.getFrameRate()) {
+            AppConfig.setInt(profileKey(packageName, KEY_FRAME_RATE), current.getFrameRate());
+        }
+        if (stored == null || stored.getTableLeft() != current.getTableLeft()
+            || stored.getTableTop() != current.getTableTop()
+            || stored.getTableRight() != current.getTableRight()
+            || stored.getTableBottom() != current.getTableBottom()) {
+            AppConfig.setFloat(profileKey(packageName, KEY_TABLE_LEFT), current.getTableLeft());
+            AppConfig.setFloat(profileKey(packageName, KEY_TABLE_TOP), current.getTableTop());
+            AppConfig.setFloat(profileKey(packageName, KEY_TABLE_RIGHT), current.getTableRight());
+            AppConfig.setFloat(profileKey(packageName, KEY_TABLE_BOTTOM), current.getTableBottom());
+        }
+    }
+    
+    /**
+     * Screen size berubah (rotation, display change): resolve ulang geometry semua profile
+     * sekali di sini supaya switch game tidak perlu layout ulang
+     */
+    public void onScreenSizeChanged(int width, int height) {
+        GameConfig previous;
+        GameConfig current;
+        synchronized (lock) {
+            if (width == screenWidth && height == screenHeight) return;
+            screenWidth = width;
+            screenHeight = height;
+            for (Map.Entry<String, GameConfig> entry : profiles.entrySet()) {
+                entry.setValue(entry.getValue().withScreenSize(width, height));
+            }
+            previous = active;
+            current = profileFor(previous.getPackageName());
+            active = current;
+        }
+        notifyProfileChanged(previous, current);
+    }
+    
+    @Override
+    public void onSettingsChanged(SettingsSnapshot oldSettings, SettingsSnapshot newSettings) {
+        if (oldSettings.getOverlayOpacity() == newSettings.getOverlayOpacity()
+            && oldSettings.getLineThickness() == newSettings.getLineThickness()
+            && oldSettings.getTrajectoryColor() == newSettings.getTrajectoryColor()
+            && oldSettings.getFrameRate() == newSettings.getFrameRate()) {
+            return;
+        }
+        
+        // Profile yang tidak custom mengikuti global style
+        GameConfig previous;
+        GameConfig current;
+        synchronized (lock) {
+            for (Map.Entry<String, GameConfig> entry : profiles.entrySet()) {
+                if (customPackages.contains(entry.getKey())) continue;
+                entry.setValue(entry.getValue().toBuilder()
+                    .setOverlayOpacity(newSettings.getOverlayOpacity())
+                    .setLineThickness(newSettings.getLineThickness())
+                    .setTrajectoryColor(newSettings.getTrajectoryColor())
+                    .setFrameRate(newSettings.getFrameRate())
+                    .build());
+            }
+            previous = active;
+            current = profileFor(previous.getPackageName());
+            active = current;
+        }
+        notifyProfileChanged(previous, current);
+    }
+    
+    /**
+     * Key "profile.<pkg>.*" diganti sekaligus (reset, import, atau dari peer):
+     * buang override di memory dan load ulang setiap profile dari key tersebut
+     */
+    @Override
+    public void onSettingsReset() {
+        GameConfig previous;
+        GameConfig current;
+        synchronized (lock) {
+            if (!loaded) return;
+            customPackages.clear();
+            SettingsSnapshot settings = AppConfig.getSettings();
+            for (String packageName : AppConfig.SUPPORTED_GAMES) {
+                profiles.put(packageName, loadProfile(packageName, settings));
+            }
+            previous = active;
+            current = profileFor(previous.getPackageName());
+            active = current;
+        }
+        Logger.d(TAG, "Profiles reloaded ({} custom)", customPackages.size());
+        notifyProfileChanged(previous, current);
+    }
+    
+    /**
+     * Key profile diedit di peer process (batch settings ProcessSync): load ulang
+     * hanya package yang key-nya ada di batch
+     */
+    @Override
+    public void onStoredKeysChanged(Set<String> keys) {
+        GameConfig previous;
+        GameConfig current;
+        int reloaded = 0;
+        synchronized (lock) {
+            if (!loaded) return;
+            SettingsSnapshot settings = AppConfig.getSettings();
+            for (String packageName : AppConfig.SUPPORTED_GAMES) {
+                if (!hasProfileKey(keys, packageName)) continue;
+                customPackages.remove(packageName);
+                profiles.put(packageName, loadProfile(packageName, settings));
+                reloaded++;
+            }
+            if (reloaded == 0) return;
+            previous = active;
+            current = profileFor(previous.getPackageName());
+            active = current;
+        }
+        Logger.d(TAG, "Reloaded {} profiles from peer process", reloaded);
+        notifyProfileChanged(previous, current);
+    }
+    
+    private static boolean hasProfileKey(Set<String> keys, String packageName) {
+        String prefix = KEY_PREFIX + packageName + ".";
+        for (String key : keys) {
+            if (key.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+    
+    private void notifyProfileChanged(GameConfig previous, GameConfig current) {
+        if (previous == current) return;
+        for (ProfileListener listener : listeners) {
+            try {
+                listener.onProfileChanged(previous, current);
+            } catch (Exception e) {
+                Logger.e(TAG, "Profile listener failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Nama tampilan untuk supported game
+     */
+    public static String getDisplayName(String packageName) {
+        switch (packageName) {
+            case "com.miniclip.eightballpool":
+                return "8 Ball Pool";
+            case "com.pool.billiards.ball":
+                return "Pool Billiards";
+            case "com.gameindy.nineballpool":
+                return "9 Ball Pool";
+            case "com.zingmagic.poolrebel":
+                return "Pool Rebel";
+            case GameConfig.DEFAULT_PACKAGE:
+                return "Default";
+            default:
+                return packageName;
+        }
+    }
+    
+    /**
+     * Get profile info untuk stats screen
+     */
+    public String getInfo() {
+        GameConfig current = active;
+        synchronized (lock) {
+            return "Active: " + current.getDisplayName() +
+                "\nProfiles: " + profiles.size() + " (" + customPackages.size() + " custom)" +
+                "\nSwitches: " + switches + ", last: " +
+                String.format(Locale.US, "%.3f", lastSwitchNanos / 1_000_000.0) + " ms";
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.victory.poolassistant.data.repository;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+
+import com.victory.poolassistant.core.AppConfig;
+import com.victory.poolassistant.data.model.GameConfig;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming settings codec (export/import backup)
+ * Schema adalah tabel static di bawah, bukan reflection, sehingga tidak ada
+ * adapter Gson yang dibuat saat startup. Format:
+ *
+ * { "schemaVersion": N, "appVersion": "...", "exportedAt": millis,
+ *   "settings": { "key": value, ... } }
+ *
+ * Import selalu di-validasi penuh dulu; hasilnya all-or-nothing.
+ * Override per-game ("profile.<pkg>.*", lihat GameProfileRepository) ikut
+ * di-export; value profile hanya ditulis untuk profile yang custom.
+ */
+public final class SettingsCodec {
+    
+    /**
+     * Schema version saat ini. Naikkan + tambah case di migrate() jika key berubah
+     */
+    public static final int SCHEMA_VERSION = 2;
+    
+    private static final String FIELD_SCHEMA_VERSION = "schemaVersion";
+    private static final String FIELD_APP_VERSION = "appVersion";
+    private static final String FIELD_EXPORTED_AT = "exportedAt";
+    private static final String FIELD_SETTINGS = "settings";
+    
+    private static final int TYPE_INT = 0;
+    private static final int TYPE_BOOLEAN = 1;
+    private static final int TYPE_STRING = 2;
+    private static final int TYPE_COLOR = 3;
+    private static final int TYPE_FRACTION = 4;
+    
+    /**
+     * Satu entry schema: key, type, default dan constraint
+     */
+    private static final class Field {
+        final String key;
+        final int type;
+        final Object defaultValue;
+        final int min;
+        final int max;
+        final String[] allowed;
+        // Hanya di-export jika key tersimpan (value profile non-custom tidak ditulis)
+        final boolean optional;
+        
+        Field(String key, int type, Object defaultValue, int min, int max, String[] allowed) {
+            this(key, type, defaultValue, min, max, allowed, false);
+        }
+        
+        Field(String key, int type, Object defaultValue, int min, int max, String[] allowed, boolean optional) {
+            this.key = key;
+            this.type = type;
+            this.defaultValue = defaultValue;
+            this.min = min;
+            this.max = max;
+            this.allowed = allowed;
+            this.optional = optional;
+        }
+        
+        Field asOptional() {
+            return new Field(key, type, defaultValue, min, max, allowed, true);
+        }
+    }
+    
+    private static Field intField(String key, int defaultValue, int min, int max) {
+        return new Field(key, TYPE_INT, defaultValue, min, max, null);
+    }
+    
+    private static Field boolField(String key, boolean defaultValue) {
+        return new Field(key, TYPE_BOOLEAN, defaultValue, 0, 0, null);
+    }
+    
+    private static Field stringField(String key, String defaultValue, String... allowed) {
+        return new Field(key, TYPE_STRING, defaultValue, 0, 0, allowed);
+    }
+    
+    private static Field colorField(String key, int defaultValue) {
+        return new Field(key, TYPE_COLOR, defaultValue, 0, 0, null);
+    }
+    
+    /**
+     * Float 0..1 (fraksi layar)
+     */
+    private static Field fractionField(String key, float defaultValue) {
+        return new Field(key, TYPE_FRACTION, defaultValue, 0, 1, null);
+    }
+    
+    // Semua global key yang di-export. App state (first launch, version, overlay running) tidak ikut
+    private static final Field[] GLOBAL_SCHEMA = {
+        // Appearance
+        stringField(AppConfig.PREF_THEME, AppConfig.THEME_SYSTEM,
+            AppConfig.THEME_SYSTEM, AppConfig.THEME_LIGHT, AppConfig.THEME_DARK),
+        boolField(AppConfig.PREF_ROOT_MODE, false),
+        
+        // Overlay
+        intField(AppConfig.PREF_OVERLAY_OPACITY, AppConfig.DEFAULT_OVERLAY_OPACITY, 0, 100),
+        colorField(AppConfig.PREF_TRAJECTORY_COLOR, AppConfig.DEFAULT_TRAJECTORY_COLOR),
+        intField(AppConfig.PREF_LINE_THICKNESS, AppConfig.DEFAULT_LINE_THICKNESS,
+            AppConfig.MIN_LINE_THICKNESS, AppConfig.MAX_LINE_THICKNESS),
+        intField(AppConfig.PREF_ANIMATION_SPEED, AppConfig.DEFAULT_ANIMATION_SPEED, 0, 100),
+        boolField(AppConfig.PREF_AUTO_HIDE, true),
+        
+        // Detection
+        stringField(AppConfig.PREF_DETECTION_METHOD, AppConfig.DETECTION_HYBRID,
+            AppConfig.DETECTION_PACKAGE, AppConfig.DETECTION_SCREEN,
+            AppConfig.DETECTION_ROOT, AppConfig.DETECTION_HYBRID),
+        intField(AppConfig.PREF_DETECTION_SENSITIVITY, AppConfig.DEFAULT_DETECTION_SENSITIVITY, 0, 100),
+        boolField(AppConfig.PREF_AUTO_START, false),
+        
+        // Performance
+        intField(AppConfig.PREF_FRAME_RATE, AppConfig.DEFAULT_FRAME_RATE, 1, 240),
+        boolField(AppConfig.PREF_BATTERY_OPTIMIZATION, true),
+        boolField(AppConfig.PREF_HARDWARE_ACCELERATION, true),
+        boolField(AppConfig.PREF_OVERLAY_PROCESS, false),
+        
+        // Floating icon
+        boolField(AppConfig.PREF_FLOATING_ICON_ENABLED, true),
+        intField(AppConfig.PREF_ICON_POSITION_X, -1, -1, Integer.MAX_VALUE),
+        intField(AppConfig.PREF_ICON_POSITION_Y, -1, -1, Integer.MAX_VALUE),
+        intField(AppConfig.PREF_ICON_SIZE, AppConfig.DEFAULT_ICON_SIZE, 1, 512),
+        intField(AppConfig.PREF_ICON_TRANSPARENCY, AppConfig.DEFAULT_ICON_TRANSPARENCY, 0, 100),
+    };
+    
+    private static final Field[] SCHEMA = buildSchema();
+    
+    private static final Map<String, Field> FIELDS_BY_KEY = new HashMap<>();
+    
+    static {
+        for (Field field : SCHEMA) {
+            FIELDS_BY_KEY.put(field.key, field);
+        }
+    }
+    
+    /**
+     * Global key + key profile untuk setiap SUPPORTED_GAMES (sejak schema v2)
+     */
+    private static Field[] buildSchema() {
+        List<Field> schema = new ArrayList<>();
+        for (Field field : GLOBAL_SCHEMA) {
+            schema.add(field);
+        }
+        for (String packageName : AppConfig.SUPPORTED_GAMES) {
+            schema.add(boolField(profileKey(packageName, GameProfileRepository.KEY_CUSTOM), false));
+            schema.add(intField(profileKey(packageName, GameProfileRepository.KEY_OPACITY),
+                AppConfig.DEFAULT_OVERLAY_OPACITY, 0, 100).asOptional());
+            schema.add(intField(profileKey(packageName, GameProfileRepository.KEY_THICKNESS),
+                AppConfig.DEFAULT_LINE_THICKNESS, AppConfig.MIN_LINE_THICKNESS,
+                AppConfig.MAX_LINE_THICKNESS).asOptional());
+            schema.add(colorField(profileKey(packageName, GameProfileRepository.KEY_COLOR),
+                AppConfig.DEFAULT_TRAJECTORY_COLOR).asOptional());
+            schema.add(intField(profileKey(packageName, GameProfileRepository.KEY_FRAME_RATE),
+                AppConfig.DEFAULT_FRAME_RATE, 1, 240).asOptional());
+            schema.add(fractionField(profileKey(packageName, GameProfileRepository.KEY_TABLE_LEFT),
+                GameConfig.DEFAULT_TABLE_LEFT).asOptional());
+            schema.add(fractionField(profileKey(packageName, GameProfileRepository.KEY_TABLE_TOP),
+                GameConfig.DEFAULT_TABLE_TOP).asOptional());
+            schema.add(fractionField(profileKey(packageName, GameProfileRepository.KEY_TABLE_RIGHT),
+                GameConfig.DEFAULT_TABLE_RIGHT).asOptional());
+            schema.add(fractionField(profileKey(packageName, GameProfileRepository.KEY_TABLE_BOTTOM),
+                GameConfig.DEFAULT_TABLE_BOTTOM).asOptional());
+        }
+        return schema.toArray(new Field[0]);
+    }
+    
+    private static String profileKey(String packageName, String field) {
+        return GameProfileRepository.profileKey(packageName, field);
+    }
+    
+    /**
+     * Hasil import: values tervalidasi (siap ditulis) atau daftar error
+     */
+    public static final class ImportResult {
+        private final Map<String, Object> values;
+        private final List<String> errors;
+        private final int sourceVersion;
+        private final int ignoredKeys;
+        
+        ImportResult(Map<String, Object> values, List<String> errors, int sourceVersion, int ignoredKeys) {
+            this.values = values;
+            this.errors = errors;
+            this.sourceVersion = sourceVersion;
+            this.ignoredKeys = ignoredKeys;
+        }
+        
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+        
+        public Map<String, Object> getValues() {
+            return values;
+        }
+        
+        public List<String> getErrors() {
+            return errors;
+        }
+        
+        public int getSourceVersion() {
+            return sourceVersion;
+        }
+        
+        public int getIgnoredKeys() {
+            return ignoredKeys;
+        }
+    }
+    
+    private SettingsCodec() {
+    }
+    
+    // =============================================================================
+    // EXPORT
+    // =============================================================================
+    
+    /**
+     * Stream semua key schema ke writer. Nilai dibaca lewat repository (termasuk pending writes)
+     */
+    public static void write(Writer out, SettingsRepository repository) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.setIndent("  ");
+        writer.beginObject();
+        writer.name(FIELD_SCHEMA_VERSION).value(SCHEMA_VERSION);
+        writer.name(FIELD_APP_VERSION).value(AppConfig.VERSION_NAME);
+        writer.name(FIELD_EXPORTED_AT).value(System.currentTimeMillis());
+        
+        writer.name(FIELD_SETTINGS).beginObject();
+        for (Field field : SCHEMA) {
+            if (field.optional && !repository.contains(field.key)) continue;
+            writer.name(field.key);
+            switch (field.type) {
+                case TYPE_INT:
+                    writer.value(repository.getInt(field.key, (Integer) field.defaultValue));
+                    break;
+                case TYPE_BOOLEAN:
+                    writer.value(repository.getBoolean(field.key, (Boolean) field.defaultValue));
+                    break;
+                case TYPE_STRING:
+                    writer.value(repository.getString(field.key, (String) field.defaultValue));
+                    break;
+                case TYPE_COLOR:
+                    writer.value(formatColor(repository.getInt(field.key, (Integer) field.defaultValue)));
+                    break;
+                case TYPE_FRACTION:
+                    writer.value(Float.valueOf(repository.getFloat(field.key, (Float) field.defaultValue)));
+                    break;
+            }
+        }
+        writer.endObject();
+        
+        writer.endObject();
+        writer.flush();
+    }
+    
+    // =============================================================================
+    // IMPORT
+    // =============================================================================
+    
+    /**
+     * Parse + migrate + validate. Tidak menulis apa pun; caller commit values
+     * hanya jika result valid
+     */
+    public static ImportResult read(Reader in) {
+        List<String> errors = new ArrayList<>();
+        Map<String, Object> raw = new LinkedHashMap<>();
+        int version = 0;
+        boolean hasEnvelope = false;
+        
+        try {
+            JsonReader reader = new JsonReader(in);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (FIELD_SCHEMA_VERSION.equals(name)) {
+                    version = reader.nextInt();
+                    hasEnvelope = true;
+                } else if (FIELD_SETTINGS.equals(name)) {
+                    readValues(reader, raw);
+                    hasEnvelope = true;
+                } else if (FIELD_APP_VERSION.equals(name) || FIELD_EXPORTED_AT.equals(name)) {
+                    reader.skipValue();
+                } else {
+                    // Version 0: flat object key -> value tanpa envelope
+                    raw.put(name, readValue(reader));
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            errors.add("Malformed JSON: " + e.getMessage());
+            return new ImportResult(null, errors, version, 0);
+        }
+        
+        if (version > SCHEMA_VERSION) {
+            errors.add("Unsupported schema version " + version + " (max " + SCHEMA_VERSION + ")");
+            return new ImportResult(null, errors, version, 0);
+        }
+        if (hasEnvelope && version == 0) {
+            errors.add("Missing " + FIELD_SCHEMA_VERSION);
+            return new ImportResult(null, errors, version, 0);
+        }
+        
+        migrate(version, raw);
+        
+        Map<String, Object> values = new LinkedHashMap<>();
+        int ignored = 0;
+        for (Map.Entry<String, Object> entry : raw.entrySet()) {
+            Field field = FIELDS_BY_KEY.get(entry.getKey());
+            if (field == null) {
+                // Key dari versi lain / app state: abaikan
+                ignored++;
+                continue;
+            }
+            Object value = validate(field, entry.getValue(), errors);
+            if (value != null) {
+                values.put(field.key, value);
+            }
+        }
+        validateTableBounds(values, errors);
+        
+        return new ImportResult(errors.isEmpty() ? values : null, errors, version, ignored);
+    }
+    
+    /**
+     * Upgrade raw values dari schema lama ke SCHEMA_VERSION (fall-through per versi)
+     */
+    private static void migrate(int fromVersion, Map<String, Object> raw) {
+        switch (fromVersion) {
+            case 0:
+                // v0 (flat prefs dump): warna disimpan sebagai signed int
+                Object color = raw.get(AppConfig.PREF_TRAJECTORY_COLOR);
+                if (color instanceof Long) {
+                    raw.put(AppConfig.PREF_TRAJECTORY_COLOR, formatColor(((Long) color).intValue()));
+                }
+                // fall through
+            case 1:
+                // v1 belum punya key profile.<pkg>.*: profile yang ada tidak diubah
+                // fall through
+            default:
+                break;
+        }
+    }
+    
+    private static void readValues(JsonReader reader, Map<String, Object> out) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            out.put(name, readValue(reader));
+        }
+        reader.endObject();
+    }
+    
+    /**
+     * Baca primitive value. Number disimpan sebagai Long, nested value di-skip
+     */
+    private static Object readValue(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        switch (token) {
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER:
+                String number = reader.nextString();
+                try {
+                    return Long.parseLong(number);
+                } catch (NumberFormatException e) {
+                    return Double.parseDouble(number);
+                }
+            case STRING:
+                return reader.nextString();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+    
+    /**
+     * Validate satu value terhadap schema. Return value ter-normalisasi atau null (error dicatat)
+     */
+    private static Object validate(Field field, Object value, List<String> errors) {
+        switch (field.type) {
+            case TYPE_INT:
+                if (!(value instanceof Long)) {
+                    errors.add(field.key + ": expected integer");
+                    return null;
+                }
+                long number = (Long) value;
+                if (number < field.min || number > field.max) {
+                    errors.add(field.key + ": " + number + " out of range " + field.min + ".." + field.max);
+                    return null;
+                }
+                return (int) number;
+            
+            case TYPE_BOOLEAN:
+                if (!(value instanceof Boolean)) {
+                    errors.add(field.key + ": expected boolean");
+                    return null;
+                }
+                return value;
+            
+            case TYPE_STRING:
+                if (!(value instanceof String)) {
+                    errors.add(field.key + ": expected string");
+                    return null;
+                }
+                if (field.allowed != null && field.allowed.length > 0) {
+                    for (String allowed : field.allowed) {
+                        if (allowed.equals(value)) return value;
+                    }
+                    errors.add(field.key + ": unknown value \"" + value + "\"");
+                    return null;
+                }
+                return value;
+            
+            case TYPE_COLOR:
+                Integer color = value instanceof String ? parseColor((String) value) : null;
+                if (color == null) {
+                    errors.add(field.key + ": expected color #AARRGGBB");
+                    return null;
+                }
+                return color;
+            
+            case TYPE_FRACTION:
+                if (!(value instanceof Long) && !(value instanceof Double)) {
+                    errors.add(field.key + ": expected number");
+                    return null;
+                }
+                double fraction = ((Number) value).doubleValue();
+                if (fraction < field.min || fraction > field.max) {
+                    errors.add(field.key + ": " + fraction + " out of range " + field.min + ".." + field.max);
+                    return null;
+                }
+                return (float) fraction;
+            
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Table bounds satu profile harus left < right dan top < bottom (lihat GameConfig.Builder).
+     * Sisi yang tidak ada di file memakai default
+     */
+    private static void validateTableBounds(Map<String, Object> values, List<String> errors) {
+        for (String packageName : AppConfig.SUPPORTED_GAMES) {
+            float left = fraction(values, profileKey(packageName, GameProfileRepository.KEY_TABLE_LEFT),
+                GameConfig.DEFAULT_TABLE_LEFT);
+            float top = fraction(values, profileKey(packageName, GameProfileRepository.KEY_TABLE_TOP),
+                GameConfig.DEFAULT_TABLE_TOP);
+            float right = fraction(values, profileKey(packageName, GameProfileRepository.KEY_TABLE_RIGHT),
+                GameConfig.DEFAULT_TABLE_RIGHT);
+            float bottom = fraction(values, profileKey(packageName, GameProfileRepository.KEY_TABLE_BOTTOM),
+                GameConfig.DEFAULT_TABLE_BOTTOM);
+            if (left >= right || top >= bottom) {
+                errors.add(profileKey(packageName, ".table") + ": invalid table bounds");
+            }
+        }
+    }
+    
+    private static float fraction(Map<String, Object> values, String key, float defaultValue) {
+        Object value = values.get(key);
+        return value instanceof Float ? (Float) value : defaultValue;
+    }
+    
+    private static String formatColor(int color) {
+        return String.format(Locale.US, "#%08X", color);
+    }
+    
+    private static Integer parseColor(String value) {
+        if (value.length() != 9 || value.charAt(0) != '#') return null;
+        try {
+            return (int) Long.parseLong(value.substring(1), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.victory.poolassistant.data.repository;
+
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+
+import com.victory.poolassistant.core.Logger;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Write-behind settings repository
+ * Mutasi disimpan di pending map (read-your-writes), di-debounce dan di-coalesce,
+ * lalu ditulis sebagai satu batch lewat Editor.commit() di background thread.
+ * commit() di thread sendiri tidak masuk QueuedWork, jadi activity pause
+ * tidak menunggu disk write.
+ *
+ * Single-writer rule: semua write ke PREF_NAME harus lewat repository ini,
+ * jangan lewat SharedPreferences.Editor langsung (reset pun lewat replaceAll(),
+ * yang menjalankan Editor.clear() di writer thread). Setiap process punya cache
+ * SharedPreferences sendiri dan commit() menulis seluruh map process itu, jadi
+ * key yang ditulis di satu process akan di-revert oleh commit process lain
+ * kecuali mutasinya juga masuk ke repository process tersebut. WriteListener
+ * dipakai ProcessSync untuk meneruskan setiap mutasi lokal (termasuk reset) ke
+ * peer process, dan peer menerapkannya lewat applyRemote() / applyRemoteReplace().
+ */
+public class SettingsRepository {
+    
+    private static final String TAG = "SettingsRepository";
+    
+    // Tunggu slider berhenti sebelum menulis
+    private static final long DEBOUNCE_MS = 300;
+    // Batas atas latency walaupun mutasi terus datang
+    private static final long MAX_DELAY_MS = 2000;
+    
+    private final SharedPreferences preferences;
+    private final Handler handler;
+    private final Runnable writeRunnable = this::writeBatch;
+    private final CopyOnWriteArrayList<WriteListener> writeListeners = new CopyOnWriteArrayList<>();
+    
+    // Penanda key yang terhapus oleh clear yang belum tertulis
+    private static final Object CLEARED = new Object();
+    
+    // Dilindungi lock
+    private final Object lock = new Object();
+    private HashMap<String, Object> pending = new HashMap<>();
+    private boolean pendingClear = false;
+    private CompletableFuture<Void> pendingFuture = new CompletableFuture<>();
+    private long firstPendingAt = 0;
+    private boolean writeScheduled = false;
+    
+    // Batch yang sedang di-commit writer thread (null jika tidak ada)
+    private HashMap<String, Object> inFlight;
+    private boolean inFlightClear = false;
+    private CompletableFuture<Void> inFlightFuture;
+    
+    // Stats
+    private volatile long mutations = 0;
+    private volatile long batchesWritten = 0;
+    private volatile long keysWritten = 0;
+    
+    /**
+     * Listener untuk setiap mutasi lokal. Dipanggil di thread yang menulis, di luar lock
+     */
+    public interface WriteListener {
+        void onSettingsWritten(Map<String, ?> values);
+        
+        /**
+         * Semua key dihapus lalu diganti values (replaceAll)
+         */
+        void onSettingsReset(Map<String, ?> values);
+    }
+    
+    public SettingsRepository(SharedPreferences preferences) {
+        this(preferences, startWriterThread());
+    }
+    
+    /**
+     * Repository dengan writer looper sendiri (test)
+     */
+    SettingsRepository(SharedPreferences preferences, Looper writerLooper) {
+        this.preferences = preferences;
+        this.handler = new Handler(writerLooper);
+    }
+    
+    private static Looper startWriterThread() {
+        HandlerThread thread = new HandlerThread("SettingsWriter", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        return thread.getLooper();
+    }
+    
+    // =============================================================================
+    // READ (pending dan in-flight value menang atas SharedPreferences)
+    // =============================================================================
+    
+    public int getInt(String key, int defaultValue) {
+        synchronized (lock) {
+            Object value = unflushedLocked(key);
+            if (value instanceof Integer) return (Integer) value;
+            if (value == CLEARED) return defaultValue;
+        }
+        return preferences.getInt(key, defaultValue);
+    }
+    
+    public boolean getBoolean(String key, boolean defaultValue) {
+        synchronized (lock) {
+            Object value = unflushedLocked(key);
+            if (value instanceof Boolean) return (Boolean) value;
+            if (value == CLEARED) return defaultValue;
+        }
+        return preferences.getBoolean(key, defaultValue);
+    }
+    
+    public String getString(String key, String defaultValue) {
+        synchronized (lock) {
+            Object value = unflushedLocked(key);
+            if (value instanceof String) return (String) value;
+            if (value == CLEARED) return defaultValue;
+        }
+        return preferences.getString(key, defaultValue);
+    }
+    
+    public float getFloat(String key, float defaultValue) {
+        synchronized (lock) {
+            Object value = unflushedLocked(key);
+            if (value instanceof Float) return (Float) value;
+            if (value == CLEARED) return defaultValue;
+        }
+        return preferences.getFloat(key, defaultValue);
+    }
+    
+    /**
+     * Check apakah key punya value (termasuk pending writes dan clear yang belum tertulis)
+     */
+    public boolean contains(String key) {
+        synchronized (lock) {
+            Object value = unflushedLocked(key);
+            if (value == CLEARED) return false;
+            if (value != null) return true;
+        }
+        return preferences.contains(key);
+    }
+    
+    /**
+     * Value yang belum ada di SharedPreferences: pending batch, lalu batch yang
+     * sedang di-commit. CLEARED jika key terhapus oleh clear yang belum tertulis,
+     * null jika harus dibaca dari SharedPreferences
+     */
+    private Object unflushedLocked(String key) {
+        Object value = pending.get(key);
+        if (value != null) return value;
+        if (pendingClear) return CLEARED;
+        if (inFlight != null) {
+            value = inFlight.get(key);
+            if (value != null) return value;
+            if (inFlightClear) return CLEARED;
+        }
+        return null;
+    }
+    
+    // =============================================================================
+    // WRITE
+    // =============================================================================
+    
+    public void putInt(String key, int value) {
+        put(key, value);
+    }
+    
+    public void putBoolean(String key, boolean value) {
+        put(key, value);
+    }
+    
+    public void putString(String key, String value) {
+        put(key, value);
+    }
+    
+    public void putFloat(String key, float value) {
+        put(key, value);
+    }
+    
+    /**
+     * Tambah banyak mutasi sekaligus (satu debounce window)
+     */
+    public void putAll(Map<String, ?> values) {
+        queueAll(values);
+        notifyWritten(values);
+    }
+    
+    /**
+     * Queue mutasi yang berasal dari peer process. Sama dengan putAll() tapi
+     * tidak memanggil WriteListener, supaya tidak dikirim balik
+     */
+    public void applyRemote(Map<String, ?> values) {
+        queueAll(values);
+    }
+    
+    /**
+     * Hapus semua key lalu tulis values sebagai satu batch (reset ke default).
+     * Editor.clear() dijalankan di writer thread, jadi batch yang sedang di-commit
+     * selesai dulu lalu tertimpa; mutasi pending yang lebih lama dibuang
+     */
+    public void replaceAll(Map<String, ?> values) {
+        queueReplace(values);
+        for (WriteListener listener : writeListeners) {
+            try {
+                listener.onSettingsReset(values);
+            } catch (Exception e) {
+                Logger.e(TAG, "Write listener failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Reset yang berasal dari peer process (tanpa WriteListener, lihat applyRemote())
+     */
+    public void applyRemoteReplace(Map<String, ?> values) {
+        queueReplace(values);
+    }
+    
+    private void queueReplace(Map<String, ?> values) {
+        synchronized (lock) {
+            pending.clear();
+            pending.putAll(values);
+            pendingClear = true;
+            mutations += values.size();
+            scheduleLocked();
+        }
+    }
+    
+    private void queueAll(Map<String, ?> values) {
+        synchronized (lock) {
+            for (Map.Entry<String, ?> entry : values.entrySet()) {
+                pending.put(entry.getKey(), entry.getValue());
+            }
+            mutations += values.size();
+            scheduleLocked();
+        }
+    }
+    
+    private void put(String key, Object value) {
+        synchronized (lock) {
+            pending.put(key, value);
+            mutations++;
+            scheduleLocked();
+        }
+        if (!writeListeners.isEmpty()) {
+            notifyWritten(Collections.singletonMap(key, value));
+        }
+    }
+    
+    public void addWriteListener(WriteListener listener) {
+        if (listener != null && !writeListeners.contains(listener)) {
+            writeListeners.add(listener);
+        }
+    }
+    
+    public void removeWriteListener(WriteListener listener) {
+        writeListeners.remove(listener);
+    }
+    
+    private void notifyWritten(Map<String, ?> values) {
+        for (WriteListener listener : writeListeners) {
+            try {
+                listener.onSettingsWritten(values);
+            } catch (Exception e) {
+                Logger.e(TAG, "Write listener failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Debounce: setiap mutasi menggeser jadwal write, kecuali batch sudah
+     * menunggu lebih dari MAX_DELAY_MS
+     */
+    private void scheduleLocked() {
+        long now = SystemClock.uptimeMillis();
+        if (!writeScheduled) {
+            writeScheduled = true;
+            firstPendingAt = now;
+            handler.postDelayed(writeRunnable, DEBOUNCE_MS);
+        } else if (now - firstPendingAt < MAX_DELAY_MS) {
+            handler.removeCallbacks(writeRunnable);
+            long delay = Math.min(DEBOUNCE_MS, firstPendingAt + MAX_DELAY_MS - now);
+            handler.postDelayed(writeRunnable, delay);
+        }
+    }
+    
+    /**
+     * Tulis pending batch sekarang. Future selesai setelah batch (termasuk
+     * mutasi sebelum call ini) di-commit ke disk. Jika tidak ada yang pending
+     * tapi batch sedang di-commit, future batch itu yang dikembalikan
+     */
+    public CompletableFuture<Void> flush() {
+        synchronized (lock) {
+            if (pending.isEmpty() && !pendingClear) {
+                return inFlightFuture != null ? inFlightFuture : CompletableFuture.completedFuture(null);
+            }
+            // Handler serial: batch ini di-commit setelah batch in-flight
+            handler.removeCallbacks(writeRunnable);
+            writeScheduled = true;
+            handler.post(writeRunnable);
+            return pendingFuture;
+        }
+    }
+    
+    /**
+     * Copy semua key seperti yang terlihat oleh getter: SharedPreferences, lalu
+     * batch in-flight dan pending (clear yang belum tertulis membuang layer di bawahnya).
+     * Untuk full sync ke peer process
+     */
+    public void copyAll(Map<String, Object> out) {
+        synchronized (lock) {
+            if (!pendingClear) {
+                if (inFlight == null || !inFlightClear) {
+                    out.putAll(preferences.getAll());
+                }
+                if (inFlight != null) {
+                    out.putAll(inFlight);
+                }
+            }
+            out.putAll(pending);
+        }
+    }
+    
+    /**
+     * Check apakah ada clear (reset) yang belum tertulis ke disk
+     */
+    public boolean hasPendingClear() {
+        synchronized (lock) {
+            return pendingClear || inFlightClear;
+        }
+    }
+    
+    public boolean hasPendingWrites() {
+        synchronized (lock) {
+            return !pending.isEmpty() || pendingClear || inFlight != null;
+        }
+    }
+    
+    /**
+     * Commit satu batch (writer thread)
+     */
+    private void writeBatch() {
+        HashMap<String, Object> batch;
+        boolean clear;
+        CompletableFuture<Void> future;
+        synchronized (lock) {
+            batch = pending;
+            clear = pendingClear;
+            future = pendingFuture;
+            pending = new HashMap<>();
+            pendingClear = false;
+            pendingFuture = new CompletableFuture<>();
+            writeScheduled = false;
+            if (!batch.isEmpty() || clear) {
+                inFlight = batch;
+                inFlightClear = clear;
+                inFlightFuture = future;
+            }
+        }
+        if (batch.isEmpty() && !clear) {
+            future.complete(null);
+            return;
+        }
+        
+        SharedPreferences.Editor editor = preferences.edit();
+        if (clear) {
+            // Editor.clear() selalu diterapkan sebelum put di batch yang sama
+            editor.clear();
+        }
+        for (Map.Entry<String, Object> entry : batch.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Integer) {
+                editor.putInt(entry.getKey(), (Integer) value);
+            } else if (value instanceof Boolean) {
+                editor.putBoolean(entry.getKey(), (Boolean) value);
+            } else if (value instanceof Long) {
+                editor.putLong(entry.getKey(), (Long) value);
+            } else if (value instanceof Float) {
+                editor.putFloat(entry.getKey(), (Float) value);
+            } else {
+                editor.putString(entry.getKey(), value != null ? value.toString() : null);
+            }
+        }
+        
+        boolean committed = editor.commit();
+        synchronized (lock) {
+            inFlight = null;
+            inFlightClear = false;
+            inFlightFuture = null;
+            if (!committed && !pendingClear) {
+                // Kembalikan ke pending tanpa menimpa mutasi yang lebih baru.
+                // Jika sudah ada clear baru, batch ini tertimpa seluruhnya
+                for (Map.Entry<String, Object> entry : batch.entrySet()) {
+                    if (!pending.containsKey(entry.getKey())) {
+                        pending.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                pendingClear = clear;
+                scheduleLocked();
+            }
+        }
+        
+        if (committed) {
+            batchesWritten++;
+            keysWritten += batch.size();
+            Logger.d(TAG, "Settings batch committed: {} keys", batch.size());
+            future.complete(null);
+        } else {
+            Logger.w(TAG, "Settings batch commit failed (" + batch.size() + " keys), retrying");
+            future.completeExceptionally(new IOException("SharedPreferences commit failed"));
+        }
+    }
+    
+    /**
+     * Get repository info untuk stats screen
+     */
+    public String getInfo() {
+        return "Mutations: " + mutations +
+            "\nBatches written: " + batchesWritten +
+            "\nKeys written: " + keysWritten +
+            "\nPending: " + (hasPendingWrites() ? "yes" : "no");
+    }
+}
@@ -5,27 +5,32 @@ import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.app.Service;
+import android.content.Context;
 import android.content.Intent;
-import android.graphics.PixelFormat;
 import android.os.Build;
+import android.os.Handler;
 import android.os.IBinder;
-import android.provider.Settings;
-import android.view.Gravity;
-import android.view.LayoutInflater;
-import android.view.View;
-import android.view.WindowManager;
+import android.os.Looper;
 import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
+import androidx.core.content.ContextCompat;
 
 import com.victory.poolassistant.MainActivity;
+import com.victory.poolassistant.PoolAssistantApplication;
 import com.victory.poolassistant.R;
+import com.victory.poolassistant.core.AppConfig;
 import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.core.ProcessSync;
+import com.victory.poolassistant.data.model.GameState;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+import com.victory.poolassistant.utils.GameDetector;
 
 /**
  * Foreground service untuk floating overlay Pool Assistant
- * Handles window management dan lifecycle overlay
+ * Front-end tipis di atas OverlaySession: handles foreground notification
+ * dan intent actions, view/window dimiliki session
  */
-public class FloatingOverlayService extends Service {
+public class FloatingOverlayService extends Service implements OverlaySession.Listener, GameDetector.Listener {
     
     private static final String TAG = "FloatingOverlayService";
     private static final String CHANNEL_ID = "pool_assistant_overlay";
@@ -36,13 +41,16 @@ public class FloatingOverlayService extends Service {
     public static final String ACTION_STOP_OVERLAY = "com.victory.poolassistant.STOP_OVERLAY";
     public static final String ACTION_TOGGLE_OVERLAY = "com.victory.poolassistant.TOGGLE_OVERLAY";
     
-    // Window management
-    private WindowManager windowManager;
-    private OverlayView overlayView;
-    private WindowManager.LayoutParams layoutParams;
+    // Single overlay owner
+    private OverlaySession session;
+    private GameDetector gameDetector;
+    
+    // Notification update di-post setelah attach/detach supaya toggle tidak menunggu
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private boolean foregroundStarted = false;
+    private boolean pendingVisible;
+    private final Runnable notificationUpdater = this::updateStatusNotification;
     
-    // State
-    private boolean isOverlayVisible = false;
     private static FloatingOverlayService instance;
     
     @Override
@@ -51,19 +59,34 @@ public class FloatingOverlayService extends Service {
         Logger.d(TAG, "FloatingOverlayService created");
         
         instance = this;
-        windowManager = (WindowManager) getSystemService(WINDOW_SERVICE);
+        // Single overlay: service mode lain (process lain) tidak boleh tetap hidup
+        stopService(new Intent(this, getSiblingClass()));
+        session = OverlaySession.getInstance(this);
+        session.addListener(this);
+        gameDetector = GameDetector.initialize(this);
+        gameDetector.addListener(this);
         createNotificationChannel();
         
-        // Initialize overlay view
-        initializeOverlayView();
+        // Process ":overlay" bisa bertahan setelah service sebelumnya destroyed
+        // (alive=false); minta full resync supaya cache settings-nya tidak stale
+        ProcessSync sync = ProcessSync.peekInstance();
+        if (sync != null && PoolAssistantApplication.isOverlayProcess()) {
+            sync.announce();
+        }
+        
+        // Pre-build overlay di idle time supaya show pertama hanya attach window
+        session.prewarm();
     }
     
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
-        Logger.d(TAG, "onStartCommand: " + (intent != null ? intent.getAction() : "null"));
+        Logger.d(TAG, "onStartCommand: {}", intent != null ? intent.getAction() : "null");
         
-        // Start as foreground service
-        startForeground(NOTIFICATION_ID, createNotification());
+        // Start as foreground service (sekali saja, bukan setiap toggle)
+        if (!foregroundStarted) {
+            startForeground(NOTIFICATION_ID, createNotification());
+            foregroundStarted = true;
+        }
         
         if (intent != null) {
             String action = intent.getAction();
@@ -93,7 +116,12 @@ public class FloatingOverlayService extends Service {
     public void onDestroy() {
         Logger.d(TAG, "FloatingOverlayService destroyed");
         
-        hideOverlay();
+        mainHandler.removeCallbacks(notificationUpdater);
+        session.removeListener(this);
+        gameDetector.removeListener(this);
+        session.release();
+        AppConfig.flushSettings();
+        publishRemoteState(false, false);
         instance = null;
         super.onDestroy();
     }
@@ -104,110 +132,108 @@ public class FloatingOverlayService extends Service {
         return null; // Service tidak di-bind
     }
     
-    /**
-     * Initialize overlay view dan layout parameters
-     */
-    private void initializeOverlayView() {
-        try {
-            // Create overlay view
-            overlayView = new OverlayView(this);
-            
-            // Setup window layout parameters
-            int layoutFlag;
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                layoutFlag = WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY;
-            } else {
-                layoutFlag = WindowManager.LayoutParams.TYPE_PHONE;
-            }
-            
-            // FIX #1: FIXED TOUCH PASSTHROUGH - Allow background touch events
-            layoutParams = new WindowManager.LayoutParams(
-                WindowManager.LayoutParams.WRAP_CONTENT,
-                WindowManager.LayoutParams.WRAP_CONTENT,
-                layoutFlag,
-                // CRITICAL FIX: Added FLAG_NOT_TOUCH_MODAL to allow background touches
-                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE |
-                WindowManager.LayoutParams.FLAG_NOT_TOUCH_MODAL |      // 🔥 KEY FIX: Allows background touch
-                WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN |
-                WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS,
-                PixelFormat.TRANSLUCENT
-            );
-            
-            // Position overlay
-            layoutParams.gravity = Gravity.TOP | Gravity.START;
-            layoutParams.x = 100; // Initial X position
-            layoutParams.y = 100; // Initial Y position
-            
-            Logger.d(TAG, "Overlay view initialized successfully with touch passthrough");
-            
-        } catch (Exception e) {
-            Logger.e(TAG, "Failed to initialize overlay view", e);
-        }
-    }
-    
     /**
      * Show floating overlay
      */
     public void showOverlay() {
-        if (isOverlayVisible || overlayView == null) {
-            Logger.w(TAG, "Cannot show overlay - already visible or view is null");
+        if (session.isShowing()) {
+            Logger.w(TAG, "Cannot show overlay - already visible");
             return;
         }
         
-        // Check overlay permission
-        if (!Settings.canDrawOverlays(this)) {
-            Logger.e(TAG, "No overlay permission - cannot show overlay");
-            // TODO: Notify user about permission requirement
-            return;
-        }
-        
-        try {
-            windowManager.addView(overlayView, layoutParams);
-            isOverlayVisible = true;
-            
-            Logger.i(TAG, "Overlay shown successfully with background touch enabled");
-            
-            // Update notification
-            updateNotification("Pool Assistant overlay active - Background touch enabled");
-            
-        } catch (Exception e) {
-            Logger.e(TAG, "Failed to show overlay", e);
-            isOverlayVisible = false;
-        }
+        session.show(session.getState());
     }
     
     /**
      * Hide floating overlay
      */
     public void hideOverlay() {
-        if (!isOverlayVisible || overlayView == null) {
-            Logger.w(TAG, "Cannot hide overlay - not visible or view is null");
-            return;
+        // Selama idle mode window sudah di-detach, tapi hide tetap harus membatalkan
+        // resume supaya overlay tidak muncul lagi saat game kembali
+        if (session.isResumePending()) {
+            session.cancelResume();
+            mainHandler.removeCallbacks(notificationUpdater);
+            mainHandler.post(notificationUpdater);
         }
-        
-        try {
-            windowManager.removeView(overlayView);
-            isOverlayVisible = false;
-            
-            Logger.i(TAG, "Overlay hidden successfully");
-            
-            // Update notification
-            updateNotification("Pool Assistant overlay hidden");
-            
-        } catch (Exception e) {
-            Logger.e(TAG, "Failed to hide overlay", e);
+        if (!session.isShowing()) {
+            Logger.w(TAG, "Cannot hide overlay - not visible");
+            return;
         }
+        session.hide();
     }
     
     /**
      * Toggle overlay visibility
      */
     public void toggleOverlay() {
-        if (isOverlayVisible) {
-            hideOverlay();
+        boolean resumePending = session.isResumePending();
+        session.toggle(session.getState());
+        if (resumePending) {
+            // Toggle selama idle mode hanya membatalkan resume (tanpa visibility change)
+            mainHandler.removeCallbacks(notificationUpdater);
+            mainHandler.post(notificationUpdater);
+        }
+    }
+    
+    @Override
+    public void onOverlayVisibilityChanged(boolean visible) {
+        pendingVisible = visible;
+        mainHandler.removeCallbacks(notificationUpdater);
+        mainHandler.post(notificationUpdater);
+        publishRemoteState(visible, true);
+        
+        // Tanpa accessibility events, resolve game sekali saat overlay dibuka dari dalam game
+        if (visible && !gameDetector.isAccessibilityConnected()) {
+            gameDetector.refresh();
+        }
+    }
+    
+    @Override
+    public void onGameStateChanged(GameState oldState, GameState newState) {
+        // Idle mode hanya dengan sumber event-driven; fallback usage stats tidak
+        // melaporkan saat game ditinggalkan
+        if (newState.isGameForeground()) {
+            session.resume();
+        } else if (newState.getSource() == GameState.SOURCE_ACCESSIBILITY
+            || newState.getSource() == GameState.SOURCE_REMOTE) {
+            session.suspend();
+        }
+        mainHandler.removeCallbacks(notificationUpdater);
+        mainHandler.post(notificationUpdater);
+    }
+    
+    /**
+     * Notification text dari overlay visibility + game yang terdeteksi
+     */
+    private void updateStatusNotification() {
+        String text;
+        if (session.isResumePending()) {
+            text = "Pool Assistant paused - waiting for game";
+        } else if (pendingVisible) {
+            text = "Pool Assistant overlay active - Background touch enabled";
         } else {
-            showOverlay();
+            text = "Pool Assistant overlay hidden";
+        }
+        GameState state = gameDetector.getState();
+        if (state.isGameForeground()) {
+            text += " (" + GameProfileRepository.getDisplayName(state.getGamePackage()) + ")";
         }
+        updateNotification(text);
+    }
+    
+    /**
+     * Laporkan state ke main process jika service berjalan di process terpisah
+     */
+    private void publishRemoteState(boolean visible, boolean alive) {
+        ProcessSync sync = ProcessSync.peekInstance();
+        if (sync != null && this instanceof OverlayProcessService) {
+            sync.publishOverlayState(visible, alive);
+        }
+    }
+    
+    @Override
+    public void onOverlayExitRequested() {
+        stopSelf();
     }
     
     /**
@@ -250,7 +276,7 @@ public class FloatingOverlayService extends Service {
         );
         
         // Toggle action
-        Intent toggleIntent = new Intent(this, FloatingOverlayService.class);
+        Intent toggleIntent = new Intent(this, getClass());
         toggleIntent.setAction(ACTION_TOGGLE_OVERLAY);
         PendingIntent togglePendingIntent = PendingIntent.getService(
             this, 1, toggleIntent,
@@ -266,7 +292,7 @@ public class FloatingOverlayService extends Service {
             .setContentIntent(pendingIntent)
             .addAction(
                 R.drawable.ic_visibility, // TODO: Create this icon
-                isOverlayVisible ? "Hide Overlay" : "Show Overlay",
+                isOverlayVisible() ? "Hide Overlay" : "Show Overlay",
                 togglePendingIntent
             )
             .setOngoing(true)
@@ -287,31 +313,124 @@ public class FloatingOverlayService extends Service {
     
     /**
      * Get service instance (for external control)
+     * Null jika service berjalan di ":overlay" process; pakai createIntent()/isOverlayRunning()
      */
     public static FloatingOverlayService getInstance() {
         return instance;
     }
     
+    /**
+     * Service class sesuai setting (in-process atau ":overlay" process)
+     */
+    public static Class<? extends FloatingOverlayService> getServiceClass() {
+        return AppConfig.isOverlayProcessEnabled() ? OverlayProcessService.class : FloatingOverlayService.class;
+    }
+    
+    /**
+     * Service class mode lain dari service ini
+     */
+    private Class<? extends FloatingOverlayService> getSiblingClass() {
+        return this instanceof OverlayProcessService ? FloatingOverlayService.class : OverlayProcessService.class;
+    }
+    
+    /**
+     * Stop overlay service di kedua mode. Setting process bisa sudah berubah
+     * sejak service di-start, jadi getServiceClass() belum tentu class yang berjalan
+     */
+    public static void stopOverlayServices(Context context) {
+        context.stopService(new Intent(context, FloatingOverlayService.class));
+        context.stopService(new Intent(context, OverlayProcessService.class));
+    }
+    
+    /**
+     * Check service berjalan (visible atau hidden), di process ini atau di ":overlay" process
+     */
+    public static boolean isServiceRunning() {
+        if (instance != null) {
+            return true;
+        }
+        ProcessSync sync = ProcessSync.peekInstance();
+        return sync != null && sync.isPeerAlive() && !PoolAssistantApplication.isOverlayProcess();
+    }
+    
+    /**
+     * Pindahkan service yang berjalan ke mode sesuai setting saat ini.
+     * Service baru menghentikan service mode lama di onCreate, visibility dipertahankan
+     */
+    public static void restartForProcessMode(Context context) {
+        if (!isServiceRunning()) return;
+        boolean visible = isOverlayRunning();
+        Intent intent = createIntent(context, visible ? ACTION_START_OVERLAY : ACTION_STOP_OVERLAY);
+        ContextCompat.startForegroundService(context, intent);
+        Logger.i(TAG, "Overlay service moved to " + intent.getComponent().getShortClassName());
+    }
+    
+    /**
+     * Create intent untuk service yang aktif dengan action tertentu
+     */
+    public static Intent createIntent(Context context, String action) {
+        Intent intent = new Intent(context, getServiceClass());
+        intent.setAction(action);
+        return intent;
+    }
+    
+    /**
+     * Check overlay visible, di process ini atau di ":overlay" process
+     */
+    public static boolean isOverlayRunning() {
+        if (instance != null) {
+            return instance.isOverlayVisible();
+        }
+        ProcessSync sync = ProcessSync.peekInstance();
+        return sync != null && sync.isRemoteOverlayVisible();
+    }
+    
+    /**
+     * Settle overlay ke edge terdekat setelah drag release (velocity dalam px/s)
+     */
+    public void settleOverlay(float velocityX, float velocityY) {
+        session.settle(velocityX, velocityY);
+    }
+    
+    /**
+     * Cancel snap/fling animation yang sedang berjalan
+     */
+    public void cancelOverlayAnimation() {
+        session.cancelAnimation();
+    }
+    
+    /**
+     * Get trajectory layer (null jika belum di-initialize)
+     */
+    public TrajectoryLayer getTrajectoryLayer() {
+        return session.getTrajectoryLayer();
+    }
+    
+    /**
+     * Get overlay render + drag stats untuk stats screen
+     */
+    public String getRenderStats() {
+        return session.getRenderStats();
+    }
+    
     /**
      * Check if overlay is currently visible
      */
     public boolean isOverlayVisible() {
-        return isOverlayVisible;
+        return session != null && session.isShowing();
     }
     
     /**
      * Update overlay position (called by OverlayView)
      */
     public void updateOverlayPosition(int x, int y) {
-        if (layoutParams != null && isOverlayVisible) {
-            layoutParams.x = x;
-            layoutParams.y = y;
-            
-            try {
-                windowManager.updateViewLayout(overlayView, layoutParams);
-            } catch (Exception e) {
-                Logger.e(TAG, "Failed to update overlay position", e);
-            }
-        }
+        session.moveTo(x, y);
+    }
+    
+    /**
+     * Get overlay session
+     */
+    public OverlaySession getSession() {
+        return session;
     }
 }
\ No newline at end of file
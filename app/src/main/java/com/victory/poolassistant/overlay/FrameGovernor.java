@@ -0,0 +1,339 @@
+package com.victory.poolassistant.overlay;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.PowerManager;
+import android.view.Display;
+
+import androidx.core.content.ContextCompat;
+
+import com.victory.poolassistant.core.AppConfig;
+import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.data.model.GameConfig;
+import com.victory.poolassistant.data.model.SettingsSnapshot;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Adaptive frame-rate governor untuk trajectory layer
+ * Target rate diambil dari profile game aktif (default = PREF_FRAME_RATE), di-align
+ * ke rate yang bisa dicapai display (refresh rate / divisor), lalu diturunkan satu
+ * step per kondisi: battery saver (jika PREF_BATTERY_OPTIMIZATION), thermal status
+ * dan frame-time headroom yang habis.
+ *
+ * Input di-update di main thread (receiver/listener) dan render thread (headroom);
+ * keputusan di-publish lewat field volatile. Render thread membaca frame interval
+ * per frame dan menjadi satu-satunya pemanggil Listener (dispatchRateChange),
+ * jadi Surface.setFrameRate tidak pernah dipanggil dari beberapa thread.
+ */
+public final class FrameGovernor implements AppConfig.SettingsListener, GameProfileRepository.ProfileListener {
+    
+    private static final String TAG = "FrameGovernor";
+    
+    private static final int MIN_RATE = 15;
+    private static final int MAX_DIVISOR = 4;
+    
+    // Headroom: EMA draw time terhadap frame budget
+    private static final float HEADROOM_STEP_DOWN = 0.75f;
+    private static final float HEADROOM_STEP_UP = 0.35f;
+    private static final int MAX_HEADROOM_STEPS = 2;
+    private static final long HEADROOM_COOLDOWN_NANOS = 2_000_000_000L;
+    
+    // Battery saver tidak pernah lebih dari ini
+    private static final int POWER_SAVE_MAX_RATE = 30;
+    
+    /**
+     * Callback saat rate keputusan berubah (mis. Surface.setFrameRate). Selalu di render thread
+     */
+    public interface Listener {
+        void onFrameRateChanged(int rate);
+    }
+    
+    private final Context context;
+    private final PowerManager powerManager;
+    private final Listener listener;
+    
+    // Rate yang bisa dicapai display, descending
+    private final int[] candidates;
+    private final float displayRate;
+    
+    // Inputs (dilindungi this)
+    private boolean powerSave;
+    private int thermalStatus;
+    private int headroomSteps;
+    private long lastHeadroomChangeNanos;
+    
+    // Render thread only
+    private float drawTimeEma;
+    
+    // Keputusan (dibaca render thread)
+    private volatile int rate;
+    private volatile long frameIntervalNanos;
+    private volatile String reason = "";
+    private volatile int decisions = 0;
+    // Di-set update(), di-clear render thread saat listener dipanggil
+    private volatile boolean rateChanged = false;
+    
+    // Dilindungi this
+    private boolean started = false;
+    private Object thermalListener;
+    
+    private final BroadcastReceiver powerSaveReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context ctx, Intent intent) {
+            synchronized (FrameGovernor.this) {
+                powerSave = powerManager.isPowerSaveMode();
+            }
+            update();
+        }
+    };
+    
+    public FrameGovernor(Context context, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.listener = listener;
+        this.powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        
+        ScreenMetricsCache metricsCache = ScreenMetricsCache.getInstance(context);
+        this.displayRate = metricsCache.get().getRefreshRate();
+        this.candidates = buildCandidates(metricsCache.getDisplay());
+        update();
+    }
+    
+    /**
+     * Rate yang bisa dicapai: setiap supported refresh rate (resolusi yang sama)
+     * dibagi 1..MAX_DIVISOR, minimal MIN_RATE
+     */
+    private static int[] buildCandidates(Display display) {
+        Display.Mode current = display.getMode();
+        int[] rates = new int[display.getSupportedModes().length * MAX_DIVISOR];
+        int count = 0;
+        for (Display.Mode mode : display.getSupportedModes()) {
+            if (mode.getPhysicalWidth() != current.getPhysicalWidth()
+                || mode.getPhysicalHeight() != current.getPhysicalHeight()) {
+                continue;
+            }
+            int refresh = Math.round(mode.getRefreshRate());
+            for (int divisor = 1; divisor <= MAX_DIVISOR; divisor++) {
+                int candidate = refresh / divisor;
+                if (candidate >= MIN_RATE) rates[count++] = candidate;
+            }
+        }
+        if (count == 0) {
+            rates[count++] = Math.round(display.getRefreshRate());
+        }
+        
+        // Sort descending, buang duplikat
+        int[] sorted = Arrays.copyOf(rates, count);
+        Arrays.sort(sorted);
+        int unique = 0;
+        int[] result = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            if (unique == 0 || result[unique - 1] != sorted[i]) {
+                result[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+    
+    /**
+     * Register power/thermal/settings inputs (surface dibuat)
+     */
+    public void start() {
+        synchronized (this) {
+            if (started) return;
+            started = true;
+            powerSave = powerManager.isPowerSaveMode();
+        }
+        ContextCompat.registerReceiver(context, powerSaveReceiver,
+            new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED), ContextCompat.RECEIVER_NOT_EXPORTED);
+        
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            PowerManager.OnThermalStatusChangedListener thermal = status -> {
+                synchronized (FrameGovernor.this) {
+                    thermalStatus = status;
+                }
+                update();
+            };
+            synchronized (this) {
+                thermalListener = thermal;
+                thermalStatus = powerManager.getCurrentThermalStatus();
+            }
+            powerManager.addThermalStatusListener(context.getMainExecutor(), thermal);
+        }
+        
+        AppConfig.addSettingsListener(this);
+        GameProfileRepository.getInstance().addListener(this);
+        update();
+    }
+    
+    /**
+     * Unregister semua input (surface dihancurkan / idle mode)
+     */
+    public void stop() {
+        Object thermal;
+        synchronized (this) {
+            if (!started) return;
+            started = false;
+            thermal = thermalListener;
+            thermalListener = null;
+        }
+        
+        try {
+            context.unregisterReceiver(powerSaveReceiver);
+        } catch (IllegalArgumentException e) {
+            Logger.w(TAG, "Power save receiver was not registered");
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && thermal != null) {
+            powerManager.removeThermalStatusListener((PowerManager.OnThermalStatusChangedListener) thermal);
+        }
+        AppConfig.removeSettingsListener(this);
+        GameProfileRepository.getInstance().removeListener(this);
+    }
+    
+    @Override
+    public void onSettingsChanged(SettingsSnapshot oldSettings, SettingsSnapshot newSettings) {
+        if (oldSettings.isBatteryOptimization() != newSettings.isBatteryOptimization()) {
+            update();
+        }
+    }
+    
+    @Override
+    public void onProfileChanged(GameConfig oldProfile, GameConfig newProfile) {
+        if (oldProfile.getFrameRate() != newProfile.getFrameRate()) {
+            update();
+        }
+    }
+    
+    // =============================================================================
+    // RENDER THREAD
+    // =============================================================================
+    
+    /**
+     * Check apakah frame pada vsync ini perlu digambar (pacing ke rate keputusan)
+     */
+    public boolean isFrameDue(long frameTimeNanos, long lastRenderedNanos, long vsyncIntervalNanos) {
+        if (lastRenderedNanos == 0) return true;
+        // Toleransi setengah vsync supaya jitter tidak melewatkan slot
+        return frameTimeNanos - lastRenderedNanos >= frameIntervalNanos - vsyncIntervalNanos / 2;
+    }
+    
+    /**
+     * Panggil Listener jika rate berubah sejak frame sebelumnya (render thread, per frame).
+     * Flag di-clear sebelum rate dibaca, jadi keputusan yang masuk di antaranya
+     * paling buruk diterapkan dua kali, tidak pernah terlewat
+     */
+    public void dispatchRateChange() {
+        if (!rateChanged) return;
+        rateChanged = false;
+        int current = rate;
+        if (listener != null) {
+            listener.onFrameRateChanged(current);
+        }
+    }
+    
+    /**
+     * Laporkan durasi draw satu frame (lock -> post) untuk headroom tracking
+     */
+    public void onFrameRendered(long drawNanos, long nowNanos) {
+        float budget = frameIntervalNanos;
+        drawTimeEma = drawTimeEma == 0f ? drawNanos : drawTimeEma * 0.9f + drawNanos * 0.1f;
+        
+        boolean changed = false;
+        synchronized (this) {
+            if (nowNanos - lastHeadroomChangeNanos < HEADROOM_COOLDOWN_NANOS) return;
+            if (drawTimeEma > budget * HEADROOM_STEP_DOWN && headroomSteps < MAX_HEADROOM_STEPS) {
+                headroomSteps++;
+                changed = true;
+            } else if (drawTimeEma < budget * HEADROOM_STEP_UP && headroomSteps > 0) {
+                headroomSteps--;
+                changed = true;
+            }
+            if (changed) lastHeadroomChangeNanos = nowNanos;
+        }
+        if (changed) update();
+    }
+    
+    // =============================================================================
+    // DECISION
+    // =============================================================================
+    
+    /**
+     * Hitung ulang rate dari semua input
+     */
+    private void update() {
+        int target = GameProfileRepository.getInstance().getActive().getFrameRate();
+        boolean batteryOptimization = AppConfig.getSettings().isBatteryOptimization();
+        
+        int decided;
+        String why;
+        synchronized (this) {
+            int index = alignedIndex(target);
+            StringBuilder sb = new StringBuilder("target ").append(target);
+            int steps = 0;
+            
+            if (powerSave && batteryOptimization) {
+                steps++;
+                sb.append(", battery saver");
+            }
+            int thermalSteps = thermalSteps(thermalStatus);
+            if (thermalSteps > 0) {
+                steps += thermalSteps;
+                sb.append(", thermal ").append(thermalStatus).append(" -").append(thermalSteps);
+            }
+            if (headroomSteps > 0) {
+                steps += headroomSteps;
+                sb.append(", headroom -").append(headroomSteps);
+            }
+            
+            index = Math.min(index + steps, candidates.length - 1);
+            if (powerSave && batteryOptimization) {
+                while (index < candidates.length - 1 && candidates[index] > POWER_SAVE_MAX_RATE) index++;
+            }
+            decided = candidates[index];
+            why = sb.toString();
+            reason = why;
+            if (decided == rate) return;
+            rate = decided;
+            frameIntervalNanos = 1_000_000_000L / decided;
+            decisions++;
+            rateChanged = true;
+        }
+        
+        Logger.d(TAG, "Frame rate {} Hz ({})", decided, why);
+    }
+    
+    /**
+     * Index candidate terbesar yang <= target
+     */
+    private int alignedIndex(int target) {
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i] <= target) return i;
+        }
+        return candidates.length - 1;
+    }
+    
+    private static int thermalSteps(int status) {
+        // PowerManager.THERMAL_STATUS_*: 0 none, 1 light, 2 moderate, 3 severe, 4+ critical
+        if (status >= 4) return 3;
+        if (status == 3) return 2;
+        if (status == 2) return 1;
+        return 0;
+    }
+    
+    public int getRate() {
+        return rate;
+    }
+    
+    /**
+     * Get governor decision info untuk stats screen
+     */
+    public String getInfo() {
+        return String.format(Locale.US, "Frame governor: %d Hz (%s), display %.0f Hz, decisions: %d",
+            rate, reason, displayRate, decisions);
+    }
+}
@@ -0,0 +1,182 @@
+package com.victory.poolassistant.overlay;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+
+import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.core.Tracer;
+
+/**
+ * Vsync-coalesced drag engine untuk overlay window
+ * Mengumpulkan ACTION_MOVE (termasuk historical samples dari batched input)
+ * dan mengirim maksimal satu layout update per Choreographer frame,
+ * bukan satu WindowManager.updateViewLayout IPC per MotionEvent.
+ * Harus dipakai dari UI thread.
+ */
+public class OverlayDragEngine implements Choreographer.FrameCallback {
+    
+    private static final String TAG = "OverlayDragEngine";
+    
+    /**
+     * Target untuk posisi window hasil coalescing
+     */
+    public interface PositionSink {
+        void onDragPosition(int x, int y);
+    }
+    
+    private final PositionSink sink;
+    private final Choreographer choreographer;
+    
+    // Touch offset di dalam window saat ACTION_DOWN
+    private float touchOffsetX;
+    private float touchOffsetY;
+    
+    // Pending position untuk frame berikutnya
+    private int pendingX;
+    private int pendingY;
+    private boolean hasPending = false;
+    private boolean frameScheduled = false;
+    private long oldestPendingEventTime;
+    private long newestPendingEventTime;
+    private int pendingSamples;
+    
+    // Stats (per drag dan kumulatif)
+    private long layoutUpdates = 0;
+    private long samplesReceived = 0;
+    private long coalescedSamples = 0;
+    private long totalLatencyMs = 0;
+    private long maxLatencyMs = 0;
+    
+    public OverlayDragEngine(PositionSink sink) {
+        this.sink = sink;
+        this.choreographer = Choreographer.getInstance();
+    }
+    
+    /**
+     * Start drag gesture (ACTION_DOWN)
+     */
+    public void begin(MotionEvent event) {
+        touchOffsetX = event.getX();
+        touchOffsetY = event.getY();
+        hasPending = false;
+    }
+    
+    /**
+     * Collect move event. Posisi dihitung dari sample terbaru, historical
+     * samples dihitung sebagai coalesced dan dipakai untuk latency terburuk
+     */
+    public void onMove(MotionEvent event) {
+        int historySize = event.getHistorySize();
+        int samples = historySize + 1;
+        
+        if (!hasPending) {
+            oldestPendingEventTime = historySize > 0
+                ? event.getHistoricalEventTime(0)
+                : event.getEventTime();
+            pendingSamples = 0;
+        }
+        
+        pendingX = (int) (event.getRawX() - touchOffsetX);
+        pendingY = (int) (event.getRawY() - touchOffsetY);
+        newestPendingEventTime = event.getEventTime();
+        pendingSamples += samples;
+        samplesReceived += samples;
+        hasPending = true;
+        
+        if (!frameScheduled) {
+            frameScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+    
+    /**
+     * End drag gesture (ACTION_UP/CANCEL). Posisi terakhir langsung di-flush
+     */
+    public void end() {
+        if (frameScheduled) {
+            choreographer.removeFrameCallback(this);
+            frameScheduled = false;
+        }
+        flush();
+        
+        if (Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, getStats());
+        }
+    }
+    
+    /**
+     * Cancel drag tanpa flush posisi pending
+     */
+    public void cancel() {
+        if (frameScheduled) {
+            choreographer.removeFrameCallback(this);
+            frameScheduled = false;
+        }
+        hasPending = false;
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        flush();
+    }
+    
+    /**
+     * Kirim pending position ke sink (satu layout update)
+     */
+    private void flush() {
+        if (!hasPending) return;
+        hasPending = false;
+        
+        Tracer.begin("OverlayDragEngine.flush");
+        try {
+            sink.onDragPosition(pendingX, pendingY);
+        } finally {
+            Tracer.end();
+        }
+        
+        long now = SystemClock.uptimeMillis();
+        long latency = now - newestPendingEventTime;
+        long worstLatency = now - oldestPendingEventTime;
+        
+        layoutUpdates++;
+        coalescedSamples += pendingSamples - 1;
+        totalLatencyMs += latency;
+        if (worstLatency > maxLatencyMs) {
+            maxLatencyMs = worstLatency;
+        }
+    }
+    
+    /**
+     * Get current pending X (posisi terakhir yang diminta)
+     */
+    public int getLastX() {
+        return pendingX;
+    }
+    
+    /**
+     * Get current pending Y (posisi terakhir yang diminta)
+     */
+    public int getLastY() {
+        return pendingY;
+    }
+    
+    /**
+     * Get number of move samples merged into another layout update
+     */
+    public long getCoalescedSamples() {
+        return coalescedSamples;
+    }
+    
+    /**
+     * Get drag stats summary
+     */
+    public String getStats() {
+        float avgLatency = layoutUpdates > 0 ? (float) totalLatencyMs / layoutUpdates : 0f;
+        return String.format(
+            "Drag - Samples: %d, Layout updates: %d, Coalesced: %d, Input->layout avg: %.1fms, max: %dms",
+            samplesReceived, layoutUpdates, coalescedSamples, avgLatency, maxLatencyMs
+        );
+    }
+}
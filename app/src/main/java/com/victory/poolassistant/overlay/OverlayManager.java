@@ -316,9 +316,8 @@ public class OverlayManager {
      */
     private int[] constrainToScreenBounds(int x, int y) {
         // Get screen dimensions
-        int[] screenSize = windowManager.getScreenSize();
-        int screenWidth = screenSize[0];
-        int screenHeight = screenSize[1];
+        int screenWidth = windowManager.getScreenWidth();
+        int screenHeight = windowManager.getScreenHeight();
         
         // Get overlay dimensions based on state
         int overlayWidth = getOverlayWidth();
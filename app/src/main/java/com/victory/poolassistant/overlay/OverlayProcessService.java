@@ -0,0 +1,11 @@
+package com.victory.poolassistant.overlay;
+
+/**
+ * FloatingOverlayService yang berjalan di process ":overlay" (lihat AndroidManifest)
+ * Process ini hanya menjalankan minimal init path dari PoolAssistantApplication
+ * (logger, AppConfig, ProcessSync), tanpa UI stack main process, sehingga
+ * resident memory saat game di foreground jauh lebih kecil.
+ * Dipilih lewat AppConfig.PREF_OVERLAY_PROCESS.
+ */
+public class OverlayProcessService extends FloatingOverlayService {
+}
@@ -0,0 +1,591 @@
+package com.victory.poolassistant.overlay;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Point;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.provider.Settings;
+import android.view.WindowManager;
+
+import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.core.Tracer;
+import com.victory.poolassistant.data.model.OverlaySettings;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Overlay session engine
+ * Satu-satunya pemilik OverlayView, window params, trajectory layer dan posisi overlay.
+ * FloatingOverlayService hanya front-end tipis di atas session ini,
+ * sehingga paling banyak ada satu view tree overlay per process.
+ * View yang sudah dibuat disimpan sebagai warm cache selama service hidup:
+ * show/hide hanya attach/detach window, cache dilepas saat memory pressure.
+ * Saat game keluar dari foreground session masuk idle mode (suspend): semua window
+ * di-detach, render thread berhenti bersama surface-nya dan render caches dilepas.
+ * Perubahan layar (rotation, display, insets) datang dari ScreenMetricsCache dan
+ * menghasilkan satu reposition per perubahan geometry.
+ * Harus dipakai dari UI thread.
+ */
+public final class OverlaySession implements ComponentCallbacks2 {
+    
+    private static final String TAG = "OverlaySession";
+    private static OverlaySession instance;
+    
+    // Default position
+    public static final int DEFAULT_X = 100;
+    public static final int DEFAULT_Y = 100;
+    
+    /**
+     * Listener untuk perubahan session (notification, UI state)
+     */
+    public interface Listener {
+        void onOverlayVisibilityChanged(boolean visible);
+        
+        void onOverlayExitRequested();
+    }
+    
+    private final Context context;
+    private final WindowManager windowManager;
+    private final OverlayWindowManager windowHelper;
+    private final ScreenMetricsCache metricsCache;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScreenMetricsCache.Listener metricsListener = this::onScreenMetricsChanged;
+    
+    // Reused untuk constraint math (tanpa alokasi per move)
+    private final Point constrainedPosition = new Point();
+    
+    // Feature state, hidup lebih lama dari view
+    private final OverlaySettings settings = new OverlaySettings();
+    
+    // Control panel (dibuat sekali, params di-reuse untuk semua state)
+    private OverlayView overlayView;
+    private WindowManager.LayoutParams layoutParams;
+    
+    // Trajectory layer (full-screen, non-touchable, di bawah control panel)
+    private TrajectoryLayer trajectoryLayer;
+    private WindowManager.LayoutParams trajectoryLayoutParams;
+    
+    // Session state
+    private OverlayView.OverlayState state = OverlayView.OverlayState.ICON;
+    private boolean showing = false;
+    private MessageQueue.IdleHandler prewarmHandler;
+    
+    // Idle mode (game tidak di foreground)
+    private boolean suspended = false;
+    private boolean resumeOnGame = false;
+    private int suspendCount;
+    private long lastResumeNanos;
+    
+    // Toggle timing (attach/detach cost) untuk stats
+    private long lastShowNanos;
+    private long lastHideNanos;
+    private int cacheHits;
+    private int cacheMisses;
+    
+    private OverlaySession(Context context) {
+        this.context = context;
+        this.windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        this.windowHelper = new OverlayWindowManager(context);
+        this.metricsCache = ScreenMetricsCache.getInstance(context);
+        metricsCache.addListener(metricsListener);
+        context.registerComponentCallbacks(this);
+        updateProfileGeometry(metricsCache.get());
+    }
+    
+    public static synchronized OverlaySession getInstance(Context context) {
+        if (instance == null) {
+            instance = new OverlaySession(context.getApplicationContext());
+        }
+        return instance;
+    }
+    
+    /**
+     * Get existing session tanpa membuat baru
+     */
+    public static synchronized OverlaySession peekInstance() {
+        return instance;
+    }
+    
+    public void addListener(Listener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+    
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Check overlay permission
+     */
+    public boolean canDrawOverlays() {
+        return Settings.canDrawOverlays(context);
+    }
+    
+    /**
+     * Build warm cache saat main thread idle (view detached, semua state container siap),
+     * sehingga show pertama juga hanya attach window
+     */
+    public void prewarm() {
+        if (overlayView != null || prewarmHandler != null) return;
+        
+        prewarmHandler = () -> {
+            prewarmHandler = null;
+            if (overlayView == null && canDrawOverlays()) {
+                ensureView();
+                overlayView.prebuildContainers();
+                Logger.d(TAG, "Overlay warm cache ready");
+            }
+            return false;
+        };
+        Looper.myQueue().addIdleHandler(prewarmHandler);
+    }
+    
+    /**
+     * Check apakah view tersedia di warm cache
+     */
+    public boolean isCached() {
+        return overlayView != null;
+    }
+    
+    /**
+     * Build view, params dan trajectory layer jika belum ada
+     */
+    private void ensureView() {
+        if (overlayView != null) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+            
+            Tracer.begin("OverlaySession.ensureView");
+            try {
+                overlayView = new OverlayView(context, this);
+                // Insets berubah (cutout, taskbar) -> recompute metrics, bukan reposition langsung
+                overlayView.setOnApplyWindowInsetsListener((view, insets) -> {
+                    metricsCache.invalidate();
+                    return view.onApplyWindowInsets(insets);
+                });
+                
+                // Params dipertahankan lintas cache release supaya posisi tidak reset
+                if (layoutParams == null) {
+                    layoutParams = windowHelper.createOverlayLayoutParams();
+                    layoutParams.x = DEFAULT_X;
+                    layoutParams.y = DEFAULT_Y;
+                }
+                
+                Logger.d(TAG, "Overlay view created");
+            } finally {
+                Tracer.end();
+            }
+        }
+        
+        // Trajectory layer dilepas saat suspend; dibuat ulang tanpa rebuild control panel
+        if (trajectoryLayer == null) {
+            trajectoryLayer = new TrajectoryLayer(context);
+            if (trajectoryLayoutParams == null) {
+                trajectoryLayoutParams = TrajectoryLayer.createLayoutParams();
+            }
+        }
+    }
+    
+    /**
+     * Show overlay dengan state tertentu. Jika sudah tampil, hanya state yang diubah
+     */
+    public boolean show(OverlayView.OverlayState initialState) {
+        if (!canDrawOverlays()) {
+            // TODO: Notify user about permission requirement
+            Logger.e(TAG, "No overlay permission - cannot show overlay");
+            return false;
+        }
+        
+        if (showing) {
+            setState(initialState);
+            return true;
+        }
+        
+        // Show eksplisit membatalkan idle mode
+        suspended = false;
+        long start = System.nanoTime();
+        try {
+            ensureView();
+            overlayView.setState(initialState);
+            state = initialState;
+            
+            // Trajectory layer ditambahkan dulu supaya control panel berada di atasnya
+            addTrajectoryLayer();
+            windowManager.addView(overlayView, layoutParams);
+            showing = true;
+            lastShowNanos = System.nanoTime() - start;
+            
+            Logger.i(TAG, "Overlay shown with state: " + initialState);
+            notifyVisibility(true);
+            return true;
+            
+        } catch (Exception e) {
+            Logger.e(TAG, "Failed to show overlay", e);
+            removeTrajectoryLayer();
+            showing = false;
+            return false;
+        }
+    }
+    
+    /**
+     * Hide overlay. View hanya di-detach dan tetap di warm cache untuk show berikutnya.
+     * Hide eksplisit selama idle mode juga membatalkan resume, jadi overlay yang
+     * ditutup user saat game di background tidak muncul lagi saat game kembali
+     */
+    public void hide() {
+        cancelResume();
+        detach();
+    }
+    
+    /**
+     * Detach window tanpa menyentuh idle mode state (dipakai hide() dan suspend())
+     */
+    private void detach() {
+        if (!showing) return;
+        
+        long start = System.nanoTime();
+        try {
+            windowHelper.cancelAnimation();
+            windowManager.removeView(overlayView);
+        } catch (Exception e) {
+            Logger.e(TAG, "Failed to hide overlay", e);
+        }
+        removeTrajectoryLayer();
+        showing = false;
+        lastHideNanos = System.nanoTime() - start;
+        
+        Logger.i(TAG, "Overlay hidden");
+        notifyVisibility(false);
+    }
+    
+    /**
+     * Toggle overlay visibility
+     */
+    public boolean toggle(OverlayView.OverlayState initialState) {
+        if (showing) {
+            hide();
+            return true;
+        }
+        if (isResumePending()) {
+            // Overlay "aktif" tapi di-pause: toggle mematikannya, bukan menampilkan di luar game
+            cancelResume();
+            return true;
+        }
+        return show(initialState);
+    }
+    
+    /**
+     * Change panel state. Window params WRAP_CONTENT, jadi cukup relayout view
+     */
+    public void setState(OverlayView.OverlayState newState) {
+        state = newState;
+        if (overlayView != null) {
+            overlayView.setState(newState);
+        }
+    }
+    
+    /**
+     * Minta service/host menutup overlay sepenuhnya (tombol exit di panel)
+     */
+    public void requestExit() {
+        hide();
+        for (Listener listener : listeners) {
+            listener.onOverlayExitRequested();
+        }
+    }
+    
+    /**
+     * Masuk idle mode (game keluar dari foreground). Window di-detach sehingga surface
+     * trajectory dihancurkan dan render thread berhenti; trajectory layer, pending
+     * animations dan render caches dilepas. Control panel tetap di warm cache supaya
+     * resume hanya attach window
+     */
+    public void suspend() {
+        if (suspended) return;
+        suspended = true;
+        resumeOnGame = showing;
+        suspendCount++;
+        
+        cancelPrewarm();
+        detach();
+        if (overlayView != null) {
+            overlayView.cancelPendingFrames();
+        }
+        trajectoryLayer = null;
+        RenderResources.getInstance().trim();
+        Logger.i(TAG, "Overlay suspended, will resume: " + resumeOnGame);
+    }
+    
+    /**
+     * Keluar dari idle mode (game kembali ke foreground); overlay tampil lagi jika
+     * sebelumnya tampil
+     */
+    public void resume() {
+        if (!suspended) return;
+        suspended = false;
+        if (!resumeOnGame) return;
+        
+        long start = System.nanoTime();
+        show(getState());
+        lastResumeNanos = System.nanoTime() - start;
+        Logger.i(TAG, "Overlay resumed");
+    }
+    
+    /**
+     * Batalkan resume otomatis (user menutup overlay selama idle mode). Session
+     * tetap suspended sampai game kembali, tapi overlay tidak ditampilkan lagi
+     */
+    public void cancelResume() {
+        if (!suspended || !resumeOnGame) return;
+        resumeOnGame = false;
+        Logger.i(TAG, "Overlay closed while suspended, resume cancelled");
+    }
+    
+    public boolean isSuspended() {
+        return suspended;
+    }
+    
+    /**
+     * Suspended dan akan tampil lagi saat game kembali ke foreground
+     */
+    public boolean isResumePending() {
+        return suspended && resumeOnGame;
+    }
+    
+    /**
+     * Move window ke posisi absolut (satu layout update)
+     */
+    public void moveTo(int x, int y) {
+        if (!showing || layoutParams == null) return;
+        
+        layoutParams.x = x;
+        layoutParams.y = y;
+        try {
+            windowManager.updateViewLayout(overlayView, layoutParams);
+        } catch (Exception e) {
+            Logger.e(TAG, "Failed to update overlay position", e);
+        }
+    }
+    
+    /**
+     * Move window dengan constraint ke screen bounds
+     */
+    public void moveToConstrained(int x, int y) {
+        if (overlayView == null) return;
+        windowHelper.constrainToScreen(x, y, overlayView.getWidth(), overlayView.getHeight(), constrainedPosition);
+        moveTo(constrainedPosition.x, constrainedPosition.y);
+    }
+    
+    /**
+     * Reset posisi ke default
+     */
+    public void resetPosition() {
+        windowHelper.cancelAnimation();
+        moveTo(DEFAULT_X, DEFAULT_Y);
+        Logger.d(TAG, "Overlay position reset to ({},{})", DEFAULT_X, DEFAULT_Y);
+    }
+    
+    /**
+     * Settle ke edge terdekat setelah drag release (velocity dalam px/s)
+     */
+    public void settle(float velocityX, float velocityY) {
+        if (!showing || layoutParams == null) return;
+        windowHelper.flingToNearestEdge(overlayView, layoutParams, velocityX, velocityY);
+    }
+    
+    /**
+     * Cancel snap/fling animation yang sedang berjalan
+     */
+    public void cancelAnimation() {
+        windowHelper.cancelAnimation();
+    }
+    
+    /**
+     * Handle configuration change: hanya invalidate metrics. Rotation juga memicu
+     * DisplayListener; keduanya digabung menjadi satu recompute di ScreenMetricsCache
+     */
+    public void onConfigurationChanged() {
+        metricsCache.invalidate();
+    }
+    
+    /**
+     * Geometry layar berubah: resolve profiles dan jaga overlay tetap on-screen (sekali per perubahan)
+     */
+    private void onScreenMetricsChanged(ScreenMetrics oldMetrics, ScreenMetrics newMetrics) {
+        updateProfileGeometry(newMetrics);
+        if (showing && layoutParams != null) {
+            // Target snap/fling dihitung untuk layar lama
+            windowHelper.cancelAnimation();
+            moveToConstrained(layoutParams.x, layoutParams.y);
+        }
+        Logger.d(TAG, "Screen changed, overlay repositioned: {}", newMetrics);
+    }
+    
+    /**
+     * Resolve geometry game profiles untuk screen size sekarang (sekali per perubahan layar)
+     */
+    private void updateProfileGeometry(ScreenMetrics metrics) {
+        GameProfileRepository.getInstance().onScreenSizeChanged(metrics.getWidth(), metrics.getHeight());
+    }
+    
+    /**
+     * Hide dan release semua view (service destroyed). Callbacks yang didaftarkan
+     * constructor dilepas dan singleton di-reset, jadi getInstance() berikutnya
+     * membuat session baru
+     */
+    public void release() {
+        cancelPrewarm();
+        suspended = false;
+        resumeOnGame = false;
+        hide();
+        releaseCache();
+        windowHelper.cleanup();
+        metricsCache.removeListener(metricsListener);
+        metricsCache.release();
+        context.unregisterComponentCallbacks(this);
+        synchronized (OverlaySession.class) {
+            if (instance == this) instance = null;
+        }
+        Logger.d(TAG, "Overlay session released");
+    }
+    
+    private void cancelPrewarm() {
+        if (prewarmHandler != null) {
+            Looper.myQueue().removeIdleHandler(prewarmHandler);
+            prewarmHandler = null;
+        }
+    }
+    
+    /**
+     * Drop warm cache. Hanya boleh saat overlay tidak tampil; posisi tetap dipertahankan
+     */
+    private void releaseCache() {
+        if (showing || overlayView == null) return;
+        
+        overlayView.cleanup();
+        overlayView = null;
+        trajectoryLayer = null;
+        trajectoryLayoutParams = null;
+        // layoutParams dipertahankan supaya posisi terakhir tidak hilang
+        RenderResources.getInstance().trim();
+        Logger.d(TAG, "Overlay warm cache released");
+    }
+    
+    @Override
+    public void onTrimMemory(int level) {
+        // UI_HIDDEN normal untuk overlay app (user sedang di game), bukan memory pressure
+        if (level == TRIM_MEMORY_UI_HIDDEN || level < TRIM_MEMORY_RUNNING_LOW) return;
+        
+        if (!showing) {
+            Logger.d(TAG, "onTrimMemory({}) - releasing hidden overlay", level);
+            releaseCache();
+        } else if (level >= TRIM_MEMORY_RUNNING_CRITICAL) {
+            RenderResources.getInstance().trim();
+        }
+    }
+    
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+    
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        onConfigurationChanged();
+    }
+    
+    private void addTrajectoryLayer() {
+        if (trajectoryLayer == null || trajectoryLayer.isAttachedToWindow()) return;
+        
+        try {
+            windowManager.addView(trajectoryLayer, trajectoryLayoutParams);
+        } catch (Exception e) {
+            // Control panel tetap bisa jalan tanpa trajectory layer
+            Logger.e(TAG, "Failed to add trajectory layer", e);
+        }
+    }
+    
+    private void removeTrajectoryLayer() {
+        if (trajectoryLayer == null || !trajectoryLayer.isAttachedToWindow()) return;
+        
+        try {
+            windowManager.removeView(trajectoryLayer);
+        } catch (Exception e) {
+            Logger.e(TAG, "Failed to remove trajectory layer", e);
+        }
+    }
+    
+    private void notifyVisibility(boolean visible) {
+        for (Listener listener : listeners) {
+            listener.onOverlayVisibilityChanged(visible);
+        }
+    }
+    
+    // =============================================================================
+    // STATE ACCESSORS
+    // =============================================================================
+    
+    public boolean isShowing() {
+        return showing;
+    }
+    
+    public OverlayView.OverlayState getState() {
+        // View bisa pindah state sendiri (klik icon/tombol)
+        return overlayView != null ? overlayView.getCurrentState() : state;
+    }
+    
+    public OverlaySettings getSettings() {
+        return settings;
+    }
+    
+    public OverlayView getOverlayView() {
+        return overlayView;
+    }
+    
+    public TrajectoryLayer getTrajectoryLayer() {
+        return trajectoryLayer;
+    }
+    
+    public int getX() {
+        return layoutParams != null ? layoutParams.x : DEFAULT_X;
+    }
+    
+    public int getY() {
+        return layoutParams != null ? layoutParams.y : DEFAULT_Y;
+    }
+    
+    /**
+     * Get warm cache + toggle timing info
+     */
+    public String getCacheInfo() {
+        return String.format(
+            "Overlay cache: %s, Hits: %d, Misses: %d, Last show: %.2fms, Last hide: %.2fms\n" +
+            "Idle mode: %s, Suspends: %d, Last resume: %.2fms",
+            overlayView != null ? "warm" : "cold", cacheHits, cacheMisses,
+            lastShowNanos / 1_000_000f, lastHideNanos / 1_000_000f,
+            suspended ? "suspended" : "active", suspendCount, lastResumeNanos / 1_000_000f
+        );
+    }
+    
+    /**
+     * Get render + drag stats untuk stats screen
+     */
+    public String getRenderStats() {
+        StringBuilder stats = new StringBuilder();
+        stats.append(getCacheInfo()).append("\n");
+        stats.append(windowHelper.getScreenInfo()).append("\n");
+        if (trajectoryLayer != null) {
+            stats.append(trajectoryLayer.getRenderInfo()).append("\n");
+        }
+        if (overlayView != null) {
+            stats.append(overlayView.getDragStats());
+        }
+        return stats.toString().trim();
+    }
+}
@@ -0,0 +1,140 @@
+package com.victory.poolassistant.overlay;
+
+import android.view.Choreographer;
+
+import com.victory.poolassistant.core.Logger;
+
+/**
+ * Frame-synchronised spring animator untuk posisi overlay window
+ * Posisi dihitung analitik (underdamped spring) dari waktu frame Choreographer,
+ * sehingga biayanya tepat satu layout update per frame dan frame yang terlewat
+ * tidak membuat animasi menumpuk atau melambat.
+ * Harus dipakai dari UI thread.
+ */
+public class OverlaySpringAnimator implements Choreographer.FrameCallback {
+    
+    private static final String TAG = "OverlaySpringAnimator";
+    
+    // Spring tuning: omega^2 (1/s^2) dan damping ratio (< 1 = sedikit bounce)
+    private static final float STIFFNESS = 400f;
+    private static final float DAMPING_RATIO = 0.8f;
+    
+    // Fling projection: jarak tempuh = velocity / friction (exponential decay)
+    private static final float FLING_FRICTION = 4.2f;
+    
+    // Rest threshold
+    private static final float REST_DISTANCE_PX = 0.5f;
+    private static final float REST_VELOCITY_PX = 10f;
+    
+    private final Choreographer choreographer;
+    private final OverlayDragEngine.PositionSink sink;
+    
+    private final Axis axisX = new Axis();
+    private final Axis axisY = new Axis();
+    private long startTimeNanos;
+    private boolean running = false;
+    
+    /**
+     * Closed-form damped spring untuk satu axis
+     */
+    private static final class Axis {
+        private static final float OMEGA = (float) Math.sqrt(STIFFNESS);
+        private static final float OMEGA_D = OMEGA * (float) Math.sqrt(1 - DAMPING_RATIO * DAMPING_RATIO);
+        
+        float target;
+        float coeffA;
+        float coeffB;
+        float position;
+        float velocity;
+        
+        void set(float from, float velocity, float target) {
+            this.target = target;
+            this.coeffA = from - target;
+            this.coeffB = (velocity + DAMPING_RATIO * OMEGA * coeffA) / OMEGA_D;
+            this.position = from;
+            this.velocity = velocity;
+        }
+        
+        void evaluate(float t) {
+            float decay = (float) Math.exp(-DAMPING_RATIO * OMEGA * t);
+            float cos = (float) Math.cos(OMEGA_D * t);
+            float sin = (float) Math.sin(OMEGA_D * t);
+            
+            float offset = decay * (coeffA * cos + coeffB * sin);
+            position = target + offset;
+            velocity = -DAMPING_RATIO * OMEGA * offset
+                + decay * (-coeffA * OMEGA_D * sin + coeffB * OMEGA_D * cos);
+        }
+        
+        boolean isAtRest() {
+            return Math.abs(position - target) < REST_DISTANCE_PX
+                && Math.abs(velocity) < REST_VELOCITY_PX;
+        }
+    }
+    
+    public OverlaySpringAnimator(OverlayDragEngine.PositionSink sink) {
+        this.sink = sink;
+        this.choreographer = Choreographer.getInstance();
+    }
+    
+    /**
+     * Projected resting offset dari fling velocity (px/s)
+     */
+    public static float projectFling(float velocity) {
+        return velocity / FLING_FRICTION;
+    }
+    
+    /**
+     * Start spring dari posisi + velocity saat ini ke target.
+     * Animasi yang sedang berjalan langsung diganti
+     */
+    public void start(int fromX, int fromY, float velocityX, float velocityY, int targetX, int targetY) {
+        axisX.set(fromX, velocityX, targetX);
+        axisY.set(fromY, velocityY, targetY);
+        startTimeNanos = System.nanoTime();
+        
+        if (!running) {
+            running = true;
+            choreographer.postFrameCallback(this);
+        }
+        
+        Logger.d(TAG, "Spring to ({},{})", targetX, targetY);
+    }
+    
+    /**
+     * Cancel animasi (misalnya saat touch baru masuk). Window tetap di posisi terakhir
+     */
+    public void cancel() {
+        if (!running) return;
+        
+        running = false;
+        choreographer.removeFrameCallback(this);
+        Logger.d(TAG, "Spring cancelled at ({},{})", axisX.position, axisY.position);
+    }
+    
+    /**
+     * Check if animation is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) return;
+        
+        // Frame time bisa sedikit sebelum start time pada frame pertama
+        float t = Math.max(0, frameTimeNanos - startTimeNanos) / 1_000_000_000f;
+        axisX.evaluate(t);
+        axisY.evaluate(t);
+        
+        if (axisX.isAtRest() && axisY.isAtRest()) {
+            running = false;
+            sink.onDragPosition((int) axisX.target, (int) axisY.target);
+            return;
+        }
+        
+        sink.onDragPosition(Math.round(axisX.position), Math.round(axisY.position));
+        choreographer.postFrameCallback(this);
+    }
+}
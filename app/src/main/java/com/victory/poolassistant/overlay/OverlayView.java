@@ -4,12 +4,14 @@ import android.animation.ObjectAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
 import android.graphics.RectF;
 import android.graphics.Typeface;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.DecelerateInterpolator;
@@ -21,7 +23,13 @@ import android.widget.SeekBar;
 import android.widget.Button;
 
 import com.victory.poolassistant.R;
+import com.victory.poolassistant.core.AllocationTracker;
+import com.victory.poolassistant.core.AppConfig;
 import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.core.Tracer;
+import com.victory.poolassistant.data.model.GameConfig;
+import com.victory.poolassistant.data.model.OverlaySettings;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
 
 /**
  * Enhanced OverlayView dengan 3-State System + Draggable Icon
@@ -31,6 +39,7 @@ import com.victory.poolassistant.core.Logger;
 public class OverlayView extends LinearLayout {
     
     private static final String TAG = "OverlayView";
+    private static final AllocationTracker.Probe drawProbe = AllocationTracker.register("OverlayView.onDraw");
     
     // 3-State System Enhanced
     public enum OverlayState {
@@ -47,11 +56,19 @@ public class OverlayView extends LinearLayout {
     private static final int CLICK_THRESHOLD = 15; // Increased for better detection
     private static final long CLICK_TIMEOUT = 200; // ms
     
-    // State containers
+    // Pre-build FULL/SETTINGS container saat main thread idle setelah icon tampil
+    private static final boolean PREBUILD_ON_IDLE = true;
+    
+    // State containers (FULL dan SETTINGS dibuat saat pertama kali dipakai)
     private ViewGroup iconContainer;
     private ViewGroup fullContainer;
     private ViewGroup settingsContainer;
     
+    // Feature state, dibaca tanpa perlu widget (dimiliki session jika ada)
+    private final OverlaySettings settings;
+    private String statusText = "Pool Assistant Ready";
+    private MessageQueue.IdleHandler prebuildHandler;
+    
     // Icon state components (draggable)
     private ImageButton iconButton;
     
@@ -84,36 +101,50 @@ public class OverlayView extends LinearLayout {
     private ImageButton btnExpand;
     private ImageButton btnSettings_compat;
     
-    // Service reference
-    private FloatingOverlayService service;
+    // Owning session (window position, animation, exit)
+    private OverlaySession session;
+    
+    // Drag engine: maksimal satu window layout update per frame
+    private final OverlayDragEngine dragEngine = new OverlayDragEngine(this::onDragPosition);
+    
+    // Release velocity untuk fling/snap
+    private VelocityTracker velocityTracker;
     
     public OverlayView(Context context) {
+        this(context, (OverlaySession) null);
+    }
+    
+    public OverlayView(Context context, OverlaySession session) {
         super(context);
-        if (context instanceof FloatingOverlayService) {
-            this.service = (FloatingOverlayService) context;
-        }
+        this.session = session;
+        this.settings = session != null ? session.getSettings() : new OverlaySettings();
         initView();
     }
     
     public OverlayView(Context context, AttributeSet attrs) {
         super(context, attrs);
+        this.settings = new OverlaySettings();
         initView();
     }
     
+    /**
+     * Coalesced drag position dari OverlayDragEngine (sekali per frame)
+     */
+    private void onDragPosition(int x, int y) {
+        if (session != null) {
+            session.moveTo(x, y);
+        }
+    }
+    
     /**
      * ENHANCED: Initialize 3-state overlay dengan draggable icon
      */
     private void initView() {
+        Tracer.begin("OverlayView.initView");
         try {
-            // Create all 3 state containers
+            // Hanya icon state yang dibuat eagerly, FULL/SETTINGS lazy
             iconContainer = createDraggableIconState(); // ENHANCED: Draggable
-            fullContainer = createFullState();
-            settingsContainer = createSettingsState();
-            
-            // Add containers
             addView(iconContainer);
-            addView(fullContainer);
-            addView(settingsContainer);
             setBackgroundColor(Color.TRANSPARENT); // FIX #2: Ensure root container is transparent
             
             // Setup enhanced interactions
@@ -131,9 +162,114 @@ public class OverlayView extends LinearLayout {
             
         } catch (Exception e) {
             Logger.e(TAG, "Failed to initialize enhanced OverlayView", e);
+        } finally {
+            Tracer.end();
         }
     }
     
+    /**
+     * Build FULL container jika belum ada
+     */
+    private ViewGroup ensureFullContainer() {
+        if (fullContainer == null) {
+            Tracer.begin("OverlayView.buildFull");
+            try {
+                fullContainer = createFullState();
+                fullContainer.setVisibility(GONE);
+                addView(fullContainer);
+                setupFullClickListeners();
+                mainContainer = fullContainer;
+                btnMinimize = btnClose;
+                btnSettings_compat = btnSettings;
+                Logger.d(TAG, "FULL container built");
+            } finally {
+                Tracer.end();
+            }
+        }
+        return fullContainer;
+    }
+    
+    /**
+     * Build SETTINGS container jika belum ada
+     */
+    private ViewGroup ensureSettingsContainer() {
+        if (settingsContainer == null) {
+            Tracer.begin("OverlayView.buildSettings");
+            try {
+                settingsContainer = createSettingsState();
+                settingsContainer.setVisibility(GONE);
+                addView(settingsContainer);
+                setupSettingsClickListeners();
+                Logger.d(TAG, "SETTINGS container built");
+            } finally {
+                Tracer.end();
+            }
+        }
+        return settingsContainer;
+    }
+    
+    /**
+     * Pre-build satu container per idle pass supaya tidak menambah jank
+     */
+    private void schedulePrebuild() {
+        if (!PREBUILD_ON_IDLE || prebuildHandler != null
+                || (fullContainer != null && settingsContainer != null)) {
+            return;
+        }
+        
+        prebuildHandler = () -> {
+            if (!isInitialized) {
+                prebuildHandler = null;
+                return false;
+            }
+            if (fullContainer == null) {
+                ensureFullContainer();
+                return true;
+            }
+            ensureSettingsContainer();
+            prebuildHandler = null;
+            return false;
+        };
+        Looper.myQueue().addIdleHandler(prebuildHandler);
+    }
+    
+    /**
+     * Build semua state container sekarang (warm cache, view belum attached)
+     */
+    public void prebuildContainers() {
+        if (!isInitialized) return;
+        cancelPrebuild();
+        ensureFullContainer();
+        ensureSettingsContainer();
+    }
+    
+    private void cancelPrebuild() {
+        if (prebuildHandler != null) {
+            Looper.myQueue().removeIdleHandler(prebuildHandler);
+            prebuildHandler = null;
+        }
+    }
+    
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        schedulePrebuild();
+    }
+    
+    @Override
+    protected void onDetachedFromWindow() {
+        cancelPendingFrames();
+        super.onDetachedFromWindow();
+    }
+    
+    /**
+     * Stop drag frame callbacks dan idle pre-build (view detached / idle mode)
+     */
+    public void cancelPendingFrames() {
+        dragEngine.cancel();
+        cancelPrebuild();
+    }
+    
     /**
      * ENHANCED: Create draggable 72dp icon state
      */
@@ -215,7 +351,7 @@ public class OverlayView extends LinearLayout {
         // Status
         tvStatus = new TextView(getContext());
         tvStatus.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT));
-        tvStatus.setText("Pool Assistant Ready");
+        tvStatus.setText(statusText);
         tvStatus.setTextColor(Color.WHITE);
         tvStatus.setTextSize(14f);
         tvStatus.setGravity(android.view.Gravity.CENTER);
@@ -304,16 +440,20 @@ public class OverlayView extends LinearLayout {
         section.setPadding(0, 16, 0, 16);
         
         // Create toggles and extract switches
-        LinearLayout aimLayout = createToggleSwitch("Fitur Aim", true);
+        // Initial value dari model, perubahan widget ditulis kembali ke model
+        LinearLayout aimLayout = createToggleSwitch("Fitur Aim", settings.isBasicAimEnabled());
         switchFiturAim = (Switch) aimLayout.getChildAt(1);
+        switchFiturAim.setOnCheckedChangeListener((b, checked) -> settings.setBasicAimEnabled(checked));
         section.addView(aimLayout);
         
-        LinearLayout rootLayout = createToggleSwitch("Aim Root Mode", false);
+        LinearLayout rootLayout = createToggleSwitch("Aim Root Mode", settings.isRootAimEnabled());
         switchAimRootMode = (Switch) rootLayout.getChildAt(1);
+        switchAimRootMode.setOnCheckedChangeListener((b, checked) -> settings.setRootAimEnabled(checked));
         section.addView(rootLayout);
         
-        LinearLayout prediksiLayout = createToggleSwitch("Prediksi Bola", true);
+        LinearLayout prediksiLayout = createToggleSwitch("Prediksi Bola", settings.isPredictionEnabled());
         switchPrediksi = (Switch) prediksiLayout.getChildAt(1);
+        switchPrediksi.setOnCheckedChangeListener((b, checked) -> settings.setPredictionEnabled(checked));
         section.addView(prediksiLayout);
         
         return section;
@@ -354,22 +494,53 @@ public class OverlayView extends LinearLayout {
         section.setOrientation(LinearLayout.VERTICAL);
         
         // Opacity slider
-        LinearLayout opacityLayout = createSlider("opacity", 80);
+        // Nilai awal dan perubahan mengikuti profile game aktif
+        GameConfig profile = GameProfileRepository.getInstance().getActive();
+        LinearLayout opacityLayout = createSlider("opacity", profile.getOverlayOpacity(), 100);
         seekBarOpacity = (SeekBar) opacityLayout.getChildAt(1);
+        seekBarOpacity.setOnSeekBarChangeListener(new ModelSeekBarListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                if (fromUser) GameProfileRepository.getInstance().setOverlayOpacity(progress);
+            }
+        });
         section.addView(opacityLayout);
         
-        // Thickness slider
-        LinearLayout ketebalanLayout = createSlider("ketebalan garis", 60);
+        // Thickness slider (px, progress 0 = MIN_LINE_THICKNESS)
+        LinearLayout ketebalanLayout = createSlider("ketebalan garis",
+            profile.getLineThickness() - AppConfig.MIN_LINE_THICKNESS,
+            AppConfig.MAX_LINE_THICKNESS - AppConfig.MIN_LINE_THICKNESS);
         seekBarKetebalan = (SeekBar) ketebalanLayout.getChildAt(1);
+        seekBarKetebalan.setOnSeekBarChangeListener(new ModelSeekBarListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                if (fromUser) {
+                    GameProfileRepository.getInstance().setLineThickness(progress + AppConfig.MIN_LINE_THICKNESS);
+                }
+            }
+        });
         section.addView(ketebalanLayout);
         
         return section;
     }
     
+    /**
+     * SeekBar listener yang hanya meneruskan progress ke settings
+     */
+    private abstract static class ModelSeekBarListener implements SeekBar.OnSeekBarChangeListener {
+        @Override
+        public void onStartTrackingTouch(SeekBar seekBar) {
+        }
+        
+        @Override
+        public void onStopTrackingTouch(SeekBar seekBar) {
+        }
+    }
+    
     /**
      * Create individual slider
      */
-    private LinearLayout createSlider(String label, int defaultValue) {
+    private LinearLayout createSlider(String label, int defaultValue, int max) {
         LinearLayout layout = new LinearLayout(getContext());
         layout.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT));
         layout.setOrientation(LinearLayout.VERTICAL);
@@ -395,7 +566,7 @@ public class OverlayView extends LinearLayout {
         LayoutParams seekParams = new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
         seekParams.setMargins(0, 8, 0, 0);
         seekBar.setLayoutParams(seekParams);
-        seekBar.setMax(100);
+        seekBar.setMax(max);
         seekBar.setProgress(defaultValue);
         layout.addView(seekBar);
         
@@ -486,8 +657,9 @@ public class OverlayView extends LinearLayout {
         options.setPadding(16, 16, 16, 16);
         
         // Theme toggle
-        LinearLayout themeOption = createSettingsOption("🌙 Tema Gelap", false);
+        LinearLayout themeOption = createSettingsOption("🌙 Tema Gelap", settings.isDarkTheme());
         switchTheme = (Switch) ((LinearLayout) themeOption.getChildAt(1)).getChildAt(0);
+        switchTheme.setOnCheckedChangeListener((b, checked) -> settings.setDarkTheme(checked));
         options.addView(themeOption);
         
         // Reset position
@@ -557,7 +729,8 @@ public class OverlayView extends LinearLayout {
     }
     
     /**
-     * ENHANCED: Setup click listeners dengan proper state transitions
+     * ENHANCED: Setup click listeners untuk icon state.
+     * Listener FULL/SETTINGS dipasang saat container-nya dibuat
      */
     private void setupEnhancedClickListeners() {
         // Icon state - Click to expand to Full (only when not dragging)
@@ -579,7 +752,12 @@ public class OverlayView extends LinearLayout {
                 }
             });
         }
-        
+    }
+    
+    /**
+     * Setup click listeners untuk FULL state
+     */
+    private void setupFullClickListeners() {
         // Full state - Settings button
         if (btnSettings != null) {
             btnSettings.setOnClickListener(v -> {
@@ -595,7 +773,12 @@ public class OverlayView extends LinearLayout {
                 setState(OverlayState.ICON);
             });
         }
-        
+    }
+    
+    /**
+     * Setup click listeners untuk SETTINGS state
+     */
+    private void setupSettingsClickListeners() {
         // Settings state - Plus button (back to Full)
         if (btnPlus != null) {
             btnPlus.setOnClickListener(v -> {
@@ -616,9 +799,8 @@ public class OverlayView extends LinearLayout {
         if (btnExit != null) {
             btnExit.setOnClickListener(v -> {
                 Logger.d(TAG, "Exit app clicked");
-                if (service != null) {
-                    service.hideOverlay();
-                    service.stopSelf();
+                if (session != null) {
+                    session.requestExit();
                 }
             });
         }
@@ -639,23 +821,84 @@ public class OverlayView extends LinearLayout {
         });
     }
     
+    /**
+     * Track velocity dalam screen coordinates. Window ikut bergerak selama drag,
+     * jadi event di-offset sementara ke raw coordinates (termasuk historical samples)
+     */
+    private void trackVelocity(MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            if (velocityTracker == null) {
+                velocityTracker = VelocityTracker.obtain();
+            } else {
+                velocityTracker.clear();
+            }
+        }
+        if (velocityTracker == null) return;
+        
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        velocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+    }
+    
+    /**
+     * Drag selesai: flush posisi terakhir lalu fling/snap ke edge terdekat
+     */
+    private void finishDrag() {
+        dragEngine.end();
+        
+        if (session != null && velocityTracker != null) {
+            velocityTracker.computeCurrentVelocity(1000);
+            session.settle(velocityTracker.getXVelocity(), velocityTracker.getYVelocity());
+        }
+    }
+    
+    /**
+     * Gesture dibatalkan sistem (ACTION_CANCEL): tidak ada click dan tidak ada fling.
+     * Posisi terakhir tetap di-flush lalu window di-snap ke edge tanpa velocity,
+     * supaya tidak tertinggal di tengah screen
+     */
+    private void cancelDrag() {
+        if (isDragging) {
+            dragEngine.end();
+            if (session != null) {
+                session.settle(0f, 0f);
+            }
+        } else {
+            dragEngine.cancel();
+        }
+        if (velocityTracker != null) {
+            velocityTracker.clear();
+        }
+        isDragging = false;
+        isClickPending = false;
+    }
+    
     /**
      * ENHANCED: Handle touch events untuk icon drag
      */
     private boolean handleIconDragTouch(MotionEvent event) {
-        switch (event.getAction()) {
+        trackVelocity(event);
+        
+        switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
+                // Touch baru menghentikan snap animation yang sedang jalan
+                if (session != null) {
+                    session.cancelAnimation();
+                }
                 initialX = event.getRawX();
                 initialY = event.getRawY();
                 initialTouchX = event.getX();
                 initialTouchY = event.getY();
                 isDragging = false;
                 isClickPending = true;
+                dragEngine.begin(event);
                 
                 // Start click timeout
                 postDelayed(() -> isClickPending = false, CLICK_TIMEOUT);
                 
-                Logger.v(TAG, "Icon touch down at (" + initialX + "," + initialY + ")");
+                Logger.v(TAG, "Icon touch down at ({},{})", initialX, initialY);
                 return true;
                 
             case MotionEvent.ACTION_MOVE:
@@ -667,22 +910,21 @@ public class OverlayView extends LinearLayout {
                 if (!isDragging && distance > CLICK_THRESHOLD) {
                     isDragging = true;
                     isClickPending = false;
-                    Logger.d(TAG, "Icon drag started, distance: " + distance);
+                    Logger.d(TAG, "Icon drag started, distance: {}", distance);
                 }
                 
-                if (isDragging && service != null) {
-                    // Calculate new position
-                    int newX = (int) (event.getRawX() - initialTouchX);
-                    int newY = (int) (event.getRawY() - initialTouchY);
-                    
-                    // Update overlay position
-                    service.updateOverlayPosition(newX, newY);
-                    Logger.v(TAG, "Icon dragging to (" + newX + "," + newY + ")");
+                if (isDragging && session != null) {
+                    // Queue position, layout update dikirim di frame berikutnya
+                    dragEngine.onMove(event);
+                    Logger.v(TAG, "Icon dragging to ({},{})", dragEngine.getLastX(), dragEngine.getLastY());
                 }
                 return true;
                 
             case MotionEvent.ACTION_UP:
-                Logger.d(TAG, "Icon touch up - isDragging: " + isDragging + ", isClickPending: " + isClickPending);
+                Logger.d(TAG, "Icon touch up - isDragging: {}, isClickPending: {}", isDragging, isClickPending);
+                if (isDragging) {
+                    finishDrag();
+                }
                 
                 if (!isDragging && isClickPending) {
                     // This was a click, not a drag
@@ -697,6 +939,11 @@ public class OverlayView extends LinearLayout {
                 isClickPending = false;
                 return true;
                 
+            case MotionEvent.ACTION_CANCEL:
+                Logger.d(TAG, "Icon touch cancelled - isDragging: {}", isDragging);
+                cancelDrag();
+                return true;
+                
             default:
                 return false;
         }
@@ -706,13 +953,19 @@ public class OverlayView extends LinearLayout {
      * Handle touch for container drag (FULL/SETTINGS states)
      */
     private boolean handleContainerTouch(MotionEvent event) {
-        switch (event.getAction()) {
+        trackVelocity(event);
+        
+        switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
+                if (session != null) {
+                    session.cancelAnimation();
+                }
                 initialX = event.getRawX();
                 initialY = event.getRawY();
                 initialTouchX = event.getX();
                 initialTouchY = event.getY();
                 isDragging = false;
+                dragEngine.begin(event);
                 return true;
                 
             case MotionEvent.ACTION_MOVE:
@@ -723,17 +976,22 @@ public class OverlayView extends LinearLayout {
                     isDragging = true;
                 }
                 
-                if (isDragging && service != null) {
-                    int newX = (int) (event.getRawX() - initialTouchX);
-                    int newY = (int) (event.getRawY() - initialTouchY);
-                    service.updateOverlayPosition(newX, newY);
+                if (isDragging && session != null) {
+                    dragEngine.onMove(event);
                 }
                 return true;
                 
             case MotionEvent.ACTION_UP:
+                if (isDragging) {
+                    finishDrag();
+                }
                 isDragging = false;
                 return true;
                 
+            case MotionEvent.ACTION_CANCEL:
+                cancelDrag();
+                return true;
+                
             default:
                 return false;
         }
@@ -745,34 +1003,39 @@ public class OverlayView extends LinearLayout {
     public void setState(OverlayState newState) {
         if (!isInitialized || newState == currentState) return;
         
-        Logger.d(TAG, "State transition: " + currentState + " → " + newState);
-        
-        // Hide all containers
-        iconContainer.setVisibility(GONE);
-        fullContainer.setVisibility(GONE);
-        settingsContainer.setVisibility(GONE);
-        
-        // Show target container with animation
-        switch (newState) {
-            case ICON:
-                iconContainer.setVisibility(VISIBLE);
-                animateTransition(iconContainer, 0.6f, 1.0f);
-                isMinimized = true; // Compatibility
-                break;
-            case FULL:
-                fullContainer.setVisibility(VISIBLE);
-                animateTransition(fullContainer, 0.8f, 1.0f);
-                isMinimized = false; // Compatibility
-                break;
-            case SETTINGS:
-                settingsContainer.setVisibility(VISIBLE);
-                animateTransition(settingsContainer, 0.8f, 1.0f);
-                isMinimized = false; // Compatibility
-                break;
+        Tracer.begin("OverlayView.setState");
+        try {
+            Logger.d(TAG, "State transition: {} → {}", currentState, newState);
+            
+            // Hide all containers (yang belum dibuat di-skip)
+            iconContainer.setVisibility(GONE);
+            if (fullContainer != null) fullContainer.setVisibility(GONE);
+            if (settingsContainer != null) settingsContainer.setVisibility(GONE);
+            
+            // Show target container with animation
+            switch (newState) {
+                case ICON:
+                    iconContainer.setVisibility(VISIBLE);
+                    animateTransition(iconContainer, 0.6f, 1.0f);
+                    isMinimized = true; // Compatibility
+                    break;
+                case FULL:
+                    ensureFullContainer().setVisibility(VISIBLE);
+                    animateTransition(fullContainer, 0.8f, 1.0f);
+                    isMinimized = false; // Compatibility
+                    break;
+                case SETTINGS:
+                    ensureSettingsContainer().setVisibility(VISIBLE);
+                    animateTransition(settingsContainer, 0.8f, 1.0f);
+                    isMinimized = false; // Compatibility
+                    break;
+            }
+            
+            currentState = newState;
+            Logger.d(TAG, "State changed to: {}", currentState);
+        } finally {
+            Tracer.end();
         }
-        
-        currentState = newState;
-        Logger.d(TAG, "State changed to: " + currentState);
     }
     
     /**
@@ -800,9 +1063,8 @@ public class OverlayView extends LinearLayout {
      * Reset overlay position
      */
     private void resetOverlayPosition() {
-        if (service != null) {
-            service.updateOverlayPosition(100, 100);
-            Logger.d(TAG, "Overlay position reset to (100, 100)");
+        if (session != null) {
+            session.resetPosition();
         }
     }
     
@@ -810,11 +1072,9 @@ public class OverlayView extends LinearLayout {
      * Setup backward compatibility dengan old system
      */
     private void setupBackwardCompatibility() {
-        mainContainer = fullContainer;
+        // mainContainer/btnMinimize/btnSettings_compat di-set di ensureFullContainer()
         minimizedContainer = iconContainer;
-        btnMinimize = btnClose; 
         btnExpand = iconButton;
-        btnSettings_compat = btnSettings;
     }
     
     // =============================================================================
@@ -835,37 +1095,45 @@ public class OverlayView extends LinearLayout {
         return currentState == OverlayState.ICON;
     }
     
-    // REQUIRED BY OverlayManager: Feature state methods
+    // REQUIRED BY OverlayManager: Feature state methods (served dari model)
     public boolean isBasicAimEnabled() {
-        return switchFiturAim != null ? switchFiturAim.isChecked() : false;
+        return settings.isBasicAimEnabled();
     }
     
     public boolean isRootAimEnabled() {
-        return switchAimRootMode != null ? switchAimRootMode.isChecked() : false;
+        return settings.isRootAimEnabled();
     }
     
     public boolean isPredictionEnabled() {
-        return switchPrediksi != null ? switchPrediksi.isChecked() : false;
+        return settings.isPredictionEnabled();
     }
     
     public int getOpacityValue() {
-        return seekBarOpacity != null ? seekBarOpacity.getProgress() : 80;
+        return GameProfileRepository.getInstance().getActive().getOverlayOpacity();
     }
     
     public int getLineThicknessValue() {
-        return seekBarKetebalan != null ? seekBarKetebalan.getProgress() : 5;
+        return GameProfileRepository.getInstance().getActive().getLineThickness();
+    }
+    
+    /**
+     * Get feature state model
+     */
+    public OverlaySettings getSettings() {
+        return settings;
     }
     
     /**
-     * Update status text
+     * Update status text. Disimpan dan dipakai saat FULL container dibuat
      */
     public void updateStatus(String status) {
-        if (tvStatus != null) {
-            post(() -> {
+        post(() -> {
+            statusText = status;
+            if (tvStatus != null) {
                 tvStatus.setText(status);
-                Logger.d(TAG, "Status updated: " + status);
-            });
-        }
+            }
+            Logger.d(TAG, "Status updated: {}", status);
+        });
     }
     
     /**
@@ -873,26 +1141,24 @@ public class OverlayView extends LinearLayout {
      */
     @Override
     protected void onDraw(Canvas canvas) {
+        drawProbe.beginFrame();
         super.onDraw(canvas);
         
         // Only draw border for FULL/SETTINGS states
         if (currentState != OverlayState.ICON) {
             drawBorder(canvas);
         }
+        drawProbe.endFrame();
     }
     
     /**
-     * Draw border untuk overlay window
+     * Draw border untuk overlay window (allocation-free, pakai RenderResources)
      */
     private void drawBorder(Canvas canvas) {
-        Paint borderPaint = new Paint();
-        borderPaint.setColor(Color.parseColor("#4CAF50"));
-        borderPaint.setStyle(Paint.Style.STROKE);
-        borderPaint.setStrokeWidth(4f);
-        borderPaint.setAntiAlias(true);
-        
-        RectF rect = new RectF(2, 2, getWidth() - 2, getHeight() - 2);
-        canvas.drawRoundRect(rect, 12f, 12f, borderPaint);
+        RectF rect = RenderResources.scratch().rect;
+        rect.set(2, 2, getWidth() - 2, getHeight() - 2);
+        canvas.drawRoundRect(rect, RenderResources.BORDER_CORNER_RADIUS, RenderResources.BORDER_CORNER_RADIUS,
+            RenderResources.getInstance().getBorderPaint(true));
     }
     
     /**
@@ -912,6 +1178,13 @@ public class OverlayView extends LinearLayout {
     public void cleanup() {
         Logger.d(TAG, "Cleaning up Enhanced OverlayView resources");
         
+        // Stop pending drag frame callbacks dan idle pre-build
+        cancelPendingFrames();
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+        
         // Remove touch listeners
         setOnTouchListener(null);
         if (iconContainer != null) {
@@ -919,7 +1192,14 @@ public class OverlayView extends LinearLayout {
         }
         
         // Clear references
-        service = null;
+        session = null;
+    }
+    
+    /**
+     * Get drag engine stats (coalescing + input latency)
+     */
+    public String getDragStats() {
+        return dragEngine.getStats();
     }
     
     /**
@@ -927,8 +1207,8 @@ public class OverlayView extends LinearLayout {
      */
     public String getViewInfo() {
         return String.format(
-            "Enhanced OverlayView - State: %s, Dragging: %s, Initialized: %s", 
-            currentState, isDragging, isInitialized
+            "Enhanced OverlayView - State: %s, Dragging: %s, Initialized: %s, Built: full=%s settings=%s", 
+            currentState, isDragging, isInitialized, fullContainer != null, settingsContainer != null
         );
     }
 }
\ No newline at end of file
@@ -4,7 +4,6 @@ import android.content.Context;
 import android.graphics.PixelFormat;
 import android.graphics.Point;
 import android.os.Build;
-import android.view.Display;
 import android.view.Gravity;
 import android.view.View;
 import android.view.WindowManager;
@@ -14,6 +13,8 @@ import com.victory.poolassistant.core.Logger;
 /**
  * Advanced window manager untuk floating overlay
  * Handles positioning, screen boundaries, multi-display support
+ * Screen size/insets dibaca dari ScreenMetricsCache (di-invalidate oleh display dan
+ * insets callbacks), sehingga constraint math per move tidak query display/resources.
  */
 public class OverlayWindowManager {
     
@@ -21,21 +22,21 @@ public class OverlayWindowManager {
     
     private final Context context;
     private final WindowManager windowManager;
-    
-    // Screen info
-    private int screenWidth;
-    private int screenHeight;
-    private int statusBarHeight;
+    private final ScreenMetricsCache metricsCache;
     
     // Window positioning
     private static final int EDGE_MARGIN = 16;
     private static final int SNAP_THRESHOLD = 50;
     
+    // Spring animation (satu layout update per frame)
+    private OverlaySpringAnimator springAnimator;
+    private View animatedView;
+    private WindowManager.LayoutParams animatedParams;
+    
     public OverlayWindowManager(Context context) {
         this.context = context;
         this.windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
-        
-        updateScreenInfo();
+        this.metricsCache = ScreenMetricsCache.getInstance(context);
     }
     
     /**
@@ -88,26 +89,35 @@ public class OverlayWindowManager {
     }
     
     /**
-     * Get screen size as array (MISSING METHOD)
+     * Get cached screen metrics (tanpa alokasi)
      */
-    public int[] getScreenSize() {
-        return new int[]{screenWidth, screenHeight};
+    public ScreenMetrics getScreenMetrics() {
+        return metricsCache.get();
+    }
+    
+    public int getScreenWidth() {
+        return metricsCache.get().getWidth();
+    }
+    
+    public int getScreenHeight() {
+        return metricsCache.get().getHeight();
     }
     
     /**
-     * Get status bar height (Make PUBLIC instead of PRIVATE)
+     * Get status bar height (top inset, termasuk cutout)
      */
     public int getStatusBarHeight() {
-        return statusBarHeight;
+        return metricsCache.get().getInsetTop();
     }
     
     /**
      * Cleanup resources (MISSING METHOD)
      */
     public void cleanup() {
+        cancelAnimation();
+        animatedView = null;
+        animatedParams = null;
         Logger.d(TAG, "OverlayWindowManager cleanup completed");
-        // Currently no specific cleanup needed
-        // Can be extended for future resource management
     }
     
     /**
@@ -153,7 +163,9 @@ public class OverlayWindowManager {
      * Get optimal window flags
      */
     private int getOptimalWindowFlags() {
+        // FLAG_NOT_TOUCH_MODAL: touch di luar overlay diteruskan ke game
         return WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE |
+               WindowManager.LayoutParams.FLAG_NOT_TOUCH_MODAL |
                WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN |
                WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS |
                WindowManager.LayoutParams.FLAG_HARDWARE_ACCELERATED;
@@ -163,84 +175,77 @@ public class OverlayWindowManager {
      * Get optimal initial position
      */
     private Point getOptimalInitialPosition(int windowWidth, int windowHeight) {
-        // Default ke top-right corner dengan margin
-        int x = screenWidth - windowWidth - EDGE_MARGIN;
-        int y = statusBarHeight + EDGE_MARGIN;
-        
-        // Pastikan tidak keluar dari screen bounds
-        x = Math.max(EDGE_MARGIN, Math.min(x, screenWidth - windowWidth - EDGE_MARGIN));
-        y = Math.max(statusBarHeight, Math.min(y, screenHeight - windowHeight - EDGE_MARGIN));
-        
-        return new Point(x, y);
+        ScreenMetrics metrics = metricsCache.get();
+        // Default ke top-right corner dengan margin, dibatasi ke screen bounds
+        return constrainToScreen(maxX(metrics, windowWidth), metrics.getInsetTop() + EDGE_MARGIN,
+            windowWidth, windowHeight, new Point());
     }
     
     /**
-     * Update screen information
+     * Recompute screen metrics sekarang (listener dipanggil jika geometry berubah)
      */
     public void updateScreenInfo() {
-        if (windowManager != null) {
-            Display display = windowManager.getDefaultDisplay();
-            Point size = new Point();
-            display.getSize(size);
-            
-            screenWidth = size.x;
-            screenHeight = size.y;
-            statusBarHeight = calculateStatusBarHeight();
-            
-            Logger.d(TAG, "Screen info updated: " + screenWidth + "x" + screenHeight + 
-                     ", status bar: " + statusBarHeight);
-        }
+        metricsCache.refresh();
+    }
+    
+    // Bounds window di dalam safe area (insets + margin)
+    private static int minX(ScreenMetrics metrics) {
+        return metrics.getInsetLeft() + EDGE_MARGIN;
+    }
+    
+    private static int maxX(ScreenMetrics metrics, int windowWidth) {
+        return metrics.getWidth() - metrics.getInsetRight() - windowWidth - EDGE_MARGIN;
+    }
+    
+    private static int minY(ScreenMetrics metrics) {
+        return metrics.getInsetTop();
+    }
+    
+    private static int maxY(ScreenMetrics metrics, int windowHeight) {
+        return metrics.getHeight() - metrics.getInsetBottom() - windowHeight - EDGE_MARGIN;
     }
     
     /**
-     * Calculate status bar height
+     * Constrain position to screen boundaries, hasil ditulis ke out (tanpa alokasi)
      */
-    private int calculateStatusBarHeight() {
-        int resourceId = context.getResources().getIdentifier(
-            "status_bar_height", "dimen", "android");
-        
-        if (resourceId > 0) {
-            return context.getResources().getDimensionPixelSize(resourceId);
-        }
-        return 0;
+    public Point constrainToScreen(int x, int y, int windowWidth, int windowHeight, Point out) {
+        ScreenMetrics metrics = metricsCache.get();
+        out.x = Math.max(minX(metrics), Math.min(x, maxX(metrics, windowWidth)));
+        out.y = Math.max(minY(metrics), Math.min(y, maxY(metrics, windowHeight)));
+        return out;
     }
     
     /**
      * Constrain position to screen boundaries
      */
     public Point constrainToScreen(int x, int y, int windowWidth, int windowHeight) {
-        // Apply boundaries dengan margin
-        int constrainedX = Math.max(EDGE_MARGIN, 
-            Math.min(x, screenWidth - windowWidth - EDGE_MARGIN));
-        int constrainedY = Math.max(statusBarHeight, 
-            Math.min(y, screenHeight - windowHeight - EDGE_MARGIN));
-        
-        return new Point(constrainedX, constrainedY);
+        return constrainToScreen(x, y, windowWidth, windowHeight, new Point());
     }
     
     /**
      * Snap to screen edges if close enough
      */
     public Point snapToEdges(int x, int y, int windowWidth, int windowHeight) {
+        ScreenMetrics metrics = metricsCache.get();
         int snappedX = x;
         int snappedY = y;
         
         // Snap to left edge
-        if (x < SNAP_THRESHOLD) {
-            snappedX = EDGE_MARGIN;
+        if (x < metrics.getInsetLeft() + SNAP_THRESHOLD) {
+            snappedX = minX(metrics);
         }
         // Snap to right edge
-        else if (x > screenWidth - windowWidth - SNAP_THRESHOLD) {
-            snappedX = screenWidth - windowWidth - EDGE_MARGIN;
+        else if (x > maxX(metrics, windowWidth) + EDGE_MARGIN - SNAP_THRESHOLD) {
+            snappedX = maxX(metrics, windowWidth);
         }
         
         // Snap to top edge
-        if (y < statusBarHeight + SNAP_THRESHOLD) {
-            snappedY = statusBarHeight + EDGE_MARGIN;
+        if (y < metrics.getInsetTop() + SNAP_THRESHOLD) {
+            snappedY = metrics.getInsetTop() + EDGE_MARGIN;
         }
         // Snap to bottom edge
-        else if (y > screenHeight - windowHeight - SNAP_THRESHOLD) {
-            snappedY = screenHeight - windowHeight - EDGE_MARGIN;
+        else if (y > maxY(metrics, windowHeight) + EDGE_MARGIN - SNAP_THRESHOLD) {
+            snappedY = maxY(metrics, windowHeight);
         }
         
         return new Point(snappedX, snappedY);
@@ -251,38 +256,93 @@ public class OverlayWindowManager {
      */
     public Point getSafePosition(int windowWidth, int windowHeight) {
         // Avoid common UI areas (navigation bar, notch area, etc.)
-        int safeX = screenWidth - windowWidth - EDGE_MARGIN * 2;
-        int safeY = statusBarHeight + EDGE_MARGIN * 3;
+        ScreenMetrics metrics = metricsCache.get();
+        int safeX = maxX(metrics, windowWidth) - EDGE_MARGIN;
+        int safeY = metrics.getInsetTop() + EDGE_MARGIN * 3;
         
         return constrainToScreen(safeX, safeY, windowWidth, windowHeight);
     }
     
     /**
-     * Animate window position change
+     * Snap ke edge terdekat: vertical pakai snapToEdges, horizontal selalu
+     * menempel ke sisi kiri/kanan yang paling dekat
+     */
+    public Point snapToNearestEdge(int x, int y, int windowWidth, int windowHeight) {
+        Point constrained = constrainToScreen(x, y, windowWidth, windowHeight);
+        Point snapped = snapToEdges(constrained.x, constrained.y, windowWidth, windowHeight);
+        
+        if (snapped.x == constrained.x) {
+            ScreenMetrics metrics = metricsCache.get();
+            int centerX = (metrics.getInsetLeft() + metrics.getWidth() - metrics.getInsetRight()) / 2;
+            snapped.x = (x + windowWidth / 2 < centerX) ? minX(metrics) : maxX(metrics, windowWidth);
+        }
+        
+        return snapped;
+    }
+    
+    /**
+     * Animate window position change dengan spring (tanpa velocity awal)
      */
     public void animateToPosition(View view, WindowManager.LayoutParams params, 
                                   int targetX, int targetY) {
-        // Simple animation using post() method
-        final int startX = params.x;
-        final int startY = params.y;
-        final int deltaX = targetX - startX;
-        final int deltaY = targetY - startY;
+        startSpring(view, params, 0f, 0f, targetX, targetY);
+    }
+    
+    /**
+     * Settle window setelah drag release: proyeksikan fling velocity (px/s),
+     * snap ke edge terdekat, lalu spring ke sana dengan velocity yang sama
+     */
+    public void flingToNearestEdge(View view, WindowManager.LayoutParams params,
+                                   float velocityX, float velocityY) {
+        int windowWidth = view.getWidth();
+        int windowHeight = view.getHeight();
+        int projectedX = params.x + (int) OverlaySpringAnimator.projectFling(velocityX);
+        int projectedY = params.y + (int) OverlaySpringAnimator.projectFling(velocityY);
+        
+        Point target = snapToNearestEdge(projectedX, projectedY, windowWidth, windowHeight);
+        startSpring(view, params, velocityX, velocityY, target.x, target.y);
+    }
+    
+    /**
+     * Cancel running window animation (misalnya saat touch baru)
+     */
+    public void cancelAnimation() {
+        if (springAnimator != null) {
+            springAnimator.cancel();
+        }
+    }
+    
+    /**
+     * Start atau retarget spring animation
+     */
+    private void startSpring(View view, WindowManager.LayoutParams params,
+                             float velocityX, float velocityY, int targetX, int targetY) {
+        if (springAnimator == null) {
+            springAnimator = new OverlaySpringAnimator(this::onSpringPosition);
+        }
+        animatedView = view;
+        animatedParams = params;
+        springAnimator.start(params.x, params.y, velocityX, velocityY, targetX, targetY);
+    }
+    
+    /**
+     * Spring frame callback - satu updateViewLayout per frame
+     */
+    private void onSpringPosition(int x, int y) {
+        if (animatedView == null || animatedParams == null) return;
+        if (!animatedView.isAttachedToWindow()) {
+            springAnimator.cancel();
+            return;
+        }
         
-        final int steps = 10;
-        final long duration = 200; // ms
+        animatedParams.x = x;
+        animatedParams.y = y;
         
-        for (int i = 1; i <= steps; i++) {
-            final int step = i;
-            view.postDelayed(() -> {
-                params.x = startX + (deltaX * step / steps);
-                params.y = startY + (deltaY * step / steps);
-                
-                try {
-                    windowManager.updateViewLayout(view, params);
-                } catch (Exception e) {
-                    Logger.e(TAG, "Animation update failed", e);
-                }
-            }, duration * i / steps);
+        try {
+            windowManager.updateViewLayout(animatedView, animatedParams);
+        } catch (Exception e) {
+            Logger.e(TAG, "Animation update failed", e);
+            springAnimator.cancel();
         }
     }
     
@@ -290,8 +350,9 @@ public class OverlayWindowManager {
      * Get screen center position
      */
     public Point getCenterPosition(int windowWidth, int windowHeight) {
-        int centerX = (screenWidth - windowWidth) / 2;
-        int centerY = (screenHeight - windowHeight) / 2;
+        ScreenMetrics metrics = metricsCache.get();
+        int centerX = (metrics.getWidth() - windowWidth) / 2;
+        int centerY = (metrics.getHeight() - windowHeight) / 2;
         
         return constrainToScreen(centerX, centerY, windowWidth, windowHeight);
     }
@@ -300,31 +361,31 @@ public class OverlayWindowManager {
      * Check if position is valid
      */
     public boolean isValidPosition(int x, int y, int windowWidth, int windowHeight) {
-        return x >= 0 && y >= statusBarHeight && 
-               x + windowWidth <= screenWidth && 
-               y + windowHeight <= screenHeight;
+        ScreenMetrics metrics = metricsCache.get();
+        return x >= metrics.getInsetLeft() && y >= metrics.getInsetTop() && 
+               x + windowWidth <= metrics.getWidth() - metrics.getInsetRight() && 
+               y + windowHeight <= metrics.getHeight() - metrics.getInsetBottom();
     }
     
     /**
      * Get screen info summary
      */
     public String getScreenInfo() {
+        ScreenMetrics metrics = metricsCache.get();
         return String.format(
             "Screen: %dx%d, Status Bar: %d, Safe Area: %dx%d",
-            screenWidth, screenHeight, statusBarHeight,
-            screenWidth - (EDGE_MARGIN * 2),
-            screenHeight - statusBarHeight - (EDGE_MARGIN * 2)
-        );
+            metrics.getWidth(), metrics.getHeight(), metrics.getInsetTop(),
+            maxX(metrics, 0) - minX(metrics),
+            maxY(metrics, 0) - minY(metrics)
+        ) + "\n" + metricsCache.getInfo();
     }
     
     /**
-     * Handle screen rotation
+     * Handle screen rotation. Metrics di-invalidate; ScreenMetricsCache.Listener
+     * (OverlaySession) melakukan reposition sekali setelah recompute
      */
     public void handleScreenRotation() {
         Logger.d(TAG, "Handling screen rotation...");
-        updateScreenInfo();
-        
-        // TODO: Notify overlay service about screen change
-        // so it can reposition window if needed
+        metricsCache.invalidate();
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.victory.poolassistant.overlay;
+
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import com.victory.poolassistant.core.Logger;
+
+/**
+ * Registry untuk render resources overlay (Paint, Path, RectF)
+ * Semua drawing code overlay mengambil object dari sini supaya draw path
+ * tidak mengalokasikan apa pun per frame.
+ * Paint yang dikembalikan di-share, jangan diubah oleh pemanggil.
+ */
+public final class RenderResources {
+    
+    private static final String TAG = "RenderResources";
+    private static final RenderResources INSTANCE = new RenderResources();
+    
+    // Overlay panel colors (dulu Color.parseColor di setiap onDraw)
+    public static final int COLOR_BORDER_DARK = 0xFF4CAF50;
+    public static final int COLOR_BORDER_LIGHT = 0xFF388E3C;
+    
+    public static final float BORDER_STROKE_WIDTH = 4f;
+    public static final float BORDER_CORNER_RADIUS = 12f;
+    
+    // Style aktif (border light/dark, trajectory) plus beberapa style terakhir; slider
+    // opacity/thickness/color membuat key baru setiap langkah, jadi cache dibatasi
+    private static final int MAX_STROKE_PAINTS = 8;
+    
+    // Stroke paints keyed by (color, stroke width) tanpa boxing, LRU lewat use tick
+    private final long[] strokeKeys = new long[MAX_STROKE_PAINTS];
+    private final long[] strokeUsed = new long[MAX_STROKE_PAINTS];
+    private final Paint[] strokePaints = new Paint[MAX_STROKE_PAINTS];
+    private int strokeCount = 0;
+    private long useTick = 0;
+    private long evictions = 0;
+    
+    // Scratch objects per thread (UI thread dan render thread)
+    private static final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+    
+    /**
+     * Reusable geometry objects. Hanya valid di thread yang mengambilnya
+     */
+    public static final class Scratch {
+        public final RectF rect = new RectF();
+        public final Path path = new Path();
+        
+        private Scratch() {
+        }
+    }
+    
+    private RenderResources() {
+    }
+    
+    public static RenderResources getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Get scratch geometry untuk thread saat ini
+     */
+    public static Scratch scratch() {
+        return scratch.get();
+    }
+    
+    /**
+     * Get border paint untuk theme tertentu
+     */
+    public Paint getBorderPaint(boolean darkTheme) {
+        return getStrokePaint(darkTheme ? COLOR_BORDER_DARK : COLOR_BORDER_LIGHT, BORDER_STROKE_WIDTH);
+    }
+    
+    /**
+     * Get trajectory line paint dengan opacity (0-100) dan thickness (px)
+     */
+    public Paint getTrajectoryPaint(int color, int opacityPercent, float thickness) {
+        int alpha = Math.max(0, Math.min(255, opacityPercent * 255 / 100));
+        return getStrokePaint(Color.argb(alpha, Color.red(color), Color.green(color), Color.blue(color)), thickness);
+    }
+    
+    /**
+     * Get anti-aliased round-cap stroke paint. Dibuat sekali per kombinasi key;
+     * jika cache penuh, paint yang paling lama tidak dipakai diganti
+     */
+    public synchronized Paint getStrokePaint(int color, float strokeWidth) {
+        long key = ((long) color << 32) | (Float.floatToIntBits(strokeWidth) & 0xFFFFFFFFL);
+        useTick++;
+        int slot = 0;
+        for (int i = 0; i < strokeCount; i++) {
+            if (strokeKeys[i] == key) {
+                strokeUsed[i] = useTick;
+                return strokePaints[i];
+            }
+            if (strokeUsed[i] < strokeUsed[slot]) slot = i;
+        }
+        
+        if (strokeCount < MAX_STROKE_PAINTS) {
+            slot = strokeCount++;
+        } else {
+            evictions++;
+        }
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeCap(Paint.Cap.ROUND);
+        paint.setColor(color);
+        paint.setStrokeWidth(strokeWidth);
+        strokeKeys[slot] = key;
+        strokeUsed[slot] = useTick;
+        strokePaints[slot] = paint;
+        return paint;
+    }
+    
+    /**
+     * Release cached paints (dipanggil saat memory pressure)
+     */
+    public synchronized void trim() {
+        int count = strokeCount;
+        for (int i = 0; i < strokeCount; i++) {
+            strokePaints[i] = null;
+        }
+        strokeCount = 0;
+        Logger.d(TAG, "Render resources trimmed, released " + count + " paints");
+    }
+    
+    /**
+     * Get registry info untuk debugging
+     */
+    public synchronized String getInfo() {
+        return "Cached paints: " + strokeCount + "/" + MAX_STROKE_PAINTS + ", evicted: " + evictions;
+    }
+}
@@ -0,0 +1,105 @@
+package com.victory.poolassistant.overlay;
+
+import java.util.Locale;
+
+/**
+ * Immutable screen metrics untuk display tempat overlay ditampilkan
+ * Size dan insets (status bar, navigation bar, cutout) dalam px. Dibuat oleh
+ * ScreenMetricsCache hanya saat display berubah; constraint math overlay
+ * membaca field dari instance ini tanpa alokasi.
+ */
+public final class ScreenMetrics {
+    
+    private final int displayId;
+    private final int width;
+    private final int height;
+    private final int insetLeft;
+    private final int insetTop;
+    private final int insetRight;
+    private final int insetBottom;
+    private final int rotation;
+    private final float refreshRate;
+    private final boolean cutout;
+    
+    public ScreenMetrics(int displayId, int width, int height,
+                         int insetLeft, int insetTop, int insetRight, int insetBottom,
+                         int rotation, float refreshRate, boolean cutout) {
+        this.displayId = displayId;
+        this.width = width;
+        this.height = height;
+        this.insetLeft = insetLeft;
+        this.insetTop = insetTop;
+        this.insetRight = insetRight;
+        this.insetBottom = insetBottom;
+        this.rotation = rotation;
+        this.refreshRate = refreshRate;
+        this.cutout = cutout;
+    }
+    
+    public int getDisplayId() {
+        return displayId;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    public int getInsetLeft() {
+        return insetLeft;
+    }
+    
+    /**
+     * Status bar / cutout di atas (pengganti status_bar_height)
+     */
+    public int getInsetTop() {
+        return insetTop;
+    }
+    
+    public int getInsetRight() {
+        return insetRight;
+    }
+    
+    public int getInsetBottom() {
+        return insetBottom;
+    }
+    
+    /**
+     * Surface.ROTATION_*
+     */
+    public int getRotation() {
+        return rotation;
+    }
+    
+    public float getRefreshRate() {
+        return refreshRate;
+    }
+    
+    public boolean hasCutout() {
+        return cutout;
+    }
+    
+    /**
+     * Check apakah geometry (size, insets, rotation) sama. Refresh rate tidak dihitung
+     */
+    public boolean sameGeometry(ScreenMetrics other) {
+        return other != null
+            && displayId == other.displayId
+            && width == other.width && height == other.height
+            && insetLeft == other.insetLeft && insetTop == other.insetTop
+            && insetRight == other.insetRight && insetBottom == other.insetBottom
+            && rotation == other.rotation;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+            "Display %d: %dx%d, rotation %d, insets [%d,%d,%d,%d]%s, %.0f Hz",
+            displayId, width, height, rotation * 90,
+            insetLeft, insetTop, insetRight, insetBottom,
+            cutout ? " (cutout)" : "", refreshRate);
+    }
+}
@@ -0,0 +1,255 @@
+package com.victory.poolassistant.overlay;
+
+import android.content.Context;
+import android.graphics.Insets;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.hardware.display.DisplayManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Display;
+import android.view.DisplayCutout;
+import android.view.WindowInsets;
+import android.view.WindowManager;
+import android.view.WindowMetrics;
+
+import com.victory.poolassistant.core.Logger;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide cache untuk ScreenMetrics display overlay
+ * Metrics dihitung sekali dan hanya di-invalidate oleh DisplayManager.DisplayListener,
+ * configuration change dan window insets callback. Beberapa invalidation dalam satu
+ * transisi (rotation memicu ketiganya) digabung menjadi satu recompute di main thread,
+ * dan listener hanya dipanggil jika geometry benar-benar berubah.
+ *
+ * Overlay di-attach lewat application context sehingga selalu di default display;
+ * event dari display lain (cast, virtual display screen recorder) diabaikan.
+ * Di R+ metrics dibaca dari WindowContext TYPE_APPLICATION_OVERLAY, bukan dari
+ * application context yang tidak punya window. DisplayListener dilepas oleh
+ * release() saat overlay session dilepas.
+ */
+public final class ScreenMetricsCache implements DisplayManager.DisplayListener {
+    
+    private static final String TAG = "ScreenMetricsCache";
+    
+    private static ScreenMetricsCache instance;
+    
+    /**
+     * Listener untuk perubahan geometry layar (selalu dipanggil di main thread)
+     */
+    public interface Listener {
+        void onScreenMetricsChanged(ScreenMetrics oldMetrics, ScreenMetrics newMetrics);
+    }
+    
+    private final Context context;
+    private final WindowManager windowManager;
+    private final DisplayManager displayManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final int displayId = Display.DEFAULT_DISPLAY;
+    
+    // Dibaca dari thread mana pun (render thread, governor)
+    private volatile ScreenMetrics current;
+    
+    // Main thread only
+    private boolean refreshPending = false;
+    private final Runnable refresher = this::refresh;
+    
+    // Stats
+    private int invalidations = 0;
+    private int recomputes = 0;
+    private int changes = 0;
+    
+    private ScreenMetricsCache(Context context) {
+        this.context = context.getApplicationContext();
+        this.displayManager = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+        this.windowManager = (WindowManager) createWindowContext(this.context)
+            .getSystemService(Context.WINDOW_SERVICE);
+        this.current = compute();
+        displayManager.registerDisplayListener(this, mainHandler);
+    }
+    
+    public static synchronized ScreenMetricsCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ScreenMetricsCache(context);
+        }
+        return instance;
+    }
+    
+    /**
+     * WindowContext untuk window overlay di display ini (R+), supaya
+     * getCurrentWindowMetrics() mengukur window type yang benar-benar dipakai
+     */
+    private Context createWindowContext(Context appContext) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            Display display = displayManager.getDisplay(displayId);
+            if (display != null) {
+                return appContext.createDisplayContext(display)
+                    .createWindowContext(WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY, null);
+            }
+        }
+        return appContext;
+    }
+    
+    /**
+     * Unregister DisplayListener dan reset singleton (overlay session dilepas).
+     * getInstance() berikutnya membuat cache baru
+     */
+    public void release() {
+        displayManager.unregisterDisplayListener(this);
+        mainHandler.removeCallbacks(refresher);
+        refreshPending = false;
+        listeners.clear();
+        synchronized (ScreenMetricsCache.class) {
+            if (instance == this) instance = null;
+        }
+        Logger.d(TAG, "Screen metrics cache released");
+    }
+    
+    /**
+     * Metrics terakhir (lock-free, tanpa alokasi)
+     */
+    public ScreenMetrics get() {
+        return current;
+    }
+    
+    /**
+     * Display tempat overlay ditampilkan
+     */
+    public Display getDisplay() {
+        Display display = displayManager.getDisplay(displayId);
+        return display != null ? display : windowManager.getDefaultDisplay();
+    }
+    
+    public void addListener(Listener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+    
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    // =============================================================================
+    // INVALIDATION
+    // =============================================================================
+    
+    /**
+     * Tandai metrics stale (main thread). Recompute di-post sekali untuk semua
+     * invalidation sampai refresher jalan
+     */
+    public void invalidate() {
+        invalidations++;
+        if (refreshPending) return;
+        refreshPending = true;
+        mainHandler.post(refresher);
+    }
+    
+    /**
+     * Recompute sekarang (main thread) dan notify listener jika geometry berubah
+     */
+    public ScreenMetrics refresh() {
+        mainHandler.removeCallbacks(refresher);
+        refreshPending = false;
+        
+        ScreenMetrics previous = current;
+        ScreenMetrics updated = compute();
+        current = updated;
+        recomputes++;
+        
+        if (!updated.sameGeometry(previous)) {
+            changes++;
+            Logger.d(TAG, "Screen metrics changed: {}", updated);
+            for (Listener listener : listeners) {
+                try {
+                    listener.onScreenMetricsChanged(previous, updated);
+                } catch (Exception e) {
+                    Logger.e(TAG, "Screen metrics listener failed", e);
+                }
+            }
+        }
+        return updated;
+    }
+    
+    @Override
+    public void onDisplayAdded(int id) {
+        // Display lain tidak mempengaruhi overlay
+    }
+    
+    @Override
+    public void onDisplayRemoved(int id) {
+        // Default display tidak pernah dilepas
+    }
+    
+    @Override
+    public void onDisplayChanged(int id) {
+        if (id == displayId) {
+            invalidate();
+        }
+    }
+    
+    // =============================================================================
+    // COMPUTE
+    // =============================================================================
+    
+    private ScreenMetrics compute() {
+        Display display = getDisplay();
+        int rotation = display.getRotation();
+        float refreshRate = display.getRefreshRate();
+        
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            WindowMetrics metrics = windowManager.getCurrentWindowMetrics();
+            Rect bounds = metrics.getBounds();
+            WindowInsets windowInsets = metrics.getWindowInsets();
+            // Ignoring visibility: status bar yang disembunyikan game tetap dihindari
+            Insets insets = windowInsets.getInsetsIgnoringVisibility(
+                WindowInsets.Type.systemBars() | WindowInsets.Type.displayCutout());
+            return new ScreenMetrics(displayId, bounds.width(), bounds.height(),
+                insets.left, insets.top, insets.right, insets.bottom,
+                rotation, refreshRate, windowInsets.getDisplayCutout() != null);
+        }
+        return computeLegacy(display, rotation, refreshRate);
+    }
+    
+    /**
+     * Pre-R: app area dari Display.getSize, status bar dari resource, cutout dari display (Q+)
+     */
+    @SuppressWarnings("deprecation")
+    private ScreenMetrics computeLegacy(Display display, int rotation, float refreshRate) {
+        Point size = new Point();
+        display.getSize(size);
+        
+        int top = 0;
+        int resourceId = context.getResources().getIdentifier("status_bar_height", "dimen", "android");
+        if (resourceId > 0) {
+            top = context.getResources().getDimensionPixelSize(resourceId);
+        }
+        
+        int left = 0;
+        int right = 0;
+        boolean hasCutout = false;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            DisplayCutout cutout = display.getCutout();
+            if (cutout != null) {
+                hasCutout = true;
+                top = Math.max(top, cutout.getSafeInsetTop());
+                left = cutout.getSafeInsetLeft();
+                right = cutout.getSafeInsetRight();
+            }
+        }
+        return new ScreenMetrics(displayId, size.x, size.y, left, top, right, 0,
+            rotation, refreshRate, hasCutout);
+    }
+    
+    /**
+     * Get cache info untuk stats screen
+     */
+    public String getInfo() {
+        return current + "\nMetrics: " + recomputes + " recomputes, " + changes + " changes, " +
+            invalidations + " invalidations";
+    }
+}
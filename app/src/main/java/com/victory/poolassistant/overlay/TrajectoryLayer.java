@@ -0,0 +1,155 @@
+package com.victory.poolassistant.overlay;
+
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.os.Build;
+import android.view.Gravity;
+import android.view.Surface;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import android.view.WindowManager;
+
+import com.victory.poolassistant.core.AppConfig;
+import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+
+/**
+ * Full-screen, non-touchable trajectory layer
+ * Digambar oleh TrajectoryRenderThread, terpisah dari OverlayView control panel
+ * yang tetap berupa window kecil yang bisa di-touch di atas layer ini.
+ * FrameGovernor dan semua listener-nya hanya hidup selama surface ada.
+ */
+public class TrajectoryLayer extends SurfaceView implements SurfaceHolder.Callback {
+    
+    private static final String TAG = "TrajectoryLayer";
+    
+    // Android 12+ memblokir touch yang melewati window overlay dari app lain
+    // kecuali opacity window <= 0.8 (InputManager maximum obscuring opacity)
+    private static final float MAX_PASSTHROUGH_ALPHA = 0.8f;
+    
+    private final TrajectoryScene scene;
+    private TrajectoryRenderThread renderThread;
+    private FrameGovernor governor;
+    
+    // Style profile berubah -> scene perlu digambar ulang
+    private final GameProfileRepository.ProfileListener profileListener = (oldProfile, newProfile) -> scene.invalidate();
+    
+    public TrajectoryLayer(Context context) {
+        super(context);
+        scene = new TrajectoryScene();
+        
+        // Surface di atas window sendiri + translucent supaya game tetap terlihat
+        setZOrderOnTop(true);
+        getHolder().setFormat(PixelFormat.TRANSLUCENT);
+        getHolder().addCallback(this);
+    }
+    
+    /**
+     * Create window layout parameters untuk full-screen pass-through layer
+     */
+    public static WindowManager.LayoutParams createLayoutParams() {
+        int layoutFlag;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            layoutFlag = WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY;
+        } else {
+            layoutFlag = WindowManager.LayoutParams.TYPE_PHONE;
+        }
+        
+        WindowManager.LayoutParams params = new WindowManager.LayoutParams(
+            WindowManager.LayoutParams.MATCH_PARENT,
+            WindowManager.LayoutParams.MATCH_PARENT,
+            layoutFlag,
+            WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE |
+            WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE |
+            WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN |
+            WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS |
+            WindowManager.LayoutParams.FLAG_HARDWARE_ACCELERATED,
+            PixelFormat.TRANSLUCENT
+        );
+        params.gravity = Gravity.TOP | Gravity.START;
+        params.x = 0;
+        params.y = 0;
+        
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            params.alpha = MAX_PASSTHROUGH_ALPHA;
+        }
+        
+        return params;
+    }
+    
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        // Listener dipanggil render thread (termasuk rate awal di frame pertama)
+        governor = new FrameGovernor(getContext(), rate -> applySurfaceFrameRate(holder, rate));
+        governor.start();
+        
+        boolean hardwareCanvas = AppConfig.getBoolean(AppConfig.PREF_HARDWARE_ACCELERATION, true);
+        renderThread = new TrajectoryRenderThread(holder, scene, governor, hardwareCanvas);
+        renderThread.startRendering();
+        scene.setInvalidateCallback(renderThread::requestRender);
+        GameProfileRepository.getInstance().addListener(profileListener);
+        Logger.d(TAG, "Trajectory surface created, render thread started");
+    }
+    
+    /**
+     * Beri tahu compositor rate layer ini (API 30+) supaya display bisa memilih mode yang cocok
+     */
+    private static void applySurfaceFrameRate(SurfaceHolder holder, int rate) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) return;
+        Surface surface = holder.getSurface();
+        if (surface == null || !surface.isValid()) return;
+        try {
+            surface.setFrameRate(rate, Surface.FRAME_RATE_COMPATIBILITY_DEFAULT);
+        } catch (Exception e) {
+            Logger.w(TAG, "Surface.setFrameRate failed: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        if (renderThread != null) {
+            renderThread.onSurfaceChanged(width, height);
+        }
+        Logger.d(TAG, "Trajectory surface changed: " + width + "x" + height);
+    }
+    
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // Harus selesai sebelum return, surface tidak valid lagi setelah callback ini
+        GameProfileRepository.getInstance().removeListener(profileListener);
+        scene.setInvalidateCallback(null);
+        if (renderThread != null) {
+            renderThread.shutdown();
+            renderThread = null;
+        }
+        if (governor != null) {
+            governor.stop();
+            governor = null;
+        }
+        Logger.d(TAG, "Trajectory surface destroyed, render thread stopped");
+    }
+    
+    /**
+     * Get scene yang digambar layer ini
+     */
+    public TrajectoryScene getScene() {
+        return scene;
+    }
+    
+    /**
+     * Get render thread info untuk debugging
+     */
+    public String getRenderInfo() {
+        if (renderThread == null) {
+            return "Trajectory layer - no surface";
+        }
+        long intervalNanos = renderThread.getLastFrameIntervalNanos();
+        float hz = intervalNanos > 0 ? 1_000_000_000f / intervalNanos : 0f;
+        String info = String.format(
+            "Trajectory layer - Frames: %d, Paced: %d, Idle sleeps: %d, Refresh: %.1f Hz",
+            renderThread.getFramesRendered(), renderThread.getFramesPaced(), renderThread.getSleeps(), hz
+        );
+        FrameGovernor currentGovernor = governor;
+        return currentGovernor != null ? info + "\n" + currentGovernor.getInfo() : info;
+    }
+}
@@ -0,0 +1,241 @@
+package com.victory.poolassistant.overlay;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.Choreographer;
+import android.view.SurfaceHolder;
+
+import com.victory.poolassistant.core.AllocationTracker;
+import com.victory.poolassistant.core.Logger;
+
+/**
+ * Render thread untuk trajectory layer
+ * Punya Looper + Choreographer sendiri sehingga frame mengikuti vsync display
+ * (60/90/120 Hz) tanpa bersaing dengan layout dan touch handling di UI thread.
+ * Frame di-pace oleh FrameGovernor dan loop tidur selama scene tidak berubah
+ * (bangun lagi lewat requestRender).
+ */
+public class TrajectoryRenderThread extends HandlerThread implements Choreographer.FrameCallback {
+    
+    private static final String TAG = "TrajectoryRenderThread";
+    private static final AllocationTracker.Probe renderProbe = AllocationTracker.register("Trajectory.onDrawFrame");
+    
+    // Fallback vsync interval sebelum ada dua callback berturut-turut
+    private static final long DEFAULT_VSYNC_NANOS = 1_000_000_000L / 60;
+    
+    private final SurfaceHolder surfaceHolder;
+    private final TrajectoryRenderer renderer;
+    private final FrameGovernor governor;
+    private final boolean hardwareCanvas;
+    
+    private volatile Handler handler;
+    private Choreographer choreographer;
+    private boolean rendering = false;
+    private boolean sleeping = false;
+    private boolean forceFrame = false;
+    private long lastRenderedNanos = 0;
+    
+    // Frame stats (hanya diakses dari render thread kecuali getter volatile)
+    private volatile long framesRendered = 0;
+    private volatile long framesPaced = 0;
+    private volatile long sleeps = 0;
+    private volatile long lastFrameIntervalNanos = 0;
+    private long lastFrameTimeNanos = 0;
+    
+    public TrajectoryRenderThread(SurfaceHolder surfaceHolder, TrajectoryRenderer renderer,
+                                  FrameGovernor governor, boolean hardwareCanvas) {
+        super(TAG, Process.THREAD_PRIORITY_DISPLAY);
+        this.surfaceHolder = surfaceHolder;
+        this.renderer = renderer;
+        this.governor = governor;
+        this.hardwareCanvas = hardwareCanvas;
+    }
+    
+    @Override
+    protected void onLooperPrepared() {
+        // Choreographer.getInstance() terikat ke Looper thread pemanggil
+        choreographer = Choreographer.getInstance();
+    }
+    
+    /**
+     * Start thread (jika belum) dan mulai frame loop
+     */
+    public void startRendering() {
+        if (!isAlive()) {
+            start();
+        }
+        if (handler == null) {
+            handler = new Handler(getLooper());
+        }
+        handler.post(() -> {
+            if (!rendering) {
+                rendering = true;
+                sleeping = false;
+                // Frame pertama selalu digambar supaya surface baru ter-clear
+                forceFrame = true;
+                lastFrameTimeNanos = 0;
+                lastRenderedNanos = 0;
+                choreographer.postFrameCallback(this);
+                Logger.d(TAG, "Render loop started");
+            }
+        });
+    }
+    
+    /**
+     * Stop frame loop. Thread tetap hidup untuk di-restart
+     */
+    public void stopRendering() {
+        if (handler == null) return;
+        
+        handler.post(() -> {
+            rendering = false;
+            choreographer.removeFrameCallback(this);
+            Logger.d(TAG, "Render loop stopped");
+        });
+    }
+    
+    /**
+     * Bangunkan render loop (scene berubah). Aman dari thread mana pun
+     */
+    public void requestRender() {
+        Handler h = handler;
+        if (h == null) return;
+        h.post(this::wake);
+    }
+    
+    private void wake() {
+        if (rendering && sleeping) {
+            sleeping = false;
+            lastFrameTimeNanos = 0;
+            choreographer.postFrameCallback(this);
+        }
+    }
+    
+    /**
+     * Notify renderer tentang ukuran surface baru
+     */
+    public void onSurfaceChanged(int width, int height) {
+        if (handler == null) return;
+        handler.post(() -> {
+            renderer.onSurfaceChanged(width, height);
+            forceFrame = true;
+            wake();
+        });
+    }
+    
+    /**
+     * Stop loop dan quit looper. Blocking sampai thread selesai sehingga
+     * surface aman dihancurkan setelah method ini return
+     */
+    public void shutdown() {
+        stopRendering();
+        quitSafely();
+        try {
+            join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        handler = null;
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!rendering) return;
+        
+        if (lastFrameTimeNanos != 0) {
+            lastFrameIntervalNanos = frameTimeNanos - lastFrameTimeNanos;
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        
+        // Scene tidak berubah: tidak ada yang perlu digambar, tidur sampai requestRender
+        if (!forceFrame && !renderer.isDirty()) {
+            sleeping = true;
+            sleeps++;
+            return;
+        }
+        
+        // Re-arm dulu supaya loop tidak putus kalau draw melempar exception
+        choreographer.postFrameCallback(this);
+        
+        // Rate baru dari governor diterapkan di thread ini saja (Surface.setFrameRate)
+        governor.dispatchRateChange();
+        
+        long vsyncNanos = lastFrameIntervalNanos > 0 ? lastFrameIntervalNanos : DEFAULT_VSYNC_NANOS;
+        if (!forceFrame && !governor.isFrameDue(frameTimeNanos, lastRenderedNanos, vsyncNanos)) {
+            framesPaced++;
+            return;
+        }
+        forceFrame = false;
+        lastRenderedNanos = frameTimeNanos;
+        
+        long start = System.nanoTime();
+        drawFrame(frameTimeNanos);
+        long end = System.nanoTime();
+        governor.onFrameRendered(end - start, end);
+    }
+    
+    /**
+     * Lock surface, clear, delegate ke renderer, post
+     */
+    private void drawFrame(long frameTimeNanos) {
+        Canvas canvas = null;
+        try {
+            if (hardwareCanvas && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                canvas = surfaceHolder.lockHardwareCanvas();
+            } else {
+                canvas = surfaceHolder.lockCanvas();
+            }
+            if (canvas == null) return;
+            
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            renderProbe.beginFrame();
+            renderer.onDrawFrame(canvas, frameTimeNanos);
+            renderProbe.endFrame();
+            framesRendered++;
+            
+        } catch (Exception e) {
+            Logger.e(TAG, "Failed to render trajectory frame", e);
+        } finally {
+            if (canvas != null) {
+                try {
+                    surfaceHolder.unlockCanvasAndPost(canvas);
+                } catch (Exception e) {
+                    Logger.e(TAG, "Failed to post trajectory frame", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get frames rendered since thread start
+     */
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+    
+    /**
+     * Get vsync callbacks yang di-skip oleh frame pacing
+     */
+    public long getFramesPaced() {
+        return framesPaced;
+    }
+    
+    /**
+     * Get berapa kali loop tidur karena scene tidak berubah
+     */
+    public long getSleeps() {
+        return sleeps;
+    }
+    
+    /**
+     * Get last measured vsync interval in nanoseconds
+     */
+    public long getLastFrameIntervalNanos() {
+        return lastFrameIntervalNanos;
+    }
+}
@@ -0,0 +1,26 @@
+package com.victory.poolassistant.overlay;
+
+import android.graphics.Canvas;
+
+/**
+ * Renderer untuk trajectory layer
+ * Semua method dipanggil di render thread, bukan UI thread
+ */
+public interface TrajectoryRenderer {
+    
+    /**
+     * Called when the layer surface is created or resized
+     */
+    void onSurfaceChanged(int width, int height);
+    
+    /**
+     * Draw one frame. Canvas sudah di-clear sebelum method ini dipanggil.
+     */
+    void onDrawFrame(Canvas canvas, long frameTimeNanos);
+    
+    /**
+     * Check apakah scene berubah sejak frame terakhir. False = frame di-skip
+     * dan render loop berhenti sampai requestRender()
+     */
+    boolean isDirty();
+}
@@ -0,0 +1,106 @@
+package com.victory.poolassistant.overlay;
+
+import android.graphics.Canvas;
+
+import com.victory.poolassistant.data.model.GameConfig;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+
+/**
+ * Default trajectory renderer
+ * Menyimpan line segments yang di-publish dari UI thread dan digambar di render thread.
+ * Scene hanya dirty saat lines atau style profile berubah; render loop tidur di antaranya.
+ */
+public class TrajectoryScene implements TrajectoryRenderer {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    // Front buffer dibaca render thread, back buffer ditulis publisher
+    private final Object lock = new Object();
+    private float[] frontLines = new float[INITIAL_CAPACITY];
+    private float[] backLines = new float[INITIAL_CAPACITY];
+    private int frontCount = 0;
+    private int backCount = 0;
+    private boolean pendingSwap = false;
+    
+    // Style yang terakhir digambar (render thread only)
+    private GameConfig drawnStyle;
+    
+    // Dipanggil saat scene berubah supaya render loop bangun (lihat TrajectoryLayer)
+    private volatile Runnable invalidateCallback;
+    
+    /**
+     * Publish line segments (x0, y0, x1, y1 per segment) untuk frame berikutnya
+     */
+    public void setLines(float[] points, int count) {
+        synchronized (lock) {
+            if (backLines.length < count) {
+                backLines = new float[Math.max(count, backLines.length * 2)];
+            }
+            System.arraycopy(points, 0, backLines, 0, count);
+            backCount = count;
+            pendingSwap = true;
+        }
+        invalidate();
+    }
+    
+    /**
+     * Remove all lines
+     */
+    public void clear() {
+        synchronized (lock) {
+            backCount = 0;
+            pendingSwap = true;
+        }
+        invalidate();
+    }
+    
+    /**
+     * Minta frame baru (lines atau style berubah)
+     */
+    public void invalidate() {
+        Runnable callback = invalidateCallback;
+        if (callback != null) callback.run();
+    }
+    
+    /**
+     * Set callback yang membangunkan render loop (null saat surface hilang)
+     */
+    public void setInvalidateCallback(Runnable callback) {
+        invalidateCallback = callback;
+    }
+    
+    @Override
+    public boolean isDirty() {
+        synchronized (lock) {
+            if (pendingSwap) return true;
+        }
+        return frontCount >= 4 && drawnStyle != GameProfileRepository.getInstance().getActive();
+    }
+    
+    @Override
+    public void onSurfaceChanged(int width, int height) {
+        // Lines sudah dalam screen coordinates, tidak perlu scaling
+    }
+    
+    @Override
+    public void onDrawFrame(Canvas canvas, long frameTimeNanos) {
+        synchronized (lock) {
+            if (pendingSwap) {
+                float[] tmp = frontLines;
+                frontLines = backLines;
+                backLines = tmp;
+                frontCount = backCount;
+                pendingSwap = false;
+            }
+        }
+        
+        if (frontCount >= 4) {
+            // Style dari profile game aktif (satu volatile read per frame)
+            GameConfig style = GameProfileRepository.getInstance().getActive();
+            drawnStyle = style;
+            canvas.drawLines(frontLines, 0, frontCount,
+                RenderResources.getInstance().getTrajectoryPaint(style.getTrajectoryColor(),
+                    style.getOverlayOpacity(), style.getLineThickness()));
+        }
+    }
+}
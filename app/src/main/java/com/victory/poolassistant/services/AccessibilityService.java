@@ -0,0 +1,51 @@
+package com.victory.poolassistant.services;
+
+import android.view.accessibility.AccessibilityEvent;
+
+import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.data.model.GameState;
+import com.victory.poolassistant.utils.GameDetector;
+
+/**
+ * Accessibility service untuk game detection
+ * Hanya menerima TYPE_WINDOW_STATE_CHANGED (lihat accessibility_service_config.xml)
+ * dan meneruskan package foreground ke GameDetector. Tidak membaca isi layar.
+ */
+public class AccessibilityService extends android.accessibilityservice.AccessibilityService {
+    
+    private static final String TAG = "AccessibilityService";
+    
+    private GameDetector detector;
+    
+    @Override
+    protected void onServiceConnected() {
+        super.onServiceConnected();
+        detector = GameDetector.initialize(this);
+        detector.setAccessibilityConnected(true);
+        Logger.d(TAG, "Accessibility service connected");
+    }
+    
+    @Override
+    public void onAccessibilityEvent(AccessibilityEvent event) {
+        if (detector == null || event.getEventType() != AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED) return;
+        
+        CharSequence packageName = event.getPackageName();
+        if (packageName != null) {
+            detector.onForegroundEvent(packageName.toString(), GameState.SOURCE_ACCESSIBILITY);
+        }
+    }
+    
+    @Override
+    public void onInterrupt() {
+        // Tidak ada feedback yang perlu dihentikan
+    }
+    
+    @Override
+    public void onDestroy() {
+        if (detector != null) {
+            detector.setAccessibilityConnected(false);
+        }
+        Logger.d(TAG, "Accessibility service destroyed");
+        super.onDestroy();
+    }
+}
@@ -1,7 +1,6 @@
 package com.victory.poolassistant.ui.fragments;
 
 import android.os.Bundle;
-import android.os.Handler;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -20,12 +19,16 @@ import com.victory.poolassistant.PoolAssistantApplication;
 import com.victory.poolassistant.R;
 import com.victory.poolassistant.core.AppConfig;
 import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.data.model.GameState;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+import com.victory.poolassistant.utils.GameDetector;
+import com.victory.poolassistant.utils.PermissionHelper;
 import com.victory.poolassistant.utils.RootManager;
 
 /**
  * HomeFragment - Main dashboard showing app status and quick actions
  */
-public class HomeFragment extends Fragment {
+public class HomeFragment extends Fragment implements GameDetector.Listener {
     
     private static final String TAG = "HomeFragment";
     
@@ -48,12 +51,12 @@ public class HomeFragment extends Fragment {
     private View indicatorDetectionStatus;
     private View indicatorRootStatus;
     
-    private Handler uiHandler;
     private PoolAssistantApplication app;
+    private GameDetector gameDetector;
     
     // Status tracking
     private boolean overlayServiceRunning = false;
-    private boolean gameDetected = false;
+    private String detectedGame;
     private boolean rootAvailable = false;
     private boolean permissionsGranted = false;
     
@@ -62,7 +65,7 @@ public class HomeFragment extends Fragment {
         super.onCreate(savedInstanceState);
         
         app = PoolAssistantApplication.getInstance();
-        uiHandler = new Handler();
+        gameDetector = GameDetector.initialize(requireContext());
         
         Logger.d(TAG, "HomeFragment created");
     }
@@ -80,7 +83,6 @@ public class HomeFragment extends Fragment {
         initializeViews(view);
         setupUI();
         checkSystemStatus();
-        startStatusUpdates();
         
         Logger.d(TAG, "HomeFragment view created and initialized");
     }
@@ -172,35 +174,28 @@ public class HomeFragment extends Fragment {
     }
     
     /**
-     * Start periodic status updates
+     * Subscribe ke game state (event-driven, tanpa polling)
      */
     private void startStatusUpdates() {
-        // Update status every 2 seconds
-        uiHandler.postDelayed(statusUpdateRunnable, 2000);
+        gameDetector.addListener(this);
+        detectedGame = gameDetector.getState().getGamePackage();
+        updateGameDetectionCard();
     }
     
     /**
      * Stop status updates
      */
     private void stopStatusUpdates() {
-        uiHandler.removeCallbacks(statusUpdateRunnable);
+        gameDetector.removeListener(this);
     }
     
-    /**
-     * Status update runnable
-     */
-    private final Runnable statusUpdateRunnable = new Runnable() {
-        @Override
-        public void run() {
-            // Simulate game detection (replace with actual detection)
-            gameDetected = Math.random() > 0.7; // 30% chance of game detected
-            
-            updateStatusUI();
-            
-            // Schedule next update
-            uiHandler.postDelayed(this, 2000);
+    @Override
+    public void onGameStateChanged(GameState oldState, GameState newState) {
+        detectedGame = newState.getGamePackage();
+        if (getView() != null) {
+            updateGameDetectionCard();
         }
-    };
+    }
     
     /**
      * Update status UI elements
@@ -251,8 +246,8 @@ public class HomeFragment extends Fragment {
     private void updateGameDetectionCard() {
         if (tvDetectionStatus == null) return;
         
-        if (gameDetected) {
-            tvDetectionStatus.setText("Game Detected");
+        if (detectedGame != null) {
+            tvDetectionStatus.setText(GameProfileRepository.getDisplayName(detectedGame) + " detected");
             if (indicatorDetectionStatus != null) {
                 indicatorDetectionStatus.setBackgroundTintList(
                     requireContext().getColorStateList(R.color.status_active));
@@ -327,16 +322,19 @@ public class HomeFragment extends Fragment {
      * Refresh game detection
      */
     private void refreshGameDetection() {
-        Toast.makeText(requireContext(), "Refreshing game detection...", Toast.LENGTH_SHORT).show();
+        // Accessibility events sudah push; tanpa itu, arahkan user untuk mengaktifkan
+        if (!gameDetector.isAccessibilityConnected()) {
+            Toast.makeText(requireContext(), "Enable Pool Assistant in Accessibility for instant game detection",
+                Toast.LENGTH_LONG).show();
+            PermissionHelper.openAccessibilitySettings(requireContext());
+            return;
+        }
         
-        // Simulate detection refresh
-        uiHandler.postDelayed(() -> {
-            gameDetected = Math.random() > 0.5;
-            updateGameDetectionCard();
-            
-            String message = gameDetected ? "Pool game detected!" : "No game detected";
-            Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
-        }, 1000);
+        GameState state = gameDetector.getState();
+        String message = state.isGameForeground()
+            ? GameProfileRepository.getDisplayName(state.getGamePackage()) + " detected"
+            : "No game detected";
+        Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
     }
     
     /**
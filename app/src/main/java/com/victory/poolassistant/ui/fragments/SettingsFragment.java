@@ -12,7 +12,9 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.victory.poolassistant.R;
+import com.victory.poolassistant.core.AppConfig;
 import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.overlay.FloatingOverlayService;
 
 public class SettingsFragment extends Fragment {
     
@@ -34,6 +36,7 @@ public class SettingsFragment extends Fragment {
         Switch switchOverlay = view.findViewById(R.id.switch_overlay_enabled);
         Switch switchGameDetection = view.findViewById(R.id.switch_game_detection);
         Switch switchRootAccess = view.findViewById(R.id.switch_root_access);
+        Switch switchOverlayProcess = view.findViewById(R.id.switch_overlay_process);
         
         TextView tvThemeSelection = view.findViewById(R.id.tv_theme_selection);
         
@@ -52,6 +55,16 @@ public class SettingsFragment extends Fragment {
             });
         }
         
+        if (switchOverlayProcess != null) {
+            switchOverlayProcess.setChecked(AppConfig.isOverlayProcessEnabled());
+            switchOverlayProcess.setOnCheckedChangeListener((buttonView, isChecked) -> {
+                Logger.d(TAG, "Overlay process enabled: " + isChecked);
+                AppConfig.setBoolean(AppConfig.PREF_OVERLAY_PROCESS, isChecked);
+                // Overlay yang sedang berjalan dipindah ke mode baru (tetap satu overlay)
+                FloatingOverlayService.restartForProcessMode(requireContext());
+            });
+        }
+        
         if (switchRootAccess != null) {
             switchRootAccess.setOnCheckedChangeListener((buttonView, isChecked) -> {
                 Logger.d(TAG, "Root access enabled: " + isChecked);
@@ -5,15 +5,25 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
+import com.victory.poolassistant.PoolAssistantApplication;
 import com.victory.poolassistant.R;
+import com.victory.poolassistant.core.AllocationTracker;
+import com.victory.poolassistant.core.AppConfig;
 import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.core.Tracer;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+import com.victory.poolassistant.overlay.FloatingOverlayService;
+import com.victory.poolassistant.utils.GameDetector;
 import com.victory.poolassistant.utils.PermissionHelper;
 
+import java.io.File;
+
 public class StatsFragment extends Fragment {
 
     private static final String TAG = "StatsFragment";
@@ -21,6 +31,7 @@ public class StatsFragment extends Fragment {
     private TextView tvPermissionStatus;
     private TextView tvSystemInfo;
     private TextView tvUsageStats;
+    private TextView tvRenderStats;
 
     @Nullable
     @Override
@@ -36,11 +47,21 @@ public class StatsFragment extends Fragment {
         tvPermissionStatus = view.findViewById(R.id.tv_permission_status);
         tvSystemInfo = view.findViewById(R.id.tv_system_info);
         tvUsageStats = view.findViewById(R.id.tv_usage_stats);
+        tvRenderStats = view.findViewById(R.id.tv_render_stats);
+
+        // Debug: long-press render stats untuk dump trace
+        if (tvRenderStats != null) {
+            tvRenderStats.setOnLongClickListener(v -> {
+                dumpTrace();
+                return true;
+            });
+        }
 
         // Update views
         updatePermissionStatus();
         updateSystemInfo();
         updateUsageStats();
+        updateRenderStats();
 
         Logger.d(TAG, "StatsFragment created");
     }
@@ -64,6 +85,49 @@ public class StatsFragment extends Fragment {
         }
     }
 
+    private void updateRenderStats() {
+        if (tvRenderStats != null) {
+            StringBuilder stats = new StringBuilder();
+            FloatingOverlayService service = FloatingOverlayService.getInstance();
+            if (service != null) {
+                stats.append("Overlay:\n").append(service.getRenderStats()).append("\n\n");
+            } else if (FloatingOverlayService.isOverlayRunning()) {
+                stats.append("Overlay:\nRunning in :overlay process (stats not shared)\n\n");
+            }
+            stats.append("Cold Start:\n")
+                .append(PoolAssistantApplication.getInstance().getStartup().getReport()).append("\n\n");
+            stats.append("Frame Allocations:\n").append(AllocationTracker.getReport()).append("\n\n");
+            stats.append("Settings Persistence:\n").append(AppConfig.getSettingsInfo()).append("\n\n");
+            stats.append("Game Profile:\n").append(GameProfileRepository.getInstance().getInfo()).append("\n\n");
+            stats.append("Tracing (long-press to dump):\n").append(Tracer.getInfo());
+            tvRenderStats.setText(stats.toString());
+        }
+    }
+
+    private void dumpTrace() {
+        if (getContext() == null || !Tracer.isEnabled()) return;
+
+        File traceDir = new File(requireContext().getFilesDir(), "traces");
+        new Thread(() -> {
+            String message;
+            try {
+                message = "Trace saved: " + Tracer.dump(traceDir).getName();
+            } catch (Exception e) {
+                Logger.e(TAG, "Failed to dump trace", e);
+                message = "Trace dump failed: " + e.getMessage();
+            }
+
+            String result = message;
+            if (getActivity() != null) {
+                getActivity().runOnUiThread(() -> {
+                    if (getContext() != null) {
+                        Toast.makeText(getContext(), result, Toast.LENGTH_SHORT).show();
+                    }
+                });
+            }
+        }, "TraceDump").start();
+    }
+
     private String getSystemInfo() {
         return "Android: " + android.os.Build.VERSION.RELEASE + "\n" +
                "API Level: " + android.os.Build.VERSION.SDK_INT + "\n" +
@@ -72,8 +136,9 @@ public class StatsFragment extends Fragment {
     }
 
     private String getUsageStats() {
+        GameDetector detector = GameDetector.peekInstance();
         return "Sessions: 0\n" +
-               "Games detected: 0\n" +
+               (detector != null ? detector.getInfo() : "Game detection: not started") + "\n" +
                "Overlay activations: 0\n" +
                "Last used: Never";
     }
@@ -85,5 +150,6 @@ public class StatsFragment extends Fragment {
         updatePermissionStatus();
         updateSystemInfo();
         updateUsageStats();
+        updateRenderStats();
     }
 }
\ No newline at end of file
@@ -0,0 +1,259 @@
+package com.victory.poolassistant.utils;
+
+import android.app.usage.UsageEvents;
+import android.app.usage.UsageStatsManager;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.Settings;
+
+import com.victory.poolassistant.core.AppConfig;
+import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.core.ProcessSync;
+import com.victory.poolassistant.data.model.GameState;
+import com.victory.poolassistant.data.repository.GameProfileRepository;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Event-driven foreground game detection
+ * Sumber utama adalah window state events dari AccessibilityService (push, tanpa polling).
+ * UsageStatsManager dipakai sebagai fallback one-shot (refresh) saat accessibility
+ * tidak aktif, misalnya ketika overlay dibuka dari dalam game.
+ *
+ * Events di-debounce di main thread lalu di-publish sebagai satu GameState bersama;
+ * listener hanya dipanggil saat game di foreground berubah.
+ */
+public final class GameDetector {
+    
+    private static final String TAG = "GameDetector";
+    
+    // Transisi activity/dialog menghasilkan beberapa event berturut-turut
+    private static final long DEBOUNCE_MS = 250;
+    // Window usage events untuk refresh() one-shot
+    private static final long USAGE_LOOKBACK_MS = 60_000;
+    
+    private static GameDetector instance;
+    
+    /**
+     * Listener untuk perubahan game state (selalu dipanggil di main thread)
+     */
+    public interface Listener {
+        void onGameStateChanged(GameState oldState, GameState newState);
+    }
+    
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final HashSet<String> ignoredPackages = new HashSet<>();
+    
+    private volatile GameState state = GameState.NONE;
+    private volatile boolean accessibilityConnected = false;
+    
+    // Main thread only
+    private String candidatePackage;
+    private int candidateSource;
+    private final Runnable candidateCommitter = this::commitCandidate;
+    
+    // Stats
+    private volatile int eventsReceived = 0;
+    private volatile int eventsCoalesced = 0;
+    private volatile int gamesDetected = 0;
+    
+    private GameDetector(Context context) {
+        this.context = context.getApplicationContext();
+        loadIgnoredPackages();
+    }
+    
+    /**
+     * Initialize detector untuk process ini (idempotent)
+     */
+    public static synchronized GameDetector initialize(Context context) {
+        if (instance == null) {
+            instance = new GameDetector(context);
+        }
+        return instance;
+    }
+    
+    /**
+     * Get instance (null jika belum di-initialize)
+     */
+    public static GameDetector peekInstance() {
+        return instance;
+    }
+    
+    /**
+     * Window yang bukan "app switch": overlay kita sendiri, system UI, keyboard
+     */
+    private void loadIgnoredPackages() {
+        ignoredPackages.add(context.getPackageName());
+        ignoredPackages.add("com.android.systemui");
+        String ime = Settings.Secure.getString(context.getContentResolver(), Settings.Secure.DEFAULT_INPUT_METHOD);
+        if (ime != null && ime.indexOf('/') > 0) {
+            ignoredPackages.add(ime.substring(0, ime.indexOf('/')));
+        }
+    }
+    
+    /**
+     * Check package termasuk AppConfig.SUPPORTED_GAMES
+     */
+    public static boolean isSupportedGame(String packageName) {
+        if (packageName == null) return false;
+        for (String game : AppConfig.SUPPORTED_GAMES) {
+            if (game.equals(packageName)) return true;
+        }
+        return false;
+    }
+    
+    // =============================================================================
+    // EVENT INPUT
+    // =============================================================================
+    
+    /**
+     * Foreground window berubah (main thread). Di-debounce sebelum di-publish
+     */
+    public void onForegroundEvent(String packageName, int source) {
+        eventsReceived++;
+        if (packageName == null || ignoredPackages.contains(packageName)) return;
+        
+        if (packageName.equals(state.getForegroundPackage())) {
+            // Kembali ke app yang sama sebelum debounce selesai
+            mainHandler.removeCallbacks(candidateCommitter);
+            candidatePackage = null;
+            return;
+        }
+        
+        if (candidatePackage != null) eventsCoalesced++;
+        candidatePackage = packageName;
+        candidateSource = source;
+        mainHandler.removeCallbacks(candidateCommitter);
+        mainHandler.postDelayed(candidateCommitter, DEBOUNCE_MS);
+    }
+    
+    private void commitCandidate() {
+        String packageName = candidatePackage;
+        candidatePackage = null;
+        if (packageName != null) {
+            publish(packageName, candidateSource);
+        }
+    }
+    
+    /**
+     * Game state dari process lain (lihat ProcessSync)
+     */
+    public void applyRemoteState(String foregroundPackage) {
+        mainHandler.post(() -> publish(foregroundPackage, GameState.SOURCE_REMOTE));
+    }
+    
+    public void setAccessibilityConnected(boolean connected) {
+        accessibilityConnected = connected;
+        Logger.i(TAG, "Accessibility source " + (connected ? "connected" : "disconnected"));
+    }
+    
+    public boolean isAccessibilityConnected() {
+        return accessibilityConnected;
+    }
+    
+    /**
+     * Resolve foreground app sekali lewat UsageStatsManager (fallback tanpa accessibility).
+     * Query dijalankan di worker thread; hasil di-publish di main thread
+     */
+    public void refresh() {
+        if (!PermissionHelper.hasUsageStatsPermission(context)) {
+            Logger.d(TAG, "Usage stats permission not granted, refresh skipped");
+            return;
+        }
+        new Thread(() -> {
+            String foreground = queryForegroundPackage();
+            if (foreground != null) {
+                mainHandler.post(() -> publish(foreground, GameState.SOURCE_USAGE_STATS));
+            }
+        }, "GameDetectorRefresh").start();
+    }
+    
+    /**
+     * Package terakhir yang pindah ke foreground di usage events (null jika tidak ada)
+     */
+    private String queryForegroundPackage() {
+        UsageStatsManager usageStats = (UsageStatsManager) context.getSystemService(Context.USAGE_STATS_SERVICE);
+        if (usageStats == null) return null;
+        
+        long now = System.currentTimeMillis();
+        UsageEvents events = usageStats.queryEvents(now - USAGE_LOOKBACK_MS, now);
+        UsageEvents.Event event = new UsageEvents.Event();
+        String foreground = null;
+        while (events.hasNextEvent()) {
+            events.getNextEvent(event);
+            if (event.getEventType() == UsageEvents.Event.MOVE_TO_FOREGROUND
+                && !ignoredPackages.contains(event.getPackageName())) {
+                foreground = event.getPackageName();
+            }
+        }
+        return foreground;
+    }
+    
+    // =============================================================================
+    // STATE
+    // =============================================================================
+    
+    /**
+     * Publish state baru (main thread). Listener hanya dipanggil jika game berubah
+     */
+    private void publish(String foregroundPackage, int source) {
+        GameState previous = state;
+        if (Objects.equals(foregroundPackage, previous.getForegroundPackage())) return;
+        
+        String game = isSupportedGame(foregroundPackage) ? foregroundPackage : null;
+        GameState updated = new GameState(foregroundPackage, game, source, System.currentTimeMillis());
+        state = updated;
+        
+        if (Objects.equals(game, previous.getGamePackage())) return;
+        if (game != null) gamesDetected++;
+        Logger.i(TAG, "Game state: " + updated);
+        
+        GameProfileRepository.getInstance().activate(game);
+        if (source != GameState.SOURCE_REMOTE) {
+            ProcessSync sync = ProcessSync.peekInstance();
+            if (sync != null) sync.publishGameState(foregroundPackage);
+        }
+        
+        for (Listener listener : listeners) {
+            try {
+                listener.onGameStateChanged(previous, updated);
+            } catch (Exception e) {
+                Logger.e(TAG, "Game state listener failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Current state (lock-free, aman dari thread mana pun)
+     */
+    public GameState getState() {
+        return state;
+    }
+    
+    public void addListener(Listener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+    
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Get detection info untuk stats screen
+     */
+    public String getInfo() {
+        GameState current = state;
+        return "Source: " + (accessibilityConnected ? "accessibility events" : "usage stats (on demand)") +
+            "\nCurrent: " + (current.isGameForeground()
+                ? GameProfileRepository.getDisplayName(current.getGamePackage()) : "no game") +
+            "\nGames detected: " + gamesDetected +
+            "\nEvents: " + eventsReceived + " (" + eventsCoalesced + " coalesced)";
+    }
+}
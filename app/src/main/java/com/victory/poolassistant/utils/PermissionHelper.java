@@ -1,6 +1,7 @@
 package com.victory.poolassistant.utils;
 
 import android.app.Activity;
+import android.app.AppOpsManager;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
@@ -12,6 +13,7 @@ import android.content.pm.PackageManager;
 import android.Manifest;
 
 import com.victory.poolassistant.core.Logger;
+import com.victory.poolassistant.services.AccessibilityService;
 
 /**
  * Helper class untuk permission management
@@ -160,9 +162,38 @@ public class PermissionHelper {
      * Check accessibility service permission
      */
     public static boolean hasAccessibilityPermission(Context context) {
-        // TODO: Implement accessibility service check if needed
-        // For now, we're not using accessibility service
-        return true;
+        String enabled = Settings.Secure.getString(context.getContentResolver(),
+            Settings.Secure.ENABLED_ACCESSIBILITY_SERVICES);
+        if (enabled == null) return false;
+        String service = context.getPackageName() + "/" + AccessibilityService.class.getName();
+        for (String component : enabled.split(":")) {
+            if (component.equalsIgnoreCase(service)) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Check usage stats access (fallback game detection)
+     */
+    public static boolean hasUsageStatsPermission(Context context) {
+        AppOpsManager appOps = (AppOpsManager) context.getSystemService(Context.APP_OPS_SERVICE);
+        if (appOps == null) return false;
+        int mode = appOps.checkOpNoThrow(AppOpsManager.OPSTR_GET_USAGE_STATS,
+            android.os.Process.myUid(), context.getPackageName());
+        return mode == AppOpsManager.MODE_ALLOWED;
+    }
+    
+    /**
+     * Open accessibility settings untuk mengaktifkan game detection service
+     */
+    public static void openAccessibilitySettings(Context context) {
+        try {
+            Intent intent = new Intent(Settings.ACTION_ACCESSIBILITY_SETTINGS);
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+            context.startActivity(intent);
+        } catch (Exception e) {
+            Logger.e(TAG, "Failed to open accessibility settings", e);
+        }
     }
     
     /**
@@ -213,10 +244,12 @@ public class PermissionHelper {
      */
     public static String getPermissionStatusInfo(Context context) {
         return String.format(
-            "Overlay: %s, Storage: %s, All Required: %s",
+            "Overlay: %s, Storage: %s, All Required: %s\nAccessibility: %s, Usage Stats: %s",
             hasOverlayPermission(context),
             hasStoragePermission(context),
-            hasAllRequiredPermissions(context)
+            hasAllRequiredPermissions(context),
+            hasAccessibilityPermission(context),
+            hasUsageStatsPermission(context)
         );
     }
     
@@ -0,0 +1,207 @@
+package com.victory.poolassistant.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.os.HandlerThread;
+
+import com.victory.poolassistant.core.AppConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class SettingsCodecTest {
+
+    private static final String GAME = AppConfig.SUPPORTED_GAMES[0];
+    private static final String OTHER_GAME = AppConfig.SUPPORTED_GAMES[1];
+
+    private FakeSharedPreferences preferences;
+    private HandlerThread writer;
+    private SettingsRepository repository;
+
+    @Before
+    public void setUp() {
+        preferences = new FakeSharedPreferences();
+        writer = new HandlerThread("SettingsCodecTest");
+        writer.start();
+        repository = new SettingsRepository(preferences, writer.getLooper());
+    }
+
+    @After
+    public void tearDown() {
+        writer.quit();
+    }
+
+    private static SettingsCodec.ImportResult read(String json) {
+        return SettingsCodec.read(new StringReader(json));
+    }
+
+    @Test
+    public void exportedSettingsImportUnchanged() throws Exception {
+        // Belum di-flush: export harus membaca pending writes
+        repository.putInt(AppConfig.PREF_OVERLAY_OPACITY, 40);
+        repository.putInt(AppConfig.PREF_TRAJECTORY_COLOR, 0x80FF0000);
+        repository.putString(AppConfig.PREF_THEME, AppConfig.THEME_DARK);
+        repository.putBoolean(AppConfig.PREF_AUTO_HIDE, false);
+
+        StringWriter out = new StringWriter();
+        SettingsCodec.write(out, repository);
+        SettingsCodec.ImportResult result = read(out.toString());
+
+        assertTrue(result.getErrors().toString(), result.isValid());
+        assertEquals(SettingsCodec.SCHEMA_VERSION, result.getSourceVersion());
+        assertEquals(0, result.getIgnoredKeys());
+
+        Map<String, Object> values = result.getValues();
+        assertEquals(40, values.get(AppConfig.PREF_OVERLAY_OPACITY));
+        assertEquals(0x80FF0000, values.get(AppConfig.PREF_TRAJECTORY_COLOR));
+        assertEquals(AppConfig.THEME_DARK, values.get(AppConfig.PREF_THEME));
+        assertEquals(false, values.get(AppConfig.PREF_AUTO_HIDE));
+        assertEquals(AppConfig.DEFAULT_LINE_THICKNESS, values.get(AppConfig.PREF_LINE_THICKNESS));
+    }
+
+    @Test
+    public void customProfileIsExportedWithTableBounds() throws Exception {
+        repository.putBoolean("profile." + GAME + ".custom", true);
+        repository.putInt("profile." + GAME + ".opacity", 55);
+        repository.putInt("profile." + GAME + ".color", 0xFF0080FF);
+        repository.putFloat("profile." + GAME + ".table_left", 0.2f);
+        repository.putFloat("profile." + GAME + ".table_bottom", 0.75f);
+        // Key sisa profile yang tidak custom
+        repository.putInt("profile." + OTHER_GAME + ".opacity", 10);
+        repository.putBoolean("profile." + OTHER_GAME + ".custom", false);
+
+        StringWriter out = new StringWriter();
+        SettingsCodec.write(out, repository);
+        SettingsCodec.ImportResult result = read(out.toString());
+
+        assertTrue(result.getErrors().toString(), result.isValid());
+        Map<String, Object> values = result.getValues();
+        assertEquals(true, values.get("profile." + GAME + ".custom"));
+        assertEquals(55, values.get("profile." + GAME + ".opacity"));
+        assertEquals(0xFF0080FF, values.get("profile." + GAME + ".color"));
+        assertEquals(0.2f, values.get("profile." + GAME + ".table_left"));
+        assertEquals(0.75f, values.get("profile." + GAME + ".table_bottom"));
+        // Value yang belum pernah disimpan tidak di-export
+        assertFalse(values.containsKey("profile." + GAME + ".thickness"));
+
+        assertEquals(false, values.get("profile." + OTHER_GAME + ".custom"));
+        assertEquals(10, values.get("profile." + OTHER_GAME + ".opacity"));
+        assertFalse(values.containsKey("profile." + OTHER_GAME + ".table_left"));
+    }
+
+    @Test
+    public void invalidTableBoundsRejectImport() {
+        SettingsCodec.ImportResult result = read("{\"schemaVersion\": 2, \"settings\": {"
+            + "\"profile." + GAME + ".custom\": true,"
+            + "\"profile." + GAME + ".table_left\": 0.8,"
+            + "\"profile." + GAME + ".table_right\": 0.3,"
+            + "\"profile." + OTHER_GAME + ".table_top\": 1.5}}");
+
+        assertFalse(result.isValid());
+        assertNull(result.getValues());
+        assertEquals(2, result.getErrors().size());
+    }
+
+    @Test
+    public void versionOneBackupImportsWithoutProfiles() {
+        SettingsCodec.ImportResult result = read("{\"schemaVersion\": 1, \"settings\": {"
+            + "\"overlay_opacity\": 70, \"trajectory_color\": \"#FF00FFFF\"}}");
+
+        assertTrue(result.getErrors().toString(), result.isValid());
+        assertEquals(1, result.getSourceVersion());
+        assertEquals(2, result.getValues().size());
+        assertEquals(AppConfig.COLOR_CYAN, result.getValues().get(AppConfig.PREF_TRAJECTORY_COLOR));
+    }
+
+    @Test
+    public void flatVersionZeroDumpIsMigrated() {
+        SettingsCodec.ImportResult result = read("{"
+            + "\"trajectory_color\": -16711936,"
+            + "\"overlay_opacity\": 50,"
+            + "\"first_launch\": false}");
+
+        assertTrue(result.getErrors().toString(), result.isValid());
+        assertEquals(0, result.getSourceVersion());
+        assertEquals(AppConfig.COLOR_GREEN, result.getValues().get(AppConfig.PREF_TRAJECTORY_COLOR));
+        assertEquals(50, result.getValues().get(AppConfig.PREF_OVERLAY_OPACITY));
+        // App state bukan bagian schema
+        assertEquals(1, result.getIgnoredKeys());
+        assertFalse(result.getValues().containsKey(AppConfig.PREF_FIRST_LAUNCH));
+    }
+
+    @Test
+    public void invalidValueRejectsWholeImport() {
+        SettingsCodec.ImportResult result = read("{\"schemaVersion\": 2, \"settings\": {"
+            + "\"auto_hide\": false,"
+            + "\"overlay_opacity\": 150,"
+            + "\"theme_preference\": \"neon\","
+            + "\"trajectory_color\": \"green\"}}");
+
+        assertFalse(result.isValid());
+        assertNull(result.getValues());
+        assertEquals(3, result.getErrors().size());
+    }
+
+    @Test
+    public void wrongTypeIsReported() {
+        SettingsCodec.ImportResult result = read("{\"schemaVersion\": 1, \"settings\": {"
+            + "\"auto_hide\": \"yes\","
+            + "\"line_thickness\": 2.5}}");
+
+        assertFalse(result.isValid());
+        assertEquals(2, result.getErrors().size());
+    }
+
+    @Test
+    public void unknownKeysAreIgnored() {
+        SettingsCodec.ImportResult result = read("{\"schemaVersion\": 1,"
+            + "\"appVersion\": \"1.0.0\", \"exportedAt\": 0, \"settings\": {"
+            + "\"overlay_opacity\": 10,"
+            + "\"removed_setting\": true,"
+            + "\"nested\": {\"a\": 1}}}");
+
+        assertTrue(result.getErrors().toString(), result.isValid());
+        assertEquals(2, result.getIgnoredKeys());
+        assertEquals(1, result.getValues().size());
+    }
+
+    @Test
+    public void futureSchemaVersionIsRejected() {
+        SettingsCodec.ImportResult result = read("{\"schemaVersion\": "
+            + (SettingsCodec.SCHEMA_VERSION + 1) + ", \"settings\": {\"overlay_opacity\": 10}}");
+
+        assertFalse(result.isValid());
+        assertNull(result.getValues());
+        assertEquals(SettingsCodec.SCHEMA_VERSION + 1, result.getSourceVersion());
+    }
+
+    @Test
+    public void envelopeWithoutSchemaVersionIsRejected() {
+        SettingsCodec.ImportResult result = read("{\"settings\": {\"overlay_opacity\": 10}}");
+
+        assertFalse(result.isValid());
+        assertNull(result.getValues());
+    }
+
+    @Test
+    public void malformedJsonIsReported() {
+        SettingsCodec.ImportResult result = read("{\"schemaVersion\": 1, \"settings\": [");
+
+        assertFalse(result.isValid());
+        assertNull(result.getValues());
+    }
+}
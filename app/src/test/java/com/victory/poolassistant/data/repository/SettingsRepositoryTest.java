@@ -0,0 +1,261 @@
+package com.victory.poolassistant.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.os.HandlerThread;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class SettingsRepositoryTest {
+
+    private FakeSharedPreferences preferences;
+    private HandlerThread writer;
+    private SettingsRepository repository;
+
+    @Before
+    public void setUp() {
+        preferences = new FakeSharedPreferences();
+        writer = new HandlerThread("SettingsWriterTest");
+        writer.start();
+        repository = new SettingsRepository(preferences, writer.getLooper());
+    }
+
+    @After
+    public void tearDown() {
+        writer.quit();
+    }
+
+    /**
+     * Majukan clock dan jalankan semua task writer yang jatuh tempo
+     */
+    private void advance(long millis) {
+        shadowOf(writer.getLooper()).idleFor(Duration.ofMillis(millis));
+    }
+
+    private static void await(CompletableFuture<Void> future) throws Exception {
+        future.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void readsPendingValuesBeforeCommit() {
+        repository.putInt("opacity", 40);
+        repository.putString("theme", "dark");
+
+        assertEquals(40, repository.getInt("opacity", 0));
+        assertEquals("dark", repository.getString("theme", null));
+        assertEquals(0, preferences.getCommits());
+        assertFalse(preferences.contains("opacity"));
+    }
+
+    @Test
+    public void debounceCoalescesMutationsIntoOneCommit() {
+        repository.putInt("opacity", 10);
+        advance(100);
+        repository.putInt("opacity", 20);
+        repository.putBoolean("auto_hide", false);
+
+        // Mutasi kedua menggeser jadwal write 300 ms dari sekarang
+        advance(299);
+        assertEquals(0, preferences.getCommits());
+        advance(1);
+        assertEquals(1, preferences.getCommits());
+        assertEquals(20, preferences.getInt("opacity", 0));
+        assertFalse(preferences.getBoolean("auto_hide", true));
+        assertFalse(repository.hasPendingWrites());
+    }
+
+    @Test
+    public void maxDelayBoundsLatencyUnderContinuousMutations() {
+        for (int k = 0; k < 10; k++) {
+            repository.putInt("opacity", k);
+            advance(200);
+        }
+
+        // Debounce saja tidak akan pernah menulis; batas 2 detik memaksa commit
+        assertEquals(1, preferences.getCommits());
+        assertEquals(9, preferences.getInt("opacity", -1));
+    }
+
+    @Test
+    public void flushDuringCommitWaitsForInFlightBatch() throws Exception {
+        preferences.blockNextCommit();
+        repository.putInt("opacity", 40);
+        CompletableFuture<Void> first = repository.flush();
+        preferences.awaitCommitStarted();
+
+        // Pending sudah kosong, tapi batch belum tertulis
+        CompletableFuture<Void> second = repository.flush();
+        assertSame(first, second);
+        assertFalse(second.isDone());
+        assertEquals(40, repository.getInt("opacity", 0));
+
+        preferences.releaseCommit();
+        await(second);
+        assertEquals(40, preferences.getInt("opacity", 0));
+    }
+
+    @Test
+    public void flushDuringCommitWritesNewerMutationsAfterIt() throws Exception {
+        preferences.blockNextCommit();
+        repository.putInt("opacity", 40);
+        repository.flush();
+        preferences.awaitCommitStarted();
+
+        repository.putInt("opacity", 60);
+        CompletableFuture<Void> flushed = repository.flush();
+        preferences.releaseCommit();
+        await(flushed);
+
+        assertEquals(2, preferences.getCommits());
+        assertEquals(60, preferences.getInt("opacity", 0));
+    }
+
+    @Test
+    public void failedCommitIsRetried() throws Exception {
+        preferences.failNextCommit();
+        repository.putInt("opacity", 40);
+        try {
+            await(repository.flush());
+            fail("Expected commit failure");
+        } catch (ExecutionException expected) {
+            // Batch dikembalikan ke pending
+        }
+        assertTrue(repository.hasPendingWrites());
+        assertEquals(40, repository.getInt("opacity", 0));
+
+        advance(300);
+        assertEquals(1, preferences.getCommits());
+        assertEquals(40, preferences.getInt("opacity", 0));
+    }
+
+    @Test
+    public void failedCommitDoesNotOverwriteNewerMutations() throws Exception {
+        preferences.blockNextCommit();
+        preferences.failNextCommit();
+        repository.putInt("opacity", 40);
+        repository.putInt("thickness", 5);
+        CompletableFuture<Void> failed = repository.flush();
+        preferences.awaitCommitStarted();
+
+        repository.putInt("opacity", 60);
+        preferences.releaseCommit();
+        try {
+            await(failed);
+            fail("Expected commit failure");
+        } catch (ExecutionException expected) {
+            // Batch dikembalikan ke pending
+        }
+
+        await(repository.flush());
+        assertEquals(60, preferences.getInt("opacity", 0));
+        assertEquals(5, preferences.getInt("thickness", 0));
+    }
+
+    @Test
+    public void replaceAllClearsKeysWrittenByInFlightBatch() throws Exception {
+        preferences.edit().putInt("profile.game.opacity", 30).commit();
+        preferences.blockNextCommit();
+        repository.putInt("opacity", 40);
+        repository.flush();
+        preferences.awaitCommitStarted();
+
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("opacity", 80);
+        repository.replaceAll(defaults);
+        repository.putBoolean("auto_hide", false);
+
+        // Read mengikuti reset walaupun disk belum di-clear
+        assertEquals(80, repository.getInt("opacity", 0));
+        assertEquals(-1, repository.getInt("profile.game.opacity", -1));
+
+        CompletableFuture<Void> flushed = repository.flush();
+        preferences.releaseCommit();
+        await(flushed);
+
+        assertEquals(80, preferences.getInt("opacity", 0));
+        assertFalse(preferences.getBoolean("auto_hide", true));
+        assertFalse(preferences.contains("profile.game.opacity"));
+        assertEquals(2, preferences.getAll().size());
+    }
+
+    @Test
+    public void replaceAllDropsOlderPendingMutations() throws Exception {
+        repository.putInt("thickness", 9);
+        repository.replaceAll(Collections.singletonMap("opacity", 80));
+        assertEquals(3, repository.getInt("thickness", 3));
+
+        await(repository.flush());
+        assertEquals(1, preferences.getCommits());
+        assertFalse(preferences.contains("thickness"));
+        assertEquals(80, preferences.getInt("opacity", 0));
+    }
+
+    @Test
+    public void replaceAllNotifiesResetButRemoteReplaceDoesNot() throws Exception {
+        int[] resets = new int[1];
+        int[] writes = new int[1];
+        repository.addWriteListener(new SettingsRepository.WriteListener() {
+            @Override
+            public void onSettingsWritten(Map<String, ?> values) {
+                writes[0]++;
+            }
+
+            @Override
+            public void onSettingsReset(Map<String, ?> values) {
+                resets[0]++;
+                assertEquals(80, values.get("opacity"));
+            }
+        });
+
+        repository.replaceAll(Collections.singletonMap("opacity", 80));
+        assertEquals(1, resets[0]);
+        assertTrue(repository.hasPendingClear());
+
+        repository.applyRemoteReplace(Collections.singletonMap("opacity", 80));
+        assertEquals(1, resets[0]);
+        assertEquals(0, writes[0]);
+
+        await(repository.flush());
+        assertFalse(repository.hasPendingClear());
+    }
+
+    @Test
+    public void copyAllLayersUnflushedWritesOverStoredKeys() throws Exception {
+        repository.putInt("opacity", 40);
+        repository.putInt("profile.game.opacity", 10);
+        await(repository.flush());
+        repository.putInt("opacity", 60);
+
+        Map<String, Object> all = new HashMap<>();
+        repository.copyAll(all);
+        assertEquals(60, all.get("opacity"));
+        assertEquals(10, all.get("profile.game.opacity"));
+
+        // Reset yang belum tertulis membuang key lama
+        repository.replaceAll(Collections.singletonMap("opacity", 80));
+        all.clear();
+        repository.copyAll(all);
+        assertEquals(Collections.singletonMap("opacity", 80), all);
+    }
+}
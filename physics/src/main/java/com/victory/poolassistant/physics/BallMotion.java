@@ -0,0 +1,192 @@
+package com.victory.poolassistant.physics;
+
+/**
+ * Closed-form gerak satu bola di atas cloth (tanpa tumbukan)
+ * Slip velocity contact point u = v + R (z x w). Selama SLIDING gesek cloth konstan
+ * berlawanan arah u: a = -mu_s g u^, spin berubah 5 mu_s g / 2R ke arah z x u^, dan u
+ * berkurang linear (7/2 mu_s g) sampai nol di t = 2|u| / (7 mu_s g). Setelah itu
+ * ROLLING: a = -mu_r g v^ sampai berhenti di t = |v| / (mu_r g). Side spin (wz)
+ * meluruh linear 5 mu_sp g / 2R terpisah dari gerak translasi.
+ *
+ * Dalam satu fase akselerasi konstan, jadi posisi adalah polinom orde dua dalam t;
+ * EventSolver memakai ini untuk melompat antar transisi tanpa integrasi numerik.
+ * Semua method static dan tanpa alokasi.
+ */
+public final class BallMotion {
+    
+    private BallMotion() {
+    }
+    
+    /**
+     * Slip velocity contact point dengan cloth
+     */
+    public static double slipX(PoolTable table, BallSet balls, int i) {
+        return balls.vx[i] - table.getBallRadius() * balls.wy[i];
+    }
+    
+    public static double slipY(PoolTable table, BallSet balls, int i) {
+        return balls.vy[i] + table.getBallRadius() * balls.wx[i];
+    }
+    
+    /**
+     * Sisa waktu sampai slip hilang (sliding -> rolling)
+     */
+    public static double slideDuration(PoolTable table, BallSet balls, int i) {
+        double slip = Math.hypot(slipX(table, balls, i), slipY(table, balls, i));
+        return 2 * slip / (7 * table.getSlidingFriction() * PoolTable.GRAVITY);
+    }
+    
+    /**
+     * Sisa waktu rolling sampai berhenti
+     */
+    public static double rollDuration(PoolTable table, BallSet balls, int i) {
+        return Math.hypot(balls.vx[i], balls.vy[i]) / table.getRollingDeceleration();
+    }
+    
+    /**
+     * Sisa waktu sampai side spin habis
+     */
+    public static double spinDuration(PoolTable table, BallSet balls, int i) {
+        return Math.abs(balls.wz[i]) / spinDeceleration(table);
+    }
+    
+    /**
+     * Sisa waktu fase sekarang (infinity jika bola tidak bergerak)
+     */
+    public static double phaseDuration(PoolTable table, BallSet balls, int i) {
+        switch (balls.state[i]) {
+            case BallSet.STATE_SLIDING:
+                return slideDuration(table, balls, i);
+            case BallSet.STATE_ROLLING:
+                return rollDuration(table, balls, i);
+            default:
+                return Double.POSITIVE_INFINITY;
+        }
+    }
+    
+    /**
+     * Akselerasi konstan selama fase sekarang
+     */
+    public static double accelerationX(PoolTable table, BallSet balls, int i) {
+        switch (balls.state[i]) {
+            case BallSet.STATE_SLIDING: {
+                double ux = slipX(table, balls, i);
+                double uy = slipY(table, balls, i);
+                return -table.getSlidingFriction() * PoolTable.GRAVITY * ux / Math.hypot(ux, uy);
+            }
+            case BallSet.STATE_ROLLING:
+                return -table.getRollingDeceleration() * balls.vx[i] / Math.hypot(balls.vx[i], balls.vy[i]);
+            default:
+                return 0;
+        }
+    }
+    
+    public static double accelerationY(PoolTable table, BallSet balls, int i) {
+        switch (balls.state[i]) {
+            case BallSet.STATE_SLIDING: {
+                double ux = slipX(table, balls, i);
+                double uy = slipY(table, balls, i);
+                return -table.getSlidingFriction() * PoolTable.GRAVITY * uy / Math.hypot(ux, uy);
+            }
+            case BallSet.STATE_ROLLING:
+                return -table.getRollingDeceleration() * balls.vy[i] / Math.hypot(balls.vx[i], balls.vy[i]);
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Maju dt di dalam fase sekarang (dt di-clamp ke akhir fase). State tidak berubah;
+     * transisi adalah tanggung jawab pemanggil (lihat evolve)
+     */
+    public static void advance(PoolTable table, BallSet balls, int i, double dt) {
+        if (dt <= 0) return;
+        decaySpin(table, balls, i, dt);
+        switch (balls.state[i]) {
+            case BallSet.STATE_SLIDING:
+                slide(table, balls, i, dt);
+                break;
+            case BallSet.STATE_ROLLING:
+                roll(table, balls, i, dt);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Maju dt melewati transisi sliding -> rolling -> rest (tanpa tumbukan/cushion)
+     */
+    public static void evolve(PoolTable table, BallSet balls, int i, double dt) {
+        while (dt > 0 && balls.isMoving(i)) {
+            double phase = phaseDuration(table, balls, i);
+            double step = Math.min(dt, phase);
+            advance(table, balls, i, step);
+            dt -= step;
+            if (step == phase) endPhase(balls, i);
+        }
+        // Bola diam: hanya side spin yang masih meluruh
+        advance(table, balls, i, dt);
+    }
+    
+    /**
+     * Transisi di akhir fase: sliding -> rolling, rolling -> rest
+     */
+    static void endPhase(BallSet balls, int i) {
+        if (balls.state[i] == BallSet.STATE_SLIDING) {
+            balls.roll(i);
+        } else {
+            balls.stop(i);
+        }
+    }
+    
+    private static void slide(PoolTable table, BallSet balls, int i, double dt) {
+        double ux = slipX(table, balls, i);
+        double uy = slipY(table, balls, i);
+        double slip = Math.hypot(ux, uy);
+        if (slip == 0) return;
+        double nx = ux / slip;
+        double ny = uy / slip;
+        double deceleration = table.getSlidingFriction() * PoolTable.GRAVITY;
+        dt = Math.min(dt, 2 * slip / (7 * deceleration));
+        
+        balls.x[i] += balls.vx[i] * dt - 0.5 * deceleration * nx * dt * dt;
+        balls.y[i] += balls.vy[i] * dt - 0.5 * deceleration * ny * dt * dt;
+        balls.vx[i] -= deceleration * nx * dt;
+        balls.vy[i] -= deceleration * ny * dt;
+        // Torque gesek: dw/dt = 5 mu_s g / 2R * (z x u^), dengan z x u^ = (-u^y, u^x)
+        double spin = 2.5 * deceleration / table.getBallRadius() * dt;
+        balls.wx[i] -= ny * spin;
+        balls.wy[i] += nx * spin;
+    }
+    
+    private static void roll(PoolTable table, BallSet balls, int i, double dt) {
+        double vx = balls.vx[i];
+        double vy = balls.vy[i];
+        double speed = Math.hypot(vx, vy);
+        if (speed == 0) return;
+        double deceleration = table.getRollingDeceleration();
+        dt = Math.min(dt, speed / deceleration);
+        double remaining = speed - deceleration * dt;
+        double distance = (speed + remaining) * 0.5 * dt;
+        
+        balls.x[i] += vx / speed * distance;
+        balls.y[i] += vy / speed * distance;
+        balls.vx[i] = vx / speed * remaining;
+        balls.vy[i] = vy / speed * remaining;
+        // Rolling tanpa slip: R wy = vx, R wx = -vy
+        balls.wx[i] = -balls.vy[i] / table.getBallRadius();
+        balls.wy[i] = balls.vx[i] / table.getBallRadius();
+    }
+    
+    private static void decaySpin(PoolTable table, BallSet balls, int i, double dt) {
+        double wz = balls.wz[i];
+        if (wz == 0) return;
+        double remaining = Math.abs(wz) - spinDeceleration(table) * dt;
+        balls.wz[i] = remaining > 0 ? Math.copySign(remaining, wz) : 0;
+    }
+    
+    private static double spinDeceleration(PoolTable table) {
+        return 2.5 * table.getSpinningFriction() * PoolTable.GRAVITY / table.getBallRadius();
+    }
+}
@@ -0,0 +1,251 @@
+package com.victory.poolassistant.physics;
+
+import java.util.Arrays;
+
+/**
+ * Ball state dalam layout structure-of-arrays
+ * Posisi, velocity dan angular velocity (spin) disimpan di double[] per komponen
+ * sehingga loop simulasi berjalan linear di memory dan tidak ada object per bola.
+ * Kapasitas tetap (MAX_BALLS); step simulasi tidak pernah mengalokasikan.
+ *
+ * State bergerak dipisah menjadi SLIDING (contact point cloth slip, gesek sliding)
+ * dan ROLLING (rolling tanpa slip). Klasifikasi butuh radius bola, jadi radius
+ * BallSet harus sama dengan PoolTable yang dipakai.
+ *
+ * Index 0 adalah cue ball. Tidak thread-safe: satu BallSet dimiliki satu thread;
+ * gunakan copyFrom() untuk what-if evaluation di buffer lain.
+ */
+public final class BallSet {
+    
+    public static final int MAX_BALLS = 16;
+    public static final int CUE_BALL = 0;
+    
+    // Ball states
+    public static final int STATE_EMPTY = 0;
+    public static final int STATE_REST = 1;
+    public static final int STATE_SLIDING = 2;
+    public static final int STATE_POCKETED = 3;
+    public static final int STATE_ROLLING = 4;
+    
+    // Kecepatan / slip di bawah ini dianggap nol (m/s)
+    static final double SPEED_EPSILON = 1e-9;
+    
+    // Package-private supaya solver membaca array langsung
+    final double[] x = new double[MAX_BALLS];
+    final double[] y = new double[MAX_BALLS];
+    final double[] vx = new double[MAX_BALLS];
+    final double[] vy = new double[MAX_BALLS];
+    // Angular velocity (rad/s): wx, wy = topspin/backspin, wz = side spin (english)
+    final double[] wx = new double[MAX_BALLS];
+    final double[] wy = new double[MAX_BALLS];
+    final double[] wz = new double[MAX_BALLS];
+    final int[] state = new int[MAX_BALLS];
+    
+    // Jumlah slot yang dipakai (bola dengan index >= count selalu EMPTY)
+    int count = 0;
+    
+    private final double radius;
+    
+    public BallSet() {
+        this(PoolTable.STANDARD_BALL_RADIUS);
+    }
+    
+    public BallSet(double radius) {
+        this.radius = radius;
+    }
+    
+    /**
+     * Tempatkan bola diam di posisi (x, y)
+     */
+    public void place(int ball, double px, double py) {
+        checkIndex(ball);
+        x[ball] = px;
+        y[ball] = py;
+        vx[ball] = 0;
+        vy[ball] = 0;
+        clearSpin(ball);
+        state[ball] = STATE_REST;
+        if (ball >= count) count = ball + 1;
+    }
+    
+    /**
+     * Angkat bola dari meja (slot kosong)
+     */
+    public void remove(int ball) {
+        checkIndex(ball);
+        vx[ball] = 0;
+        vy[ball] = 0;
+        clearSpin(ball);
+        state[ball] = STATE_EMPTY;
+        while (count > 0 && state[count - 1] == STATE_EMPTY) count--;
+    }
+    
+    /**
+     * Set velocity (m/s), spin tetap. Bola yang sudah pocketed / kosong diabaikan
+     */
+    public void setVelocity(int ball, double velocityX, double velocityY) {
+        checkIndex(ball);
+        if (!isOnTable(ball)) return;
+        vx[ball] = velocityX;
+        vy[ball] = velocityY;
+        classify(ball);
+    }
+    
+    /**
+     * Set velocity (m/s) dan angular velocity (rad/s) sekaligus (mis. cue strike dengan spin)
+     */
+    public void setMotion(int ball, double velocityX, double velocityY,
+                          double spinX, double spinY, double spinZ) {
+        checkIndex(ball);
+        if (!isOnTable(ball)) return;
+        vx[ball] = velocityX;
+        vy[ball] = velocityY;
+        wx[ball] = spinX;
+        wy[ball] = spinY;
+        wz[ball] = spinZ;
+        classify(ball);
+    }
+    
+    /**
+     * Tentukan SLIDING / ROLLING / REST dari slip velocity u = v + R (z x w)
+     * Rolling di-snap ke kondisi rolling tanpa slip supaya tidak ada drift numerik
+     */
+    void classify(int ball) {
+        double ux = vx[ball] - radius * wy[ball];
+        double uy = vy[ball] + radius * wx[ball];
+        if (ux * ux + uy * uy > SPEED_EPSILON * SPEED_EPSILON) {
+            state[ball] = STATE_SLIDING;
+        } else {
+            roll(ball);
+        }
+    }
+    
+    /**
+     * Akhir fase sliding: snap spin ke rolling tanpa slip, atau berhenti jika velocity ~0
+     */
+    void roll(int ball) {
+        if (vx[ball] * vx[ball] + vy[ball] * vy[ball] > SPEED_EPSILON * SPEED_EPSILON) {
+            wx[ball] = -vy[ball] / radius;
+            wy[ball] = vx[ball] / radius;
+            state[ball] = STATE_ROLLING;
+        } else {
+            stop(ball);
+        }
+    }
+    
+    /**
+     * Hentikan bola di posisinya sekarang (side spin boleh tetap berputar di tempat)
+     */
+    void stop(int ball) {
+        vx[ball] = 0;
+        vy[ball] = 0;
+        wx[ball] = 0;
+        wy[ball] = 0;
+        state[ball] = STATE_REST;
+    }
+    
+    void pocket(int ball) {
+        vx[ball] = 0;
+        vy[ball] = 0;
+        clearSpin(ball);
+        state[ball] = STATE_POCKETED;
+    }
+    
+    private void clearSpin(int ball) {
+        wx[ball] = 0;
+        wy[ball] = 0;
+        wz[ball] = 0;
+    }
+    
+    public void clear() {
+        Arrays.fill(state, STATE_EMPTY);
+        Arrays.fill(vx, 0);
+        Arrays.fill(vy, 0);
+        Arrays.fill(wx, 0);
+        Arrays.fill(wy, 0);
+        Arrays.fill(wz, 0);
+        count = 0;
+    }
+    
+    /**
+     * Copy seluruh state dari BallSet lain (tanpa alokasi)
+     */
+    public void copyFrom(BallSet other) {
+        System.arraycopy(other.x, 0, x, 0, MAX_BALLS);
+        System.arraycopy(other.y, 0, y, 0, MAX_BALLS);
+        System.arraycopy(other.vx, 0, vx, 0, MAX_BALLS);
+        System.arraycopy(other.vy, 0, vy, 0, MAX_BALLS);
+        System.arraycopy(other.wx, 0, wx, 0, MAX_BALLS);
+        System.arraycopy(other.wy, 0, wy, 0, MAX_BALLS);
+        System.arraycopy(other.wz, 0, wz, 0, MAX_BALLS);
+        System.arraycopy(other.state, 0, state, 0, MAX_BALLS);
+        count = other.count;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public double getX(int ball) {
+        return x[ball];
+    }
+    
+    public double getY(int ball) {
+        return y[ball];
+    }
+    
+    public double getVelocityX(int ball) {
+        return vx[ball];
+    }
+    
+    public double getVelocityY(int ball) {
+        return vy[ball];
+    }
+    
+    public double getSpinX(int ball) {
+        return wx[ball];
+    }
+    
+    public double getSpinY(int ball) {
+        return wy[ball];
+    }
+    
+    public double getSpinZ(int ball) {
+        return wz[ball];
+    }
+    
+    public double getRadius() {
+        return radius;
+    }
+    
+    public int getState(int ball) {
+        return state[ball];
+    }
+    
+    public boolean isOnTable(int ball) {
+        return state[ball] == STATE_REST || isMoving(ball);
+    }
+    
+    /**
+     * Bola bergerak (sliding atau rolling). Bola REST dengan side spin tidak dihitung
+     */
+    public boolean isMoving(int ball) {
+        return state[ball] == STATE_SLIDING || state[ball] == STATE_ROLLING;
+    }
+    
+    /**
+     * Check apakah masih ada bola yang bergerak
+     */
+    public boolean anyMoving() {
+        for (int i = 0; i < count; i++) {
+            if (isMoving(i)) return true;
+        }
+        return false;
+    }
+    
+    private static void checkIndex(int ball) {
+        if (ball < 0 || ball >= MAX_BALLS) {
+            throw new IndexOutOfBoundsException("Ball index " + ball);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.victory.poolassistant.physics;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap untuk pending simulation events, disimpan di primitive arrays
+ * Setiap entry: waktu, info (type/ball/other dipack ke satu int) dan stamp
+ * (versi trajectory bola saat event diprediksi). Event yang sudah basi tidak
+ * dihapus dari heap; solver membuangnya saat di-pop jika stamp tidak cocok.
+ * Arrays hanya tumbuh (double) saat penuh, sehingga run berikutnya tidak mengalokasikan.
+ */
+final class EventQueue {
+    
+    private double[] times;
+    private int[] infos;
+    private long[] stamps;
+    private int size = 0;
+    
+    EventQueue(int initialCapacity) {
+        times = new double[initialCapacity];
+        infos = new int[initialCapacity];
+        stamps = new long[initialCapacity];
+    }
+    
+    static int pack(int type, int ball, int other) {
+        return (type << 16) | (ball << 8) | other;
+    }
+    
+    static int type(int info) {
+        return info >>> 16;
+    }
+    
+    static int ball(int info) {
+        return (info >>> 8) & 0xFF;
+    }
+    
+    static int other(int info) {
+        return info & 0xFF;
+    }
+    
+    static long stamp(int versionA, int versionB) {
+        return ((long) versionA << 32) | (versionB & 0xFFFFFFFFL);
+    }
+    
+    static int versionA(long stamp) {
+        return (int) (stamp >>> 32);
+    }
+    
+    static int versionB(long stamp) {
+        return (int) stamp;
+    }
+    
+    void push(double time, int info, long stamp) {
+        if (size == times.length) {
+            int capacity = times.length * 2;
+            times = Arrays.copyOf(times, capacity);
+            infos = Arrays.copyOf(infos, capacity);
+            stamps = Arrays.copyOf(stamps, capacity);
+        }
+        int i = size++;
+        // Sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (times[parent] <= time) break;
+            times[i] = times[parent];
+            infos[i] = infos[parent];
+            stamps[i] = stamps[parent];
+            i = parent;
+        }
+        times[i] = time;
+        infos[i] = info;
+        stamps[i] = stamp;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int capacity() {
+        return times.length;
+    }
+    
+    double peekTime() {
+        return times[0];
+    }
+    
+    int peekInfo() {
+        return infos[0];
+    }
+    
+    long peekStamp() {
+        return stamps[0];
+    }
+    
+    /**
+     * Buang top entry (baca dulu lewat peek*)
+     */
+    void removeTop() {
+        int last = --size;
+        if (last == 0) return;
+        double time = times[last];
+        int info = infos[last];
+        long stamp = stamps[last];
+        
+        // Sift down
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < last && times[right] < times[child]) child = right;
+            if (time <= times[child]) break;
+            times[i] = times[child];
+            infos[i] = infos[child];
+            stamps[i] = stamps[child];
+            i = child;
+        }
+        times[i] = time;
+        infos[i] = info;
+        stamps[i] = stamp;
+    }
+    
+    void clear() {
+        size = 0;
+    }
+}
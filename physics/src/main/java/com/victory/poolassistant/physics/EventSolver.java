@@ -0,0 +1,616 @@
+package com.victory.poolassistant.physics;
+
+/**
+ * Event-driven (time-of-impact) solver
+ * Antara dua event setiap bola ada di satu fase BallMotion (sliding atau rolling)
+ * dengan akselerasi konstan, jadi posisi adalah polinom orde dua dalam t (lintasan
+ * sliding dengan spin melengkung, parabola). Event berikutnya dihitung analitik:
+ * transisi sliding -> rolling dan rest dari closed-form durasi fase, cushion lewat
+ * root quadratic per sumbu, pocket dan kontak bola-bola lewat root pertama quartic
+ * |p(t) - c| = radius. Solver melompat langsung ke event terdekat di EventQueue,
+ * bukan integrasi step kecil.
+ *
+ * Setiap bola punya versi trajectory; event hanya diproses jika versi bola-bolanya
+ * masih sama seperti saat diprediksi. Setelah event, hanya bola yang terlibat
+ * yang diprediksi ulang (incremental). Posisi bola lain di-sync secara lazy.
+ *
+ * Broadphase: bounding box lintasan setiap bola sampai self event-nya (transisi,
+ * cushion, pocket, rest) di-index di UniformGrid. Pair hanya diselesaikan (quartic)
+ * jika bola berbagi cell dan lintasannya bisa berjarak <= 2r (jarak segmen jika
+ * keduanya lurus, gap bounding box jika melengkung), karena hanya pair itu yang bisa
+ * kontak sebelum salah satu trajectory berubah.
+ */
+public final class EventSolver {
+    
+    // Event types
+    public static final int EVENT_BALL = 1;
+    public static final int EVENT_CUSHION = 2;
+    public static final int EVENT_POCKET = 3;
+    public static final int EVENT_REST = 4;
+    public static final int EVENT_TRANSITION = 5;
+    
+    // Cushion ids (other untuk EVENT_CUSHION)
+    public static final int CUSHION_LEFT = 0;
+    public static final int CUSHION_RIGHT = 1;
+    public static final int CUSHION_TOP = 2;
+    public static final int CUSHION_BOTTOM = 3;
+    
+    // Guard untuk cluster yang saling menempel (inelastic collapse)
+    private static final int MAX_EVENTS_PER_RUN = 10_000;
+    // Kecepatan pisah minimum setelah tumbukan (m/s). Spin yang mendorong bola kembali
+    // ke kontak (push shot, cluster rack) tanpa ini menghasilkan tumbukan tak hingga
+    // dengan vn -> 0 (inelastic collapse), atau impulse yang hilang di rounding
+    private static final double MIN_SEPARATION_SPEED = 1e-3;
+    // Toleransi relatif |v x a| untuk menganggap lintasan sliding lurus
+    private static final double STRAIGHT_EPSILON = 1e-9;
+    // Grid broadphase: jumlah kolom sepanjang sisi panjang meja
+    private static final int GRID_COLUMNS = 8;
+    
+    /**
+     * Callback per event yang diproses (mis. untuk merekam lintasan prediksi)
+     */
+    public interface Listener {
+        void onEvent(int type, int ball, int other, double time);
+    }
+    
+    private final PoolTable table;
+    private final BallSet balls;
+    private final EventQueue queue = new EventQueue(256);
+    
+    // Waktu referensi state bola di BallSet, dan versi trajectory per bola
+    private final double[] baseTime = new double[BallSet.MAX_BALLS];
+    private final int[] version = new int[BallSet.MAX_BALLS];
+    private final double[] scratch = new double[3];
+    
+    // Broadphase: bounding box lintasan per bola (sampai selfTime), flag lurus
+    // (lintasan = diagonal box) dan candidate buffer
+    private final UniformGrid grid;
+    private final double[] sweepMinX = new double[BallSet.MAX_BALLS];
+    private final double[] sweepMinY = new double[BallSet.MAX_BALLS];
+    private final double[] sweepMaxX = new double[BallSet.MAX_BALLS];
+    private final double[] sweepMaxY = new double[BallSet.MAX_BALLS];
+    private final boolean[] sweepStraight = new boolean[BallSet.MAX_BALLS];
+    private final boolean[] sweepRising = new boolean[BallSet.MAX_BALLS];
+    private final double[] selfTime = new double[BallSet.MAX_BALLS];
+    private final int[] candidates = new int[BallSet.MAX_BALLS];
+    private boolean broadphase = true;
+    
+    private double time = 0;
+    private Listener listener;
+    
+    // Stats
+    private long eventsProcessed = 0;
+    private long eventsStale = 0;
+    private long predictions = 0;
+    private long pairTests = 0;
+    private long pairsCulled = 0;
+    
+    public EventSolver(PoolTable table, BallSet balls) {
+        if (balls.getRadius() != table.getBallRadius()) {
+            throw new IllegalArgumentException("BallSet radius does not match table");
+        }
+        this.table = table;
+        this.balls = balls;
+        this.grid = new UniformGrid(table.getLength(), table.getWidth(), GRID_COLUMNS);
+    }
+    
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Matikan broadphase (semua pair diselesaikan) untuk perbandingan brute force
+     */
+    public void setBroadphaseEnabled(boolean enabled) {
+        broadphase = enabled;
+    }
+    
+    /**
+     * Prediksi ulang semua event dari state BallSet sekarang (setelah place/strike)
+     */
+    public void start() {
+        queue.clear();
+        grid.clear();
+        for (int i = 0; i < BallSet.MAX_BALLS; i++) {
+            baseTime[i] = time;
+            version[i]++;
+        }
+        // Semua segmen harus ada di grid sebelum pair di-query
+        for (int i = 0; i < balls.count; i++) {
+            if (balls.isOnTable(i)) predictSelf(i);
+        }
+        for (int i = 0; i < balls.count; i++) {
+            // Pair hanya sekali: i dengan j > i
+            if (balls.isOnTable(i)) predictPairs(i, -1, true);
+        }
+    }
+    
+    /**
+     * Proses event sampai maxTime lewat atau semua bola berhenti. Return waktu simulasi
+     */
+    public double run(double maxTime) {
+        double start = time;
+        processUntil(time + maxTime);
+        return time - start;
+    }
+    
+    /**
+     * Proses semua event sampai target (untuk animasi) lalu sync posisi ke target
+     */
+    public void advanceTo(double target) {
+        processUntil(Math.max(target, time));
+    }
+    
+    private void processUntil(double end) {
+        int processed = 0;
+        while (!queue.isEmpty() && queue.peekTime() <= end) {
+            if (processed >= MAX_EVENTS_PER_RUN) {
+                // Berhenti di event terakhir supaya bola tidak saling menembus
+                syncAll(time);
+                return;
+            }
+            if (processNext()) processed++;
+        }
+        // Semua bola sudah berhenti: waktu berakhir di event terakhir
+        syncAll(balls.anyMoving() ? end : time);
+    }
+    
+    // =============================================================================
+    // EVENT PROCESSING
+    // =============================================================================
+    
+    /**
+     * Pop satu event. Return false jika event basi
+     */
+    private boolean processNext() {
+        double eventTime = queue.peekTime();
+        int info = queue.peekInfo();
+        long stamp = queue.peekStamp();
+        queue.removeTop();
+        
+        int type = EventQueue.type(info);
+        int ball = EventQueue.ball(info);
+        int other = EventQueue.other(info);
+        if (EventQueue.versionA(stamp) != version[ball]
+            || (type == EVENT_BALL && EventQueue.versionB(stamp) != version[other])) {
+            eventsStale++;
+            return false;
+        }
+        
+        time = Math.max(time, eventTime);
+        sync(ball, time);
+        switch (type) {
+            case EVENT_BALL:
+                sync(other, time);
+                collide(ball, other);
+                break;
+            case EVENT_CUSHION:
+                bounce(ball, other);
+                break;
+            case EVENT_POCKET:
+                balls.pocket(ball);
+                break;
+            case EVENT_REST:
+                balls.stop(ball);
+                break;
+            case EVENT_TRANSITION:
+                balls.roll(ball);
+                break;
+            default:
+                break;
+        }
+        eventsProcessed++;
+        if (listener != null) {
+            listener.onEvent(type, ball, other, time);
+        }
+        
+        version[ball]++;
+        if (type == EVENT_BALL) version[other]++;
+        repredict(ball, type == EVENT_BALL ? other : -1);
+        return true;
+    }
+    
+    private void collide(int i, int j) {
+        double[] x = balls.x;
+        double[] y = balls.y;
+        double[] vx = balls.vx;
+        double[] vy = balls.vy;
+        
+        double dx = x[j] - x[i];
+        double dy = y[j] - y[i];
+        double d = Math.sqrt(dx * dx + dy * dy);
+        if (d == 0) return;
+        double nx = dx / d;
+        double ny = dy / d;
+        
+        double vn = (vx[j] - vx[i]) * nx + (vy[j] - vy[i]) * ny;
+        if (vn >= MIN_SEPARATION_SPEED) return;
+        
+        // Massa sama: impulse per bola = (vn - separation) / 2 sepanjang garis pusat,
+        // separation = e * |vn| (minimal MIN_SEPARATION_SPEED)
+        double separation = Math.max(-vn * table.getBallRestitution(), MIN_SEPARATION_SPEED);
+        double impulse = 0.5 * (vn - separation);
+        // Gesek antar bola diabaikan: spin tidak berubah, bola jadi sliding
+        balls.setVelocity(i, vx[i] + impulse * nx, vy[i] + impulse * ny);
+        balls.setVelocity(j, vx[j] - impulse * nx, vy[j] - impulse * ny);
+    }
+    
+    private void bounce(int i, int cushion) {
+        double r = table.getBallRadius();
+        double e = table.getCushionRestitution();
+        double vx = balls.vx[i];
+        double vy = balls.vy[i];
+        // Nose cushion kira-kira setinggi center bola: spin yang mendorong bola ke rail
+        // (rolling tegak lurus rail) diserap, spin sepanjang rail dan side spin tetap
+        switch (cushion) {
+            case CUSHION_LEFT:
+                balls.x[i] = r;
+                vx = -vx * e;
+                balls.wy[i] = 0;
+                break;
+            case CUSHION_RIGHT:
+                balls.x[i] = table.getLength() - r;
+                vx = -vx * e;
+                balls.wy[i] = 0;
+                break;
+            case CUSHION_TOP:
+                balls.y[i] = r;
+                vy = -vy * e;
+                balls.wx[i] = 0;
+                break;
+            default:
+                balls.y[i] = table.getWidth() - r;
+                vy = -vy * e;
+                balls.wx[i] = 0;
+                break;
+        }
+        balls.setVelocity(i, vx, vy);
+    }
+    
+    /**
+     * Prediksi ulang event untuk bola yang trajectory-nya berubah (other = -1 jika satu bola)
+     */
+    private void repredict(int ball, int other) {
+        updateSelf(ball);
+        if (other >= 0) updateSelf(other);
+        
+        predictPairs(ball, -1, false);
+        if (other >= 0) predictPairs(other, ball, false);
+    }
+    
+    private void updateSelf(int i) {
+        if (balls.isOnTable(i)) {
+            predictSelf(i);
+        } else {
+            grid.remove(i);
+        }
+    }
+    
+    // =============================================================================
+    // PREDICTION
+    // =============================================================================
+    
+    /**
+     * Event terdekat untuk satu bola: transisi fase, cushion, pocket atau berhenti.
+     * Hanya satu yang dimasukkan karena event pertama mengubah trajectory
+     */
+    private void predictSelf(int i) {
+        double x = balls.x[i];
+        double y = balls.y[i];
+        if (!balls.isMoving(i)) {
+            setSweep(i, x, y, 0, 0, 0, 0, 0, Double.MAX_VALUE);
+            return;
+        }
+        predictions++;
+        
+        // p(t) = p + v t + a t^2 / 2, valid sampai akhir fase
+        double vx = balls.vx[i];
+        double vy = balls.vy[i];
+        double ax = BallMotion.accelerationX(table, balls, i);
+        double ay = BallMotion.accelerationY(table, balls, i);
+        double dt = BallMotion.phaseDuration(table, balls, i);
+        int type = balls.state[i] == BallSet.STATE_SLIDING ? EVENT_TRANSITION : EVENT_REST;
+        int other = 0;
+        
+        // Cushion: center menyentuh garis r dari sisi meja sambil bergerak ke arahnya
+        double r = table.getBallRadius();
+        double t = cushionTime(x - r, -vx, -ax, dt);
+        if (t < dt) {
+            dt = t;
+            type = EVENT_CUSHION;
+            other = CUSHION_LEFT;
+        }
+        t = cushionTime(table.getLength() - r - x, vx, ax, dt);
+        if (t < dt) {
+            dt = t;
+            type = EVENT_CUSHION;
+            other = CUSHION_RIGHT;
+        }
+        t = cushionTime(y - r, -vy, -ay, dt);
+        if (t < dt) {
+            dt = t;
+            type = EVENT_CUSHION;
+            other = CUSHION_TOP;
+        }
+        t = cushionTime(table.getWidth() - r - y, vy, ay, dt);
+        if (t < dt) {
+            dt = t;
+            type = EVENT_CUSHION;
+            other = CUSHION_BOTTOM;
+        }
+        
+        // Pocket: lintasan masuk lingkaran capture
+        double pocketRadius = table.getPocketRadius();
+        for (int p = 0; p < PoolTable.POCKET_COUNT; p++) {
+            double wx = x - table.getPocketX(p);
+            double wy = y - table.getPocketY(p);
+            if (wx * wx + wy * wy <= pocketRadius * pocketRadius) {
+                t = 0;
+            } else {
+                t = contactTime(wx, wy, vx, vy, 0.5 * ax, 0.5 * ay, pocketRadius, dt);
+                if (Double.isNaN(t)) continue;
+            }
+            if (t < dt) {
+                dt = t;
+                type = EVENT_POCKET;
+                other = p;
+            }
+        }
+        
+        dt = Math.max(0, dt);
+        queue.push(time + dt, EventQueue.pack(type, i, other), EventQueue.stamp(version[i], 0));
+        setSweep(i, x, y, vx, vy, ax, ay, dt, time + dt);
+    }
+    
+    /**
+     * Waktu pertama jarak gap ke garis cushion habis sambil mendekat, NaN jika tidak
+     * sebelum limit. v dan a adalah komponen ke arah cushion (positif = mendekat)
+     */
+    private double cushionTime(double gap, double v, double a, double limit) {
+        if (gap <= 0) {
+            if (v > 0 || (v == 0 && a > 0)) return 0;
+            gap = 0;
+        }
+        // gap - v t - a t^2 / 2 = 0, root ascending
+        int count = Polynomials.solveQuadratic(-0.5 * a, -v, gap, scratch);
+        for (int k = 0; k < count; k++) {
+            double t = scratch[k];
+            if (t >= 0 && t < limit && v + a * t > 0) return t;
+        }
+        return Double.NaN;
+    }
+    
+    /**
+     * Simpan bounding box lintasan p(t), t di [0, dt], sampai self event dan index di grid
+     */
+    private void setSweep(int i, double x, double y, double vx, double vy,
+                          double ax, double ay, double dt, double until) {
+        double x1 = x + (vx + 0.5 * ax * dt) * dt;
+        double y1 = y + (vy + 0.5 * ay * dt) * dt;
+        double minX = Math.min(x, x1);
+        double maxX = Math.max(x, x1);
+        double minY = Math.min(y, y1);
+        double maxY = Math.max(y, y1);
+        // Extremum per sumbu saat komponen velocity berbalik arah
+        if (ax != 0) {
+            double t = -vx / ax;
+            if (t > 0 && t < dt) {
+                double e = x + (vx + 0.5 * ax * t) * t;
+                minX = Math.min(minX, e);
+                maxX = Math.max(maxX, e);
+            }
+        }
+        if (ay != 0) {
+            double t = -vy / ay;
+            if (t > 0 && t < dt) {
+                double e = y + (vy + 0.5 * ay * t) * t;
+                minY = Math.min(minY, e);
+                maxY = Math.max(maxY, e);
+            }
+        }
+        sweepMinX[i] = minX;
+        sweepMinY[i] = minY;
+        sweepMaxX[i] = maxX;
+        sweepMaxY[i] = maxY;
+        // Lurus jika v sejajar a (rolling, stun/draw lurus): lintasan = diagonal box
+        double cross = vx * ay - vy * ax;
+        double scale = Math.hypot(vx, vy) * Math.hypot(ax, ay);
+        sweepStraight[i] = Math.abs(cross) <= STRAIGHT_EPSILON * scale;
+        double dirX = vx != 0 || vy != 0 ? vx : ax;
+        double dirY = vx != 0 || vy != 0 ? vy : ay;
+        sweepRising[i] = dirX * dirY >= 0;
+        selfTime[i] = until;
+        double r = table.getBallRadius();
+        grid.insert(i, minX - r, minY - r, maxX + r, maxY + r);
+    }
+    
+    /**
+     * Prediksi kontak bola i dengan candidate dari broadphase (atau semua bola jika off)
+     */
+    private void predictPairs(int i, int skip, boolean higherOnly) {
+        if (!broadphase) {
+            for (int k = higherOnly ? i + 1 : 0; k < balls.count; k++) {
+                if (k != i && k != skip) predictPair(i, k);
+            }
+            return;
+        }
+        
+        double r = table.getBallRadius();
+        int count = grid.query(i,
+            sweepMinX[i] - r, sweepMinY[i] - r, sweepMaxX[i] + r, sweepMaxY[i] + r,
+            candidates);
+        double diameter = 2 * r;
+        for (int c = 0; c < count; c++) {
+            int k = candidates[c];
+            if (k == skip || (higherOnly && k < i)) continue;
+            if (!balls.isMoving(i) && !balls.isMoving(k)) continue;
+            boolean culled = sweepStraight[i] && sweepStraight[k]
+                ? segmentDistance2(i, k) > diameter * diameter
+                : boxGap(i, k) > diameter;
+            if (culled) {
+                pairsCulled++;
+                continue;
+            }
+            predictPair(i, k);
+        }
+    }
+    
+    /**
+     * Gap terbesar per sumbu antara bounding box lintasan (lower bound jarak)
+     */
+    private double boxGap(int i, int k) {
+        double gapX = Math.max(sweepMinX[k] - sweepMaxX[i], sweepMinX[i] - sweepMaxX[k]);
+        double gapY = Math.max(sweepMinY[k] - sweepMaxY[i], sweepMinY[i] - sweepMaxY[k]);
+        return Math.max(gapX, gapY);
+    }
+    
+    /**
+     * Jarak minimum kuadrat antara segmen lintasan lurus bola i dan k
+     */
+    private double segmentDistance2(int i, int k) {
+        double px = sweepMinX[i];
+        double py = sweepRising[i] ? sweepMinY[i] : sweepMaxY[i];
+        double dx1 = sweepMaxX[i] - px;
+        double dy1 = (sweepRising[i] ? sweepMaxY[i] : sweepMinY[i]) - py;
+        double qx = sweepMinX[k];
+        double qy = sweepRising[k] ? sweepMinY[k] : sweepMaxY[k];
+        double dx2 = sweepMaxX[k] - qx;
+        double dy2 = (sweepRising[k] ? sweepMaxY[k] : sweepMinY[k]) - qy;
+        double rx = px - qx;
+        double ry = py - qy;
+        
+        double a = dx1 * dx1 + dy1 * dy1;
+        double e = dx2 * dx2 + dy2 * dy2;
+        double f = dx2 * rx + dy2 * ry;
+        double s;
+        double t;
+        if (a == 0 && e == 0) {
+            s = 0;
+            t = 0;
+        } else if (a == 0) {
+            s = 0;
+            t = clamp01(f / e);
+        } else {
+            double c = dx1 * rx + dy1 * ry;
+            if (e == 0) {
+                t = 0;
+                s = clamp01(-c / a);
+            } else {
+                double b = dx1 * dx2 + dy1 * dy2;
+                double denom = a * e - b * b;
+                s = denom != 0 ? clamp01((b * f - c * e) / denom) : 0;
+                t = (b * s + f) / e;
+                if (t < 0) {
+                    t = 0;
+                    s = clamp01(-c / a);
+                } else if (t > 1) {
+                    t = 1;
+                    s = clamp01((b - c) / a);
+                }
+            }
+        }
+        double cx = px + dx1 * s - (qx + dx2 * t);
+        double cy = py + dy1 * s - (qy + dy2 * t);
+        return cx * cx + cy * cy;
+    }
+    
+    private static double clamp01(double v) {
+        return v < 0 ? 0 : (v > 1 ? 1 : v);
+    }
+    
+    /**
+     * Root pertama |q0 + q1 t + q2 t^2| = radius di [0, horizon], NaN jika tidak ada
+     */
+    private double contactTime(double q0x, double q0y, double q1x, double q1y,
+                               double q2x, double q2y, double radius, double horizon) {
+        double c4 = q2x * q2x + q2y * q2y;
+        double c3 = 2 * (q1x * q2x + q1y * q2y);
+        double c2 = q1x * q1x + q1y * q1y + 2 * (q0x * q2x + q0y * q2y);
+        double c1 = 2 * (q0x * q1x + q0y * q1y);
+        double c0 = q0x * q0x + q0y * q0y - radius * radius;
+        return Polynomials.firstEnteringRoot(c4, c3, c2, c1, c0, 0, horizon, scratch);
+    }
+    
+    /**
+     * Kontak pertama bola i dan j (kedua bola di-sync ke waktu sekarang)
+     */
+    private void predictPair(int i, int j) {
+        if (!balls.isOnTable(i) || !balls.isOnTable(j)) return;
+        if (!balls.isMoving(i) && !balls.isMoving(j)) return;
+        sync(i, time);
+        sync(j, time);
+        
+        // Akselerasi fase konstan di kedua bola; valid sampai self event pertama
+        // dari kedua bola (event itu memprediksi ulang pair ini)
+        double horizon = Math.max(0, Math.min(selfTime[i], selfTime[j]) - time);
+        
+        // Relative: d(t) = q0 + q1 t + q2 t^2
+        double q0x = balls.x[j] - balls.x[i];
+        double q0y = balls.y[j] - balls.y[i];
+        double q1x = balls.vx[j] - balls.vx[i];
+        double q1y = balls.vy[j] - balls.vy[i];
+        double q2x = 0.5 * (BallMotion.accelerationX(table, balls, j) - BallMotion.accelerationX(table, balls, i));
+        double q2y = 0.5 * (BallMotion.accelerationY(table, balls, j) - BallMotion.accelerationY(table, balls, i));
+        
+        pairTests++;
+        double dt = contactTime(q0x, q0y, q1x, q1y, q2x, q2y, 2 * table.getBallRadius(), horizon);
+        if (Double.isNaN(dt)) return;
+        queue.push(time + dt, EventQueue.pack(EVENT_BALL, i, j), EventQueue.stamp(version[i], version[j]));
+    }
+    
+    // =============================================================================
+    // STATE SYNC
+    // =============================================================================
+    
+    /**
+     * Bawa state bola ke waktu target tanpa mengubah trajectory (versi tetap).
+     * Transisi fase selalu diproses sebagai event, jadi cukup maju di fase sekarang
+     */
+    private void sync(int i, double target) {
+        double dt = target - baseTime[i];
+        baseTime[i] = target;
+        if (dt <= 0 || !balls.isOnTable(i)) return;
+        BallMotion.advance(table, balls, i, dt);
+    }
+    
+    private void syncAll(double target) {
+        time = target;
+        for (int i = 0; i < balls.count; i++) {
+            sync(i, target);
+        }
+    }
+    
+    public double getTime() {
+        return time;
+    }
+    
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+    
+    public long getEventsStale() {
+        return eventsStale;
+    }
+    
+    public long getPredictions() {
+        return predictions;
+    }
+    
+    /**
+     * Jumlah pair yang diselesaikan exact (quartic)
+     */
+    public long getPairTests() {
+        return pairTests;
+    }
+    
+    /**
+     * Jumlah candidate pair dari grid yang dibuang oleh test jarak segmen
+     */
+    public long getPairsCulled() {
+        return pairsCulled;
+    }
+    
+    int getQueueCapacity() {
+        return queue.capacity();
+    }
+}
@@ -0,0 +1,185 @@
+package com.victory.poolassistant.physics;
+
+/**
+ * Precomputed mirror unfolding meja untuk bank line lurus (tanpa spin)
+ * Pantulan cushion sama dengan meneruskan garis lurus ke salinan meja yang dicerminkan.
+ * Ray N-bounce jadi satu garis lurus yang berjalan melewati lattice meja cermin
+ * (DDA seperti grid traversal): setiap bounce satu langkah O(1), titik bounce didapat
+ * dengan melipat koordinat unfolded kembali ke meja asli. Tidak ada alokasi per trace.
+ *
+ * Semua geometry di-precompute sekali dari bounds cushion (mis. kalibrasi layar dalam px,
+ * atau PoolTable dalam meter): rectangle yang bisa ditempati center bola, panjang tiap
+ * cushion, dan jaw pocket sebagai interval di garis cushion. Center bola yang menyentuh
+ * cushion di dalam jaw masuk pocket; di luar jaw memantul. Lintasan yang hanya
+ * menyerempet lingkaran pocket tanpa menyentuh garis cushion tidak dihitung masuk.
+ *
+ * Pocket index: 0..2 sepanjang sisi panjang pertama (top / left), 3..5 sisi panjang
+ * kedua, sama seperti PoolTable untuk meja landscape.
+ */
+public final class MirrorTable {
+    
+    // Rectangle center bola: origin dan ukuran
+    private final double originX;
+    private final double originY;
+    private final double spanX;
+    private final double spanY;
+    
+    // Jaw pocket sepanjang garis cushion (lokal, dari ujung cushion / dari tengah)
+    private final double cornerJaw;
+    private final double sideJaw;
+    
+    // Per cushion (EventSolver.CUSHION_*): panjang dan pocket di ujung dekat / jauh / tengah
+    private final double[] cushionLength = new double[4];
+    private final int[] nearPocket = new int[4];
+    private final int[] farPocket = new int[4];
+    private final int[] midPocket = new int[4];
+    
+    /**
+     * Bounds adalah garis cushion; pocket di 4 pojok dan tengah 2 sisi panjang
+     */
+    public MirrorTable(double left, double top, double right, double bottom,
+                       double ballRadius, double pocketRadius) {
+        originX = left + ballRadius;
+        originY = top + ballRadius;
+        spanX = right - left - 2 * ballRadius;
+        spanY = bottom - top - 2 * ballRadius;
+        if (!(spanX > 0) || !(spanY > 0)) {
+            throw new IllegalArgumentException("Ball does not fit on table");
+        }
+        
+        // Center di garis cushion (jarak r dari tepi) masih dalam lingkaran capture
+        double reach = Math.sqrt(Math.max(0, pocketRadius * pocketRadius - ballRadius * ballRadius));
+        cornerJaw = reach - ballRadius;
+        sideJaw = reach;
+        
+        cushionLength[EventSolver.CUSHION_LEFT] = spanY;
+        cushionLength[EventSolver.CUSHION_RIGHT] = spanY;
+        cushionLength[EventSolver.CUSHION_TOP] = spanX;
+        cushionLength[EventSolver.CUSHION_BOTTOM] = spanX;
+        if (spanX >= spanY) {
+            setPockets(EventSolver.CUSHION_TOP, 0, 2, 1);
+            setPockets(EventSolver.CUSHION_BOTTOM, 3, 5, 4);
+            setPockets(EventSolver.CUSHION_LEFT, 0, 3, -1);
+            setPockets(EventSolver.CUSHION_RIGHT, 2, 5, -1);
+        } else {
+            setPockets(EventSolver.CUSHION_LEFT, 0, 2, 1);
+            setPockets(EventSolver.CUSHION_RIGHT, 3, 5, 4);
+            setPockets(EventSolver.CUSHION_TOP, 0, 3, -1);
+            setPockets(EventSolver.CUSHION_BOTTOM, 2, 5, -1);
+        }
+    }
+    
+    /**
+     * Mirror table untuk geometry simulasi (meter)
+     */
+    public static MirrorTable of(PoolTable table) {
+        return new MirrorTable(0, 0, table.getLength(), table.getWidth(),
+            table.getBallRadius(), table.getPocketRadius());
+    }
+    
+    private void setPockets(int cushion, int near, int far, int mid) {
+        nearPocket[cushion] = near;
+        farPocket[cushion] = far;
+        midPocket[cushion] = mid;
+    }
+    
+    /**
+     * Pocket yang jaw-nya memuat posisi s di garis cushion, -1 jika rail (memantul)
+     */
+    private int pocketAt(int cushion, double s) {
+        if (s <= cornerJaw) return nearPocket[cushion];
+        if (s >= cushionLength[cushion] - cornerJaw) return farPocket[cushion];
+        int mid = midPocket[cushion];
+        if (mid >= 0 && Math.abs(s - 0.5 * cushionLength[cushion]) <= sideJaw) return mid;
+        return -1;
+    }
+    
+    /**
+     * Trace ray center bola dari (x, y) ke arah (dirX, dirY) sampai maxLength, pocket,
+     * atau kontak cushion setelah maxBounces pantulan. Segment ditulis ke out
+     * (di-clear dulu). Return pocket index, atau -1 jika tidak masuk pocket
+     */
+    public int trace(double x, double y, double dirX, double dirY,
+                     double maxLength, int maxBounces, PolylineBuffer out) {
+        out.clear();
+        double length = Math.hypot(dirX, dirY);
+        if (length == 0 || !(maxLength > 0)) return -1;
+        double dx = dirX / length;
+        double dy = dirY / length;
+        
+        // Posisi lokal di rectangle center bola; cell (0, 0) lattice = meja asli
+        double ux = Math.max(0, Math.min(spanX, x - originX));
+        double uy = Math.max(0, Math.min(spanY, y - originY));
+        int cellX = 0;
+        int cellY = 0;
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        // Jarak tempuh sampai garis lattice vertikal / horizontal berikutnya
+        double nextX = dx != 0 ? ((dx > 0 ? spanX : 0) - ux) / dx : Double.POSITIVE_INFINITY;
+        double nextY = dy != 0 ? ((dy > 0 ? spanY : 0) - uy) / dy : Double.POSITIVE_INFINITY;
+        double deltaX = dx != 0 ? spanX / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double deltaY = dy != 0 ? spanY / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        
+        double fromX = ux;
+        double fromY = uy;
+        int bounces = 0;
+        while (true) {
+            boolean crossX = nextX <= nextY;
+            double t = crossX ? nextX : nextY;
+            if (t >= maxLength) {
+                out.addSegment(originX + fromX, originY + fromY,
+                    originX + fold(ux + dx * maxLength, spanX, cellX),
+                    originY + fold(uy + dy * maxLength, spanY, cellY));
+                return -1;
+            }
+            
+            // Lipat titik lattice ke meja asli; sumbu yang disilang di-snap ke garis cushion
+            double hitX;
+            double hitY;
+            int cushion;
+            if (crossX) {
+                hitX = wall(cellX, stepX, spanX);
+                hitY = fold(uy + dy * t, spanY, cellY);
+                cushion = hitX == 0 ? EventSolver.CUSHION_LEFT : EventSolver.CUSHION_RIGHT;
+            } else {
+                hitX = fold(ux + dx * t, spanX, cellX);
+                hitY = wall(cellY, stepY, spanY);
+                cushion = hitY == 0 ? EventSolver.CUSHION_TOP : EventSolver.CUSHION_BOTTOM;
+            }
+            out.addSegment(originX + fromX, originY + fromY, originX + hitX, originY + hitY);
+            
+            int pocket = pocketAt(cushion, crossX ? hitY : hitX);
+            if (pocket >= 0) return pocket;
+            if (bounces >= maxBounces) return -1;
+            bounces++;
+            
+            // Pantulan = pindah ke cell cermin sebelah, garis tetap lurus
+            if (crossX) {
+                cellX += stepX;
+                nextX += deltaX;
+            } else {
+                cellY += stepY;
+                nextY += deltaY;
+            }
+            fromX = hitX;
+            fromY = hitY;
+        }
+    }
+    
+    /**
+     * Koordinat unfolded u di cell ke koordinat meja asli (cell ganjil dicerminkan)
+     */
+    private static double fold(double u, double span, int cell) {
+        double local = Math.max(0, Math.min(span, u - cell * span));
+        return (cell & 1) == 0 ? local : span - local;
+    }
+    
+    /**
+     * Garis cushion (0 atau span) yang disilang saat keluar cell ke arah step
+     */
+    private static double wall(int cell, int step, double span) {
+        boolean farSide = step > 0;
+        if ((cell & 1) != 0) farSide = !farSide;
+        return farSide ? span : 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.victory.poolassistant.physics;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer line segments untuk digambar overlay
+ * Disimpan sebagai float x0, y0, x1, y1 per segment (format Canvas.drawLines),
+ * sehingga renderer bisa memakai getPoints() / size() langsung tanpa konversi.
+ * Array hanya tumbuh (double) saat penuh; trace berikutnya tidak mengalokasikan.
+ */
+public final class PolylineBuffer {
+    
+    private float[] points;
+    private int size = 0;
+    
+    public PolylineBuffer(int initialSegments) {
+        points = new float[Math.max(1, initialSegments) * 4];
+    }
+    
+    public void clear() {
+        size = 0;
+    }
+    
+    public void addSegment(double x0, double y0, double x1, double y1) {
+        if (size + 4 > points.length) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        points[size++] = (float) x0;
+        points[size++] = (float) y0;
+        points[size++] = (float) x1;
+        points[size++] = (float) y1;
+    }
+    
+    /**
+     * Backing array (valid sampai size()). Jangan disimpan melewati trace berikutnya
+     */
+    public float[] getPoints() {
+        return points;
+    }
+    
+    /**
+     * Jumlah float yang dipakai (4 per segment)
+     */
+    public int size() {
+        return size;
+    }
+    
+    public int getSegmentCount() {
+        return size / 4;
+    }
+}
@@ -0,0 +1,144 @@
+package com.victory.poolassistant.physics;
+
+/**
+ * Closed-form root finding untuk event prediction
+ * Quadratic dan cubic diselesaikan analitik; quartic (jarak bola-bola) dipecah
+ * menjadi interval monoton lewat critical points (roots turunan = cubic), lalu
+ * root pertama di-refine dengan Newton yang dijaga bisection. Tidak ada alokasi:
+ * hasil ditulis ke array milik pemanggil.
+ */
+final class Polynomials {
+    
+    private static final double EPSILON = 1e-14;
+    private static final double TOLERANCE = 1e-12;
+    private static final int MAX_ITERATIONS = 64;
+    
+    private Polynomials() {
+    }
+    
+    /**
+     * Real roots a*t^2 + b*t + c = 0 ke out (ascending). Return jumlah root
+     */
+    static int solveQuadratic(double a, double b, double c, double[] out) {
+        if (Math.abs(a) < EPSILON) {
+            if (Math.abs(b) < EPSILON) return 0;
+            out[0] = -c / b;
+            return 1;
+        }
+        double disc = b * b - 4 * a * c;
+        if (disc < 0) return 0;
+        // Bentuk stabil (tanpa cancellation)
+        double q = -0.5 * (b + Math.copySign(Math.sqrt(disc), b));
+        double r0 = q / a;
+        double r1 = q != 0 ? c / q : r0;
+        out[0] = Math.min(r0, r1);
+        out[1] = Math.max(r0, r1);
+        return disc == 0 ? 1 : 2;
+    }
+    
+    /**
+     * Real roots a*t^3 + b*t^2 + c*t + d = 0 ke out (tidak terurut). Return jumlah root
+     */
+    static int solveCubic(double a, double b, double c, double d, double[] out) {
+        if (Math.abs(a) < EPSILON) {
+            return solveQuadratic(b, c, d, out);
+        }
+        double p = b / a;
+        double q = c / a;
+        double r = d / a;
+        double shift = -p / 3;
+        
+        double Q = (3 * q - p * p) / 9;
+        double R = (9 * p * q - 27 * r - 2 * p * p * p) / 54;
+        double disc = Q * Q * Q + R * R;
+        
+        if (disc > 0) {
+            double sqrtDisc = Math.sqrt(disc);
+            out[0] = shift + Math.cbrt(R + sqrtDisc) + Math.cbrt(R - sqrtDisc);
+            return 1;
+        }
+        if (Q == 0) {
+            out[0] = shift;
+            return 1;
+        }
+        // Tiga real roots (trigonometric form)
+        double cos = Math.max(-1, Math.min(1, R / Math.sqrt(-Q * Q * Q)));
+        double theta = Math.acos(cos);
+        double m = 2 * Math.sqrt(-Q);
+        out[0] = shift + m * Math.cos(theta / 3);
+        out[1] = shift + m * Math.cos((theta + 2 * Math.PI) / 3);
+        out[2] = shift + m * Math.cos((theta + 4 * Math.PI) / 3);
+        return 3;
+    }
+    
+    static double evaluate(double c4, double c3, double c2, double c1, double c0, double t) {
+        return (((c4 * t + c3) * t + c2) * t + c1) * t + c0;
+    }
+    
+    static double derivative(double c4, double c3, double c2, double c1, double t) {
+        return ((4 * c4 * t + 3 * c3) * t + 2 * c2) * t + c1;
+    }
+    
+    /**
+     * Root pertama di [lo, hi] dimana quartic masuk dari positif ke <= 0 (mulai kontak).
+     * Jika f(lo) <= 0 dan sedang turun, lo dikembalikan. NaN jika tidak ada.
+     * scratch minimal 3 elemen
+     */
+    static double firstEnteringRoot(double c4, double c3, double c2, double c1, double c0,
+                                    double lo, double hi, double[] scratch) {
+        double fLo = evaluate(c4, c3, c2, c1, c0, lo);
+        if (fLo <= 0 && derivative(c4, c3, c2, c1, lo) < 0) return lo;
+        
+        // Critical points membagi [lo, hi] menjadi interval monoton
+        int count = solveCubic(4 * c4, 3 * c3, 2 * c2, c1, scratch);
+        int inside = 0;
+        for (int i = 0; i < count; i++) {
+            double t = scratch[i];
+            if (t > lo && t < hi) scratch[inside++] = t;
+        }
+        // Insertion sort (maks 3 elemen)
+        for (int i = 1; i < inside; i++) {
+            double t = scratch[i];
+            int j = i - 1;
+            while (j >= 0 && scratch[j] > t) {
+                scratch[j + 1] = scratch[j];
+                j--;
+            }
+            scratch[j + 1] = t;
+        }
+        
+        double a = lo;
+        double fa = fLo;
+        for (int i = 0; i <= inside; i++) {
+            double b = i < inside ? scratch[i] : hi;
+            double fb = evaluate(c4, c3, c2, c1, c0, b);
+            if (fa > 0 && fb <= 0) {
+                return refine(c4, c3, c2, c1, c0, a, b);
+            }
+            a = b;
+            fa = fb;
+        }
+        return Double.NaN;
+    }
+    
+    /**
+     * Refine root di interval monoton turun [a, b] dengan f(a) > 0 >= f(b)
+     */
+    private static double refine(double c4, double c3, double c2, double c1, double c0, double a, double b) {
+        double t = b;
+        for (int i = 0; i < MAX_ITERATIONS && b - a > TOLERANCE; i++) {
+            double f = evaluate(c4, c3, c2, c1, c0, t);
+            if (f > 0) {
+                a = t;
+            } else {
+                b = t;
+            }
+            double df = derivative(c4, c3, c2, c1, t);
+            double next = df != 0 ? t - f / df : Double.NaN;
+            // Newton hanya dipakai jika tetap di dalam bracket
+            t = (next > a && next < b) ? next : 0.5 * (a + b);
+        }
+        // Sisi b selalu f <= 0: dijamin sudah kontak, tidak pernah sebelum
+        return b;
+    }
+}
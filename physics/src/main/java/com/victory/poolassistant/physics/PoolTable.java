@@ -0,0 +1,206 @@
+package com.victory.poolassistant.physics;
+
+/**
+ * Immutable pool table geometry dan material constants
+ * Koordinat dalam meter di bidang permainan: x sepanjang sisi panjang (0..length),
+ * y sepanjang sisi pendek (0..width), origin di pojok kiri atas (sama seperti layar).
+ * Cushion adalah garis x = 0, x = length, y = 0, y = width; pocket berupa lingkaran
+ * capture di 4 pojok dan 2 tengah sisi panjang.
+ */
+public final class PoolTable {
+    
+    public static final double GRAVITY = 9.81;
+    public static final int POCKET_COUNT = 6;
+    public static final double STANDARD_BALL_RADIUS = 0.028575;
+    
+    private final double length;
+    private final double width;
+    private final double ballRadius;
+    private final double pocketRadius;
+    private final double ballRestitution;
+    private final double cushionRestitution;
+    private final double rollingFriction;
+    private final double slidingFriction;
+    private final double spinningFriction;
+    
+    // Pocket centers (x0, y0, x1, y1, ...)
+    private final double[] pockets;
+    
+    private PoolTable(Builder builder) {
+        this.length = builder.length;
+        this.width = builder.width;
+        this.ballRadius = builder.ballRadius;
+        this.pocketRadius = builder.pocketRadius;
+        this.ballRestitution = builder.ballRestitution;
+        this.cushionRestitution = builder.cushionRestitution;
+        this.rollingFriction = builder.rollingFriction;
+        this.slidingFriction = builder.slidingFriction;
+        this.spinningFriction = builder.spinningFriction;
+        this.pockets = new double[] {
+            0, 0, length / 2, 0, length, 0,
+            0, width, length / 2, width, length, width
+        };
+    }
+    
+    /**
+     * Meja 9-foot standar (WPA): playing surface 2.54 x 1.27 m, bola 57.15 mm
+     */
+    public static PoolTable standard() {
+        return new Builder().build();
+    }
+    
+    public double getLength() {
+        return length;
+    }
+    
+    public double getWidth() {
+        return width;
+    }
+    
+    public double getBallRadius() {
+        return ballRadius;
+    }
+    
+    /**
+     * Radius capture di sekitar pocket center (bola masuk jika center-nya di dalam)
+     */
+    public double getPocketRadius() {
+        return pocketRadius;
+    }
+    
+    public double getBallRestitution() {
+        return ballRestitution;
+    }
+    
+    public double getCushionRestitution() {
+        return cushionRestitution;
+    }
+    
+    /**
+     * Koefisien rolling resistance (deselerasi = mu * g)
+     */
+    public double getRollingFriction() {
+        return rollingFriction;
+    }
+    
+    public double getRollingDeceleration() {
+        return rollingFriction * GRAVITY;
+    }
+    
+    /**
+     * Koefisien gesek cloth saat bola sliding (contact point slip)
+     */
+    public double getSlidingFriction() {
+        return slidingFriction;
+    }
+    
+    /**
+     * Koefisien gesek untuk side spin (spin sumbu vertikal)
+     */
+    public double getSpinningFriction() {
+        return spinningFriction;
+    }
+    
+    public double getPocketX(int pocket) {
+        return pockets[pocket * 2];
+    }
+    
+    public double getPocketY(int pocket) {
+        return pockets[pocket * 2 + 1];
+    }
+    
+    /**
+     * Check apakah titik (center bola) masuk capture radius salah satu pocket.
+     * Return index pocket atau -1
+     */
+    public int pocketAt(double x, double y) {
+        double r2 = pocketRadius * pocketRadius;
+        for (int p = 0; p < POCKET_COUNT; p++) {
+            double dx = x - pockets[p * 2];
+            double dy = y - pockets[p * 2 + 1];
+            if (dx * dx + dy * dy <= r2) return p;
+        }
+        return -1;
+    }
+    
+    public Builder toBuilder() {
+        return new Builder()
+            .setSize(length, width)
+            .setBallRadius(ballRadius)
+            .setPocketRadius(pocketRadius)
+            .setBallRestitution(ballRestitution)
+            .setCushionRestitution(cushionRestitution)
+            .setRollingFriction(rollingFriction)
+            .setSlidingFriction(slidingFriction)
+            .setSpinningFriction(spinningFriction);
+    }
+    
+    /**
+     * Builder untuk PoolTable (default = meja 9-foot)
+     */
+    public static final class Builder {
+        private double length = 2.54;
+        private double width = 1.27;
+        private double ballRadius = STANDARD_BALL_RADIUS;
+        private double pocketRadius = 0.06;
+        private double ballRestitution = 0.95;
+        private double cushionRestitution = 0.75;
+        private double rollingFriction = 0.01;
+        private double slidingFriction = 0.2;
+        private double spinningFriction = 0.044;
+        
+        public Builder setSize(double length, double width) {
+            this.length = length;
+            this.width = width;
+            return this;
+        }
+        
+        public Builder setBallRadius(double ballRadius) {
+            this.ballRadius = ballRadius;
+            return this;
+        }
+        
+        public Builder setPocketRadius(double pocketRadius) {
+            this.pocketRadius = pocketRadius;
+            return this;
+        }
+        
+        public Builder setBallRestitution(double ballRestitution) {
+            this.ballRestitution = ballRestitution;
+            return this;
+        }
+        
+        public Builder setCushionRestitution(double cushionRestitution) {
+            this.cushionRestitution = cushionRestitution;
+            return this;
+        }
+        
+        public Builder setRollingFriction(double rollingFriction) {
+            this.rollingFriction = rollingFriction;
+            return this;
+        }
+        
+        public Builder setSlidingFriction(double slidingFriction) {
+            this.slidingFriction = slidingFriction;
+            return this;
+        }
+        
+        public Builder setSpinningFriction(double spinningFriction) {
+            this.spinningFriction = spinningFriction;
+            return this;
+        }
+        
+        public PoolTable build() {
+            if (length <= 0 || width <= 0 || ballRadius <= 0) {
+                throw new IllegalArgumentException("Invalid table geometry");
+            }
+            if (ballRadius * 2 >= width) {
+                throw new IllegalArgumentException("Ball does not fit on table");
+            }
+            if (rollingFriction <= 0 || slidingFriction <= 0 || spinningFriction <= 0) {
+                throw new IllegalArgumentException("Friction must be positive");
+            }
+            return new PoolTable(this);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.victory.poolassistant.physics;
+
+/**
+ * Pool simulation di atas BallSet
+ * Tidak ada fixed timestep: EventSolver memprediksi event berikutnya secara analitik
+ * (kontak bola-bola, cushion, pocket, sliding -> rolling, bola berhenti) dan melompat
+ * langsung ke sana. Gerak antar event closed-form di BallMotion, termasuk spin.
+ * Semua state ada di BallSet dan primitive arrays solver; run tidak mengalokasikan
+ * sehingga aman dipanggil setiap frame untuk prediksi shot.
+ */
+public final class Simulation {
+    
+    private final PoolTable table;
+    private final BallSet balls;
+    private final EventSolver solver;
+    
+    public Simulation(PoolTable table, BallSet balls) {
+        this.table = table;
+        this.balls = balls;
+        this.solver = new EventSolver(table, balls);
+    }
+    
+    public PoolTable getTable() {
+        return table;
+    }
+    
+    public BallSet getBalls() {
+        return balls;
+    }
+    
+    public void setListener(EventSolver.Listener listener) {
+        solver.setListener(listener);
+    }
+    
+    /**
+     * Toggle grid broadphase (off = brute force all-pairs, untuk perbandingan)
+     */
+    public void setBroadphaseEnabled(boolean enabled) {
+        solver.setBroadphaseEnabled(enabled);
+    }
+    
+    /**
+     * Pukul bola ke arah angle (radian, 0 = +x) dengan speed (m/s), langsung natural roll
+     */
+    public void strike(int ball, double angle, double speed) {
+        strike(ball, angle, speed, 1, 0);
+    }
+    
+    /**
+     * Pukul bola dengan spin. follow: 1 = natural roll, 0 = stun (tanpa spin),
+     * negatif = draw. english: side spin sebagai fraksi speed / R (positif = CCW dari atas)
+     */
+    public void strike(int ball, double angle, double speed, double follow, double english) {
+        double r = table.getBallRadius();
+        double vx = Math.cos(angle) * speed;
+        double vy = Math.sin(angle) * speed;
+        // Topspin: R wy = follow * vx, R wx = -follow * vy (follow = 1 tepat rolling)
+        balls.setMotion(ball, vx, vy, -follow * vy / r, follow * vx / r, english * speed / r);
+        solver.start();
+    }
+    
+    /**
+     * Prediksi ulang setelah BallSet diubah langsung (place/remove/setVelocity)
+     */
+    public void restart() {
+        solver.start();
+    }
+    
+    /**
+     * Jalankan sampai semua bola berhenti atau maxTime (detik). Return waktu simulasi
+     */
+    public double run(double maxTime) {
+        return solver.run(maxTime);
+    }
+    
+    /**
+     * Maju ke waktu simulasi absolut (animasi practice mode)
+     */
+    public void advanceTo(double time) {
+        solver.advanceTo(time);
+    }
+    
+    /**
+     * Waktu simulasi sejak dibuat (detik)
+     */
+    public double getTime() {
+        return solver.getTime();
+    }
+    
+    public long getEventsProcessed() {
+        return solver.getEventsProcessed();
+    }
+    
+    /**
+     * Get solver stats
+     */
+    public String getInfo() {
+        return "Events: " + solver.getEventsProcessed() + " (" + solver.getEventsStale() + " stale), " +
+            "predictions: " + solver.getPredictions() + ", pair tests: " + solver.getPairTests() +
+            " (" + solver.getPairsCulled() + " culled), queue capacity: " + solver.getQueueCapacity();
+    }
+}
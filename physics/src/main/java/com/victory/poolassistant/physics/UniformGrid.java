@@ -0,0 +1,124 @@
+package com.victory.poolassistant.physics;
+
+import java.util.Arrays;
+
+/**
+ * Uniform spatial grid di atas koordinat meja untuk broadphase bola-bola
+ * Setiap bola disimpan di semua cell yang disentuh bounding box lintasannya
+ * (swept circle sampai event berikutnya). Bucket per cell adalah slice tetap
+ * dari satu int[] (kapasitas MAX_BALLS), jadi insert/remove/query tanpa alokasi.
+ */
+final class UniformGrid {
+    
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    
+    // Bucket cell c = cells[c * MAX_BALLS .. + cellCounts[c])
+    private final int[] cells;
+    private final int[] cellCounts;
+    
+    // Cell range per bola (minCol, minRow, maxCol, maxRow); minCol = -1 jika tidak ada
+    private final int[] ranges = new int[BallSet.MAX_BALLS * 4];
+    
+    // Dedup query tanpa clear per query
+    private final int[] marks = new int[BallSet.MAX_BALLS];
+    private int markStamp = 0;
+    
+    UniformGrid(double width, double height, int columns) {
+        this.columns = columns;
+        this.cellSize = width / columns;
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = new int[columns * rows * BallSet.MAX_BALLS];
+        this.cellCounts = new int[columns * rows];
+        clear();
+    }
+    
+    void clear() {
+        Arrays.fill(cellCounts, 0);
+        for (int ball = 0; ball < BallSet.MAX_BALLS; ball++) {
+            ranges[ball * 4] = -1;
+        }
+    }
+    
+    private int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) (x / cellSize)));
+    }
+    
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) (y / cellSize)));
+    }
+    
+    /**
+     * Simpan (atau pindahkan) bola ke cell yang overlap dengan box
+     */
+    void insert(int ball, double minX, double minY, double maxX, double maxY) {
+        remove(ball);
+        int minCol = column(minX);
+        int minRow = row(minY);
+        int maxCol = column(maxX);
+        int maxRow = row(maxY);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * columns + c;
+                cells[cell * BallSet.MAX_BALLS + cellCounts[cell]++] = ball;
+            }
+        }
+        int base = ball * 4;
+        ranges[base] = minCol;
+        ranges[base + 1] = minRow;
+        ranges[base + 2] = maxCol;
+        ranges[base + 3] = maxRow;
+    }
+    
+    void remove(int ball) {
+        int base = ball * 4;
+        int minCol = ranges[base];
+        if (minCol < 0) return;
+        for (int r = ranges[base + 1]; r <= ranges[base + 3]; r++) {
+            for (int c = minCol; c <= ranges[base + 2]; c++) {
+                int cell = r * columns + c;
+                int start = cell * BallSet.MAX_BALLS;
+                int count = cellCounts[cell];
+                for (int k = 0; k < count; k++) {
+                    if (cells[start + k] == ball) {
+                        // Swap-remove, urutan bucket tidak penting
+                        cells[start + k] = cells[start + count - 1];
+                        cellCounts[cell] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+        ranges[base] = -1;
+    }
+    
+    /**
+     * Tulis bola lain yang berbagi cell dengan box ke out (unik). Return jumlahnya
+     */
+    int query(int ball, double minX, double minY, double maxX, double maxY, int[] out) {
+        if (++markStamp == 0) {
+            Arrays.fill(marks, 0);
+            markStamp = 1;
+        }
+        int found = 0;
+        int minCol = column(minX);
+        int maxCol = column(maxX);
+        int maxRow = row(maxY);
+        for (int r = row(minY); r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * columns + c;
+                int start = cell * BallSet.MAX_BALLS;
+                int count = cellCounts[cell];
+                for (int k = 0; k < count; k++) {
+                    int other = cells[start + k];
+                    if (other != ball && marks[other] != markStamp) {
+                        marks[other] = markStamp;
+                        out[found++] = other;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,89 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class BallMotionTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final PoolTable table = PoolTable.standard();
+    private final double slidingDeceleration = table.getSlidingFriction() * PoolTable.GRAVITY;
+    private final double rollingDeceleration = table.getRollingDeceleration();
+
+    private BallSet stunShot(double speed) {
+        BallSet balls = new BallSet(table.getBallRadius());
+        balls.place(0, 1.0, 0.6);
+        balls.setMotion(0, speed, 0, 0, 0, 0);
+        return balls;
+    }
+
+    @Test
+    public void stunShotSlidesThenRolls() {
+        double speed = 0.3;
+        BallSet balls = stunShot(speed);
+        assertEquals(BallSet.STATE_SLIDING, balls.getState(0));
+
+        // Slip berkurang 7/2 mu_s g: sliding selesai di 2 v / (7 mu_s g)
+        double slide = 2 * speed / (7 * slidingDeceleration);
+        assertEquals(slide, BallMotion.slideDuration(table, balls, 0), DELTA);
+        assertEquals(slide, BallMotion.phaseDuration(table, balls, 0), DELTA);
+
+        BallMotion.advance(table, balls, 0, slide);
+        BallMotion.endPhase(balls, 0);
+        assertEquals(BallSet.STATE_ROLLING, balls.getState(0));
+        // Stun shot mulai rolling di 5/7 speed awal
+        assertEquals(5.0 / 7 * speed, balls.getVelocityX(0), DELTA);
+        assertEquals(balls.getVelocityX(0) / table.getBallRadius(), balls.getSpinY(0), DELTA);
+        assertEquals(1.0 + speed * slide - 0.5 * slidingDeceleration * slide * slide, balls.getX(0), DELTA);
+
+        double roll = 5.0 / 7 * speed / rollingDeceleration;
+        assertEquals(roll, BallMotion.rollDuration(table, balls, 0), DELTA);
+    }
+
+    @Test
+    public void evolveCrossesBothTransitions() {
+        double speed = 0.3;
+        BallSet balls = stunShot(speed);
+        double slide = 2 * speed / (7 * slidingDeceleration);
+        double rollSpeed = 5.0 / 7 * speed;
+        double roll = rollSpeed / rollingDeceleration;
+        double distance = speed * slide - 0.5 * slidingDeceleration * slide * slide
+            + rollSpeed * rollSpeed / (2 * rollingDeceleration);
+
+        BallMotion.evolve(table, balls, 0, slide + roll + 1);
+        assertEquals(BallSet.STATE_REST, balls.getState(0));
+        assertEquals(1.0 + distance, balls.getX(0), DELTA);
+        assertEquals(0.6, balls.getY(0), 0);
+        assertEquals(0, balls.getVelocityX(0), 0);
+    }
+
+    @Test
+    public void naturalRollHasNoSlidingPhase() {
+        BallSet balls = new BallSet(table.getBallRadius());
+        balls.place(0, 1.0, 0.6);
+        double speed = 0.5;
+        balls.setMotion(0, 0, speed, -speed / table.getBallRadius(), 0, 0);
+        assertEquals(BallSet.STATE_ROLLING, balls.getState(0));
+        assertEquals(speed / rollingDeceleration, BallMotion.phaseDuration(table, balls, 0), DELTA);
+    }
+
+    @Test
+    public void sideSpinDecaysIndependently() {
+        BallSet balls = new BallSet(table.getBallRadius());
+        balls.place(0, 1.0, 0.6);
+        balls.setMotion(0, 0, 0, 0, 0, 20);
+        assertEquals(BallSet.STATE_REST, balls.getState(0));
+
+        double duration = BallMotion.spinDuration(table, balls, 0);
+        double deceleration = 2.5 * table.getSpinningFriction() * PoolTable.GRAVITY / table.getBallRadius();
+        assertEquals(20 / deceleration, duration, DELTA);
+
+        BallMotion.evolve(table, balls, 0, duration / 2);
+        assertEquals(10, balls.getSpinZ(0), DELTA);
+        BallMotion.evolve(table, balls, 0, duration);
+        assertEquals(0, balls.getSpinZ(0), 0);
+        assertEquals(1.0, balls.getX(0), 0);
+    }
+}
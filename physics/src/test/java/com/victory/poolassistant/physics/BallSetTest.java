@@ -0,0 +1,74 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BallSetTest {
+
+    @Test
+    public void placeAndRemoveTrackCount() {
+        BallSet balls = new BallSet();
+        balls.place(0, 0.5, 0.5);
+        balls.place(3, 1.0, 0.5);
+        assertEquals(4, balls.getCount());
+        assertEquals(BallSet.STATE_EMPTY, balls.getState(1));
+
+        balls.remove(3);
+        assertEquals(1, balls.getCount());
+        balls.remove(0);
+        assertEquals(0, balls.getCount());
+    }
+
+    @Test
+    public void motionSetsSlidingOrRollingState() {
+        BallSet balls = new BallSet();
+        double r = balls.getRadius();
+        balls.place(0, 0.5, 0.5);
+        balls.setVelocity(0, 1, 0);
+        assertEquals(BallSet.STATE_SLIDING, balls.getState(0));
+        assertTrue(balls.anyMoving());
+
+        // Spin yang cocok dengan velocity = rolling tanpa slip
+        balls.setMotion(0, 1, 0, 0, 1 / r, 0);
+        assertEquals(BallSet.STATE_ROLLING, balls.getState(0));
+
+        balls.setMotion(0, 0, 0, 0, 0, 5);
+        assertEquals(BallSet.STATE_REST, balls.getState(0));
+        assertEquals(5, balls.getSpinZ(0), 0);
+        assertTrue(!balls.anyMoving());
+    }
+
+    @Test
+    public void velocityIgnoredOffTable() {
+        BallSet balls = new BallSet();
+        balls.place(0, 0.5, 0.5);
+        balls.pocket(0);
+        balls.setVelocity(0, 1, 0);
+        assertEquals(BallSet.STATE_POCKETED, balls.getState(0));
+        assertEquals(0, balls.getVelocityX(0), 0);
+    }
+
+    @Test
+    public void copyFromCopiesAllSlots() {
+        BallSet source = new BallSet();
+        source.place(0, 0.5, 0.6);
+        source.place(2, 1.5, 0.7);
+        source.setVelocity(2, -1, 0.5);
+
+        BallSet copy = new BallSet();
+        copy.place(5, 2.0, 1.0);
+        copy.copyFrom(source);
+        assertEquals(3, copy.getCount());
+        assertEquals(0.6, copy.getY(0), 0);
+        assertEquals(-1, copy.getVelocityX(2), 0);
+        assertEquals(BallSet.STATE_SLIDING, copy.getState(2));
+        assertEquals(BallSet.STATE_EMPTY, copy.getState(5));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndexOutOfRange() {
+        new BallSet().place(BallSet.MAX_BALLS, 0, 0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class EventQueueTest {
+
+    @Test
+    public void popsInTimeOrder() {
+        EventQueue queue = new EventQueue(4);
+        Random random = new Random(42);
+        double[] times = new double[100];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = random.nextDouble() * 10;
+            queue.push(times[i], EventQueue.pack(EventSolver.EVENT_REST, i % BallSet.MAX_BALLS, 0), i);
+        }
+        assertEquals(times.length, queue.size());
+        assertTrue(queue.capacity() >= times.length);
+
+        Arrays.sort(times);
+        for (double expected : times) {
+            assertEquals(expected, queue.peekTime(), 0);
+            queue.removeTop();
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void entryKeepsInfoAndStamp() {
+        EventQueue queue = new EventQueue(2);
+        queue.push(2.0, EventQueue.pack(EventSolver.EVENT_CUSHION, 3, EventSolver.CUSHION_TOP), EventQueue.stamp(7, 0));
+        queue.push(1.0, EventQueue.pack(EventSolver.EVENT_BALL, 1, 15), EventQueue.stamp(5, 9));
+
+        int info = queue.peekInfo();
+        long stamp = queue.peekStamp();
+        assertEquals(EventSolver.EVENT_BALL, EventQueue.type(info));
+        assertEquals(1, EventQueue.ball(info));
+        assertEquals(15, EventQueue.other(info));
+        assertEquals(5, EventQueue.versionA(stamp));
+        assertEquals(9, EventQueue.versionB(stamp));
+
+        queue.removeTop();
+        info = queue.peekInfo();
+        assertEquals(EventSolver.EVENT_CUSHION, EventQueue.type(info));
+        assertEquals(3, EventQueue.ball(info));
+        assertEquals(EventSolver.CUSHION_TOP, EventQueue.other(info));
+        assertEquals(7, EventQueue.versionA(queue.peekStamp()));
+    }
+
+    @Test
+    public void stampSurvivesVersionOverflow() {
+        long stamp = EventQueue.stamp(Integer.MIN_VALUE, -1);
+        assertEquals(Integer.MIN_VALUE, EventQueue.versionA(stamp));
+        assertEquals(-1, EventQueue.versionB(stamp));
+
+        stamp = EventQueue.stamp(-3, Integer.MAX_VALUE);
+        assertEquals(-3, EventQueue.versionA(stamp));
+        assertEquals(Integer.MAX_VALUE, EventQueue.versionB(stamp));
+    }
+
+    @Test
+    public void clearKeepsCapacity() {
+        EventQueue queue = new EventQueue(2);
+        for (int i = 0; i < 10; i++) {
+            queue.push(i, 0, 0);
+        }
+        int capacity = queue.capacity();
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(capacity, queue.capacity());
+    }
+}
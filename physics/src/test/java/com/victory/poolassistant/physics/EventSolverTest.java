@@ -0,0 +1,222 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class EventSolverTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final PoolTable table = PoolTable.standard();
+    private final double r = table.getBallRadius();
+
+    /**
+     * Event yang direkam listener
+     */
+    private static final class Recorded {
+        final int type;
+        final int ball;
+        final int other;
+        final double time;
+
+        Recorded(int type, int ball, int other, double time) {
+            this.type = type;
+            this.ball = ball;
+            this.other = other;
+            this.time = time;
+        }
+    }
+
+    private static List<Recorded> record(EventSolver solver) {
+        List<Recorded> events = new ArrayList<>();
+        solver.setListener((type, ball, other, time) -> events.add(new Recorded(type, ball, other, time)));
+        return events;
+    }
+
+    private static Recorded first(List<Recorded> events, int type) {
+        for (Recorded event : events) {
+            if (event.type == type) return event;
+        }
+        throw new AssertionError("No event of type " + type);
+    }
+
+    /**
+     * Waktu menempuh distance dengan deselerasi konstan dari speed
+     */
+    private static double timeToTravel(double distance, double speed, double deceleration) {
+        return (speed - Math.sqrt(speed * speed - 2 * deceleration * distance)) / deceleration;
+    }
+
+    private BallSet headOn() {
+        BallSet balls = new BallSet(r);
+        balls.place(0, 0.5, 0.635);
+        balls.place(1, 1.0, 0.635);
+        return balls;
+    }
+
+    @Test
+    public void rollingContactTime() {
+        BallSet balls = headOn();
+        EventSolver solver = new EventSolver(table, balls);
+        List<Recorded> events = record(solver);
+        double speed = 2;
+        balls.setMotion(0, speed, 0, 0, speed / r, 0);
+        solver.start();
+        solver.run(1);
+
+        Recorded contact = first(events, EventSolver.EVENT_BALL);
+        assertEquals(0, contact.ball);
+        assertEquals(1, contact.other);
+        assertEquals(timeToTravel(0.5 - 2 * r, speed, table.getRollingDeceleration()), contact.time, DELTA);
+    }
+
+    @Test
+    public void slidingContactTime() {
+        BallSet balls = headOn();
+        EventSolver solver = new EventSolver(table, balls);
+        List<Recorded> events = record(solver);
+        double speed = 2;
+        // Stun: kontak terjadi sebelum slip habis, jadi masih di fase sliding
+        balls.setMotion(0, speed, 0, 0, 0, 0);
+        solver.start();
+        solver.run(1);
+
+        double deceleration = table.getSlidingFriction() * PoolTable.GRAVITY;
+        double expected = timeToTravel(0.5 - 2 * r, speed, deceleration);
+        assertTrue(expected < 2 * speed / (7 * deceleration));
+        Recorded contact = first(events, EventSolver.EVENT_BALL);
+        assertEquals(expected, contact.time, DELTA);
+        assertEquals(EventSolver.EVENT_BALL, events.get(0).type);
+    }
+
+    @Test
+    public void slidingRollingRestTransitionTimes() {
+        BallSet balls = new BallSet(r);
+        balls.place(0, 1.27, 0.635);
+        EventSolver solver = new EventSolver(table, balls);
+        List<Recorded> events = record(solver);
+        double speed = 0.3;
+        balls.setMotion(0, speed, 0, 0, 0, 0);
+        solver.start();
+        solver.run(10);
+
+        double slide = 2 * speed / (7 * table.getSlidingFriction() * PoolTable.GRAVITY);
+        double roll = 5.0 / 7 * speed / table.getRollingDeceleration();
+        assertEquals(2, events.size());
+        assertEquals(EventSolver.EVENT_TRANSITION, events.get(0).type);
+        assertEquals(slide, events.get(0).time, DELTA);
+        assertEquals(EventSolver.EVENT_REST, events.get(1).type);
+        assertEquals(slide + roll, events.get(1).time, DELTA);
+        assertEquals(BallSet.STATE_REST, balls.getState(0));
+    }
+
+    @Test
+    public void cushionTimeAndReflection() {
+        BallSet balls = new BallSet(r);
+        double startX = table.getLength() - r - 0.2;
+        balls.place(0, startX, 0.635);
+        EventSolver solver = new EventSolver(table, balls);
+        List<Recorded> events = record(solver);
+        double speed = 1;
+        balls.setMotion(0, speed, 0, 0, speed / r, 0);
+        solver.start();
+        solver.run(0.5);
+
+        Recorded cushion = first(events, EventSolver.EVENT_CUSHION);
+        assertEquals(EventSolver.CUSHION_RIGHT, cushion.other);
+        assertEquals(timeToTravel(0.2, speed, table.getRollingDeceleration()), cushion.time, DELTA);
+        assertTrue(balls.getVelocityX(0) < 0);
+    }
+
+    @Test
+    public void advanceToSyncsRollingBall() {
+        BallSet balls = new BallSet(r);
+        balls.place(0, 1.0, 0.635);
+        EventSolver solver = new EventSolver(table, balls);
+        double speed = 0.5;
+        balls.setMotion(0, speed, 0, 0, speed / r, 0);
+        solver.start();
+        solver.advanceTo(0.5);
+
+        double deceleration = table.getRollingDeceleration();
+        assertEquals(0.5, solver.getTime(), DELTA);
+        assertEquals(1.0 + speed * 0.5 - 0.5 * deceleration * 0.25, balls.getX(0), DELTA);
+        assertEquals(speed - deceleration * 0.5, balls.getVelocityX(0), DELTA);
+        assertEquals(BallSet.STATE_ROLLING, balls.getState(0));
+    }
+
+    @Test
+    public void staleEventsAreDropped() {
+        BallSet balls = headOn();
+        EventSolver solver = new EventSolver(table, balls);
+        List<Recorded> events = record(solver);
+        balls.setMotion(0, 2, 0, 0, 2 / r, 0);
+        solver.start();
+        solver.run(30);
+
+        // REST cue ball yang diprediksi di start() basi setelah tumbukan
+        assertTrue(solver.getEventsStale() > 0);
+        assertEquals(solver.getEventsProcessed(), events.size());
+        for (int k = 1; k < events.size(); k++) {
+            assertTrue(events.get(k).time >= events.get(k - 1).time);
+        }
+        assertTrue(!balls.anyMoving());
+    }
+
+    /**
+     * Rack 15 bola di foot spot, cue ball di head string
+     */
+    private BallSet rack() {
+        BallSet balls = new BallSet(r);
+        balls.place(0, table.getLength() / 4, table.getWidth() / 2 + 0.01);
+        double spacing = 2 * r + 1e-4;
+        int ball = 1;
+        for (int row = 0; row < 5; row++) {
+            for (int k = 0; k <= row; k++) {
+                double x = table.getLength() * 0.75 + row * spacing * Math.sqrt(3) / 2;
+                double y = table.getWidth() / 2 + (k - row / 2.0) * spacing;
+                balls.place(ball++, x, y);
+            }
+        }
+        return balls;
+    }
+
+    @Test
+    public void broadphaseMatchesBruteForce() {
+        BallSet bruteBalls = rack();
+        BallSet gridBalls = rack();
+        EventSolver brute = new EventSolver(table, bruteBalls);
+        EventSolver grid = new EventSolver(table, gridBalls);
+        brute.setBroadphaseEnabled(false);
+        List<Recorded> bruteEvents = record(brute);
+        List<Recorded> gridEvents = record(grid);
+
+        bruteBalls.setMotion(0, 6, 0.05, 0, 0, 0);
+        gridBalls.setMotion(0, 6, 0.05, 0, 0, 0);
+        brute.start();
+        grid.start();
+        brute.run(0.5);
+        grid.run(0.5);
+
+        assertTrue(grid.getPairTests() < brute.getPairTests());
+        assertEquals(bruteEvents.size(), gridEvents.size());
+        for (int k = 0; k < bruteEvents.size(); k++) {
+            Recorded a = bruteEvents.get(k);
+            Recorded b = gridEvents.get(k);
+            assertEquals("event " + k, a.type, b.type);
+            assertEquals("event " + k, a.ball, b.ball);
+            assertEquals("event " + k, a.other, b.other);
+            assertEquals("event " + k, a.time, b.time, 1e-9);
+        }
+        for (int i = 0; i < bruteBalls.getCount(); i++) {
+            assertEquals(bruteBalls.getState(i), gridBalls.getState(i));
+            assertEquals(bruteBalls.getX(i), gridBalls.getX(i), 1e-9);
+            assertEquals(bruteBalls.getY(i), gridBalls.getY(i), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class MirrorTableTest {
+
+    private static final double DELTA = 1e-4;
+
+    // Meja 4 x 2 tanpa radius bola: garis cushion = rectangle center bola
+    private final MirrorTable table = new MirrorTable(0, 0, 4, 2, 0, 0.1);
+    private final PolylineBuffer buffer = new PolylineBuffer(1);
+
+    private void assertSegment(int segment, double x0, double y0, double x1, double y1) {
+        float[] points = buffer.getPoints();
+        int base = segment * 4;
+        assertEquals(x0, points[base], DELTA);
+        assertEquals(y0, points[base + 1], DELTA);
+        assertEquals(x1, points[base + 2], DELTA);
+        assertEquals(y1, points[base + 3], DELTA);
+    }
+
+    @Test
+    public void straightIntoSidePocket() {
+        // Garis ke tengah sisi panjang bawah (pocket 4)
+        assertEquals(4, table.trace(1, 1, 1, 1, Double.POSITIVE_INFINITY, 5, buffer));
+        assertEquals(1, buffer.getSegmentCount());
+        assertSegment(0, 1, 1, 2, 2);
+    }
+
+    @Test
+    public void straightIntoCornerPocket() {
+        assertEquals(5, table.trace(3, 1, 1, 1, Double.POSITIVE_INFINITY, 5, buffer));
+        assertSegment(0, 3, 1, 4, 2);
+        assertEquals(0, table.trace(1, 1, -1, -1, Double.POSITIVE_INFINITY, 5, buffer));
+    }
+
+    @Test
+    public void bounceLimitStopsAtCushion() {
+        assertEquals(-1, table.trace(1, 1, 1, 0, Double.POSITIVE_INFINITY, 1, buffer));
+        assertEquals(2, buffer.getSegmentCount());
+        assertSegment(0, 1, 1, 4, 1);
+        assertSegment(1, 4, 1, 0, 1);
+    }
+
+    @Test
+    public void maxLengthEndsInsideMirroredCell() {
+        // 3 ke cushion kanan, 2 kembali
+        assertEquals(-1, table.trace(1, 1, 1, 0, 5, 10, buffer));
+        assertEquals(2, buffer.getSegmentCount());
+        assertSegment(1, 4, 1, 2, 1);
+    }
+
+    @Test
+    public void unfoldingMatchesNaiveReflection() {
+        // Pocket sangat kecil supaya semua bounce memantul
+        MirrorTable rails = new MirrorTable(0, 0, 4, 2, 0, 1e-6);
+        double x = 0.7;
+        double y = 0.3;
+        double dx = Math.cos(0.37);
+        double dy = Math.sin(0.37);
+        int bounces = 12;
+        assertEquals(-1, rails.trace(x, y, dx, dy, Double.POSITIVE_INFINITY, bounces, buffer));
+        assertEquals(bounces + 1, buffer.getSegmentCount());
+
+        // Pantulan satu per satu: cushion terdekat, balik komponen arah
+        for (int segment = 0; segment <= bounces; segment++) {
+            double tx = dx > 0 ? (4 - x) / dx : (dx < 0 ? -x / dx : Double.POSITIVE_INFINITY);
+            double ty = dy > 0 ? (2 - y) / dy : (dy < 0 ? -y / dy : Double.POSITIVE_INFINITY);
+            double t = Math.min(tx, ty);
+            double hitX = x + dx * t;
+            double hitY = y + dy * t;
+            assertSegment(segment, x, y, hitX, hitY);
+            if (tx <= ty) {
+                dx = -dx;
+            } else {
+                dy = -dy;
+            }
+            x = hitX;
+            y = hitY;
+        }
+    }
+
+    @Test
+    public void ballRadiusShrinksCenterRectangle() {
+        MirrorTable sized = MirrorTable.of(PoolTable.standard());
+        double r = PoolTable.STANDARD_BALL_RADIUS;
+        assertEquals(-1, sized.trace(1.0, 0.5, 0, 1, Double.POSITIVE_INFINITY, 0, buffer));
+        assertSegment(0, 1.0, 0.5, 1.0, 1.27 - r);
+    }
+}
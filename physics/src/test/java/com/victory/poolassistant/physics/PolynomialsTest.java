@@ -0,0 +1,80 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class PolynomialsTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void quadraticRootsAscending() {
+        double[] out = new double[2];
+        // (t - 1)(t - 3) = t^2 - 4t + 3
+        assertEquals(2, Polynomials.solveQuadratic(1, -4, 3, out));
+        assertEquals(1, out[0], DELTA);
+        assertEquals(3, out[1], DELTA);
+    }
+
+    @Test
+    public void quadraticDegeneratesToLinear() {
+        double[] out = new double[2];
+        assertEquals(1, Polynomials.solveQuadratic(0, 2, -4, out));
+        assertEquals(2, out[0], DELTA);
+        assertEquals(0, Polynomials.solveQuadratic(1, 0, 1, out));
+    }
+
+    @Test
+    public void cubicThreeRealRoots() {
+        double[] out = new double[3];
+        // (t - 1)(t - 2)(t - 3) = t^3 - 6t^2 + 11t - 6
+        assertEquals(3, Polynomials.solveCubic(1, -6, 11, -6, out));
+        Arrays.sort(out);
+        assertEquals(1, out[0], DELTA);
+        assertEquals(2, out[1], DELTA);
+        assertEquals(3, out[2], DELTA);
+    }
+
+    @Test
+    public void cubicOneRealRoot() {
+        double[] out = new double[3];
+        // (t - 2)(t^2 + 1) = t^3 - 2t^2 + t - 2
+        assertEquals(1, Polynomials.solveCubic(1, -2, 1, -2, out));
+        assertEquals(2, out[0], DELTA);
+    }
+
+    @Test
+    public void firstEnteringRootOfQuartic() {
+        double[] scratch = new double[3];
+        // (t - 1)(t - 2)(t - 3)(t - 4) = t^4 - 10t^3 + 35t^2 - 50t + 24
+        assertEquals(1, Polynomials.firstEnteringRoot(1, -10, 35, -50, 24, 0, 10, scratch), DELTA);
+        // Mulai di antara root 2 dan 3 (f > 0): root masuk berikutnya adalah 3
+        assertEquals(3, Polynomials.firstEnteringRoot(1, -10, 35, -50, 24, 2.5, 10, scratch), DELTA);
+    }
+
+    @Test
+    public void firstEnteringRootNeverBeforeContact() {
+        double[] scratch = new double[3];
+        double root = Polynomials.firstEnteringRoot(1, -10, 35, -50, 24, 0, 10, scratch);
+        assertTrue(Polynomials.evaluate(1, -10, 35, -50, 24, root) <= 0);
+    }
+
+    @Test
+    public void firstEnteringRootAlreadyInsideAndApproaching() {
+        double[] scratch = new double[3];
+        // f(t) = t^2 - 1 di t = -0.5: sudah <= 0 dan turun
+        assertEquals(-0.5, Polynomials.firstEnteringRoot(0, 0, 1, 0, -1, -0.5, 10, scratch), 0);
+    }
+
+    @Test
+    public void firstEnteringRootMissing() {
+        double[] scratch = new double[3];
+        assertTrue(Double.isNaN(Polynomials.firstEnteringRoot(1, 0, 0, 0, 1, 0, 10, scratch)));
+        // Root ada tapi di luar horizon
+        assertTrue(Double.isNaN(Polynomials.firstEnteringRoot(1, -10, 35, -50, 24, 0, 0.5, scratch)));
+    }
+}
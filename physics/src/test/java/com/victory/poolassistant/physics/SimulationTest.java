@@ -0,0 +1,81 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SimulationTest {
+
+    private final PoolTable table = PoolTable.standard();
+    private final double r = table.getBallRadius();
+
+    @Test
+    public void ballStopsAtBrakingDistance() {
+        BallSet balls = new BallSet();
+        balls.place(0, 0.5, 0.635);
+        Simulation simulation = new Simulation(table, balls);
+        double speed = 0.5;
+        simulation.strike(0, 0, speed);
+        simulation.run(10);
+
+        double distance = speed * speed / (2 * table.getRollingDeceleration());
+        assertEquals(BallSet.STATE_REST, balls.getState(0));
+        assertEquals(0.5 + distance, balls.getX(0), 1e-6);
+        assertEquals(0.635, balls.getY(0), 1e-12);
+    }
+
+    @Test
+    public void cushionReflectsWithRestitution() {
+        BallSet balls = new BallSet();
+        balls.place(0, table.getLength() - r - 0.05, 0.635);
+        Simulation simulation = new Simulation(table, balls);
+        simulation.strike(0, 0, 1);
+        simulation.run(0.1);
+
+        assertTrue(balls.getVelocityX(0) < 0);
+        assertTrue(-balls.getVelocityX(0) < table.getCushionRestitution());
+        assertTrue(balls.getX(0) <= table.getLength() - r);
+    }
+
+    @Test
+    public void cornerShotIsPocketed() {
+        BallSet balls = new BallSet();
+        balls.place(0, table.getLength() - 0.3, table.getWidth() - 0.3);
+        Simulation simulation = new Simulation(table, balls);
+        simulation.strike(0, Math.PI / 4, 1.5);
+        simulation.run(5);
+
+        assertEquals(BallSet.STATE_POCKETED, balls.getState(0));
+        assertTrue(!balls.anyMoving());
+    }
+
+    @Test
+    public void headOnCollisionTransfersMomentum() {
+        BallSet balls = new BallSet();
+        balls.place(0, 0.5, 0.635);
+        balls.place(1, 1.0, 0.635);
+        Simulation simulation = new Simulation(table, balls);
+        double speed = 0.5;
+        simulation.strike(0, 0, speed);
+        simulation.run(10);
+
+        // Massa sama: object ball menerima (1 + e) / 2 dari speed saat kontak tanpa spin,
+        // sliding sampai 5/7 speed itu lalu rolling sampai berhenti
+        double a = table.getRollingDeceleration();
+        double slide = table.getSlidingFriction() * PoolTable.GRAVITY;
+        double impact = Math.sqrt(speed * speed - 2 * a * (0.5 - 2 * r));
+        double transferred = (1 + table.getBallRestitution()) / 2 * impact;
+        double slideTime = 2 * transferred / (7 * slide);
+        double rolled = 5.0 / 7 * transferred;
+        double travelled = transferred * slideTime - 0.5 * slide * slideTime * slideTime
+            + rolled * rolled / (2 * a);
+        assertEquals(1.0 + travelled, balls.getX(1), 1e-6);
+        assertEquals(0.635, balls.getY(1), 1e-9);
+
+        // Natural roll: topspin membawa cue ball maju setelah kontak (follow)
+        assertTrue(balls.getX(0) > 1.0 - 2 * r);
+        assertTrue(balls.getX(0) < balls.getX(1) - 2 * r);
+        assertTrue(simulation.getEventsProcessed() > 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.victory.poolassistant.physics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class UniformGridTest {
+
+    private static final double WIDTH = 2.54;
+    private static final double HEIGHT = 1.27;
+    private static final int COLUMNS = 8;
+
+    private final double cellSize = WIDTH / COLUMNS;
+
+    private int cell(double v, int limit) {
+        return Math.max(0, Math.min(limit - 1, (int) (v / cellSize)));
+    }
+
+    private int[] sorted(int[] values, int count) {
+        int[] copy = Arrays.copyOf(values, count);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    public void queryMatchesBruteForceCellOverlap() {
+        int rows = (int) Math.ceil(HEIGHT / cellSize);
+        UniformGrid grid = new UniformGrid(WIDTH, HEIGHT, COLUMNS);
+        Random random = new Random(7);
+        double[][] boxes = new double[BallSet.MAX_BALLS][];
+        int[] out = new int[BallSet.MAX_BALLS];
+        int[] expected = new int[BallSet.MAX_BALLS];
+
+        for (int round = 0; round < 50; round++) {
+            for (int ball = 0; ball < BallSet.MAX_BALLS; ball++) {
+                double x = random.nextDouble() * WIDTH;
+                double y = random.nextDouble() * HEIGHT;
+                double[] box = {x, y, x + random.nextDouble() * 0.6, y + random.nextDouble() * 0.3};
+                boxes[ball] = box;
+                grid.insert(ball, box[0], box[1], box[2], box[3]);
+            }
+
+            for (int ball = 0; ball < BallSet.MAX_BALLS; ball++) {
+                double[] a = boxes[ball];
+                int found = 0;
+                for (int other = 0; other < BallSet.MAX_BALLS; other++) {
+                    if (other == ball) continue;
+                    double[] b = boxes[other];
+                    // Kandidat = cell range kedua box overlap
+                    boolean columns = cell(a[0], COLUMNS) <= cell(b[2], COLUMNS)
+                        && cell(b[0], COLUMNS) <= cell(a[2], COLUMNS);
+                    boolean rowsOverlap = cell(a[1], rows) <= cell(b[3], rows)
+                        && cell(b[1], rows) <= cell(a[3], rows);
+                    if (columns && rowsOverlap) expected[found++] = other;
+                }
+                int count = grid.query(ball, a[0], a[1], a[2], a[3], out);
+                assertEquals(found, count);
+                assertEquals(Arrays.toString(sorted(expected, found)), Arrays.toString(sorted(out, count)));
+            }
+        }
+    }
+
+    @Test
+    public void removeAndReinsert() {
+        UniformGrid grid = new UniformGrid(WIDTH, HEIGHT, COLUMNS);
+        int[] out = new int[BallSet.MAX_BALLS];
+        grid.insert(1, 0.1, 0.1, 0.2, 0.2);
+        grid.insert(2, 0.15, 0.15, 0.25, 0.25);
+        assertEquals(1, grid.query(1, 0.1, 0.1, 0.2, 0.2, out));
+        assertEquals(2, out[0]);
+
+        grid.remove(2);
+        assertEquals(0, grid.query(1, 0.1, 0.1, 0.2, 0.2, out));
+
+        // Insert ulang memindahkan bola, tidak menduplikasi
+        grid.insert(2, 2.0, 1.0, 2.1, 1.1);
+        grid.insert(2, 0.1, 0.1, 0.2, 0.2);
+        assertEquals(1, grid.query(1, 0.1, 0.1, 0.2, 0.2, out));
+        assertEquals(0, grid.query(1, 2.0, 1.0, 2.1, 1.1, out));
+    }
+}